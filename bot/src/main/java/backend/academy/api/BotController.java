@@ -3,12 +3,17 @@ package backend.academy.api;
 import backend.academy.bot.Bot;
 import backend.academy.dto.ApiErrorResponse;
 import backend.academy.dto.LinkUpdate;
+import backend.academy.dto.LinkUpdateBatch;
+import backend.academy.dto.LinkUpdateBatchResponse;
 import backend.academy.exceptions.ApiErrorException;
 import com.pengrad.telegrambot.request.SendMessage;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -18,10 +23,12 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class BotController {
     private final Bot bot;
+    private final Executor notificationDispatchExecutor;
 
     @Autowired
-    public BotController(Bot bot) {
+    public BotController(Bot bot, @Qualifier("notificationDispatchExecutor") Executor notificationDispatchExecutor) {
         this.bot = bot;
+        this.notificationDispatchExecutor = notificationDispatchExecutor;
     }
 
     /**
@@ -56,6 +63,68 @@ public class BotController {
         return ResponseEntity.ok("");
     }
 
+    /**
+     * Принять пакет уведомлений пользователей об обновлениях ресурсов. Пакет проверяется сразу: некорректные обновления
+     * пропускаются, их индексы возвращаются в ответе. Корректные обновления рассылаются асинхронно в порядке пакета, а
+     * ответ отправляется до начала рассылки - время ответа не зависит от размера пакета и скорости Telegram API, и
+     * scrapper не повторяет частично доставленный пакет по таймауту
+     *
+     * @param linkUpdateBatch DTO, хранящий список обновлений ресурсов
+     * @return {@code ResponseEntity<?>} - ответ на команду (ApiErrorResponse с кодом 400, если список обновлений не
+     *     передан, иначе - Accepted с LinkUpdateBatchResponse)
+     */
+    @RateLimiter(name = "default")
+    @PostMapping("/updates/batch")
+    public ResponseEntity<?> updateBatch(@RequestBody LinkUpdateBatch linkUpdateBatch) {
+        List<LinkUpdate> updates = linkUpdateBatch.updates();
+
+        log.atInfo()
+                .setMessage("Новый запрос к эндпоинту /updates/batch")
+                .addKeyValue("size", updates == null ? null : updates.size())
+                .log();
+
+        if (updates == null) {
+            throw new ApiErrorException(
+                    new ApiErrorResponse("Некорректные параметры запроса", "400", null, null, null));
+        }
+
+        List<Integer> rejected = new ArrayList<>();
+        List<LinkUpdate> accepted = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            LinkUpdate update = updates.get(i);
+            if (update == null || LinkUpdate.anyFieldIsNull(update)) {
+                log.atWarn()
+                        .setMessage("Некорректное обновление в пакете пропущено")
+                        .addKeyValue("index", i)
+                        .log();
+                rejected.add(i);
+            } else {
+                accepted.add(update);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            notificationDispatchExecutor.execute(() -> sendOutBatch(accepted));
+        }
+
+        return ResponseEntity.accepted().body(new LinkUpdateBatchResponse(rejected));
+    }
+
+    private void sendOutBatch(List<LinkUpdate> updates) {
+        for (LinkUpdate update : updates) {
+            try {
+                sendOutMessages(update.tgChatIds(), update.url(), update.id(), update.description());
+            } catch (RuntimeException e) {
+                log.atError()
+                        .setMessage("Не удалось отправить обновление из пакета")
+                        .addKeyValue("id", update.id())
+                        .addKeyValue("url", update.url())
+                        .addKeyValue("exception", e.getMessage())
+                        .log();
+            }
+        }
+    }
+
     private void sendOutMessages(List<Long> tgChatIds, String url, Long id, String description) {
         for (Long chatId : tgChatIds) {
             String responseText = String.format("Новое уведомление от ресурса %s (ID: %d): %s", url, id, description);
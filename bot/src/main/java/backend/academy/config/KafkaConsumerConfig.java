@@ -4,10 +4,13 @@ import backend.academy.config.properties.KafkaConsumerProperties;
 import backend.academy.config.properties.UserEventsProperties;
 import backend.academy.consumer.KafkaErrorHandler;
 import backend.academy.dto.LinkUpdate;
+import backend.academy.serialization.LinkUpdateBinaryDeserializer;
+import backend.academy.serialization.WireFormat;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.LongDeserializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,24 +44,45 @@ public class KafkaConsumerConfig {
         return factory;
     }
 
-    private ConsumerFactory<Long, LinkUpdate> consumerFactory() {
-        JsonDeserializer<LinkUpdate> valueDeserializer = new JsonDeserializer<>(LinkUpdate.class, false);
-        valueDeserializer.addTrustedPackages("backend.academy.dto");
+    /**
+     * Фабрика контейнеров для пакетного потребителя: слушатель получает все записи одного poll. Подтверждение и
+     * отправка отдельных записей в DLT выполняются самим слушателем
+     */
+    @Bean
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<Long, LinkUpdate>> batchConsumerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<Long, LinkUpdate>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setAutoStartup(topicProperties.isAutoStartup());
+        factory.setConcurrency(topicProperties.getThreadCount());
+        return factory;
+    }
 
+    private ConsumerFactory<Long, LinkUpdate> consumerFactory() {
         ErrorHandlingDeserializer<LinkUpdate> errorHandlingDeserializer =
-                new ErrorHandlingDeserializer<>(valueDeserializer);
+                new ErrorHandlingDeserializer<>(valueDeserializer());
         errorHandlingDeserializer.setFailedDeserializationFunction(this::failedDeserializationFunction);
 
         Map<String, Object> props = properties.buildConsumerProperties();
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, LongDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
         props.put(ConsumerConfig.GROUP_ID_CONFIG, kafkaConsumerProperties.getGroupId());
 
         return new DefaultKafkaConsumerFactory<>(
                 props, new ErrorHandlingDeserializer<>(new LongDeserializer()), errorHandlingDeserializer);
     }
 
+    private Deserializer<LinkUpdate> valueDeserializer() {
+        if (topicProperties.getWireFormat() == WireFormat.BINARY) {
+            return new LinkUpdateBinaryDeserializer();
+        }
+        JsonDeserializer<LinkUpdate> valueDeserializer = new JsonDeserializer<>(LinkUpdate.class, false);
+        valueDeserializer.addTrustedPackages("backend.academy.dto");
+        return valueDeserializer;
+    }
+
     private LinkUpdate failedDeserializationFunction(FailedDeserializationInfo failedDeserializationInfo) {
         byte[] data = failedDeserializationInfo.getData();
         Headers headers = failedDeserializationInfo.getHeaders();
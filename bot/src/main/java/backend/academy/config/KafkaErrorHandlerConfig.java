@@ -12,9 +12,14 @@ import org.springframework.kafka.core.KafkaTemplate;
 public class KafkaErrorHandlerConfig {
     private final UserEventsProperties topicProperties;
     private final KafkaTemplate<Long, String> stringKafkaTemplate;
+    private final KafkaTemplate<Long, byte[]> byteArrayKafkaTemplate;
 
     @Bean
     public KafkaErrorHandler kafkaErrorHandler() {
-        return new KafkaErrorHandler(stringKafkaTemplate, topicProperties.getDltTopic());
+        return new KafkaErrorHandler(
+                stringKafkaTemplate,
+                byteArrayKafkaTemplate,
+                topicProperties.getDltTopic(),
+                topicProperties.getWireFormat());
     }
 }
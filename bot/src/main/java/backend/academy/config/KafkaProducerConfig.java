@@ -1,8 +1,12 @@
 package backend.academy.config;
 
+import backend.academy.config.properties.UserEventsProperties;
 import backend.academy.dto.LinkUpdate;
+import backend.academy.serialization.LinkUpdateBinarySerializer;
+import backend.academy.serialization.WireFormat;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.LongSerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
@@ -16,12 +20,17 @@ import org.springframework.kafka.support.serializer.JsonSerializer;
 @RequiredArgsConstructor
 public class KafkaProducerConfig {
     private final KafkaProperties properties;
+    private final UserEventsProperties userEventsProperties;
 
     @Bean
     public KafkaTemplate<Long, LinkUpdate> linkUpdateKafkaTemplate() {
         var props = properties.buildProducerProperties(null);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, LongSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                userEventsProperties.getWireFormat() == WireFormat.BINARY
+                        ? LinkUpdateBinarySerializer.class
+                        : JsonSerializer.class);
         props.put(ProducerConfig.ACKS_CONFIG, "0");
         var factory = new DefaultKafkaProducerFactory<Long, LinkUpdate>(props);
         return new KafkaTemplate<>(factory);
@@ -36,4 +45,14 @@ public class KafkaProducerConfig {
         var factory = new DefaultKafkaProducerFactory<Long, String>(props);
         return new KafkaTemplate<>(factory);
     }
+
+    @Bean
+    public KafkaTemplate<Long, byte[]> byteArrayKafkaTemplate() {
+        var props = properties.buildProducerProperties(null);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, LongSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "0");
+        var factory = new DefaultKafkaProducerFactory<Long, byte[]>(props);
+        return new KafkaTemplate<>(factory);
+    }
 }
@@ -0,0 +1,20 @@
+package backend.academy.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NotificationDispatchConfig {
+    /**
+     * Исполнитель, на котором рассылаются уведомления из пакетов, принятых эндпоинтом {@code /updates/batch}. Каждый
+     * пакет рассылается отдельной задачей на виртуальном потоке, поэтому ответ на запрос не ждет отправки сообщений
+     *
+     * @return {@code ExecutorService} для рассылки уведомлений
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService notificationDispatchExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
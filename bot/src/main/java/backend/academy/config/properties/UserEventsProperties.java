@@ -1,5 +1,6 @@
 package backend.academy.config.properties;
 
+import backend.academy.serialization.WireFormat;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,4 +17,20 @@ public class UserEventsProperties {
     private String dltTopic;
     private boolean autoStartup;
     private int threadCount;
+
+    /** Формат значения записей топика. Должен совпадать с настройкой модуля scrapper */
+    private WireFormat wireFormat = WireFormat.JSON;
+
+    /** Режим получения записей топика */
+    private ListenerMode listenerMode = ListenerMode.RECORD;
+
+    /** Максимальное количество чатов, сообщения в которые отправляются параллельно при пакетной обработке */
+    private int dispatchParallelism = 16;
+
+    public enum ListenerMode {
+        /** Записи обрабатываются по одной */
+        RECORD,
+        /** Записи одного poll обрабатываются пакетом с параллельной отправкой в разные чаты */
+        BATCH
+    }
 }
@@ -1,12 +1,17 @@
 package backend.academy.consumer;
 
+import backend.academy.dto.LinkUpdate;
 import backend.academy.exceptions.NoDataKafkaConsumerException;
+import backend.academy.serialization.LinkUpdateCodec;
+import backend.academy.serialization.WireFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -17,11 +22,27 @@ import org.springframework.kafka.listener.MessageListenerContainer;
 public class KafkaErrorHandler implements CommonErrorHandler {
     private final ObjectMapper jsonMapper = new ObjectMapper();
     private final KafkaTemplate<Long, String> kafkaTemplate;
+    private final KafkaTemplate<Long, byte[]> binaryKafkaTemplate;
     private final String dltTopic;
+    private final WireFormat wireFormat;
 
-    public KafkaErrorHandler(KafkaTemplate<Long, String> kafkaTemplate, String dltTopic) {
+    /**
+     * Создать обработчик ошибок потребителя
+     *
+     * @param kafkaTemplate шаблон для отправки в DLT записей в формате JSON
+     * @param binaryKafkaTemplate шаблон для отправки в DLT записей в бинарном формате без перекодирования
+     * @param dltTopic топик DLT
+     * @param wireFormat формат, в котором обновления передаются в топике
+     */
+    public KafkaErrorHandler(
+            KafkaTemplate<Long, String> kafkaTemplate,
+            KafkaTemplate<Long, byte[]> binaryKafkaTemplate,
+            String dltTopic,
+            WireFormat wireFormat) {
         this.kafkaTemplate = kafkaTemplate;
+        this.binaryKafkaTemplate = binaryKafkaTemplate;
         this.dltTopic = dltTopic;
+        this.wireFormat = wireFormat;
     }
 
     @Override
@@ -34,7 +55,25 @@ public class KafkaErrorHandler implements CommonErrorHandler {
         return true;
     }
 
-    private void handle(Exception exception, ConsumerRecord<?, ?> data, Consumer<?, ?> consumer) {
+    @Override
+    public void handleBatch(
+            Exception thrownException,
+            ConsumerRecords<?, ?> data,
+            Consumer<?, ?> consumer,
+            MessageListenerContainer container,
+            Runnable invokeListener) {
+        data.forEach(record -> handle(thrownException, record, consumer));
+    }
+
+    /**
+     * Отправить запись в DLT, не подтверждая смещение. Используется пакетным потребителем, который подтверждает пакет
+     * целиком после обработки всех записей. Запись публикуется в формате топика; в бинарном формате она отправляется
+     * массивом байт, т.к. перевод в строку исказил бы данные
+     *
+     * @param exception причина, по которой запись не удалось обработать
+     * @param data необработанная запись
+     */
+    public void sendToDlt(Exception exception, ConsumerRecord<?, ?> data) {
         log.atWarn()
                 .setMessage("Ошибка при обработке сообщения из-за проблем с десериализацией, отправляем в DLT")
                 .addKeyValue("data", data)
@@ -44,7 +83,7 @@ public class KafkaErrorHandler implements CommonErrorHandler {
             byte[] valueBytes = null;
 
             if (data.value() != null) {
-                valueBytes = jsonMapper.writeValueAsBytes(data.value());
+                valueBytes = encode(data.value());
             }
             if (data.headers().lastHeader("original_message") != null) {
                 valueBytes = data.headers().lastHeader("original_message").value();
@@ -54,11 +93,26 @@ public class KafkaErrorHandler implements CommonErrorHandler {
                 throw new NoDataKafkaConsumerException("Нет данных для отправки в dlt", data, exception);
             }
 
-            String value = new String(valueBytes, StandardCharsets.UTF_8);
-
-            kafkaTemplate.send(dltTopic, value);
+            if (wireFormat == WireFormat.BINARY) {
+                binaryKafkaTemplate.send(dltTopic, valueBytes);
+            } else {
+                kafkaTemplate.send(dltTopic, new String(valueBytes, StandardCharsets.UTF_8));
+            }
         } catch (Exception e) {
             log.error("Ошибка при отправке сообщения в DLT: {}", e.getMessage());
+        }
+    }
+
+    private byte[] encode(Object value) throws JsonProcessingException {
+        if (wireFormat == WireFormat.BINARY && value instanceof LinkUpdate update) {
+            return LinkUpdateCodec.encode(update);
+        }
+        return jsonMapper.writeValueAsBytes(value);
+    }
+
+    private void handle(Exception exception, ConsumerRecord<?, ?> data, Consumer<?, ?> consumer) {
+        try {
+            sendToDlt(exception, data);
         } finally {
             if (consumer != null && data != null) {
                 try {
@@ -0,0 +1,131 @@
+package backend.academy.consumer;
+
+import backend.academy.bot.Bot;
+import backend.academy.config.properties.UserEventsProperties;
+import backend.academy.dto.LinkUpdate;
+import com.pengrad.telegrambot.request.SendMessage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Пакетный потребитель уведомлений. Сообщения из всех записей одного poll группируются по чатам: чаты обрабатываются
+ * параллельно на виртуальных потоках, а сообщения одного чата отправляются последовательно в порядке записей. Записи,
+ * которые не прошли валидацию, уходят в DLT целиком; если не удалось отправить часть сообщений записи, в DLT уходит
+ * запись, оставляющая в обновлении только чаты с неудачной отправкой. Пакет подтверждается после завершения всех
+ * отправок
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.user-events", name = "listener-mode", havingValue = "BATCH")
+public class NotificationBatchMessageConsumer {
+    private final Bot bot;
+    private final KafkaErrorHandler kafkaErrorHandler;
+    private final Semaphore dispatchPermits;
+
+    public NotificationBatchMessageConsumer(
+            Bot bot, KafkaErrorHandler kafkaErrorHandler, UserEventsProperties userEventsProperties) {
+        this.bot = bot;
+        this.kafkaErrorHandler = kafkaErrorHandler;
+        this.dispatchPermits = new Semaphore(userEventsProperties.getDispatchParallelism());
+    }
+
+    @KafkaListener(
+            containerFactory = "batchConsumerFactory",
+            topics = {"${app.user-events.topic}"})
+    public void consume(List<ConsumerRecord<Long, LinkUpdate>> records, Acknowledgment acknowledgment) {
+        log.atInfo()
+                .setMessage("Получен пакет сообщений из топика")
+                .addKeyValue("size", records.size())
+                .log();
+
+        Map<Long, List<ChatMessage>> messagesByChat = new LinkedHashMap<>();
+        for (ConsumerRecord<Long, LinkUpdate> record : records) {
+            LinkUpdate linkUpdate = record.value();
+            if (linkUpdate == null || LinkUpdate.anyFieldIsNull(linkUpdate)) {
+                kafkaErrorHandler.sendToDlt(
+                        new IllegalStateException("Ошибка валидации: одно из полей LinkUpdate - null"), record);
+                continue;
+            }
+            for (Long chatId : linkUpdate.tgChatIds()) {
+                messagesByChat
+                        .computeIfAbsent(chatId, k -> new ArrayList<>())
+                        .add(new ChatMessage(record, chatId, toMessage(chatId, linkUpdate)));
+            }
+        }
+
+        Map<ConsumerRecord<Long, LinkUpdate>, Failure> failures = new ConcurrentHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            messagesByChat.values().forEach(messages -> executor.execute(() -> sendInOrder(messages, failures)));
+        }
+        failures.forEach((record, failure) ->
+                kafkaErrorHandler.sendToDlt(failure.exception(), narrowToChats(record, failure.chatIds())));
+
+        acknowledgment.acknowledge();
+    }
+
+    private void sendInOrder(List<ChatMessage> messages, Map<ConsumerRecord<Long, LinkUpdate>, Failure> failures) {
+        dispatchPermits.acquireUninterruptibly();
+        try {
+            for (ChatMessage message : messages) {
+                try {
+                    bot.execute(message.message());
+                } catch (RuntimeException e) {
+                    log.atWarn()
+                            .setMessage("Ошибка при отправке уведомления в чат")
+                            .addKeyValue("offset", message.record().offset())
+                            .addKeyValue("tg-chat-id", message.chatId())
+                            .addKeyValue("exception", e.getMessage())
+                            .log();
+                    failures.computeIfAbsent(message.record(), k -> new Failure(e, ConcurrentHashMap.newKeySet()))
+                            .chatIds()
+                            .add(message.chatId());
+                }
+            }
+        } finally {
+            dispatchPermits.release();
+        }
+    }
+
+    private static ConsumerRecord<Long, LinkUpdate> narrowToChats(
+            ConsumerRecord<Long, LinkUpdate> record, Set<Long> failedChatIds) {
+        LinkUpdate linkUpdate = record.value();
+        List<Long> tgChatIds =
+                linkUpdate.tgChatIds().stream().filter(failedChatIds::contains).toList();
+        return new ConsumerRecord<>(
+                record.topic(),
+                record.partition(),
+                record.offset(),
+                record.timestamp(),
+                record.timestampType(),
+                record.serializedKeySize(),
+                record.serializedValueSize(),
+                record.key(),
+                new LinkUpdate(linkUpdate.id(), linkUpdate.url(), linkUpdate.description(), tgChatIds),
+                record.headers(),
+                record.leaderEpoch());
+    }
+
+    private static SendMessage toMessage(Long chatId, LinkUpdate linkUpdate) {
+        String responseText = String.format(
+                "Новое уведомление от ресурса %s (ID: %d): %s",
+                linkUpdate.url(), linkUpdate.id(), linkUpdate.description());
+        return new SendMessage(chatId, responseText);
+    }
+
+    private record ChatMessage(ConsumerRecord<Long, LinkUpdate> record, Long chatId, SendMessage message) {}
+
+    private record Failure(Exception exception, Set<Long> chatIds) {}
+}
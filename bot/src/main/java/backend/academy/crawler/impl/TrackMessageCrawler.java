@@ -21,6 +21,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import lombok.Getter;
 import org.springframework.stereotype.Component;
 
@@ -160,6 +162,11 @@ public class TrackMessageCrawler implements MessageCrawler {
         if (!CrawlValidator.filtersAreValid(update.message().text())) {
             return createErrorResponse(update, "Ошибка. Формат ввода фильтров: 'filter1:prop1 filter2:prop2 ...'");
         }
+        String regexFilterError =
+                CrawlValidator.regexFilterError(update.message().text());
+        if (regexFilterError != null) {
+            return createErrorResponse(update, regexFilterError);
+        }
 
         messages.add(update.message().text());
         userStates.put(chatId, Map.entry(COMPLETED, messages));
@@ -265,11 +272,40 @@ public class TrackMessageCrawler implements MessageCrawler {
         public static final String START_DIALOG_COMMAND = "/track";
         public static final String RESTART_MESSAGE = "Сбросить";
         public static final String SKIP_THE_SETTING = "Пропустить";
+        public static final int MAX_REGEX_LENGTH = 256;
+
+        private static final String REGEX_FILTER_PREFIX = "regex:";
 
         private CrawlValidator() {}
 
         public static boolean filtersAreValid(String text) {
-            return text.matches("^(\\w+:\\w+)( \\w+:\\w+)*$");
+            return text.matches("^(!?\\w+:\\S+)( !?\\w+:\\S+)*$");
+        }
+
+        /**
+         * Проверить регулярные выражения фильтров {@code regex}: выражение должно компилироваться и быть не длиннее
+         * {@value #MAX_REGEX_LENGTH} символов (ограничение совпадает с модулем scrapper)
+         *
+         * @param text фильтры, введенные пользователем
+         * @return текст ошибки для пользователя или {@code null}, если выражения корректны
+         */
+        public static String regexFilterError(String text) {
+            for (String filter : text.split(" ", -1)) {
+                String expression = filter.startsWith("!") ? filter.substring(1) : filter;
+                if (!expression.startsWith(REGEX_FILTER_PREFIX)) {
+                    continue;
+                }
+                String regex = expression.substring(REGEX_FILTER_PREFIX.length());
+                if (regex.length() > MAX_REGEX_LENGTH) {
+                    return "Ошибка. Регулярное выражение не должно быть длиннее " + MAX_REGEX_LENGTH + " символов";
+                }
+                try {
+                    Pattern.compile(regex);
+                } catch (PatternSyntaxException e) {
+                    return "Ошибка. Некорректное регулярное выражение '" + regex + "': " + e.getDescription();
+                }
+            }
+            return null;
         }
 
         public static boolean dialogStateWasNotSetYet(
@@ -0,0 +1,14 @@
+package backend.academy.dto;
+
+import java.util.List;
+
+/**
+ * DTO для передачи пакета обновлений ресурсов
+ *
+ * @param updates обновления ресурсов
+ */
+public record LinkUpdateBatch(List<LinkUpdate> updates) {
+    public LinkUpdateBatch() {
+        this(null);
+    }
+}
@@ -0,0 +1,20 @@
+package backend.academy.serialization;
+
+import backend.academy.dto.LinkUpdate;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/** Десериализатор Kafka, читающий {@link LinkUpdate} в формате {@link LinkUpdateCodec} */
+public class LinkUpdateBinaryDeserializer implements Deserializer<LinkUpdate> {
+    @Override
+    public LinkUpdate deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return LinkUpdateCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Не удалось прочитать LinkUpdate из топика " + topic, e);
+        }
+    }
+}
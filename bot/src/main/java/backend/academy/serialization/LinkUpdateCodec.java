@@ -0,0 +1,197 @@
+package backend.academy.serialization;
+
+import backend.academy.dto.LinkUpdate;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Компактный двоичный формат {@link LinkUpdate}. Схема фиксирована и не требует реестра: байт версии, байт с маской
+ * заполненных полей, затем заполненные поля в порядке объявления. Целые числа записываются как varint в
+ * zigzag-кодировке (идентификаторы групповых чатов Telegram отрицательны), строки - как длина в байтах и UTF-8, список
+ * чатов - как количество элементов и сами элементы. Формат должен совпадать с одноименным классом модуля scrapper
+ */
+public final class LinkUpdateCodec {
+    public static final byte VERSION = 1;
+
+    private static final int ID = 1;
+    private static final int URL = 1 << 1;
+    private static final int DESCRIPTION = 1 << 2;
+    private static final int TG_CHAT_IDS = 1 << 3;
+
+    private LinkUpdateCodec() {}
+
+    /**
+     * Закодировать обновление
+     *
+     * @param update DTO, хранящий информацию об обновлении
+     * @return двоичное представление обновления
+     */
+    public static byte[] encode(LinkUpdate update) {
+        byte[] url = update.url() == null ? null : update.url().getBytes(StandardCharsets.UTF_8);
+        byte[] description =
+                update.description() == null ? null : update.description().getBytes(StandardCharsets.UTF_8);
+        List<Long> tgChatIds = update.tgChatIds();
+
+        int mask = 0;
+        int size = 2;
+        if (update.id() != null) {
+            mask |= ID;
+            size += varLongSize(zigZag(update.id()));
+        }
+        if (url != null) {
+            mask |= URL;
+            size += varLongSize(url.length) + url.length;
+        }
+        if (description != null) {
+            mask |= DESCRIPTION;
+            size += varLongSize(description.length) + description.length;
+        }
+        if (tgChatIds != null) {
+            mask |= TG_CHAT_IDS;
+            size += varLongSize(tgChatIds.size());
+            for (Long chatId : tgChatIds) {
+                size += varLongSize(zigZag(chatId));
+            }
+        }
+
+        Writer writer = new Writer(new byte[size]);
+        writer.put(VERSION);
+        writer.put((byte) mask);
+        if (update.id() != null) {
+            writer.putVarLong(zigZag(update.id()));
+        }
+        if (url != null) {
+            writer.putBytes(url);
+        }
+        if (description != null) {
+            writer.putBytes(description);
+        }
+        if (tgChatIds != null) {
+            writer.putVarLong(tgChatIds.size());
+            for (Long chatId : tgChatIds) {
+                writer.putVarLong(zigZag(chatId));
+            }
+        }
+        return writer.buffer;
+    }
+
+    /**
+     * Декодировать обновление
+     *
+     * @param data двоичное представление обновления
+     * @return DTO, хранящий информацию об обновлении
+     * @throws IllegalArgumentException если данные повреждены или записаны неизвестной версией формата
+     */
+    public static LinkUpdate decode(byte[] data) {
+        Reader reader = new Reader(data);
+        byte version = reader.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Неизвестная версия формата LinkUpdate: " + version);
+        }
+        int mask = reader.get();
+
+        Long id = (mask & ID) == 0 ? null : unZigZag(reader.getVarLong());
+        String url = (mask & URL) == 0 ? null : reader.getString();
+        String description = (mask & DESCRIPTION) == 0 ? null : reader.getString();
+        List<Long> tgChatIds = null;
+        if ((mask & TG_CHAT_IDS) != 0) {
+            int count = reader.getLength();
+            tgChatIds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tgChatIds.add(unZigZag(reader.getVarLong()));
+            }
+        }
+        if (reader.position != data.length) {
+            throw new IllegalArgumentException("Лишние байты после LinkUpdate");
+        }
+        return new LinkUpdate(id, url, description, tgChatIds);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static final class Writer {
+        private final byte[] buffer;
+        private int position;
+
+        private Writer(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private void put(byte value) {
+            buffer[position++] = value;
+        }
+
+        private void putVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void putBytes(byte[] bytes) {
+            putVarLong(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private byte get() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Неожиданный конец данных LinkUpdate");
+            }
+            return data[position++];
+        }
+
+        private long getVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte b = get();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Слишком длинное число в LinkUpdate");
+        }
+
+        private int getLength() {
+            long length = getVarLong();
+            if (length < 0 || length > data.length - position) {
+                throw new IllegalArgumentException("Некорректная длина в LinkUpdate: " + length);
+            }
+            return (int) length;
+        }
+
+        private String getString() {
+            int length = getLength();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package backend.academy.serialization;
+
+/** Формат передачи {@code LinkUpdate} через Kafka */
+public enum WireFormat {
+    /** JSON, совместимый с предыдущими версиями приложений */
+    JSON,
+    /** Двоичный формат {@link LinkUpdateCodec} */
+    BINARY
+}
@@ -0,0 +1,71 @@
+package backend.academy.consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import backend.academy.dto.LinkUpdate;
+import backend.academy.serialization.LinkUpdateCodec;
+import backend.academy.serialization.WireFormat;
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.kafka.core.KafkaTemplate;
+
+class KafkaErrorHandlerTest {
+    private static final String DLT_TOPIC = "updates-dlt";
+
+    private KafkaTemplate<Long, String> kafkaTemplate;
+    private KafkaTemplate<Long, byte[]> binaryKafkaTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+        binaryKafkaTemplate = Mockito.mock(KafkaTemplate.class);
+    }
+
+    @Test
+    public void sendToDlt_WhenBinaryMessageIsNotDeserialized_ThenSendOriginalBytes() {
+        KafkaErrorHandler handler =
+                new KafkaErrorHandler(kafkaTemplate, binaryKafkaTemplate, DLT_TOPIC, WireFormat.BINARY);
+        byte[] original = {1, (byte) 0xFF, (byte) 0xC3, 0, (byte) 0x80};
+        ConsumerRecord<Long, LinkUpdate> record = new ConsumerRecord<>("updates", 0, 0, null, null);
+        record.headers().add("original_message", original);
+
+        handler.sendToDlt(new RuntimeException("deserialization failed"), record);
+
+        verify(binaryKafkaTemplate).send(DLT_TOPIC, original);
+        verify(kafkaTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    public void sendToDlt_WhenBinaryMessageIsNotProcessed_ThenSendItInBinaryFormat() {
+        KafkaErrorHandler handler =
+                new KafkaErrorHandler(kafkaTemplate, binaryKafkaTemplate, DLT_TOPIC, WireFormat.BINARY);
+        LinkUpdate update = new LinkUpdate(390L, "https://github.com/salex06/testrepo", "В DLT", List.of(1L));
+
+        handler.sendToDlt(new RuntimeException("failed"), new ConsumerRecord<>("updates", 0, 0, null, update));
+
+        verify(binaryKafkaTemplate).send(DLT_TOPIC, LinkUpdateCodec.encode(update));
+    }
+
+    @Test
+    public void sendToDlt_WhenJsonMessageIsNotProcessed_ThenSendItAsString() {
+        KafkaErrorHandler handler =
+                new KafkaErrorHandler(kafkaTemplate, binaryKafkaTemplate, DLT_TOPIC, WireFormat.JSON);
+        LinkUpdate update = new LinkUpdate(null, "https://github.com/salex06/testrepo", "В DLT", List.of());
+
+        handler.sendToDlt(new RuntimeException("failed"), new ConsumerRecord<>("updates", 0, 0, null, update));
+
+        verify(kafkaTemplate)
+                .send(
+                        DLT_TOPIC,
+                        "{\"id\":null,\"url\":\"https://github.com/salex06/testrepo\",\"description\":\"В DLT\",\"tgChatIds\":[]}");
+        verify(binaryKafkaTemplate, never()).send(eq(DLT_TOPIC), any(byte[].class));
+    }
+}
@@ -0,0 +1,112 @@
+package backend.academy.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import backend.academy.bot.Bot;
+import backend.academy.config.properties.UserEventsProperties;
+import backend.academy.dto.LinkUpdate;
+import com.pengrad.telegrambot.request.SendMessage;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.kafka.support.Acknowledgment;
+
+class NotificationBatchMessageConsumerTest {
+    private static final String TOPIC = "notifications-from-resources";
+
+    private Bot bot;
+    private KafkaErrorHandler kafkaErrorHandler;
+    private Acknowledgment acknowledgment;
+    private NotificationBatchMessageConsumer consumer;
+    private final List<SendMessage> sentMessages = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        bot = Mockito.mock(Bot.class);
+        kafkaErrorHandler = Mockito.mock(KafkaErrorHandler.class);
+        acknowledgment = Mockito.mock(Acknowledgment.class);
+        doAnswer(i -> sentMessages.add(i.getArgument(0))).when(bot).execute(any(SendMessage.class));
+        UserEventsProperties properties = new UserEventsProperties();
+        properties.setDispatchParallelism(4);
+        consumer = new NotificationBatchMessageConsumer(bot, kafkaErrorHandler, properties);
+    }
+
+    @Test
+    public void consume_WhenAllRecordsAreValid_ThenSendToEveryChatInRecordOrderAndAcknowledge() {
+        List<ConsumerRecord<Long, LinkUpdate>> records = List.of(
+                record(0, new LinkUpdate(1L, "url1", "first", List.of(1L, 2L))),
+                record(1, new LinkUpdate(2L, "url2", "second", List.of(1L))),
+                record(2, new LinkUpdate(3L, "url3", "third", List.of(1L, 3L))));
+
+        consumer.consume(records, acknowledgment);
+
+        assertThat(textsFor(1L)).containsExactly("first", "second", "third");
+        assertThat(textsFor(2L)).containsExactly("first");
+        assertThat(textsFor(3L)).containsExactly("third");
+        verify(kafkaErrorHandler, never()).sendToDlt(any(), any());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    public void consume_WhenRecordIsInvalid_ThenSendItToDltAndProcessOthers() {
+        ConsumerRecord<Long, LinkUpdate> invalid = record(0, new LinkUpdate(null, "url1", "invalid", List.of(1L)));
+        ConsumerRecord<Long, LinkUpdate> empty = record(1, null);
+        ConsumerRecord<Long, LinkUpdate> valid = record(2, new LinkUpdate(2L, "url2", "valid", List.of(1L)));
+
+        consumer.consume(List.of(invalid, empty, valid), acknowledgment);
+
+        assertThat(textsFor(1L)).containsExactly("valid");
+        verify(kafkaErrorHandler, times(1)).sendToDlt(any(IllegalStateException.class), eq(invalid));
+        verify(kafkaErrorHandler, times(1)).sendToDlt(any(IllegalStateException.class), eq(empty));
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void consume_WhenSendingToOneChatFails_ThenSendOnlyFailedChatsOfThatRecordToDlt() {
+        ConsumerRecord<Long, LinkUpdate> failing =
+                record(0, new LinkUpdate(1L, "url1", "failing", List.of(1L, 2L, 3L)));
+        ConsumerRecord<Long, LinkUpdate> successful = record(1, new LinkUpdate(2L, "url2", "ok", List.of(2L)));
+        doAnswer(i -> {
+                    SendMessage message = i.getArgument(0);
+                    if (message.getParameters().get("chat_id").equals(1L)) {
+                        throw new RuntimeException("Telegram API is unavailable");
+                    }
+                    return sentMessages.add(message);
+                })
+                .when(bot)
+                .execute(any(SendMessage.class));
+
+        consumer.consume(List.of(failing, successful), acknowledgment);
+
+        ArgumentCaptor<ConsumerRecord<?, ?>> dltRecord = ArgumentCaptor.forClass(ConsumerRecord.class);
+        assertThat(textsFor(2L)).containsExactly("failing", "ok");
+        assertThat(textsFor(3L)).containsExactly("failing");
+        verify(kafkaErrorHandler, times(1)).sendToDlt(any(RuntimeException.class), dltRecord.capture());
+        assertThat(dltRecord.getValue().offset()).isEqualTo(failing.offset());
+        assertThat(dltRecord.getValue().value()).isEqualTo(new LinkUpdate(1L, "url1", "failing", List.of(1L)));
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    private List<String> textsFor(Long chatId) {
+        return sentMessages.stream()
+                .filter(message -> message.getParameters().get("chat_id").equals(chatId))
+                .map(message -> (String) message.getParameters().get("text"))
+                .map(text -> text.substring(text.lastIndexOf(": ") + 2))
+                .toList();
+    }
+
+    private static ConsumerRecord<Long, LinkUpdate> record(long offset, LinkUpdate linkUpdate) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, null, linkUpdate);
+    }
+}
@@ -7,12 +7,19 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import backend.academy.api.BotController;
 import backend.academy.bot.Bot;
 import backend.academy.dto.LinkUpdate;
+import backend.academy.dto.LinkUpdateBatch;
+import backend.academy.dto.LinkUpdateBatchResponse;
 import backend.academy.exceptions.ApiErrorException;
+import com.pengrad.telegrambot.request.SendMessage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -27,9 +34,13 @@ public class BotControllerTest {
     @Mock
     private LinkUpdate linkUpdate;
 
-    @InjectMocks
     private BotController botController;
 
+    @BeforeEach
+    public void setUp() {
+        botController = new BotController(bot, Runnable::run);
+    }
+
     @Test
     public void updates_WhenLinkUpdateDTOIsValid_thenReturnOK() {
         mockValidLinkUpdate();
@@ -51,4 +62,79 @@ public class BotControllerTest {
     public void updates_WhenLinkUpdateDTOIsValid_thenThrowsApiErrorException() {
         assertThrows(ApiErrorException.class, () -> botController.update(linkUpdate));
     }
+
+    @Test
+    public void updateBatch_WhenAllUpdatesAreValid_thenSendMessageToEveryChat() {
+        LinkUpdateBatch batch = new LinkUpdateBatch(List.of(
+                new LinkUpdate(1L, "url1", "description1", List.of(1L, 2L)),
+                new LinkUpdate(2L, "url2", "description2", List.of(3L))));
+
+        ResponseEntity<?> response = botController.updateBatch(batch);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        Mockito.verify(bot, Mockito.times(3)).execute(Mockito.any(SendMessage.class));
+    }
+
+    @Test
+    public void updateBatch_WhenAnyUpdateIsInvalid_thenSkipItAndReturnItsIndex() {
+        LinkUpdateBatch batch = new LinkUpdateBatch(Arrays.asList(
+                new LinkUpdate(1L, "url1", "description1", List.of(1L)),
+                new LinkUpdate(2L, null, "description2", List.of(3L)),
+                null,
+                new LinkUpdate(4L, "url4", "description4", List.of(4L, 5L))));
+
+        ResponseEntity<?> response = botController.updateBatch(batch);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertThat(response.getBody()).isEqualTo(new LinkUpdateBatchResponse(List.of(1, 2)));
+        Mockito.verify(bot, Mockito.times(3)).execute(Mockito.any(SendMessage.class));
+    }
+
+    @Test
+    public void updateBatch_WhenSendingUpdateFails_thenContinueWithNextUpdates() {
+        Mockito.doThrow(new RuntimeException("telegram is unavailable"))
+                .doNothing()
+                .when(bot)
+                .execute(Mockito.any(SendMessage.class));
+        LinkUpdateBatch batch = new LinkUpdateBatch(List.of(
+                new LinkUpdate(1L, "url1", "description1", List.of(1L)),
+                new LinkUpdate(2L, "url2", "description2", List.of(2L))));
+
+        ResponseEntity<?> response = botController.updateBatch(batch);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertThat(response.getBody()).isEqualTo(new LinkUpdateBatchResponse(List.of()));
+        Mockito.verify(bot, Mockito.times(2)).execute(Mockito.any(SendMessage.class));
+    }
+
+    @Test
+    public void updateBatch_WhenUpdatesAreMissing_thenThrowsApiErrorException() {
+        assertThrows(ApiErrorException.class, () -> botController.updateBatch(new LinkUpdateBatch()));
+        Mockito.verify(bot, Mockito.never()).execute(Mockito.any(SendMessage.class));
+    }
+
+    @Test
+    public void updateBatch_WhenSendingIsSlow_thenRespondBeforeMessagesAreSent() throws InterruptedException {
+        CountDownLatch telegramResponds = new CountDownLatch(1);
+        Mockito.doAnswer(i -> {
+                    telegramResponds.await();
+                    return null;
+                })
+                .when(bot)
+                .execute(Mockito.any(SendMessage.class));
+        LinkUpdateBatch batch = new LinkUpdateBatch(List.of(
+                new LinkUpdate(1L, "url1", "description1", List.of(1L, 2L)),
+                new LinkUpdate(2L, "url2", "description2", List.of(3L))));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            botController = new BotController(bot, executor);
+
+            ResponseEntity<?> response = botController.updateBatch(batch);
+
+            assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+            Mockito.verify(bot, Mockito.timeout(1000).times(1)).execute(Mockito.any(SendMessage.class));
+            telegramResponds.countDown();
+        }
+        Mockito.verify(bot, Mockito.times(3)).execute(Mockito.any(SendMessage.class));
+    }
 }
@@ -1,5 +1,6 @@
 package backend.academy.crawler.impl;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
@@ -12,6 +13,8 @@ import com.pengrad.telegrambot.model.User;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 
 class TrackMessageCrawlerTest {
@@ -358,6 +361,53 @@ class TrackMessageCrawlerTest {
         assertEquals(expectedState, actualState.isCompleted());
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"regex:(unclosed", "!regex:[a-", "user:author regex:*"})
+    public void crawl_WhenRegexFilterDoesNotCompile_ThenReturnError(String filters) {
+        setWaitingForLinkState();
+        setWaitingForTagsState();
+        setWaitingForFiltersState();
+
+        DialogStateDTO actualState = trackMessageCrawler.crawl(filtersUpdate(filters));
+
+        assertThat((String) actualState.message().getParameters().get("text"))
+                .startsWith("Ошибка. Некорректное регулярное выражение");
+        assertEquals(false, actualState.isCompleted());
+    }
+
+    @Test
+    public void crawl_WhenRegexFilterIsTooLong_ThenReturnError() {
+        setWaitingForLinkState();
+        setWaitingForTagsState();
+        setWaitingForFiltersState();
+        String regex = "a".repeat(TrackMessageCrawler.CrawlValidator.MAX_REGEX_LENGTH + 1);
+
+        DialogStateDTO actualState = trackMessageCrawler.crawl(filtersUpdate("regex:" + regex));
+
+        assertEquals(
+                "Ошибка. Регулярное выражение не должно быть длиннее 256 символов",
+                actualState.message().getParameters().get("text"));
+        assertEquals(false, actualState.isCompleted());
+    }
+
+    private Update filtersUpdate(String filters) {
+        Update update = Mockito.mock(Update.class);
+        Message message = Mockito.mock(Message.class);
+        Chat chat = Mockito.mock(Chat.class);
+        Message replyToMessage = Mockito.mock(Message.class);
+        User user = Mockito.mock(User.class);
+        when(update.message()).thenReturn(message);
+        when(message.text()).thenReturn(filters);
+        when(message.chat()).thenReturn(chat);
+        when(chat.id()).thenReturn(1L);
+        when(message.replyToMessage()).thenReturn(replyToMessage);
+        when(replyToMessage.text()).thenReturn("Введите фильтры (опционально):");
+        when(message.from()).thenReturn(user);
+        when(replyToMessage.from()).thenReturn(user);
+        when(user.isBot()).thenReturn(true);
+        return update;
+    }
+
     @Test
     public void terminate_WhenDialogWasCompletedSuccessfully_ThenReturnSuccess() {
         String expectedURL = "myLink";
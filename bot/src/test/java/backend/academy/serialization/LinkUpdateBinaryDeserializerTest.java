@@ -0,0 +1,41 @@
+package backend.academy.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import backend.academy.dto.LinkUpdate;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+class LinkUpdateBinaryDeserializerTest {
+    private static final String TOPIC = "notifications-from-resources";
+
+    private final LinkUpdateBinarySerializer serializer = new LinkUpdateBinarySerializer();
+    private final LinkUpdateBinaryDeserializer deserializer = new LinkUpdateBinaryDeserializer();
+
+    @Test
+    public void deserialize_WhenSerializedByScrapperFormat_ThenReturnUpdate() {
+        byte[] fromScrapper = {1, 0x0F, 2, 1, 'u', 1, 'd', 2, 1, 4};
+
+        assertThat(deserializer.deserialize(TOPIC, fromScrapper))
+                .isEqualTo(new LinkUpdate(1L, "u", "d", List.of(-1L, 2L)));
+    }
+
+    @Test
+    public void deserialize_WhenSerialized_ThenReturnSameUpdate() {
+        LinkUpdate update =
+                new LinkUpdate(390L, "https://github.com/salex06/testrepo", "Точно всё ок", List.of(1L, 2L));
+
+        assertThat(deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, update)))
+                .isEqualTo(update);
+    }
+
+    @Test
+    public void deserialize_WhenDataIsJson_ThenThrowSerializationException() {
+        byte[] json = "{\"id\": 390}".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, json)).isInstanceOf(SerializationException.class);
+    }
+}
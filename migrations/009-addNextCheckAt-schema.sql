@@ -0,0 +1,4 @@
+ALTER TABLE link
+ADD COLUMN next_check_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS link_next_check_at_idx ON link(next_check_at, id);
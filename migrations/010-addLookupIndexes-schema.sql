@@ -0,0 +1,7 @@
+CREATE INDEX IF NOT EXISTS tg_chat_link_link_id_idx ON tg_chat_link(link_id);
+
+CREATE INDEX IF NOT EXISTS link_last_update_idx ON link(last_update);
+
+CREATE INDEX IF NOT EXISTS link_type_idx ON link(type);
+
+CREATE INDEX IF NOT EXISTS chat_link_tags_chat_id_tag_value_idx ON chat_link_tags(chat_id, tag_value) INCLUDE (link_id);
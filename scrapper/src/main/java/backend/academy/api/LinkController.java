@@ -1,5 +1,6 @@
 package backend.academy.api;
 
+import backend.academy.clients.Client;
 import backend.academy.clients.ClientManager;
 import backend.academy.dto.AddLinkRequest;
 import backend.academy.dto.ApiErrorResponse;
@@ -14,7 +15,6 @@ import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
@@ -90,15 +90,15 @@ public class LinkController {
                 .log();
         Optional<TgChat> optChat = chatService.getPlainTgChatByChatId(chatId);
         String linkUrl = addLinkRequest.link();
-        if (optChat.isPresent() && linkService.validateLink(clientManager.getAvailableClients(), linkUrl)) {
+        Client client = optChat.isPresent() ? clientManager.getSuitableClient(linkUrl) : null;
+        if (client != null) {
             List<String> tags = addLinkRequest.tags();
             List<String> filters = addLinkRequest.filters();
             TgChat chat = optChat.orElseThrow();
 
             Link link = new Link(null, linkUrl, tags, filters, new HashSet<>());
-            String linkType = Objects.requireNonNull(clientManager.getSuitableClient(link))
-                    .getSourceName();
-            link.setType(linkType);
+            link.setClient(client);
+            link.setType(client.getSourceName());
 
             link = linkService.saveLink(link, chat);
             return new ResponseEntity<>(
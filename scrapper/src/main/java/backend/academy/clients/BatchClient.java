@@ -0,0 +1,30 @@
+package backend.academy.clients;
+
+import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.model.plain.Link;
+import java.util.List;
+
+/** Клиент, способный получать обновления сразу для нескольких ссылок меньшим количеством запросов к API */
+public interface BatchClient {
+    /**
+     * Получить максимальное количество ссылок, обрабатываемых одним вызовом {@link #getBatchUpdates(List)}
+     *
+     * @return максимальный размер пакета
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Получить обновления ресурсов для пакета ссылок
+     *
+     * @param links ссылки, поддерживаемые клиентом
+     * @return {@code List<List<LinkUpdateInfo>>} - списки описаний обновлений в том же порядке, что и ссылки
+     */
+    List<List<LinkUpdateInfo>> getBatchUpdates(List<Link> links);
+
+    /**
+     * Получить название ресурса, который обрабатывает клиент
+     *
+     * @return String - название ресурса по ссылке
+     */
+    String getSourceName();
+}
@@ -19,6 +19,15 @@ public abstract class Client {
         this.client = restClient;
     }
 
+    /**
+     * Получить шаблон ссылок, поддерживаемых клиентом
+     *
+     * @return объект {@code Pattern}, используемый при построении таблицы маршрутизации
+     */
+    public Pattern getSupportedUrl() {
+        return supportedUrl;
+    }
+
     /**
      * Определить, поддерживается ли данная ссылка клиентом
      *
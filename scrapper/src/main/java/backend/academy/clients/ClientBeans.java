@@ -1,31 +1,40 @@
 package backend.academy.clients;
 
 import backend.academy.clients.converter.LinkToApiLinkConverter;
+import backend.academy.service.SubscriptionIndex;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
 @Configuration
 @RequiredArgsConstructor
 public class ClientBeans {
-    private final SimpleClientHttpRequestFactory factory;
+    private static final Pattern SO_QUESTION_LINK = Pattern.compile("^https://stackoverflow\\.com/questions/(\\w+)$");
+    private static final Pattern SO_ANSWER_LINK = Pattern.compile("^https://stackoverflow\\.com/a/(\\d+)$");
+    private static final Pattern GITHUB_REPOSITORY_LINK =
+            Pattern.compile("^https://github\\.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)$");
+    private static final Pattern GITHUB_SINGLE_ISSUE_LINK =
+            Pattern.compile("^https://github.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)/issues/(\\d+)$");
+    private static final Pattern GITHUB_ISSUE_LIST_LINK =
+            Pattern.compile("^https://github.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)/(issues|pulls)$");
+
+    private final ClientHttpRequestFactory factory;
+    private final RateLimitBudget rateLimitBudget;
 
     @Bean
-    public ClientManager clientManager(List<Client> clientList) {
-        return new ClientManager(clientList);
+    public ClientManager clientManager(List<Client> clientList, SubscriptionIndex subscriptionIndex) {
+        return new ClientManager(clientList, subscriptionIndex);
     }
 
     @Bean
     public LinkToApiLinkConverter soQuestionLinkConverter() {
         return x -> {
-            Pattern pattern = Pattern.compile("^https://stackoverflow\\.com/questions/(\\w+)$");
-
-            Matcher matcher = pattern.matcher(x);
+            Matcher matcher = SO_QUESTION_LINK.matcher(x);
             if (matcher.matches()) {
                 return String.format("https://api.stackexchange.com/2.3/questions/%s", matcher.group(1));
             }
@@ -37,9 +46,7 @@ public class ClientBeans {
     @Bean
     LinkToApiLinkConverter soAnswerLinkConverter() {
         return x -> {
-            Pattern pattern = Pattern.compile("^https://stackoverflow\\.com/a/(\\d+)$");
-
-            Matcher matcher = pattern.matcher(x);
+            Matcher matcher = SO_ANSWER_LINK.matcher(x);
             if (matcher.matches()) {
                 return String.format(
                         "https://api.stackexchange.com/2.3/answers/%s?site=stackoverflow", matcher.group(1));
@@ -52,9 +59,7 @@ public class ClientBeans {
     @Bean
     LinkToApiLinkConverter gitHubRepositoryConverter() {
         return x -> {
-            Pattern pattern = Pattern.compile("^https://github\\.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)$");
-
-            Matcher matcher = pattern.matcher(x);
+            Matcher matcher = GITHUB_REPOSITORY_LINK.matcher(x);
             if (matcher.matches()) {
                 return String.format("https://api.github.com/repos/%s/%s", matcher.group(1), matcher.group(2));
             }
@@ -66,9 +71,7 @@ public class ClientBeans {
     @Bean
     LinkToApiLinkConverter gitHubSingleIssueConverter() {
         return x -> {
-            Pattern pattern = Pattern.compile("^https://github.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)/issues/(\\d+)$");
-
-            Matcher matcher = pattern.matcher(x);
+            Matcher matcher = GITHUB_SINGLE_ISSUE_LINK.matcher(x);
             if (matcher.matches()) {
                 return String.format(
                         "https://api.github.com/repos/%s/%s/issues/%s",
@@ -88,8 +91,7 @@ public class ClientBeans {
     @Bean
     LinkToApiLinkConverter gitHubIssueListClientConverter() {
         return x -> {
-            Pattern pattern = Pattern.compile("^https://github.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)/(issues|pulls)$");
-            Matcher matcher = pattern.matcher(x);
+            Matcher matcher = GITHUB_ISSUE_LIST_LINK.matcher(x);
             if (matcher.matches()) {
                 return String.format(
                         "https://api.github.com/repos/%s/%s/%s", matcher.group(1), matcher.group(2), matcher.group(3));
@@ -99,7 +101,8 @@ public class ClientBeans {
     }
 
     /**
-     * Создает объект класса RestClient с установленным базовым url github api
+     * Создает объект класса RestClient с установленным базовым url github api. Заголовки X-RateLimit-* ответов
+     * учитываются в бюджете запросов к GitHub
      *
      * @return объект {@code RestClient} - клиент для взаимодействия с github api
      */
@@ -108,6 +111,7 @@ public class ClientBeans {
         return RestClient.builder()
                 .requestFactory(factory)
                 .baseUrl("https://api.github.com")
+                .requestInterceptor(new RateLimitInterceptor(rateLimitBudget, "github"))
                 .build();
     }
 
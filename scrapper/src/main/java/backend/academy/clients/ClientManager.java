@@ -1,27 +1,63 @@
 package backend.academy.clients;
 
 import backend.academy.model.plain.Link;
+import backend.academy.service.SubscriptionIndex;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+/**
+ * Выбор клиента для ссылки. Клиент отслеживаемой ссылки запоминается по ее идентификатору, поэтому url сопоставляется с
+ * таблицей маршрутизации один раз, а не в каждом цикле планировщика. Запомненный клиент удаляется, когда на ссылку не
+ * остается подписок
+ */
 @Component
-public final class ClientManager {
+public final class ClientManager implements SubscriptionIndex.Listener {
     @Autowired
     @Getter
     private final List<Client> availableClients;
 
-    public ClientManager(List<Client> availableClients) {
+    private final LinkRouter router;
+    private final Map<Long, Client> clientsByLinkId = new ConcurrentHashMap<>();
+
+    public ClientManager(List<Client> availableClients, SubscriptionIndex subscriptionIndex) {
         this.availableClients = availableClients;
+        this.router = new LinkRouter(availableClients);
+        subscriptionIndex.addListener(this);
     }
 
+    /**
+     * Найти клиент ссылки. Найденный клиент сохраняется в ссылке и запоминается по ее идентификатору, чтобы не
+     * сопоставлять url повторно
+     *
+     * @param link ссылка
+     * @return клиент или {@code null}, если ссылка не поддерживается
+     */
     public Client getSuitableClient(Link link) {
-        for (Client client : availableClients) {
-            if (client.supportLink(link.getUrl())) {
-                return client;
-            }
+        if (link.getClient() == null) {
+            Client client = link.getId() == null
+                    ? getSuitableClient(link.getUrl())
+                    : clientsByLinkId.computeIfAbsent(link.getId(), linkId -> getSuitableClient(link.getUrl()));
+            link.setClient(client);
         }
-        return null;
+        return link.getClient();
+    }
+
+    /**
+     * Найти клиент, поддерживающий ссылку
+     *
+     * @param url значение ссылки
+     * @return клиент или {@code null}, если ссылка не поддерживается
+     */
+    public Client getSuitableClient(String url) {
+        return router.route(url);
+    }
+
+    @Override
+    public void onLinkUntracked(Long linkId) {
+        clientsByLinkId.remove(linkId);
     }
 }
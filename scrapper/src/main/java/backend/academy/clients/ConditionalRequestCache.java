@@ -0,0 +1,158 @@
+package backend.academy.clients;
+
+import backend.academy.config.properties.ScrapeProperties;
+import backend.academy.service.SubscriptionIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Хранилище валидаторов (ETag / Last-Modified) ответов внешних API. Позволяет отправлять условные запросы и не
+ * разбирать тело ответа, если ресурс не изменился с прошлого обращения.
+ *
+ * <p>Валидаторы успешного ответа сначала считаются ожидающими и применяются к следующим запросам только после
+ * {@link #commit(Long)} - когда найденные по ответу обновления переданы на отправку. Иначе ошибка рассылки привела бы к
+ * тому, что следующий запрос получит 304 и обновление будет потеряно. Количество хранимых валидаторов ограничено
+ * ({@link ScrapeProperties#getConditionalRequestsCacheSize()}), давно не использовавшиеся вытесняются; валидаторы
+ * ссылки удаляются, когда на нее не остается подписок
+ */
+@Component
+public class ConditionalRequestCache implements SubscriptionIndex.Listener {
+    private final Map<Key, Validators> validators;
+    private final Map<Long, Map<String, Validators>> pending = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ConditionalRequestCache(
+            MeterRegistry meterRegistry, ScrapeProperties scrapeProperties, SubscriptionIndex subscriptionIndex) {
+        int maxSize = scrapeProperties.getConditionalRequestsCacheSize();
+        this.validators = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Validators> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = Counter.builder("http.conditional.requests")
+                .description("Conditional requests answered with 304 Not Modified")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("http.conditional.requests")
+                .description("Conditional requests answered with a full response")
+                .tag("result", "miss")
+                .register(meterRegistry);
+
+        Gauge.builder("http.conditional.hit.rate", this, ConditionalRequestCache::hitRate)
+                .description("Share of conditional requests answered with 304 Not Modified")
+                .register(meterRegistry);
+        Gauge.builder("http.conditional.validators", this, ConditionalRequestCache::size)
+                .description("Number of stored response validators")
+                .register(meterRegistry);
+
+        subscriptionIndex.addListener(this);
+    }
+
+    /**
+     * Добавить к запросу заголовки If-None-Match / If-Modified-Since, если для url сохранены валидаторы
+     *
+     * @param linkId идентификатор отслеживаемой ссылки
+     * @param url адрес запроса
+     * @param headers заголовки запроса
+     */
+    public synchronized void applyValidators(Long linkId, String url, HttpHeaders headers) {
+        Validators stored = validators.get(new Key(linkId, url));
+        if (stored == null) {
+            return;
+        }
+        if (stored.etag() != null) {
+            headers.setIfNoneMatch(stored.etag());
+        }
+        if (stored.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, stored.lastModified());
+        }
+    }
+
+    /**
+     * Обработать ответ на (возможно условный) запрос. Валидаторы успешного ответа запоминаются как ожидающие до вызова
+     * {@link #commit(Long)}
+     *
+     * @param linkId идентификатор отслеживаемой ссылки
+     * @param url адрес запроса
+     * @param response ответ сервера
+     * @return {@code true}, если ресурс не изменился (304 Not Modified), иначе - false
+     */
+    public synchronized boolean isNotModified(Long linkId, String url, ClientHttpResponse response) throws IOException {
+        boolean conditional = validators.containsKey(new Key(linkId, url));
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            hits.increment();
+            return true;
+        }
+
+        if (conditional) {
+            misses.increment();
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            HttpHeaders headers = response.getHeaders();
+            pending.computeIfAbsent(linkId, k -> new HashMap<>())
+                    .put(url, new Validators(headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED)));
+        }
+        return false;
+    }
+
+    /**
+     * Сохранить ожидающие валидаторы ответов, полученных при проверке ссылки. Вызывается, когда найденные обновления
+     * переданы на отправку (или обновлений не найдено)
+     *
+     * @param linkId идентификатор отслеживаемой ссылки
+     */
+    public synchronized void commit(Long linkId) {
+        Map<String, Validators> received = pending.remove(linkId);
+        if (received == null) {
+            return;
+        }
+        received.forEach((url, value) -> {
+            if (value.etag() != null || value.lastModified() != null) {
+                validators.put(new Key(linkId, url), value);
+            } else {
+                validators.remove(new Key(linkId, url));
+            }
+        });
+    }
+
+    /**
+     * Отбросить ожидающие валидаторы ссылки, если проверку или отправку обновлений не удалось завершить. Следующий
+     * запрос будет отправлен с прежними валидаторами
+     *
+     * @param linkId идентификатор отслеживаемой ссылки
+     */
+    public synchronized void discard(Long linkId) {
+        pending.remove(linkId);
+    }
+
+    @Override
+    public synchronized void onLinkUntracked(Long linkId) {
+        pending.remove(linkId);
+        validators.keySet().removeIf(key -> Objects.equals(key.linkId(), linkId));
+    }
+
+    private double hitRate() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private synchronized int size() {
+        return validators.size();
+    }
+
+    private record Key(Long linkId, String url) {}
+
+    private record Validators(String etag, String lastModified) {}
+}
@@ -0,0 +1,127 @@
+package backend.academy.clients;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Таблица маршрутизации ссылок по клиентам. Ссылка сначала распределяется по хосту, а затем сопоставляется с одним
+ * объединенным регулярным выражением всех клиентов этого хоста, поэтому клиент определяется за один проход. Порядок
+ * клиентов сохраняется: при совпадении нескольких шаблонов выбирается первый клиент, как и при последовательной
+ * проверке {@link Client#supportLink(String)}
+ */
+public final class LinkRouter {
+    private static final Pattern PATTERN_HOST = Pattern.compile("^\\^?https?://((?:[a-zA-Z0-9-]|\\\\?\\.)+)/");
+
+    private final Map<String, HostRoutes> routesByHost = new LinkedHashMap<>();
+    private final List<Client> unroutedClients = new ArrayList<>();
+
+    public LinkRouter(List<Client> clients) {
+        Map<String, List<Client>> clientsByHost = new LinkedHashMap<>();
+        for (Client client : clients) {
+            String host = patternHost(client.getSupportedUrl());
+            if (host == null) {
+                unroutedClients.add(client);
+            } else {
+                clientsByHost.computeIfAbsent(host, k -> new ArrayList<>()).add(client);
+            }
+        }
+        clientsByHost.forEach((host, hostClients) -> routesByHost.put(host, new HostRoutes(hostClients)));
+    }
+
+    /**
+     * Найти клиент, поддерживающий ссылку
+     *
+     * @param url значение ссылки
+     * @return клиент или {@code null}, если ссылка не поддерживается
+     */
+    public Client route(String url) {
+        if (url == null) {
+            return null;
+        }
+        HostRoutes hostRoutes = routesByHost.get(urlHost(url));
+        if (hostRoutes != null) {
+            Client client = hostRoutes.route(url);
+            if (client != null) {
+                return client;
+            }
+        }
+        for (Client client : unroutedClients) {
+            if (client.supportLink(url)) {
+                return client;
+            }
+        }
+        return null;
+    }
+
+    private static String patternHost(Pattern supportedUrl) {
+        if (supportedUrl == null) {
+            return null;
+        }
+        Matcher matcher = PATTERN_HOST.matcher(supportedUrl.pattern());
+        return matcher.find() ? matcher.group(1).replace("\\.", ".").toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String urlHost(String url) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) {
+            return "";
+        }
+        int hostStart = schemeEnd + 3;
+        int hostEnd = url.indexOf('/', hostStart);
+        return url.substring(hostStart, hostEnd < 0 ? url.length() : hostEnd).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Клиенты одного хоста и их объединенный шаблон вида {@code (шаблон1)|(шаблон2)|...}. Совпавший клиент определяется
+     * по внешней группе его шаблона
+     */
+    private static final class HostRoutes {
+        private final List<Client> clients;
+        private final Pattern combined;
+        private final int[] groupOffsets;
+
+        HostRoutes(List<Client> clients) {
+            this.clients = clients;
+            this.groupOffsets = new int[clients.size()];
+            StringBuilder combinedPattern = new StringBuilder();
+            int group = 1;
+            for (int i = 0; i < clients.size(); i++) {
+                Pattern pattern = clients.get(i).getSupportedUrl();
+                groupOffsets[i] = group;
+                group += pattern.matcher("").groupCount() + 1;
+                if (i > 0) {
+                    combinedPattern.append('|');
+                }
+                combinedPattern
+                        .append('(')
+                        .append(stripAnchors(pattern.pattern()))
+                        .append(')');
+            }
+            this.combined = Pattern.compile(combinedPattern.toString());
+        }
+
+        Client route(String url) {
+            Matcher matcher = combined.matcher(url);
+            if (!matcher.matches()) {
+                return null;
+            }
+            for (int i = 0; i < clients.size(); i++) {
+                if (matcher.group(groupOffsets[i]) != null) {
+                    return clients.get(i);
+                }
+            }
+            return null;
+        }
+
+        private static String stripAnchors(String pattern) {
+            int start = pattern.startsWith("^") ? 1 : 0;
+            int end = pattern.endsWith("$") && !pattern.endsWith("\\$") ? pattern.length() - 1 : pattern.length();
+            return pattern.substring(start, end);
+        }
+    }
+}
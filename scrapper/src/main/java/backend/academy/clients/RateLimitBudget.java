@@ -0,0 +1,157 @@
+package backend.academy.clients;
+
+import backend.academy.config.properties.RateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Бюджет запросов к внешним API. Остаток лимита каждого источника уточняется по ответам API (заголовки X-RateLimit-*
+ * GitHub, поля quota_remaining и backoff StackExchange) и уменьшается на каждую запланированную проверку ссылки, пока
+ * новых данных от API нет
+ */
+@Component
+public class RateLimitBudget {
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, SourceBudget> budgets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimitBudget(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    public RateLimitBudget(RateLimitProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Обновить бюджет источника по данным из ответа API
+     *
+     * @param sourceName название источника
+     * @param remaining оставшееся количество запросов
+     * @param limit общее количество запросов до сброса лимита
+     * @param resetAt время сброса лимита
+     */
+    public void update(String sourceName, long remaining, long limit, Instant resetAt) {
+        SourceBudget budget = budget(sourceName);
+        synchronized (budget) {
+            budget.remaining = remaining;
+            budget.limit = limit;
+            budget.resetAt = resetAt;
+        }
+    }
+
+    /**
+     * Запретить запросы к источнику до указанного времени (например, по полю backoff StackExchange API)
+     *
+     * @param sourceName название источника
+     * @param until время, до которого запросы откладываются
+     */
+    public void backoff(String sourceName, Instant until) {
+        SourceBudget budget = budget(sourceName);
+        synchronized (budget) {
+            if (budget.backoffUntil == null || budget.backoffUntil.isBefore(until)) {
+                budget.backoffUntil = until;
+            }
+        }
+    }
+
+    /**
+     * Зарезервировать запрос к источнику
+     *
+     * @param sourceName название источника
+     * @return {@code true}, если запрос можно выполнить, иначе - false
+     */
+    public boolean tryAcquire(String sourceName) {
+        SourceBudget budget = budget(sourceName);
+        Instant now = clock.instant();
+        synchronized (budget) {
+            if (budget.backoffUntil != null && now.isBefore(budget.backoffUntil)) {
+                return false;
+            }
+            if (budget.limit == null || (budget.resetAt != null && !now.isBefore(budget.resetAt))) {
+                return true;
+            }
+            if (budget.remaining <= properties.getReserve()) {
+                return false;
+            }
+            budget.remaining--;
+            return true;
+        }
+    }
+
+    /**
+     * Проверить, что остаток лимита источника опустился ниже порога {@code lowWatermark}
+     *
+     * @param sourceName название источника
+     * @return {@code true}, если бюджет почти исчерпан
+     */
+    public boolean isLow(String sourceName) {
+        SourceBudget budget = budget(sourceName);
+        synchronized (budget) {
+            if (budget.limit == null || budget.limit == 0) {
+                return false;
+            }
+            if (budget.resetAt != null && !clock.instant().isBefore(budget.resetAt)) {
+                return false;
+            }
+            return budget.remaining < budget.limit * properties.getLowWatermark();
+        }
+    }
+
+    /**
+     * Получить время, когда к источнику снова можно обращаться
+     *
+     * @param sourceName название источника
+     * @return время сброса лимита или окончания backoff, либо текущее время, если оно неизвестно
+     */
+    public Instant getAvailableAt(String sourceName) {
+        SourceBudget budget = budget(sourceName);
+        Instant availableAt = clock.instant();
+        synchronized (budget) {
+            if (budget.backoffUntil != null && budget.backoffUntil.isAfter(availableAt)) {
+                availableAt = budget.backoffUntil;
+            }
+            if (budget.limit != null
+                    && budget.remaining <= properties.getReserve()
+                    && budget.resetAt != null
+                    && budget.resetAt.isAfter(availableAt)) {
+                availableAt = budget.resetAt;
+            }
+        }
+        return availableAt;
+    }
+
+    private SourceBudget budget(String sourceName) {
+        return budgets.computeIfAbsent(sourceName, this::createBudget);
+    }
+
+    private SourceBudget createBudget(String sourceName) {
+        SourceBudget budget = new SourceBudget();
+        Gauge.builder("scrape.ratelimit.remaining", budget, b -> b.remaining)
+                .description("Estimated number of upstream API requests left until the limit is reset")
+                .tag("type", sourceName)
+                .register(meterRegistry);
+        Gauge.builder("scrape.ratelimit.limit", budget, b -> b.limit == null ? Double.NaN : b.limit)
+                .description("Upstream API request limit reported by the last response")
+                .tag("type", sourceName)
+                .register(meterRegistry);
+        return budget;
+    }
+
+    private static final class SourceBudget {
+        private volatile long remaining;
+        private volatile Long limit;
+        private Instant resetAt;
+        private Instant backoffUntil;
+    }
+}
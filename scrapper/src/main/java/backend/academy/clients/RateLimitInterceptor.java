@@ -0,0 +1,42 @@
+package backend.academy.clients;
+
+import java.io.IOException;
+import java.time.Instant;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/** Перехватчик ответов GitHub API, передающий значения заголовков X-RateLimit-* в бюджет запросов */
+public class RateLimitInterceptor implements ClientHttpRequestInterceptor {
+    private final RateLimitBudget budget;
+    private final String sourceName;
+
+    public RateLimitInterceptor(RateLimitBudget budget, String sourceName) {
+        this.budget = budget;
+        this.sourceName = sourceName;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ClientHttpResponse response = execution.execute(request, body);
+        HttpHeaders headers = response.getHeaders();
+        String remaining = headers.getFirst("X-RateLimit-Remaining");
+        String limit = headers.getFirst("X-RateLimit-Limit");
+        String reset = headers.getFirst("X-RateLimit-Reset");
+        if (remaining != null && limit != null && reset != null) {
+            try {
+                budget.update(
+                        sourceName,
+                        Long.parseLong(remaining),
+                        Long.parseLong(limit),
+                        Instant.ofEpochSecond(Long.parseLong(reset)));
+            } catch (NumberFormatException e) {
+                // некорректные заголовки не должны ломать обработку ответа
+            }
+        }
+        return response;
+    }
+}
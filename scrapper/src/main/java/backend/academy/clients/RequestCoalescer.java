@@ -0,0 +1,78 @@
+package backend.academy.clients;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Объединение одинаковых запросов к внешним API в пределах одного цикла планировщика. Первый вызов с данным ключом
+ * выполняет запрос, а остальные вызовы (в том числе параллельные) получают уже разобранный результат. Вне цикла запросы
+ * выполняются без объединения
+ */
+@Component
+public class RequestCoalescer {
+    private final Counter savedRequests;
+    private volatile Map<String, CompletableFuture<Object>> inFlight;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.savedRequests = Counter.builder("http.coalesced.requests")
+                .description("Number of upstream API requests served by an identical request of the same cycle")
+                .register(meterRegistry);
+    }
+
+    /** Начать цикл: результаты запросов сохраняются до вызова {@link #endCycle()} */
+    public void beginCycle() {
+        inFlight = new ConcurrentHashMap<>();
+    }
+
+    /** Завершить цикл и освободить сохраненные результаты */
+    public void endCycle() {
+        inFlight = null;
+    }
+
+    /**
+     * Выполнить запрос или дождаться результата такого же запроса текущего цикла. Результат неудачного запроса не
+     * сохраняется, чтобы повторная попытка снова обратилась к API. Ожидающие вызовы завершаются при любой ошибке
+     * запроса, в том числе {@link Error}, и получают то же исключение
+     *
+     * @param key ключ запроса (метод и url)
+     * @param request функция, выполняющая запрос и разбирающая ответ
+     * @return результат запроса
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> request) {
+        Map<String, CompletableFuture<Object>> requests = inFlight;
+        if (requests == null) {
+            return request.get();
+        }
+
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> existing = requests.putIfAbsent(key, result);
+        if (existing != null) {
+            savedRequests.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T value = request.get();
+            result.complete(value);
+            return value;
+        } catch (Throwable e) {
+            requests.remove(key, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package backend.academy.clients.converter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Общий JsonMapper клиентов внешних API и потоковое чтение массивов. Mapper и полученные из него ObjectReader
+ * потокобезопасны и переиспользуют кэш десериализаторов между запросами
+ */
+public final class JsonReaders {
+    private static final JsonMapper MAPPER =
+            JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    private JsonReaders() {}
+
+    /**
+     * Получить reader для указанного типа
+     *
+     * @param type класс DTO
+     * @return объект {@code ObjectReader}, который следует сохранить в статическом поле клиента
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return MAPPER.readerFor(type);
+    }
+
+    /**
+     * Получить reader для указанного обобщенного типа
+     *
+     * @param type описание типа
+     * @return объект {@code ObjectReader}, который следует сохранить в статическом поле клиента
+     */
+    public static ObjectReader readerFor(TypeReference<?> type) {
+        return MAPPER.readerFor(type);
+    }
+
+    /**
+     * Прочитать JSON-массив верхнего уровня, сохраняя только элементы, удовлетворяющие условию. Отброшенные элементы не
+     * накапливаются в памяти
+     *
+     * @param body тело ответа
+     * @param elementReader reader для элемента массива
+     * @param filter условие, которому должен удовлетворять элемент
+     * @return список подходящих элементов
+     */
+    public static <T> List<T> readArray(InputStream body, ObjectReader elementReader, Predicate<? super T> filter)
+            throws IOException {
+        try (JsonParser parser = MAPPER.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return List.of();
+            }
+            return readElements(parser, elementReader, filter, false);
+        }
+    }
+
+    /**
+     * Прочитать массив из поля объекта верхнего уровня (например, {@code items} в ответах StackExchange API). Чтение
+     * прекращается на первом элементе, не удовлетворяющем условию, поэтому массив должен быть упорядочен так, чтобы
+     * подходящие элементы шли первыми
+     *
+     * @param body тело ответа
+     * @param field название поля с массивом
+     * @param elementReader reader для элемента массива
+     * @param condition условие продолжения чтения
+     * @return список элементов до первого неподходящего
+     */
+    public static <T> List<T> readFieldWhile(
+            InputStream body, String field, ObjectReader elementReader, Predicate<? super T> condition)
+            throws IOException {
+        try (JsonParser parser = MAPPER.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return List.of();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals(name) && value == JsonToken.START_ARRAY) {
+                    return readElements(parser, elementReader, condition, true);
+                }
+                parser.skipChildren();
+            }
+            return List.of();
+        }
+    }
+
+    private static <T> List<T> readElements(
+            JsonParser parser, ObjectReader elementReader, Predicate<? super T> condition, boolean stopOnRejected)
+            throws IOException {
+        List<T> elements = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            T element = elementReader.readValue(parser);
+            if (condition.test(element)) {
+                elements.add(element);
+            } else if (stopOnRejected) {
+                break;
+            }
+        }
+        return elements;
+    }
+}
@@ -1,13 +1,21 @@
 package backend.academy.clients.github;
 
 import backend.academy.clients.Client;
+import backend.academy.clients.ConditionalRequestCache;
 import backend.academy.clients.converter.LinkToApiLinkConverter;
 import java.util.regex.Pattern;
 import org.springframework.web.client.RestClient;
 
 public abstract class GitHubClient extends Client {
-    public GitHubClient(Pattern supportedUrl, LinkToApiLinkConverter linkConverter, RestClient restClient) {
+    protected final ConditionalRequestCache conditionalRequests;
+
+    public GitHubClient(
+            Pattern supportedUrl,
+            LinkToApiLinkConverter linkConverter,
+            RestClient restClient,
+            ConditionalRequestCache conditionalRequests) {
         super(supportedUrl, linkConverter, restClient);
+        this.conditionalRequests = conditionalRequests;
     }
 
     @Override
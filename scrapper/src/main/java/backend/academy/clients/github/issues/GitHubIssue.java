@@ -17,6 +17,8 @@ import java.time.Instant;
  * @param updatedAt время обновления
  * @param description описание issue
  * @param commentsUrl ссылка на комментарии к issue
+ * @param apiUrl ссылка на issue (или pull request) в GitHub API
+ * @param pullIssueUrl ссылка на issue, соответствующий pull request, в GitHub API
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record GitHubIssue(
@@ -28,4 +30,16 @@ public record GitHubIssue(
         @JsonProperty("updated_at") @JsonDeserialize(converter = JsonConverters.InstantTimeConverter.class)
                 Instant updatedAt,
         @JsonProperty("body") String description,
-        @JsonProperty("comments_url") String commentsUrl) {}
+        @JsonProperty("comments_url") String commentsUrl,
+        @JsonProperty("url") String apiUrl,
+        @JsonProperty("issue_url") String pullIssueUrl) {
+
+    /**
+     * Получить ссылку на issue в GitHub API, которая указывается в поле issue_url его комментариев
+     *
+     * @return ссылка на issue в GitHub API
+     */
+    public String issueApiUrl() {
+        return pullIssueUrl != null ? pullIssueUrl : apiUrl;
+    }
+}
@@ -1,28 +1,35 @@
 package backend.academy.clients.github.issues;
 
+import backend.academy.clients.ConditionalRequestCache;
+import backend.academy.clients.RequestCoalescer;
+import backend.academy.clients.converter.JsonReaders;
 import backend.academy.clients.converter.LinkToApiLinkConverter;
 import backend.academy.clients.github.GitHubClient;
 import backend.academy.config.properties.ApplicationStabilityProperties;
+import backend.academy.config.properties.GitHubProperties;
 import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.dto.UpdateKind;
 import backend.academy.exceptions.RetryableHttpServerErrorException;
 import backend.academy.model.plain.Link;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Slf4j
 @Component
@@ -31,41 +38,60 @@ public class GitHubIssueListClient extends GitHubClient {
     private static final Pattern SUPPORTED_URL =
             Pattern.compile("^https://github.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)/(issues|pulls)$");
 
+    private static final ObjectReader ISSUE_READER = JsonReaders.readerFor(GitHubIssue.class);
+    private static final ObjectReader COMMENT_READER = JsonReaders.readerFor(GitHubComment.class);
+
     private final ApplicationStabilityProperties stabilityProperties;
+    private final GitHubProperties gitHubProperties;
+    private final RequestCoalescer requestCoalescer;
+    private final Counter truncatedComments;
 
     public GitHubIssueListClient(
             @Qualifier("gitHubIssueListClientConverter") LinkToApiLinkConverter linkConverter,
             @Qualifier("gitHubClient") RestClient restClient,
-            ApplicationStabilityProperties stabilityProperties) {
-        super(SUPPORTED_URL, linkConverter, restClient);
+            ApplicationStabilityProperties stabilityProperties,
+            ConditionalRequestCache conditionalRequests,
+            GitHubProperties gitHubProperties,
+            RequestCoalescer requestCoalescer,
+            MeterRegistry meterRegistry) {
+        super(SUPPORTED_URL, linkConverter, restClient, conditionalRequests);
         this.stabilityProperties = stabilityProperties;
+        this.gitHubProperties = gitHubProperties;
+        this.requestCoalescer = requestCoalescer;
+        this.truncatedComments = Counter.builder("github.comments.truncated")
+                .description("Number of link checks whose repository comments exceeded the page limit")
+                .register(meterRegistry);
     }
 
     @Override
     @Retry(name = "default", fallbackMethod = "onErrorIssuesList")
     @CircuitBreaker(name = "default", fallbackMethod = "onCBErrorIssuesList")
     public List<LinkUpdateInfo> getUpdates(Link link) {
-        ObjectMapper objectMapper =
-                JsonMapper.builder().addModule(new JavaTimeModule()).build();
         String url = linkConverter.convert(link.getUrl());
         if (url == null) {
             return List.of();
         }
 
-        List<GitHubIssue> issues = getIssues(objectMapper, url);
+        link.setScrapedUntil(null);
+        List<GitHubIssue> issues = getIssues(link.getId(), url, link.getLastUpdateTime());
         if (issues == null || issues.isEmpty()) {
             return List.of();
         }
-        List<LinkUpdateInfo> newIssues = createListOfNewIssue(issues, link);
 
-        List<List<GitHubComment>> commentsForEachIssue = getCommentsForEachIssue(objectMapper, issues);
         List<LinkUpdateInfo> newComments = new ArrayList<>();
-        for (List<GitHubComment> commentList : commentsForEachIssue) {
-            if (commentList == null || commentList.isEmpty()) {
-                continue;
+        if (gitHubProperties.isBulkComments()) {
+            newComments.addAll(createListOfRepositoryCommentUpdates(url, issues, link));
+        } else {
+            List<List<GitHubComment>> commentsForEachIssue =
+                    getCommentsForEachIssue(link.getId(), issues, link.getLastUpdateTime());
+            for (List<GitHubComment> commentList : commentsForEachIssue) {
+                if (commentList == null || commentList.isEmpty()) {
+                    continue;
+                }
+                newComments.addAll(createListOfCommentUpdates(link, commentList));
             }
-            newComments.addAll(createListOfCommentUpdates(objectMapper, link, commentList));
         }
+        List<LinkUpdateInfo> newIssues = createListOfNewIssue(issues, link);
 
         List<LinkUpdateInfo> resultList = new ArrayList<>();
         resultList.addAll(newIssues);
@@ -73,69 +99,180 @@ public class GitHubIssueListClient extends GitHubClient {
         return resultList;
     }
 
-    private List<GitHubIssue> getIssues(ObjectMapper objectMapper, String url) {
+    /**
+     * Получить issues, в которых были изменения после последней проверки. Новый комментарий обновляет updated_at issue,
+     * поэтому комментарии остальных issues запрашивать не нужно
+     */
+    private List<GitHubIssue> getIssues(Long linkId, String url, Instant lastUpdateTime) {
         log.atInfo()
                 .setMessage("Обращение к GitHub API для получения issues/pull requests")
                 .addKeyValue("url", url)
                 .log();
+        return client.get()
+                .uri(url)
+                .headers(headers -> conditionalRequests.applyValidators(linkId, url, headers))
+                .exchange((request, response) -> {
+                    if (conditionalRequests.isNotModified(linkId, url, response)) {
+                        return null;
+                    } else if (response.getStatusCode().is2xxSuccessful()) {
+                        return JsonReaders.<GitHubIssue>readArray(
+                                response.getBody(), ISSUE_READER, issue -> hasActivityAfter(issue, lastUpdateTime));
+                    } else if (stabilityProperties
+                            .getRetry()
+                            .getHttpCodes()
+                            .contains(response.getStatusCode().value())) {
+                        throw new RetryableHttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
+                    }
+
+                    log.atWarn()
+                            .setMessage("Неудачный запрос на получение issues/pull requests")
+                            .addKeyValue("url", url)
+                            .addKeyValue("code", response.getStatusCode())
+                            .log();
+                    return null;
+                });
+    }
+
+    /**
+     * Получить обновления комментариев постраничными запросами ко всем комментариям репозитория, созданным или
+     * измененным после последней проверки. Название issue берется из уже полученного списка, поэтому количество
+     * запросов не зависит от количества issues и комментариев. Если не удалось получить страницу, выбрасывается
+     * исключение, чтобы отметка проверки и валидаторы ссылки не сохранились. Если комментарии не уместились в
+     * {@code maxCommentPages} страниц, проверка ссылки считается завершенной только до времени создания последнего
+     * обработанного комментария, а оставшиеся комментарии будут получены при следующей проверке
+     */
+    private List<LinkUpdateInfo> createListOfRepositoryCommentUpdates(
+            String issuesUrl, List<GitHubIssue> issues, Link link) {
+        Map<String, GitHubIssue> issuesByUrl = new HashMap<>();
+        for (GitHubIssue issue : issues) {
+            issuesByUrl.putIfAbsent(issue.issueApiUrl(), issue);
+        }
+
+        String commentsUrl = issuesUrl.replaceFirst("/(issues|pulls)$", "/issues/comments");
+        int pageSize = gitHubProperties.getCommentsPageSize();
+        List<LinkUpdateInfo> updates = new ArrayList<>();
+        Instant lastProcessedCreatedAt = null;
+        for (int page = 1; page <= gitHubProperties.getMaxCommentPages(); page++) {
+            List<GitHubComment> comments = getRepositoryComments(commentsUrl, link.getLastUpdateTime(), pageSize, page);
+
+            for (GitHubComment comment : comments) {
+                GitHubIssue issue = issuesByUrl.get(comment.issueUrl());
+                if (issue != null && issueWasUpdated(link.getLastUpdateTime(), comment.createdAt())) {
+                    updates.add(createNewCommentUpdate(comment, issue));
+                }
+                if (lastProcessedCreatedAt == null || lastProcessedCreatedAt.isBefore(comment.createdAt())) {
+                    lastProcessedCreatedAt = comment.createdAt();
+                }
+            }
+
+            if (comments.size() < pageSize) {
+                return updates;
+            }
+        }
+
+        onCommentPagesTruncated(link, lastProcessedCreatedAt);
+        return updates;
+    }
+
+    /**
+     * Ограничить отметку проверки ссылки временем создания последнего обработанного комментария. Валидаторы ссылки
+     * отбрасываются, чтобы следующая проверка не получила 304 и дочитала оставшиеся комментарии
+     */
+    private void onCommentPagesTruncated(Link link, Instant lastProcessedCreatedAt) {
+        truncatedComments.increment();
+        conditionalRequests.discard(link.getId());
+        if (lastProcessedCreatedAt != null && link.getLastUpdateTime().isBefore(lastProcessedCreatedAt)) {
+            link.setScrapedUntil(lastProcessedCreatedAt);
+        }
+        log.atWarn()
+                .setMessage("Комментарии репозитория не уместились в допустимое количество страниц")
+                .addKeyValue("url", link.getUrl())
+                .addKeyValue("maxCommentPages", gitHubProperties.getMaxCommentPages())
+                .addKeyValue("scrapedUntil", link.getScrapedUntil())
+                .log();
+    }
+
+    private List<GitHubComment> getRepositoryComments(String commentsUrl, Instant since, int pageSize, int page) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(commentsUrl)
+                .queryParam("sort", "created")
+                .queryParam("direction", "asc")
+                .queryParam("per_page", pageSize)
+                .queryParam("page", page);
+        if (since != null) {
+            builder.queryParam("since", since.toString());
+        }
+        String url = builder.build().toUriString();
+
+        log.atInfo()
+                .setMessage("Обращение к GitHub API для получения комментариев репозитория")
+                .addKeyValue("url", url)
+                .log();
         return client.get().uri(url).exchange((request, response) -> {
             if (response.getStatusCode().is2xxSuccessful()) {
-                return objectMapper.readValue(response.getBody(), new TypeReference<>() {});
+                return JsonReaders.<GitHubComment>readArray(response.getBody(), COMMENT_READER, comment -> true);
             } else if (stabilityProperties
                     .getRetry()
                     .getHttpCodes()
                     .contains(response.getStatusCode().value())) {
                 throw new RetryableHttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
             }
-
             log.atWarn()
-                    .setMessage("Неудачный запрос на получение issues/pull requests")
+                    .setMessage("Неудачный запрос на получение комментариев репозитория")
                     .addKeyValue("url", url)
                     .addKeyValue("code", response.getStatusCode())
                     .log();
-            return null;
+            throw new IllegalStateException(
+                    "Неудачный запрос на получение комментариев репозитория: " + response.getStatusCode());
         });
     }
 
-    private List<List<GitHubComment>> getCommentsForEachIssue(ObjectMapper objectMapper, List<GitHubIssue> issues) {
+    private List<List<GitHubComment>> getCommentsForEachIssue(
+            Long linkId, List<GitHubIssue> issues, Instant lastUpdateTime) {
         List<List<GitHubComment>> commentsMatrix = new ArrayList<>();
         for (GitHubIssue issue : issues) {
-            List<GitHubComment> commentsSet = getComments(objectMapper, issue.commentsUrl());
+            List<GitHubComment> commentsSet = getComments(linkId, issue.commentsUrl(), lastUpdateTime);
             commentsMatrix.add(commentsSet);
         }
         return commentsMatrix;
     }
 
-    private List<GitHubComment> getComments(ObjectMapper mapper, String url) {
+    private List<GitHubComment> getComments(Long linkId, String url, Instant lastUpdateTime) {
         log.atInfo()
                 .setMessage("Обращение к GitHub API для получения комментариев")
                 .addKeyValue("url", url)
                 .log();
-        return client.get().uri(url).exchange((request, response) -> {
-            if (response.getStatusCode().is2xxSuccessful()) {
-                return mapper.readValue(response.getBody(), new TypeReference<>() {});
-            } else if (stabilityProperties
-                    .getRetry()
-                    .getHttpCodes()
-                    .contains(response.getStatusCode().value())) {
-                throw new RetryableHttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
-            }
-            log.atWarn()
-                    .setMessage("Неудачный запрос на получение комментариев")
-                    .addKeyValue("url", url)
-                    .addKeyValue("code", response.getStatusCode())
-                    .log();
-            return null;
-        });
+        return client.get()
+                .uri(url)
+                .headers(headers -> conditionalRequests.applyValidators(linkId, url, headers))
+                .exchange((request, response) -> {
+                    if (conditionalRequests.isNotModified(linkId, url, response)) {
+                        return null;
+                    } else if (response.getStatusCode().is2xxSuccessful()) {
+                        return JsonReaders.<GitHubComment>readArray(
+                                response.getBody(),
+                                COMMENT_READER,
+                                comment -> issueWasUpdated(lastUpdateTime, comment.createdAt()));
+                    } else if (stabilityProperties
+                            .getRetry()
+                            .getHttpCodes()
+                            .contains(response.getStatusCode().value())) {
+                        throw new RetryableHttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
+                    }
+                    log.atWarn()
+                            .setMessage("Неудачный запрос на получение комментариев")
+                            .addKeyValue("url", url)
+                            .addKeyValue("code", response.getStatusCode())
+                            .log();
+                    return null;
+                });
     }
 
-    private List<LinkUpdateInfo> createListOfCommentUpdates(
-            ObjectMapper objectMapper, Link link, List<GitHubComment> comments) {
+    private List<LinkUpdateInfo> createListOfCommentUpdates(Link link, List<GitHubComment> comments) {
         List<LinkUpdateInfo> updates = new ArrayList<>();
 
         for (GitHubComment comment : comments) {
             if (issueWasUpdated(link.getLastUpdateTime(), comment.createdAt())) {
-                GitHubIssue issue = getIssue(objectMapper, comment.issueUrl());
+                GitHubIssue issue = getIssue(comment.issueUrl());
                 updates.add(createNewCommentUpdate(comment, issue));
             }
         }
@@ -146,7 +283,7 @@ public class GitHubIssueListClient extends GitHubClient {
         List<LinkUpdateInfo> issueUpdates = new ArrayList<>();
 
         for (GitHubIssue issue : issues) {
-            if (newIssue(link.getLastUpdateTime(), issue.createdAt())) {
+            if (newIssue(link.getLastUpdateTime(), issue.createdAt()) && scrapedBefore(link, issue.createdAt())) {
                 issueUpdates.add(createNewIssueUpdate(issue));
             }
         }
@@ -157,14 +294,27 @@ public class GitHubIssueListClient extends GitHubClient {
         return lastUpdateTime.isBefore(issueCreationDate);
     }
 
-    private GitHubIssue getIssue(ObjectMapper mapper, String issueUrl) {
+    /** Issue, созданные позже ограниченной отметки проверки, будут отправлены при следующей проверке */
+    private boolean scrapedBefore(Link link, Instant issueCreationDate) {
+        return link.getScrapedUntil() == null || !issueCreationDate.isAfter(link.getScrapedUntil());
+    }
+
+    /**
+     * Получить issue, к которому относится комментарий. Несколько комментариев одного issue в пределах цикла используют
+     * один запрос
+     */
+    private GitHubIssue getIssue(String issueUrl) {
+        return requestCoalescer.execute("GET " + issueUrl, () -> fetchIssue(issueUrl));
+    }
+
+    private GitHubIssue fetchIssue(String issueUrl) {
         log.atInfo()
                 .setMessage("Обращение к GitHub API для получения issue")
                 .addKeyValue("url", issueUrl)
                 .log();
         return client.get().uri(issueUrl).exchange((request, response) -> {
             if (response.getStatusCode().is2xxSuccessful()) {
-                return mapper.readValue(response.getBody(), GitHubIssue.class);
+                return ISSUE_READER.readValue(response.getBody());
             } else if (stabilityProperties
                     .getRetry()
                     .getHttpCodes()
@@ -181,6 +331,12 @@ public class GitHubIssueListClient extends GitHubClient {
         });
     }
 
+    private boolean hasActivityAfter(GitHubIssue issue, Instant lastUpdateTime) {
+        return lastUpdateTime == null
+                || lastUpdateTime.isBefore(issue.createdAt())
+                || (issue.updatedAt() != null && lastUpdateTime.isBefore(issue.updatedAt()));
+    }
+
     private boolean issueWasUpdated(Instant lastUpdateTime, Instant commentCreateDateTime) {
         return lastUpdateTime.isBefore(commentCreateDateTime);
     }
@@ -198,7 +354,8 @@ public class GitHubIssueListClient extends GitHubClient {
                         issue.title(),
                         comment.user().ownerName(),
                         formatter.format(LocalDateTime.ofInstant(comment.createdAt(), ZoneId.of("UTC"))),
-                        comment.body()));
+                        comment.body()),
+                UpdateKind.COMMENT);
     }
 
     private LinkUpdateInfo createNewIssueUpdate(GitHubIssue issue) {
@@ -214,10 +371,12 @@ public class GitHubIssueListClient extends GitHubClient {
                         issue.title(),
                         issue.author().ownerName(),
                         formatter.format(LocalDateTime.ofInstant(issue.createdAt(), ZoneId.of("UTC"))),
-                        issue.description()));
+                        issue.description()),
+                UpdateKind.ISSUE);
     }
 
     public List<LinkUpdateInfo> onErrorIssuesList(Link link, Throwable t) {
+        conditionalRequests.discard(link.getId());
         log.atWarn()
                 .setMessage("Ошибка при получении обновлений isssue. Неудачный запрос")
                 .addKeyValue("url", link.getUrl())
@@ -228,6 +387,7 @@ public class GitHubIssueListClient extends GitHubClient {
     }
 
     public List<LinkUpdateInfo> onCBErrorIssuesList(Link link, Throwable e) {
+        conditionalRequests.discard(link.getId());
         log.atWarn()
                 .setMessage("Ошибка при получении обновлений isssue. Сервис недоступен")
                 .addKeyValue("url", link.getUrl())
@@ -1,14 +1,15 @@
 package backend.academy.clients.github.issues;
 
+import backend.academy.clients.ConditionalRequestCache;
+import backend.academy.clients.converter.JsonReaders;
 import backend.academy.clients.converter.LinkToApiLinkConverter;
 import backend.academy.clients.github.GitHubClient;
 import backend.academy.config.properties.ApplicationStabilityProperties;
 import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.dto.UpdateKind;
 import backend.academy.exceptions.RetryableHttpServerErrorException;
 import backend.academy.model.plain.Link;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -29,13 +30,16 @@ public class GitHubSingleIssueClient extends GitHubClient {
     private static final Pattern SUPPORTED_URL =
             Pattern.compile("^https://github.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)/issues/(\\d+)$");
 
+    private static final ObjectReader ISSUE_READER = JsonReaders.readerFor(GitHubIssue.class);
+
     private final ApplicationStabilityProperties stabilityProperties;
 
     public GitHubSingleIssueClient(
             @Qualifier("gitHubSingleIssueConverter") LinkToApiLinkConverter converter,
             @Qualifier("gitHubClient") RestClient gitHubRestClient,
-            ApplicationStabilityProperties stabilityProperties) {
-        super(SUPPORTED_URL, converter, gitHubRestClient);
+            ApplicationStabilityProperties stabilityProperties,
+            ConditionalRequestCache conditionalRequests) {
+        super(SUPPORTED_URL, converter, gitHubRestClient, conditionalRequests);
         this.stabilityProperties = stabilityProperties;
     }
 
@@ -43,9 +47,6 @@ public class GitHubSingleIssueClient extends GitHubClient {
     @Retry(name = "default", fallbackMethod = "onError")
     @CircuitBreaker(name = "default", fallbackMethod = "onCBError")
     public List<LinkUpdateInfo> getUpdates(Link link) {
-        ObjectMapper objectMapper =
-                JsonMapper.builder().addModule(new JavaTimeModule()).build();
-
         String url = linkConverter.convert(link.getUrl());
         if (url == null) return new ArrayList<>();
 
@@ -57,9 +58,12 @@ public class GitHubSingleIssueClient extends GitHubClient {
         GitHubIssue issuesList = client.method(HttpMethod.GET)
                 .uri(url)
                 .header("Accept", "application/vnd.github+json")
+                .headers(headers -> conditionalRequests.applyValidators(link.getId(), url, headers))
                 .exchange((request, response) -> {
-                    if (response.getStatusCode().is2xxSuccessful()) {
-                        return objectMapper.readValue(response.getBody(), GitHubIssue.class);
+                    if (conditionalRequests.isNotModified(link.getId(), url, response)) {
+                        return null;
+                    } else if (response.getStatusCode().is2xxSuccessful()) {
+                        return ISSUE_READER.readValue(response.getBody());
                     } else if (stabilityProperties
                             .getRetry()
                             .getHttpCodes()
@@ -94,7 +98,8 @@ public class GitHubSingleIssueClient extends GitHubClient {
                     gitHubIssue.title(),
                     gitHubIssue.description(),
                     gitHubIssue.updatedAt(),
-                    String.format("Обновление issue #%s по ссылке %s", gitHubIssue.title(), gitHubIssue.linkValue())));
+                    String.format("Обновление issue #%s по ссылке %s", gitHubIssue.title(), gitHubIssue.linkValue()),
+                    UpdateKind.ISSUE));
         }
 
         return updatesList;
@@ -105,6 +110,7 @@ public class GitHubSingleIssueClient extends GitHubClient {
     }
 
     public List<LinkUpdateInfo> onError(Link link, Throwable t) {
+        conditionalRequests.discard(link.getId());
         log.atWarn()
                 .setMessage("Ошибка при получении списка обновлений. Неудачный запрос")
                 .addKeyValue("url", link.getUrl())
@@ -115,6 +121,7 @@ public class GitHubSingleIssueClient extends GitHubClient {
     }
 
     public List<LinkUpdateInfo> onCBError(Link link, Throwable t, CallNotPermittedException e) {
+        conditionalRequests.discard(link.getId());
         log.atWarn()
                 .setMessage("Ошибка при получении списка обновлений. Сервис недоступен")
                 .addKeyValue("url", link.getUrl())
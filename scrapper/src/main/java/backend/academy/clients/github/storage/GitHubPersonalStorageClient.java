@@ -1,14 +1,15 @@
 package backend.academy.clients.github.storage;
 
+import backend.academy.clients.ConditionalRequestCache;
+import backend.academy.clients.converter.JsonReaders;
 import backend.academy.clients.converter.LinkToApiLinkConverter;
 import backend.academy.clients.github.GitHubClient;
 import backend.academy.config.properties.ApplicationStabilityProperties;
 import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.dto.UpdateKind;
 import backend.academy.exceptions.RetryableHttpServerErrorException;
 import backend.academy.model.plain.Link;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import java.time.Instant;
@@ -28,13 +29,16 @@ public class GitHubPersonalStorageClient extends GitHubClient {
     private static final Pattern supportedUrl =
             Pattern.compile("^https://github\\.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)$");
 
+    private static final ObjectReader REPOSITORY_READER = JsonReaders.readerFor(GitHubRepositoryDTO.class);
+
     private final ApplicationStabilityProperties stabilityProperties;
 
     public GitHubPersonalStorageClient(
             @Qualifier("gitHubRepositoryConverter") LinkToApiLinkConverter converter,
             @Qualifier("gitHubClient") RestClient gitHubClient,
-            ApplicationStabilityProperties stabilityProperties) {
-        super(supportedUrl, converter, gitHubClient);
+            ApplicationStabilityProperties stabilityProperties,
+            ConditionalRequestCache conditionalRequests) {
+        super(supportedUrl, converter, gitHubClient, conditionalRequests);
         this.stabilityProperties = stabilityProperties;
     }
 
@@ -42,9 +46,6 @@ public class GitHubPersonalStorageClient extends GitHubClient {
     @Retry(name = "default", fallbackMethod = "onError")
     @CircuitBreaker(name = "default", fallbackMethod = "onCBError")
     public List<LinkUpdateInfo> getUpdates(Link link) {
-        ObjectMapper objectMapper =
-                JsonMapper.builder().addModule(new JavaTimeModule()).build();
-
         String url = linkConverter.convert(link.getUrl());
         if (url == null) {
             return List.of();
@@ -58,9 +59,12 @@ public class GitHubPersonalStorageClient extends GitHubClient {
         GitHubRepositoryDTO data = client.method(HttpMethod.GET)
                 .uri(url)
                 .header("Accept", "application/vnd.github+json")
+                .headers(headers -> conditionalRequests.applyValidators(link.getId(), url, headers))
                 .exchange((request, response) -> {
-                    if (response.getStatusCode().is2xxSuccessful()) {
-                        return objectMapper.readValue(response.getBody(), GitHubRepositoryDTO.class);
+                    if (conditionalRequests.isNotModified(link.getId(), url, response)) {
+                        return null;
+                    } else if (response.getStatusCode().is2xxSuccessful()) {
+                        return REPOSITORY_READER.readValue(response.getBody());
                     } else if (stabilityProperties
                             .getRetry()
                             .getHttpCodes()
@@ -71,21 +75,16 @@ public class GitHubPersonalStorageClient extends GitHubClient {
                     log.atError()
                             .setMessage("Некорректные параметры запроса к GitHub API")
                             .addKeyValue("url", url)
+                            .addKeyValue("code", response.getStatusCode())
                             .log();
 
                     return null;
                 });
 
-        if (data != null) {
-            return generateUpdateText(data, link);
-        } else {
-            log.atError()
-                    .setMessage("Ошибка при обращении к GitHub Api")
-                    .addKeyValue("url", url)
-                    .log();
-
+        if (data == null) {
             return List.of();
         }
+        return generateUpdateText(data, link);
     }
 
     private List<LinkUpdateInfo> generateUpdateText(GitHubRepositoryDTO body, Link link) {
@@ -98,7 +97,8 @@ public class GitHubPersonalStorageClient extends GitHubClient {
                     body.repositoryName(),
                     null,
                     body.updatedAt(),
-                    String.format("Обновление репозитория %s по ссылке %s", body.repositoryName(), body.linkValue())));
+                    String.format("Обновление репозитория %s по ссылке %s", body.repositoryName(), body.linkValue()),
+                    UpdateKind.REPOSITORY));
         }
 
         return updateDescription;
@@ -109,6 +109,7 @@ public class GitHubPersonalStorageClient extends GitHubClient {
     }
 
     public List<LinkUpdateInfo> onError(Link link, Throwable t) {
+        conditionalRequests.discard(link.getId());
         log.atWarn()
                 .setMessage("Ошибка при получении списка обновлений репозитория. Неудачный запрос")
                 .addKeyValue("url", link.getUrl())
@@ -119,6 +120,7 @@ public class GitHubPersonalStorageClient extends GitHubClient {
     }
 
     public List<LinkUpdateInfo> onCBError(Link link, Throwable t) {
+        conditionalRequests.discard(link.getId());
         log.atWarn()
                 .setMessage("Ошибка при получении списка обновлений репозитория. Сервис недоступен")
                 .addKeyValue("url", link.getUrl())
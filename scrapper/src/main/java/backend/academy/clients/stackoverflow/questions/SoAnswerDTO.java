@@ -16,6 +16,7 @@ import java.time.Instant;
  * @param lastEditDate дата изменения ответа
  * @param text содержимое ответа
  * @param answerId идентификатор ответа
+ * @param questionId идентификатор вопроса
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record SoAnswerDTO(
@@ -28,4 +29,5 @@ public record SoAnswerDTO(
         @JsonProperty("last_edit_date") @JsonDeserialize(converter = JsonConverters.TimeStampToInstantConverter.class)
                 Instant lastEditDate,
         @JsonProperty("body") @JsonDeserialize(converter = JsonConverters.StringTruncator.class) String text,
-        @JsonProperty("answer_id") Long answerId) {}
+        @JsonProperty("answer_id") Long answerId,
+        @JsonProperty("question_id") Long questionId) {}
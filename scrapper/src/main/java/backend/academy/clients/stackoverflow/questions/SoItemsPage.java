@@ -0,0 +1,22 @@
+package backend.academy.clients.stackoverflow.questions;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * Страница ответа StackExchange API
+ *
+ * @param items элементы страницы
+ * @param hasMore {@code true}, если есть следующая страница
+ * @param quotaRemaining оставшаяся дневная квота запросов
+ * @param quotaMax дневная квота запросов
+ * @param backoff количество секунд, в течение которых нельзя повторять запросы к тому же методу API
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SoItemsPage<T>(
+        @JsonProperty("items") List<T> items,
+        @JsonProperty("has_more") boolean hasMore,
+        @JsonProperty("quota_remaining") Integer quotaRemaining,
+        @JsonProperty("quota_max") Integer quotaMax,
+        @JsonProperty("backoff") Integer backoff) {}
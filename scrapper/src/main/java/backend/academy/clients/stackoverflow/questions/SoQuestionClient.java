@@ -1,24 +1,40 @@
 package backend.academy.clients.stackoverflow.questions;
 
+import backend.academy.clients.BatchClient;
+import backend.academy.clients.RateLimitBudget;
+import backend.academy.clients.RequestCoalescer;
+import backend.academy.clients.converter.JsonReaders;
 import backend.academy.clients.converter.LinkToApiLinkConverter;
 import backend.academy.clients.stackoverflow.StackoverflowClient;
 import backend.academy.config.properties.ApplicationStabilityProperties;
 import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.dto.UpdateKind;
 import backend.academy.exceptions.RetryableHttpServerErrorException;
 import backend.academy.model.plain.Link;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -29,18 +45,40 @@ import org.springframework.web.client.RestClient;
 @Slf4j
 @Component
 @SuppressWarnings("PMD")
-public class SoQuestionClient extends StackoverflowClient {
+public class SoQuestionClient extends StackoverflowClient implements BatchClient {
     private static final Pattern SUPPORTED_LINK = Pattern.compile("^https://stackoverflow\\.com/questions/(\\w+)$");
 
+    private static final ObjectReader QUESTIONS_READER = JsonReaders.readerFor(SoQuestionsListDTO.class);
+    private static final ObjectReader ANSWERS_READER = JsonReaders.readerFor(SoAnswersListDTO.class);
+    private static final ObjectReader COMMENT_READER = JsonReaders.readerFor(SoCommentDTO.class);
+    private static final ObjectReader QUESTIONS_PAGE_READER =
+            JsonReaders.readerFor(new TypeReference<SoItemsPage<SoQuestionDTO>>() {});
+    private static final ObjectReader ANSWERS_PAGE_READER =
+            JsonReaders.readerFor(new TypeReference<SoItemsPage<SoAnswerDTO>>() {});
+    private static final ObjectReader COMMENTS_PAGE_READER =
+            JsonReaders.readerFor(new TypeReference<SoItemsPage<SoCommentDTO>>() {});
+
+    /** Максимальное количество идентификаторов в одном запросе к StackExchange API */
+    private static final int MAX_IDS_PER_REQUEST = 100;
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 10;
+
     private final ApplicationStabilityProperties stabilityProperties;
+    private final RateLimitBudget rateLimitBudget;
+    private final RequestCoalescer requestCoalescer;
 
     @Autowired
     public SoQuestionClient(
             @Qualifier("soQuestionLinkConverter") LinkToApiLinkConverter converter,
             @Qualifier("stackOverflowClient") RestClient stackoverflowClient,
-            ApplicationStabilityProperties stabilityProperties) {
+            ApplicationStabilityProperties stabilityProperties,
+            RateLimitBudget rateLimitBudget,
+            RequestCoalescer requestCoalescer) {
         super(SUPPORTED_LINK, converter, stackoverflowClient);
         this.stabilityProperties = stabilityProperties;
+        this.rateLimitBudget = rateLimitBudget;
+        this.requestCoalescer = requestCoalescer;
     }
 
     @Override
@@ -52,19 +90,15 @@ public class SoQuestionClient extends StackoverflowClient {
             return null;
         }
 
-        ObjectMapper objectMapper =
-                JsonMapper.builder().addModule(new JavaTimeModule()).build();
-
         // Получаем информацию о вопросе
-        SoQuestionDTO questionDTO = getQuestions(
-                objectMapper,
-                Long.valueOf(Arrays.stream(url.split("/")).toList().getLast()));
+        SoQuestionDTO questionDTO =
+                getQuestions(Long.valueOf(Arrays.stream(url.split("/")).toList().getLast()));
         if (questionDTO == null) {
             return List.of();
         }
 
         // Получаем комментарии к вопросу
-        SoCommentListDTO commentListDTO = getCommentsForQuestion(objectMapper, url);
+        SoCommentListDTO commentListDTO = getCommentsForQuestion(url, link.getLastUpdateTime());
         List<LinkUpdateInfo> commentUpdates = new ArrayList<>();
         if (commentListDTO != null
                 && commentListDTO.items() != null
@@ -73,7 +107,7 @@ public class SoQuestionClient extends StackoverflowClient {
         }
 
         // Получаем ответы к вопросу
-        SoAnswersListDTO answersListDTO = getAnswers(objectMapper, url);
+        SoAnswersListDTO answersListDTO = getAnswers(url);
         List<LinkUpdateInfo> answersUpdates = new ArrayList<>();
         if (answersListDTO != null
                 && answersListDTO.items() != null
@@ -82,7 +116,7 @@ public class SoQuestionClient extends StackoverflowClient {
 
             // Получаем комментарии к ответам
             for (SoAnswerDTO answer : answersListDTO.items()) {
-                SoCommentListDTO comments = getCommentsForAnswers(objectMapper, answer.answerId());
+                SoCommentListDTO comments = getCommentsForAnswers(answer.answerId(), link.getLastUpdateTime());
                 answersUpdates.addAll(generateUpdateTextForComments(comments, link, questionDTO));
             }
         }
@@ -93,15 +127,174 @@ public class SoQuestionClient extends StackoverflowClient {
         return allUpdates;
     }
 
-    private SoQuestionDTO getQuestions(ObjectMapper mapper, Long postId) {
+    @Override
+    public int getMaxBatchSize() {
+        return MAX_IDS_PER_REQUEST;
+    }
+
+    /**
+     * Получить обновления пакета вопросов: вопросы, ответы и комментарии запрашиваются для всех ссылок сразу списками
+     * идентификаторов через ';', а затем распределяются по ссылкам
+     */
+    @Override
+    @Retry(name = "default", fallbackMethod = "onErrorBatch")
+    @CircuitBreaker(name = "default", fallbackMethod = "onCBErrorBatch")
+    public List<List<LinkUpdateInfo>> getBatchUpdates(List<Link> links) {
+        List<Long> questionIds = new ArrayList<>();
+        String apiBaseUrl = null;
+        for (Link link : links) {
+            String url = linkConverter.convert(link.getUrl());
+            if (url == null) {
+                questionIds.add(null);
+                continue;
+            }
+            questionIds.add(Long.valueOf(url.substring(url.lastIndexOf('/') + 1)));
+            if (apiBaseUrl == null) {
+                apiBaseUrl = url.substring(0, url.lastIndexOf("/questions/"));
+            }
+        }
+
+        Set<Long> uniqueIds =
+                questionIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (uniqueIds.isEmpty()) {
+            return links.stream().<List<LinkUpdateInfo>>map(link -> List.of()).toList();
+        }
+        String fromDate = links.stream()
+                .map(Link::getLastUpdateTime)
+                .filter(Objects::nonNull)
+                .min(Instant::compareTo)
+                .map(time -> "&fromdate=" + time.getEpochSecond())
+                .orElse("");
+
+        Map<Long, SoQuestionDTO> questions = new HashMap<>();
+        for (SoQuestionDTO question : this.<SoQuestionDTO>getAllPages(
+                apiBaseUrl, "/questions/", uniqueIds, "?site=stackoverflow", QUESTIONS_PAGE_READER)) {
+            questions.put(question.questionId(), question);
+        }
+        Map<Long, List<SoCommentDTO>> questionComments = this.<SoCommentDTO>getAllPages(
+                        apiBaseUrl,
+                        "/questions/",
+                        uniqueIds,
+                        "/comments?site=stackoverflow&filter=!nNPvSN_LI9" + fromDate,
+                        COMMENTS_PAGE_READER)
+                .stream()
+                .filter(comment -> comment.postId() != null)
+                .collect(Collectors.groupingBy(SoCommentDTO::postId));
+        Map<Long, List<SoAnswerDTO>> answers = this.<SoAnswerDTO>getAllPages(
+                        apiBaseUrl,
+                        "/questions/",
+                        uniqueIds,
+                        "/answers?site=stackoverflow&filter=!nNPvSNe7D9",
+                        ANSWERS_PAGE_READER)
+                .stream()
+                .filter(answer -> answer.questionId() != null)
+                .collect(Collectors.groupingBy(SoAnswerDTO::questionId));
+        Set<Long> answerIds = answers.values().stream()
+                .flatMap(List::stream)
+                .map(SoAnswerDTO::answerId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, List<SoCommentDTO>> answerComments = this.<SoCommentDTO>getAllPages(
+                        apiBaseUrl,
+                        "/answers/",
+                        answerIds,
+                        "/comments?site=stackoverflow&filter=!nNPvSN_LEO" + fromDate,
+                        COMMENTS_PAGE_READER)
+                .stream()
+                .filter(comment -> comment.postId() != null)
+                .collect(Collectors.groupingBy(SoCommentDTO::postId));
+
+        List<List<LinkUpdateInfo>> updates = new ArrayList<>();
+        for (int i = 0; i < links.size(); i++) {
+            Link link = links.get(i);
+            SoQuestionDTO question = questionIds.get(i) == null ? null : questions.get(questionIds.get(i));
+            if (question == null) {
+                updates.add(List.of());
+                continue;
+            }
+
+            List<SoAnswerDTO> questionAnswers = answers.getOrDefault(question.questionId(), List.of());
+            List<LinkUpdateInfo> linkUpdates = new ArrayList<>(generateUpdateTextForComments(
+                    new SoCommentListDTO(questionComments.getOrDefault(question.questionId(), List.of())),
+                    link,
+                    question));
+            linkUpdates.addAll(generateUpdateTextForAnswers(new SoAnswersListDTO(questionAnswers), link, question));
+            for (SoAnswerDTO answer : questionAnswers) {
+                linkUpdates.addAll(generateUpdateTextForComments(
+                        new SoCommentListDTO(answerComments.getOrDefault(answer.answerId(), List.of())),
+                        link,
+                        question));
+            }
+            updates.add(linkUpdates);
+        }
+        return updates;
+    }
+
+    /**
+     * Выполнить запросы для всех идентификаторов порциями по {@code MAX_IDS_PER_REQUEST} и собрать все страницы ответов
+     */
+    private <T> List<T> getAllPages(
+            String apiBaseUrl, String prefix, Collection<Long> ids, String suffix, ObjectReader pageReader) {
+        List<Long> idList = List.copyOf(ids);
+        List<T> items = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += MAX_IDS_PER_REQUEST) {
+            String joinedIds = idList.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, idList.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(";"));
+            for (int page = 1; page <= MAX_PAGES; page++) {
+                String url = apiBaseUrl + prefix + joinedIds + suffix + "&pagesize=" + PAGE_SIZE + "&page=" + page;
+                SoItemsPage<T> itemsPage = getPage(url, pageReader);
+                if (itemsPage == null) {
+                    break;
+                }
+                if (itemsPage.items() != null) {
+                    items.addAll(itemsPage.items());
+                }
+                if (!itemsPage.hasMore()) {
+                    break;
+                }
+            }
+        }
+        return items;
+    }
+
+    private <T> SoItemsPage<T> getPage(String url, ObjectReader pageReader) {
+        log.atInfo()
+                .setMessage("Пакетное обращение к StackOverflow Api")
+                .addKeyValue("url", url)
+                .log();
+        return client.get().uri(url).exchange((request, response) -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                SoItemsPage<T> page = pageReader.readValue(response.getBody());
+                updateQuota(page.quotaRemaining(), page.quotaMax(), page.backoff());
+                return page;
+            } else if (stabilityProperties
+                    .getRetry()
+                    .getHttpCodes()
+                    .contains(response.getStatusCode().value())) {
+                throw new RetryableHttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
+            }
+            log.atWarn()
+                    .setMessage("Некорректные параметры пакетного запроса к StackOverflow API")
+                    .addKeyValue("url", url)
+                    .addKeyValue("code", response.getStatusCode())
+                    .log();
+            return null;
+        });
+    }
+
+    private SoQuestionDTO getQuestions(Long postId) {
+        return requestCoalescer.execute("GET /questions/" + postId, () -> fetchQuestion(postId));
+    }
+
+    private SoQuestionDTO fetchQuestion(Long postId) {
         return client.method(HttpMethod.GET)
                 .uri("/questions/" + postId + "?site=stackoverflow")
                 .header("Accept", "application/json")
                 .exchange((request, response) -> {
                     if (response.getStatusCode().is2xxSuccessful()) {
-                        return mapper.readValue(response.getBody(), SoQuestionsListDTO.class)
-                                .items()
-                                .getFirst();
+                        SoQuestionsListDTO questions = QUESTIONS_READER.readValue(response.getBody());
+                        updateQuota(questions.quotaRemaining(), questions.quotaMax(), questions.backoff());
+                        return questions.items().getFirst();
                     } else if (stabilityProperties
                             .getRetry()
                             .getHttpCodes()
@@ -112,7 +305,11 @@ public class SoQuestionClient extends StackoverflowClient {
                 });
     }
 
-    private SoCommentListDTO getCommentsForQuestion(ObjectMapper objectMapper, String baseurl) {
+    /**
+     * Получить новые комментарии к вопросу. StackExchange API по умолчанию возвращает комментарии от новых к старым
+     * (sort=creation, order=desc), поэтому чтение ответа прекращается на первом уже обработанном комментарии
+     */
+    private SoCommentListDTO getCommentsForQuestion(String baseurl, Instant lastUpdateTime) {
         String url = baseurl + "/comments?site=stackoverflow&filter=!nNPvSN_LI9";
         log.atInfo()
                 .setMessage("Обращение к StackOverflow Api для получения комментариев к вопросу")
@@ -120,7 +317,7 @@ public class SoQuestionClient extends StackoverflowClient {
                 .log();
         return client.get().uri(url).exchange((request, response) -> {
             if (response.getStatusCode().is2xxSuccessful()) {
-                return objectMapper.readValue(response.getBody(), SoCommentListDTO.class);
+                return readNewComments(response.getBody(), lastUpdateTime);
             } else if (stabilityProperties
                     .getRetry()
                     .getHttpCodes()
@@ -135,11 +332,15 @@ public class SoQuestionClient extends StackoverflowClient {
         });
     }
 
-    private SoAnswersListDTO getAnswers(ObjectMapper objectMapper, String baseurl) {
+    private SoAnswersListDTO getAnswers(String baseurl) {
         String url = baseurl + "/answers?site=stackoverflow&filter=!nNPvSNe7D9";
+        return requestCoalescer.execute("GET " + url, () -> fetchAnswers(url));
+    }
+
+    private SoAnswersListDTO fetchAnswers(String url) {
         return client.get().uri(url).exchange((request, response) -> {
             if (response.getStatusCode().is2xxSuccessful()) {
-                return objectMapper.readValue(response.getBody(), SoAnswersListDTO.class);
+                return ANSWERS_READER.readValue(response.getBody());
             } else if (stabilityProperties
                     .getRetry()
                     .getHttpCodes()
@@ -150,12 +351,12 @@ public class SoQuestionClient extends StackoverflowClient {
         });
     }
 
-    private SoCommentListDTO getCommentsForAnswers(ObjectMapper mapper, Long answerId) {
+    private SoCommentListDTO getCommentsForAnswers(Long answerId, Instant lastUpdateTime) {
         return client.get()
                 .uri("/answers/" + answerId + "/comments?site=stackoverflow&filter=!nNPvSN_LEO")
                 .exchange((request, response) -> {
                     if (response.getStatusCode().is2xxSuccessful()) {
-                        return mapper.readValue(response.getBody(), SoCommentListDTO.class);
+                        return readNewComments(response.getBody(), lastUpdateTime);
                     } else if (stabilityProperties
                             .getRetry()
                             .getHttpCodes()
@@ -166,6 +367,26 @@ public class SoQuestionClient extends StackoverflowClient {
                 });
     }
 
+    /**
+     * Передать квоту из ответа StackExchange API в бюджет запросов. Дневная квота сбрасывается в полночь UTC, а поле
+     * backoff откладывает следующие запросы на указанное количество секунд
+     */
+    private void updateQuota(Integer quotaRemaining, Integer quotaMax, Integer backoff) {
+        if (quotaRemaining != null && quotaMax != null) {
+            Instant resetAt =
+                    LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+            rateLimitBudget.update(getSourceName(), quotaRemaining, quotaMax, resetAt);
+        }
+        if (backoff != null) {
+            rateLimitBudget.backoff(getSourceName(), Instant.now().plusSeconds(backoff));
+        }
+    }
+
+    private SoCommentListDTO readNewComments(InputStream body, Instant lastUpdateTime) throws IOException {
+        return new SoCommentListDTO(JsonReaders.<SoCommentDTO>readFieldWhile(
+                body, "items", COMMENT_READER, comment -> wasUpdated(lastUpdateTime, comment.createdAt())));
+    }
+
     private List<LinkUpdateInfo> generateUpdateTextForComments(
             SoCommentListDTO comments, Link link, SoQuestionDTO question) {
         List<LinkUpdateInfo> updates = new ArrayList<>();
@@ -209,7 +430,8 @@ public class SoQuestionClient extends StackoverflowClient {
                         question.title(),
                         comment.owner().name(),
                         formatter.format(LocalDateTime.ofInstant(comment.createdAt(), ZoneId.of("UTC"))),
-                        comment.text()));
+                        comment.text()),
+                UpdateKind.COMMENT);
     }
 
     private LinkUpdateInfo formatAnswerUpdate(SoAnswerDTO answer, SoQuestionDTO question) {
@@ -225,7 +447,8 @@ public class SoQuestionClient extends StackoverflowClient {
                         question.title(),
                         answer.owner().name(),
                         formatter.format(LocalDateTime.ofInstant(answer.creationDate(), ZoneId.of("UTC"))),
-                        answer.text()));
+                        answer.text()),
+                UpdateKind.ANSWER);
     }
 
     public List<LinkUpdateInfo> onErrorQuestionList(ObjectMapper mapper, Long postId, Throwable t) {
@@ -247,4 +470,22 @@ public class SoQuestionClient extends StackoverflowClient {
                 .log();
         return List.of();
     }
+
+    public List<List<LinkUpdateInfo>> onErrorBatch(List<Link> links, Throwable t) {
+        log.atWarn()
+                .setMessage("Ошибка при пакетном получении вопросов SO. Неудачный запрос")
+                .addKeyValue("links", links.size())
+                .addKeyValue("exception", t.getMessage())
+                .log();
+        return links.stream().<List<LinkUpdateInfo>>map(link -> List.of()).toList();
+    }
+
+    public List<List<LinkUpdateInfo>> onCBErrorBatch(List<Link> links, Throwable t) {
+        log.atWarn()
+                .setMessage("Ошибка при пакетном получении вопросов SO. Сервис недоступен")
+                .addKeyValue("links", links.size())
+                .addKeyValue("exception", t.getMessage())
+                .log();
+        return links.stream().<List<LinkUpdateInfo>>map(link -> List.of()).toList();
+    }
 }
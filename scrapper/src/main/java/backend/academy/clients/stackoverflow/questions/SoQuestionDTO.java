@@ -16,6 +16,7 @@ import java.time.Instant;
  * @param creationDate дата создания
  * @param lastEditDate дата последнего изменения
  * @param title заголовок вопроса
+ * @param questionId идентификатор вопроса
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record SoQuestionDTO(
@@ -28,4 +29,5 @@ public record SoQuestionDTO(
                 Instant creationDate,
         @JsonProperty("last_edit_date") @JsonDeserialize(converter = JsonConverters.TimeStampToInstantConverter.class)
                 Instant lastEditDate,
-        @JsonProperty("title") String title) {}
+        @JsonProperty("title") String title,
+        @JsonProperty("question_id") Long questionId) {}
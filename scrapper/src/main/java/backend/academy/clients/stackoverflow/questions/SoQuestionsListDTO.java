@@ -5,4 +5,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record SoQuestionsListDTO(@JsonProperty("items") List<SoQuestionDTO> items) {}
+public record SoQuestionsListDTO(
+        @JsonProperty("items") List<SoQuestionDTO> items,
+        @JsonProperty("quota_remaining") Integer quotaRemaining,
+        @JsonProperty("quota_max") Integer quotaMax,
+        @JsonProperty("backoff") Integer backoff) {}
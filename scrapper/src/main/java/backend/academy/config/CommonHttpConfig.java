@@ -1,21 +1,78 @@
 package backend.academy.config;
 
 import backend.academy.config.properties.ApplicationStabilityProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 
 @Configuration
 @RequiredArgsConstructor
 public class CommonHttpConfig {
+    static final String KEEP_ALIVE_TIMEOUT_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    static final String CONNECTION_POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    private static final long DEFAULT_KEEP_ALIVE_TIMEOUT_SECONDS = 30;
+
     private final ApplicationStabilityProperties properties;
 
     @Bean
-    SimpleClientHttpRequestFactory simpleClientHttpRequestFactory() {
+    @ConditionalOnProperty(
+            prefix = "app.stability",
+            name = "request-factory",
+            havingValue = "SIMPLE",
+            matchIfMissing = true)
+    ClientHttpRequestFactory simpleClientHttpRequestFactory() {
         SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
         requestFactory.setConnectTimeout(properties.getTimeout().getConnectTimeout());
         requestFactory.setReadTimeout(properties.getTimeout().getReadTimeout());
         return requestFactory;
     }
+
+    /**
+     * Создает HTTP-клиент JDK с пулом соединений, поддержкой HTTP/2 и обработкой ответов на виртуальных потоках.
+     * Параметры пула ({@value #KEEP_ALIVE_TIMEOUT_PROPERTY}, {@value #CONNECTION_POOL_SIZE_PROPERTY}) JDK читает один
+     * раз при инициализации клиента, поэтому они задаются опциями JVM при запуске (см. {@code JDK_JAVA_OPTIONS} в
+     * Dockerfile), а приложение только публикует их в метриках
+     *
+     * @return объект {@code HttpClient}, закрываемый вместе с контекстом приложения
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.stability", name = "request-factory", havingValue = "JDK")
+    HttpClient jdkHttpClient() {
+        return HttpClient.newBuilder()
+                .version(properties.getJdkHttpClient().getVersion())
+                .connectTimeout(Duration.ofMillis(properties.getTimeout().getConnectTimeout()))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.stability", name = "request-factory", havingValue = "JDK")
+    ClientHttpRequestFactory jdkClientHttpRequestFactory(HttpClient jdkHttpClient, MeterRegistry meterRegistry) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(jdkHttpClient);
+        requestFactory.setReadTimeout(properties.getTimeout().getReadTimeout());
+        Gauge.builder(
+                        "http.client.pool.keepalive.timeout",
+                        () -> Long.getLong(KEEP_ALIVE_TIMEOUT_PROPERTY, DEFAULT_KEEP_ALIVE_TIMEOUT_SECONDS))
+                .description("Время жизни простаивающего соединения в пуле JDK HttpClient")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.size.limit", () -> Long.getLong(CONNECTION_POOL_SIZE_PROPERTY, 0))
+                .description(
+                        "Максимальное количество простаивающих соединений в пуле JDK HttpClient (0 - без ограничения)")
+                .register(meterRegistry);
+        return new InterceptingClientHttpRequestFactory(
+                requestFactory, List.of(new HttpClientMetricsInterceptor(meterRegistry)));
+    }
 }
@@ -0,0 +1,58 @@
+package backend.academy.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Перехватчик запросов, публикующий метрики использования соединений HTTP-клиента: количество запросов, ожидающих
+ * ответа, и время ожидания ответа для каждого хоста
+ */
+public class HttpClientMetricsInterceptor implements ClientHttpRequestInterceptor {
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HostMeters> meters = new ConcurrentHashMap<>();
+
+    public HttpClientMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HostMeters hostMeters =
+                meters.computeIfAbsent(String.valueOf(request.getURI().getHost()), this::createMeters);
+
+        long start = System.nanoTime();
+        hostMeters.active.incrementAndGet();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            hostMeters.active.decrementAndGet();
+            hostMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private HostMeters createMeters(String host) {
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("http.client.connections.active", active, AtomicInteger::get)
+                .description("Number of requests waiting for a response on the pooled HTTP client")
+                .tag("host", host)
+                .register(meterRegistry);
+        Timer timer = Timer.builder("http.client.connections.usage")
+                .description("Time a pooled connection is held until response headers are received")
+                .tag("host", host)
+                .register(meterRegistry);
+        return new HostMeters(active, timer);
+    }
+
+    private record HostMeters(AtomicInteger active, Timer timer) {}
+}
@@ -1,6 +1,8 @@
 package backend.academy.config;
 
 import backend.academy.dto.LinkUpdate;
+import backend.academy.serialization.LinkUpdateBinarySerializer;
+import backend.academy.serialization.WireFormat;
 import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +24,7 @@ import org.springframework.kafka.support.serializer.JsonSerializer;
 public class KafkaProducerConfig {
 
     private final KafkaProperties properties;
+    private final UserEventsProperties userEventsProperties;
 
     @Bean
     @Primary
@@ -30,7 +33,11 @@ public class KafkaProducerConfig {
 
         // Serialization
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, LongSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                userEventsProperties.getWireFormat() == WireFormat.BINARY
+                        ? LinkUpdateBinarySerializer.class
+                        : JsonSerializer.class);
 
         // Partitioning
         props.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, CustomUserPartitioner.class);
@@ -49,7 +56,8 @@ public class KafkaProducerConfig {
                     .filter(Long.class::isInstance)
                     .map(Long.class::cast)
                     .orElse(0L);
-            return (int) (userId % cluster.partitionCountForTopic(topic));
+            // Идентификаторы групповых чатов Telegram отрицательны
+            return (int) Math.floorMod(userId, (long) cluster.partitionCountForTopic(topic));
         }
 
         @Override
@@ -1,6 +1,8 @@
 package backend.academy.config;
 
 import backend.academy.dto.LinkUpdate;
+import backend.academy.serialization.LinkUpdateBinaryRedisSerializer;
+import backend.academy.serialization.WireFormat;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +20,9 @@ public class RedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${app.delayed-sending.wire-format:JSON}")
+    private WireFormat wireFormat;
+
     @Bean
     LettuceConnectionFactory lettuceConnectionFactory() {
         RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration();
@@ -30,7 +35,10 @@ public class RedisConfig {
     public RedisTemplate<String, LinkUpdate> redisTemplate() {
         RedisTemplate<String, LinkUpdate> template = new RedisTemplate<>();
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(
+                wireFormat == WireFormat.BINARY
+                        ? new LinkUpdateBinaryRedisSerializer()
+                        : new GenericJackson2JsonRedisSerializer());
         template.setConnectionFactory(lettuceConnectionFactory());
         return template;
     }
@@ -1,5 +1,6 @@
 package backend.academy.config;
 
+import backend.academy.serialization.WireFormat;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -18,8 +19,21 @@ public class UserEventsProperties {
     private int partitions;
     private short replicas;
 
+    /** Способ записи уведомлений в топик */
+    private RecordMode recordMode = RecordMode.MULTI_CHAT;
+
+    /** Формат значения записей топика. Должен совпадать с настройкой модуля bot */
+    private WireFormat wireFormat = WireFormat.JSON;
+
     public KafkaAdmin.NewTopics toNewTopics() {
         return new KafkaAdmin.NewTopics(
                 new NewTopic(topic, partitions, replicas), new NewTopic(topic + "-dlt", partitions, replicas));
     }
+
+    public enum RecordMode {
+        /** Одна запись на обновление со всеми чатами, ключ - первый чат */
+        MULTI_CHAT,
+        /** Отдельная запись для каждого чата, ключ - идентификатор чата */
+        PER_CHAT
+    }
 }
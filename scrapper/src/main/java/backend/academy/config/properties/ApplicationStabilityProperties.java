@@ -1,5 +1,6 @@
 package backend.academy.config.properties;
 
+import java.net.http.HttpClient;
 import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -20,6 +21,12 @@ public class ApplicationStabilityProperties {
     @NestedConfigurationProperty
     private Retry retry;
 
+    /** Реализация HTTP-клиента для RestClient: SIMPLE (HttpURLConnection) или JDK (java.net.http.HttpClient) */
+    private String requestFactory = "SIMPLE";
+
+    @NestedConfigurationProperty
+    private JdkHttpClient jdkHttpClient = new JdkHttpClient();
+
     @Getter
     @Setter
     public static class Timeout {
@@ -32,4 +39,11 @@ public class ApplicationStabilityProperties {
     public static class Retry {
         private List<Integer> httpCodes;
     }
+
+    @Getter
+    @Setter
+    public static class JdkHttpClient {
+        /** Предпочитаемая версия протокола, при недоступности HTTP/2 клиент откатывается на HTTP/1.1 */
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+    }
 }
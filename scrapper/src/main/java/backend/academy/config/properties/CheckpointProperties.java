@@ -0,0 +1,21 @@
+package backend.academy.config.properties;
+
+import java.time.Duration;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Configuration
+@ConfigurationProperties("app.checkpoint")
+public class CheckpointProperties {
+    /** Период, с которым накопленное время последнего обновления ссылок записывается в БД */
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    /** Количество накопленных ссылок, при котором запись выполняется, не дожидаясь таймера */
+    private int maxBatchSize = 500;
+}
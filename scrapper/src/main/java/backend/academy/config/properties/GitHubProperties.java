@@ -0,0 +1,26 @@
+package backend.academy.config.properties;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Configuration
+@ConfigurationProperties("app.github")
+public class GitHubProperties {
+    /**
+     * Получать новые комментарии к списку issues одним постраничным запросом ко всему репозиторию
+     * ({@code /repos/{owner}/{repo}/issues/comments?since=}) вместо запроса комментариев каждого issue
+     */
+    private boolean bulkComments = true;
+
+    /** Количество комментариев на странице ответа (не более 100) */
+    private int commentsPageSize = 100;
+
+    /** Максимальное количество страниц комментариев, запрашиваемых за одну проверку ссылки */
+    private int maxCommentPages = 10;
+}
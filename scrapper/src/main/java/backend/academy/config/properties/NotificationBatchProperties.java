@@ -0,0 +1,21 @@
+package backend.academy.config.properties;
+
+import java.time.Duration;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Configuration
+@ConfigurationProperties("app.notification-batch")
+public class NotificationBatchProperties {
+    /** Максимальное количество уведомлений в одном пакете */
+    private int maxBatchSize = 50;
+
+    /** Максимальное время, которое уведомление ожидает в буфере до отправки неполного пакета */
+    private Duration linger = Duration.ofMillis(200);
+}
@@ -0,0 +1,41 @@
+package backend.academy.config.properties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Configuration
+@ConfigurationProperties("app.polling")
+public class PollingProperties {
+    /** Доля времени, прошедшего с последнего изменения ресурса, через которую ссылка будет проверена повторно */
+    private double backoffFactor = 0.5;
+
+    /** Границы интервала проверки для типов ссылок, не указанных в {@code intervals} */
+    private Bounds defaultInterval = new Bounds(Duration.ofMinutes(1), Duration.ofHours(1));
+
+    /** Границы интервала проверки для каждого типа ссылок (ключ - тип ссылки) */
+    private Map<String, Bounds> intervals = new HashMap<>();
+
+    public Bounds getInterval(String type) {
+        return type == null ? defaultInterval : intervals.getOrDefault(type, defaultInterval);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bounds {
+        private Duration min;
+        private Duration max;
+    }
+}
@@ -0,0 +1,20 @@
+package backend.academy.config.properties;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Configuration
+@ConfigurationProperties("app.rate-limit")
+public class RateLimitProperties {
+    /** Количество запросов, которое не расходуется планировщиком и остается в запасе до сброса лимита */
+    private int reserve = 50;
+
+    /** Доля оставшегося лимита, ниже которой планировщик в первую очередь проверяет недавно обновлявшиеся ссылки */
+    private double lowWatermark = 0.2;
+}
@@ -0,0 +1,44 @@
+package backend.academy.config.properties;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Configuration
+@ConfigurationProperties("app.scrape")
+public class ScrapeProperties {
+    /** Ограничение на количество одновременных запросов к источнику, не указанному в {@code maxConcurrency} */
+    private int defaultMaxConcurrency = 4;
+
+    /** Ограничение на количество одновременных запросов к каждому источнику (ключ - название источника) */
+    private Map<String, Integer> maxConcurrency = new HashMap<>();
+
+    /**
+     * Максимальное количество ссылок, одновременно находящихся в обработке, и размер очереди к стадии рассылки
+     * уведомлений за один цикл планировщика
+     */
+    private int pipelineCapacity = 200;
+
+    /**
+     * Объединять ссылки клиентов, поддерживающих пакетные запросы ({@code BatchClient}), в пакеты в пределах цикла
+     * планировщика
+     */
+    private boolean batchRequests = true;
+
+    /**
+     * Максимальное количество валидаторов ответов (ETag / Last-Modified), хранимых для условных запросов; давно не
+     * использовавшиеся вытесняются
+     */
+    private int conditionalRequestsCacheSize = 10_000;
+
+    public int getMaxConcurrency(String sourceName) {
+        return maxConcurrency.getOrDefault(sourceName, defaultMaxConcurrency);
+    }
+}
@@ -0,0 +1,10 @@
+package backend.academy.dto;
+
+import java.util.List;
+
+/**
+ * Объект передачи данных для отправки пакета уведомлений об обновлениях одним запросом
+ *
+ * @param updates уведомления об обновлениях ссылок
+ */
+public record LinkUpdateBatch(List<LinkUpdate> updates) {}
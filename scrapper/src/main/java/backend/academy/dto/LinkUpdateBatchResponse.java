@@ -0,0 +1,14 @@
+package backend.academy.dto;
+
+import java.util.List;
+
+/**
+ * DTO ответа на пакет обновлений ресурсов
+ *
+ * @param rejected индексы некорректных обновлений пакета, которые не будут разосланы
+ */
+public record LinkUpdateBatchResponse(List<Integer> rejected) {
+    public LinkUpdateBatchResponse() {
+        this(null);
+    }
+}
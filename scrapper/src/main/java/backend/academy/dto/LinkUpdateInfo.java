@@ -3,4 +3,16 @@ package backend.academy.dto;
 import java.time.Instant;
 
 public record LinkUpdateInfo(
-        String url, String authorName, String title, String body, Instant updateTime, String commonInfo) {}
+        String url,
+        String authorName,
+        String title,
+        String body,
+        Instant updateTime,
+        String commonInfo,
+        UpdateKind kind) {
+
+    public LinkUpdateInfo(
+            String url, String authorName, String title, String body, Instant updateTime, String commonInfo) {
+        this(url, authorName, title, body, updateTime, commonInfo, UpdateKind.UNKNOWN);
+    }
+}
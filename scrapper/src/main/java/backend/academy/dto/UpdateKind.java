@@ -0,0 +1,10 @@
+package backend.academy.dto;
+
+/** Вид обновления ресурса, по которому можно фильтровать уведомления */
+public enum UpdateKind {
+    ISSUE,
+    COMMENT,
+    ANSWER,
+    REPOSITORY,
+    UNKNOWN
+}
@@ -0,0 +1,243 @@
+package backend.academy.filters.engine;
+
+import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.dto.UpdateKind;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Компилятор фильтров подписки в дерево предикатов. Фильтры задаются в виде {@code ключ:значение} и исключают
+ * обновление, если хотя бы один из них сработал; префикс {@code !} инвертирует условие. Поддерживаемые ключи:
+ *
+ * <ul>
+ *   <li>{@code user} - автор совпадает со значением
+ *   <li>{@code title}, {@code body} - заголовок или текст содержит подстроку без учета регистра
+ *   <li>{@code regex} - регулярное выражение (не длиннее {@value #MAX_REGEX_LENGTH} символов) находится в заголовке или
+ *       тексте. Поиск ведется в первых {@value #MAX_MATCHED_TEXT_LENGTH} символах и прерывается через
+ *       {@value #MATCH_TIMEOUT_MILLIS} мс - выражение с катастрофическим перебором не блокирует поток скрапинга
+ *   <li>{@code kind} - вид обновления (см. {@link UpdateKind})
+ *   <li>{@code time} - время создания попадает в окно {@code HH:mm-HH:mm} (UTC), окно может переходить через полночь
+ * </ul>
+ *
+ * Некорректные фильтры и неизвестные ключи пропускаются
+ */
+@Slf4j
+public final class FilterCompiler {
+    public static final String AUTHOR_KEY = "user";
+    public static final String TITLE_KEY = "title";
+    public static final String BODY_KEY = "body";
+    public static final String REGEX_KEY = "regex";
+    public static final String KIND_KEY = "kind";
+    public static final String TIME_KEY = "time";
+
+    public static final int MAX_REGEX_LENGTH = 256;
+    public static final int MAX_MATCHED_TEXT_LENGTH = 10_000;
+    public static final long MATCH_TIMEOUT_MILLIS = 50;
+
+    private static final String NEGATION_PREFIX = "!";
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private FilterCompiler() {}
+
+    /**
+     * Скомпилировать список фильтров подписки
+     *
+     * @param filters фильтры в виде {@code ключ:значение}
+     * @return предикат, возвращающий {@code true} для обновлений, которые нужно отбросить
+     */
+    public static FilterPredicate compile(List<String> filters) {
+        List<FilterPredicate> predicates = new ArrayList<>(filters.size());
+        for (String filter : filters) {
+            FilterPredicate predicate = compileFilter(filter);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+
+        return switch (predicates.size()) {
+            case 0 -> FilterPredicate.NONE;
+            case 1 -> predicates.getFirst();
+            default -> anyOf(predicates.toArray(FilterPredicate[]::new));
+        };
+    }
+
+    private static FilterPredicate compileFilter(String filter) {
+        boolean negated = filter.startsWith(NEGATION_PREFIX);
+        String expression = negated ? filter.substring(NEGATION_PREFIX.length()) : filter;
+        int separator = expression.indexOf(':');
+        if (separator <= 0 || separator == expression.length() - 1) {
+            logSkippedFilter(filter, "Фильтр должен иметь вид ключ:значение");
+            return null;
+        }
+
+        String key = expression.substring(0, separator);
+        String value = expression.substring(separator + 1);
+        FilterPredicate predicate;
+        try {
+            predicate = switch (key) {
+                case AUTHOR_KEY -> updateInfo -> value.equals(updateInfo.authorName());
+                case TITLE_KEY -> contains(LinkUpdateInfo::title, value);
+                case BODY_KEY -> contains(LinkUpdateInfo::body, value);
+                case REGEX_KEY -> matches(compileRegex(value));
+                case KIND_KEY -> ofKind(UpdateKind.valueOf(value.toUpperCase(Locale.ROOT)));
+                case TIME_KEY -> inTimeWindow(value);
+                default -> null;
+            };
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            logSkippedFilter(filter, e.getMessage());
+            return null;
+        }
+
+        if (predicate == null) {
+            logSkippedFilter(filter, "Неизвестный ключ фильтра");
+            return null;
+        }
+        return negated ? not(predicate) : predicate;
+    }
+
+    private static FilterPredicate anyOf(FilterPredicate[] predicates) {
+        return updateInfo -> {
+            for (FilterPredicate predicate : predicates) {
+                if (predicate.test(updateInfo)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static FilterPredicate not(FilterPredicate predicate) {
+        return updateInfo -> !predicate.test(updateInfo);
+    }
+
+    private static FilterPredicate contains(Function<LinkUpdateInfo, String> field, String substring) {
+        return updateInfo -> containsIgnoreCase(field.apply(updateInfo), substring);
+    }
+
+    private static Pattern compileRegex(String regex) {
+        if (regex.length() > MAX_REGEX_LENGTH) {
+            throw new IllegalArgumentException("Регулярное выражение длиннее " + MAX_REGEX_LENGTH + " символов");
+        }
+        return Pattern.compile(regex);
+    }
+
+    private static FilterPredicate matches(Pattern pattern) {
+        // Matcher создается на каждую проверку: это единственный узел дерева, который аллоцирует
+        return updateInfo -> find(pattern, updateInfo.title()) || find(pattern, updateInfo.body());
+    }
+
+    private static FilterPredicate ofKind(UpdateKind kind) {
+        return updateInfo -> updateInfo.kind() == kind;
+    }
+
+    private static FilterPredicate inTimeWindow(String window) {
+        int separator = window.indexOf('-');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Окно времени должно иметь вид HH:mm-HH:mm");
+        }
+        long from = LocalTime.parse(window.substring(0, separator)).toSecondOfDay();
+        long to = LocalTime.parse(window.substring(separator + 1)).toSecondOfDay();
+
+        return updateInfo -> {
+            Instant updateTime = updateInfo.updateTime();
+            if (updateTime == null) {
+                return false;
+            }
+            long secondOfDay = Math.floorMod(updateTime.getEpochSecond(), SECONDS_PER_DAY);
+            return from <= to ? secondOfDay >= from && secondOfDay < to : secondOfDay >= from || secondOfDay < to;
+        };
+    }
+
+    private static boolean containsIgnoreCase(String text, String substring) {
+        if (text == null) {
+            return false;
+        }
+        int last = text.length() - substring.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, substring, 0, substring.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean find(Pattern pattern, String text) {
+        if (text == null) {
+            return false;
+        }
+        CharSequence input = new DeadlineCharSequence(
+                text.length() > MAX_MATCHED_TEXT_LENGTH ? text.substring(0, MAX_MATCHED_TEXT_LENGTH) : text,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MATCH_TIMEOUT_MILLIS));
+        try {
+            return pattern.matcher(input).find();
+        } catch (MatchTimeoutException e) {
+            log.atWarn()
+                    .setMessage("Поиск по регулярному выражению прерван по таймауту")
+                    .addKeyValue("regex", pattern.pattern())
+                    .log();
+            return false;
+        }
+    }
+
+    private static void logSkippedFilter(String filter, String reason) {
+        log.atWarn()
+                .setMessage("Фильтр пропущен")
+                .addKeyValue("filter", filter)
+                .addKeyValue("reason", reason)
+                .log();
+    }
+
+    /**
+     * Строка, чтение которой прерывается исключением после наступления дедлайна. Движок регулярных выражений читает
+     * входные данные только через {@link #charAt(int)}, поэтому перебор с возвратами не может продолжаться дольше
+     * дедлайна
+     */
+    private static final class DeadlineCharSequence implements CharSequence {
+        private final String text;
+        private final long deadline;
+        private int reads;
+
+        DeadlineCharSequence(String text, long deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                throw new MatchTimeoutException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(text.substring(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static final class MatchTimeoutException extends RuntimeException {
+        MatchTimeoutException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package backend.academy.filters.engine;
+
+import backend.academy.dto.LinkUpdateInfo;
+
+/** Скомпилированное условие фильтра. Вызывается для каждого обновления, поэтому реализации не должны аллоцировать */
+@FunctionalInterface
+public interface FilterPredicate {
+    FilterPredicate NONE = updateInfo -> false;
+
+    /**
+     * Проверить обновление
+     *
+     * @param updateInfo обновление ресурса
+     * @return {@code true}, если обновление попадает под условие фильтра
+     */
+    boolean test(LinkUpdateInfo updateInfo);
+}
@@ -0,0 +1,89 @@
+package backend.academy.filters.impl;
+
+import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.filters.LinkFilter;
+import backend.academy.filters.engine.FilterCompiler;
+import backend.academy.filters.engine.FilterPredicate;
+import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
+import backend.academy.model.plain.TgChat;
+import backend.academy.service.ChatService;
+import backend.academy.service.SubscriptionIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фильтр на основе скомпилированных предикатов (см. {@link FilterCompiler}). Фильтры каждой подписки компилируются один
+ * раз и кэшируются по ссылке и чату; повторная компиляция происходит только при изменении списка фильтров. Запись
+ * удаляется из кэша при изменении или удалении подписки в {@link SubscriptionIndex}
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.filters", name = "engine", havingValue = "COMPILED", matchIfMissing = true)
+public class CompiledLinkFilter implements LinkFilter, SubscriptionIndex.Listener {
+    private final ChatService chatService;
+    private final Map<Long, Map<Long, CompiledFilters>> compiledFilters = new ConcurrentHashMap<>();
+
+    public CompiledLinkFilter(ChatService chatService, SubscriptionIndex subscriptionIndex) {
+        this.chatService = chatService;
+        subscriptionIndex.addListener(this);
+    }
+
+    @Override
+    public List<Long> filterChatIds(LinkUpdateInfo updateInfo, Link link) {
+        List<Long> result = new ArrayList<>();
+        for (Long tgChatId : link.getTgChatIds()) {
+            if (!getPredicate(link, tgChatId).test(updateInfo)) {
+                result.add(tgChatId);
+            }
+        }
+        return result;
+    }
+
+    private FilterPredicate getPredicate(Link link, Long tgChatId) {
+        List<String> filters = getFilters(link, tgChatId);
+        Map<Long, CompiledFilters> linkFilters =
+                compiledFilters.computeIfAbsent(link.getId(), linkId -> new ConcurrentHashMap<>());
+
+        CompiledFilters compiled = linkFilters.get(tgChatId);
+        if (compiled == null || !compiled.source().equals(filters)) {
+            List<String> source = List.copyOf(filters);
+            compiled = new CompiledFilters(source, FilterCompiler.compile(source));
+            linkFilters.put(tgChatId, compiled);
+        }
+        return compiled.predicate();
+    }
+
+    @Override
+    public void onSubscriptionChanged(Long linkId, Long chatId) {
+        compiledFilters.computeIfPresent(linkId, (id, linkFilters) -> {
+            linkFilters.remove(chatId);
+            return linkFilters.isEmpty() ? null : linkFilters;
+        });
+    }
+
+    @Override
+    public void onLinkUntracked(Long linkId) {
+        compiledFilters.remove(linkId);
+    }
+
+    /** Количество подписок, для которых хранятся скомпилированные фильтры */
+    int compiledSubscriptions() {
+        return compiledFilters.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private List<String> getFilters(Link link, Long tgChatId) {
+        LinkSubscription subscription = link.getSubscriptions().get(tgChatId);
+        if (subscription != null) {
+            return subscription.getFilters();
+        }
+
+        TgChat chat = chatService.getPlainTgChatByChatId(tgChatId).orElseThrow();
+        return chatService.getFilters(link.getId(), chat.getChatId());
+    }
+
+    private record CompiledFilters(List<String> source, FilterPredicate predicate) {}
+}
@@ -3,6 +3,7 @@ package backend.academy.filters.impl;
 import backend.academy.dto.LinkUpdateInfo;
 import backend.academy.filters.LinkFilter;
 import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
 import backend.academy.model.plain.TgChat;
 import backend.academy.service.ChatService;
 import java.util.ArrayList;
@@ -10,9 +11,11 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(prefix = "app.filters", name = "engine", havingValue = "AUTHOR")
 @RequiredArgsConstructor
 public class LinkFilterByAuthor implements LinkFilter {
     public static final String FILTER_FIELD_NAME = "user";
@@ -24,8 +27,7 @@ public class LinkFilterByAuthor implements LinkFilter {
 
         Set<Long> currentChatIds = link.getTgChatIds();
         for (Long tgChatId : currentChatIds) {
-            TgChat chat = chatService.getPlainTgChatByChatId(tgChatId).orElseThrow();
-            List<String> filters = chatService.getFilters(link.getId(), chat.getChatId());
+            List<String> filters = getFilters(link, tgChatId);
 
             if (!containsForbiddenAuthor(filters, updateInfo)) {
                 result.add(tgChatId);
@@ -34,6 +36,16 @@ public class LinkFilterByAuthor implements LinkFilter {
         return result;
     }
 
+    private List<String> getFilters(Link link, Long tgChatId) {
+        LinkSubscription subscription = link.getSubscriptions().get(tgChatId);
+        if (subscription != null) {
+            return subscription.getFilters();
+        }
+
+        TgChat chat = chatService.getPlainTgChatByChatId(tgChatId).orElseThrow();
+        return chatService.getFilters(link.getId(), chat.getChatId());
+    }
+
     private boolean containsForbiddenAuthor(List<String> filters, LinkUpdateInfo updateInfo) {
         for (String filter : filters) {
             String[] splittedFilter = filter.split(":", 2);
@@ -0,0 +1,14 @@
+package backend.academy.model.jdbc;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ссылка, отслеживаемая чатом, вместе с данными подписки, полученными одним запросом
+ *
+ * @param link ссылка
+ * @param tags теги, назначенные ссылке чатом
+ * @param filters фильтры, назначенные ссылке чатом
+ * @param tgChatIds идентификаторы всех чатов в Telegram, отслеживающих ссылку
+ */
+public record JdbcTrackedLink(JdbcLink link, List<String> tags, List<String> filters, Set<Long> tgChatIds) {}
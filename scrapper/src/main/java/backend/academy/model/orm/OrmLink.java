@@ -19,7 +19,7 @@ import lombok.Setter;
 @AllArgsConstructor
 @Getter
 @Setter
-@EqualsAndHashCode(exclude = {"lastUpdate"})
+@EqualsAndHashCode(exclude = {"lastUpdate", "nextCheckAt"})
 public class OrmLink {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,7 +34,17 @@ public class OrmLink {
     @Column(name = "type")
     private String type;
 
+    @Column(name = "next_check_at")
+    private Instant nextCheckAt = Instant.now();
+
     public OrmLink(String linkValue) {
         this.linkValue = linkValue;
     }
+
+    public OrmLink(Long id, String linkValue, Instant lastUpdate, String type) {
+        this.id = id;
+        this.linkValue = linkValue;
+        this.lastUpdate = lastUpdate;
+        this.type = type;
+    }
 }
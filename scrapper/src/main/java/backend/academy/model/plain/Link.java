@@ -1,10 +1,13 @@
 package backend.academy.model.plain;
 
+import backend.academy.clients.Client;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -12,7 +15,7 @@ import lombok.Setter;
 
 @Getter
 @Setter
-@EqualsAndHashCode(exclude = {"id", "tgChatIds", "lastUpdateTime"})
+@EqualsAndHashCode(exclude = {"id", "tgChatIds", "lastUpdateTime", "subscriptions", "client", "scrapedUntil"})
 public class Link {
     private Long id;
     private String url;
@@ -26,6 +29,20 @@ public class Link {
     @JsonIgnore
     private Instant lastUpdateTime;
 
+    @JsonIgnore
+    private Map<Long, LinkSubscription> subscriptions = new HashMap<>();
+
+    /** Клиент, найденный для ссылки при маршрутизации. Не хранится в БД */
+    @JsonIgnore
+    private transient Client client;
+
+    /**
+     * Момент, до которого проверка ссылки завершена полностью, если клиент получил не все обновления (например, из-за
+     * ограничения количества страниц). {@code null} - проверка завершена полностью. Не хранится в БД
+     */
+    @JsonIgnore
+    private transient Instant scrapedUntil;
+
     public Link(
             Long id, String url, List<String> tags, List<String> filters, Set<Long> tgChatIds, Instant lastUpdateTime) {
         this.id = id;
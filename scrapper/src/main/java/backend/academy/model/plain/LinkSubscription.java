@@ -0,0 +1,19 @@
+package backend.academy.model.plain;
+
+import java.time.LocalTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/** Подписка чата на ссылку: идентификатор чата в Telegram, время отложенной отправки и фильтры */
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+public class LinkSubscription {
+    private final Long chatId;
+
+    private final LocalTime sendAt;
+
+    private final List<String> filters;
+}
@@ -0,0 +1,129 @@
+package backend.academy.notifications;
+
+import backend.academy.config.properties.NotificationBatchProperties;
+import backend.academy.dto.LinkUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Накопитель уведомлений перед отправкой. Уведомления объединяются в пакеты, которые отправляются при накоплении
+ * {@code maxBatchSize} уведомлений или по истечении {@code linger}, поэтому число запросов к боту определяется числом
+ * пакетов, а не числом обновлений. Ошибка отправки пакета логируется и не передается вызывающему потоку: повторы и
+ * резервная отправка выполняются самим {@link NotificationSender}
+ */
+@Slf4j
+@Component
+public class NotificationBatcher implements DisposableBean {
+    private final NotificationSender notificationSender;
+    private final NotificationBatchProperties properties;
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private final Counter sentBatches;
+    private final Counter failedBatches;
+    private final DistributionSummary batchSize;
+    private List<LinkUpdate> buffer = new ArrayList<>();
+
+    public NotificationBatcher(
+            NotificationSender notificationSender,
+            NotificationBatchProperties properties,
+            MeterRegistry meterRegistry) {
+        this.notificationSender = notificationSender;
+        this.properties = properties;
+        this.sentBatches = batchCounter("success", meterRegistry);
+        this.failedBatches = batchCounter("failure", meterRegistry);
+        this.batchSize = DistributionSummary.builder("notifications.batch.size")
+                .description("Number of link updates sent to the bot in one batch")
+                .register(meterRegistry);
+        Gauge.builder("notifications.batch.pending", this, NotificationBatcher::pending)
+                .description("Number of link updates waiting in the buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Добавить уведомление в текущий пакет. Если пакет заполнен, он отправляется в вызывающем потоке
+     *
+     * @param update DTO, хранящий информацию об обновлении
+     */
+    public void add(LinkUpdate update) {
+        List<LinkUpdate> batch = null;
+        bufferLock.lock();
+        try {
+            buffer.add(update);
+            if (buffer.size() >= properties.getMaxBatchSize()) {
+                batch = drain();
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    /** Отправить накопленные уведомления, не дожидаясь заполнения пакета */
+    @Scheduled(
+            fixedDelayString = "${app.notification-batch.linger:200ms}",
+            initialDelayString = "${app.notification-batch.linger:200ms}")
+    public void flush() {
+        List<LinkUpdate> batch;
+        bufferLock.lock();
+        try {
+            batch = drain();
+        } finally {
+            bufferLock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private void send(List<LinkUpdate> batch) {
+        try {
+            notificationSender.sendBatch(batch);
+            sentBatches.increment();
+            batchSize.record(batch.size());
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.atError()
+                    .setMessage("Ошибка при отправке пакета уведомлений")
+                    .addKeyValue("size", batch.size())
+                    .setCause(e)
+                    .log();
+        }
+    }
+
+    private List<LinkUpdate> drain() {
+        List<LinkUpdate> batch = buffer;
+        buffer = new ArrayList<>();
+        return batch;
+    }
+
+    private int pending() {
+        bufferLock.lock();
+        try {
+            return buffer.size();
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private static Counter batchCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("notifications.batches")
+                .description("Number of notification batches sent to the bot")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,6 +1,7 @@
 package backend.academy.notifications;
 
 import backend.academy.dto.LinkUpdate;
+import java.util.List;
 
 public interface NotificationSender {
     /**
@@ -9,4 +10,14 @@ public interface NotificationSender {
      * @param update DTO, хранящий информацию об обновлении
      */
     String send(LinkUpdate update);
+
+    /**
+     * Отправить пакет уведомлений об обновлениях. По умолчанию уведомления отправляются по одному
+     *
+     * @param updates список DTO, хранящих информацию об обновлениях
+     */
+    default String sendBatch(List<LinkUpdate> updates) {
+        updates.forEach(this::send);
+        return "OK";
+    }
 }
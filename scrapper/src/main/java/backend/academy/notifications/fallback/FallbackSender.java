@@ -1,7 +1,12 @@
 package backend.academy.notifications.fallback;
 
 import backend.academy.dto.LinkUpdate;
+import java.util.List;
 
 public interface FallbackSender {
     void send(LinkUpdate update);
+
+    default void sendBatch(List<LinkUpdate> updates) {
+        updates.forEach(this::send);
+    }
 }
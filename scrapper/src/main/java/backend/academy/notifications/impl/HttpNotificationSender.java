@@ -3,6 +3,8 @@ package backend.academy.notifications.impl;
 import backend.academy.config.properties.ApplicationStabilityProperties;
 import backend.academy.dto.ApiErrorResponse;
 import backend.academy.dto.LinkUpdate;
+import backend.academy.dto.LinkUpdateBatch;
+import backend.academy.dto.LinkUpdateBatchResponse;
 import backend.academy.exceptions.ApiErrorException;
 import backend.academy.exceptions.RetryableHttpServerErrorException;
 import backend.academy.notifications.NotificationSender;
@@ -11,6 +13,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import java.io.IOException;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,6 +30,7 @@ public class HttpNotificationSender implements NotificationSender {
     private final RestClient botUpdatesClient;
     private final ApplicationStabilityProperties stabilityProperties;
     private final FallbackSender fallbackSender;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     public HttpNotificationSender(
             @Qualifier("botConnectionClient") RestClient client,
@@ -47,35 +52,101 @@ public class HttpNotificationSender implements NotificationSender {
                     .addKeyValue("tg-chat-ids", update.tgChatIds())
                     .log();
 
-            return botUpdatesClient.post().uri("/updates").body(update).exchange((request, response) -> {
-                if (response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)) {
-                    ApiErrorResponse apiErrorResponse =
-                            new ObjectMapper().readValue(response.getBody(), ApiErrorResponse.class);
-                    throw new ApiErrorException(apiErrorResponse);
-                } else if (stabilityProperties
-                        .getRetry()
-                        .getHttpCodes()
-                        .contains(response.getStatusCode().value())) {
-                    throw new RetryableHttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
-                } else if (response.getStatusCode().isError()) {
-                    throw new HttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
-                }
-                return "OK";
-            });
+            post("/updates", update);
+            return "OK";
 
         } catch (ApiErrorException e) {
-            ApiErrorResponse response = e.getApiErrorResponse();
-            log.atError()
-                    .setMessage("Некорректные параметры запроса")
-                    .addKeyValue("description", response.description())
-                    .addKeyValue("code", response.code())
-                    .addKeyValue("exception-name", response.exceptionName())
-                    .addKeyValue("exception-message", response.exceptionName())
+            logApiError(e.getApiErrorResponse());
+            return "Api error";
+        }
+    }
+
+    /**
+     * Отправить пакет уведомлений одним запросом к эндпоинту {@code /updates/batch}. Бот проверяет пакет, отвечает 202
+     * Accepted с индексами некорректных обновлений (они записываются в лог) и рассылает остальные асинхронно, поэтому
+     * время ответа не зависит от размера пакета и укладывается в обычный таймаут чтения.
+     *
+     * <p>Повторы и circuit breaker применяются к пакету целиком. Пакет повторяется только при кодах из
+     * {@code app.stability.retry.http-codes}, которые бот возвращает до того, как принял пакет; обрыв соединения или
+     * таймаут чтения ответа не повторяются, т.к. пакет мог быть уже принят
+     *
+     * @param updates список DTO, хранящих информацию об обновлениях
+     */
+    @Override
+    @Retry(name = "default", fallbackMethod = "onSendBatchError")
+    @CircuitBreaker(name = "default", fallbackMethod = "onSendBatchCBError")
+    public String sendBatch(List<LinkUpdate> updates) {
+        try {
+            log.atInfo()
+                    .setMessage("Отправка пакета уведомлений об обновлениях")
+                    .addKeyValue("size", updates.size())
                     .log();
+
+            byte[] body = post("/updates/batch", new LinkUpdateBatch(updates));
+            logRejected(updates, body);
+            return "OK";
+
+        } catch (ApiErrorException e) {
+            logApiError(e.getApiErrorResponse());
             return "Api error";
         }
     }
 
+    private void logRejected(List<LinkUpdate> updates, byte[] body) {
+        if (body.length == 0) {
+            return;
+        }
+        LinkUpdateBatchResponse response;
+        try {
+            response = objectMapper.readValue(body, LinkUpdateBatchResponse.class);
+        } catch (IOException e) {
+            log.atWarn()
+                    .setMessage("Не удалось разобрать ответ бота на пакет уведомлений")
+                    .addKeyValue("exception", e.getMessage())
+                    .log();
+            return;
+        }
+        if (response.rejected() == null) {
+            return;
+        }
+        for (Integer index : response.rejected()) {
+            LinkUpdate update = index >= 0 && index < updates.size() ? updates.get(index) : null;
+            log.atWarn()
+                    .setMessage("Бот не обработал уведомление из пакета")
+                    .addKeyValue("index", index)
+                    .addKeyValue("id", update == null ? null : update.id())
+                    .addKeyValue("url", update == null ? null : update.url())
+                    .log();
+        }
+    }
+
+    private void logApiError(ApiErrorResponse response) {
+        log.atError()
+                .setMessage("Некорректные параметры запроса")
+                .addKeyValue("description", response.description())
+                .addKeyValue("code", response.code())
+                .addKeyValue("exception-name", response.exceptionName())
+                .addKeyValue("exception-message", response.exceptionName())
+                .log();
+    }
+
+    private byte[] post(String uri, Object body) {
+        return botUpdatesClient.post().uri(uri).body(body).exchange((request, response) -> {
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)) {
+                ApiErrorResponse apiErrorResponse = objectMapper.readValue(response.getBody(), ApiErrorResponse.class);
+                throw new ApiErrorException(apiErrorResponse);
+            } else if (stabilityProperties
+                    .getRetry()
+                    .getHttpCodes()
+                    .contains(response.getStatusCode().value())) {
+                throw new RetryableHttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
+            } else if (response.getStatusCode().isError()) {
+                throw new HttpServerErrorException(response.getStatusCode(), "Ошибка сервера");
+            }
+            return response.getBody().readAllBytes();
+        });
+    }
+
     public String onSendError(LinkUpdate update, Throwable t) {
         log.atWarn()
                 .setMessage("Ошибка при отправке уведомлений. Неудачный запрос")
@@ -102,4 +173,26 @@ public class HttpNotificationSender implements NotificationSender {
         fallbackSender.send(update);
         return "CircuitBreaker fallback";
     }
+
+    public String onSendBatchError(List<LinkUpdate> updates, Throwable t) {
+        log.atWarn()
+                .setMessage("Ошибка при отправке пакета уведомлений. Неудачный запрос")
+                .addKeyValue("size", updates.size())
+                .addKeyValue("exception", t.getMessage())
+                .addKeyValue("stacktrace", t.getStackTrace())
+                .log();
+        return "Retry fallback";
+    }
+
+    public String onSendBatchCBError(List<LinkUpdate> updates, CallNotPermittedException t) {
+        log.atWarn()
+                .setMessage(
+                        "Ошибка при отправке пакета уведомлений. Сервис недоступен. Переключение на резервный sender...")
+                .addKeyValue("size", updates.size())
+                .addKeyValue("exception", t.getMessage())
+                .addKeyValue("stacktrace", t.getStackTrace())
+                .log();
+        fallbackSender.sendBatch(updates);
+        return "CircuitBreaker fallback";
+    }
 }
@@ -1,26 +1,68 @@
 package backend.academy.notifications.impl;
 
+import backend.academy.config.UserEventsProperties;
 import backend.academy.dto.LinkUpdate;
 import backend.academy.notifications.NotificationSender;
 import backend.academy.notifications.fallback.FallbackSender;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-@RequiredArgsConstructor
+/**
+ * Асинхронная отправка уведомлений в Kafka. Запись ключуется идентификатором чата, чтобы уведомления одного чата
+ * попадали в одну партицию, а нагрузка распределялась по всем партициям топика. В режиме
+ * {@link UserEventsProperties.RecordMode#PER_CHAT PER_CHAT} обновление разбивается на отдельные записи для каждого
+ * чата, чтобы рассылку подписчикам популярной ссылки обрабатывали разные потребители. Результат отправки обрабатывается
+ * после подтверждения брокера: при ошибке уведомление передается резервному sender в отдельном потоке, чтобы не
+ * блокировать сетевой поток producer
+ */
+@Slf4j
 @Component
 @ConditionalOnProperty(prefix = "app", name = "message-transport", havingValue = "Kafka")
-@Slf4j
-public class KafkaNotificationSender implements NotificationSender {
+public class KafkaNotificationSender implements NotificationSender, DisposableBean {
     private final KafkaTemplate<Long, LinkUpdate> template;
     private final FallbackSender fallbackSender;
+    private final String topic;
+    private final boolean perChat;
+    private final ExecutorService fallbackExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer acknowledged;
+    private final Timer failed;
 
-    @Value("${app.user-events.topic}")
-    private String topic;
+    public KafkaNotificationSender(
+            KafkaTemplate<Long, LinkUpdate> template,
+            FallbackSender fallbackSender,
+            UserEventsProperties userEventsProperties,
+            MeterRegistry meterRegistry) {
+        this.template = template;
+        this.fallbackSender = fallbackSender;
+        this.topic = userEventsProperties.getTopic();
+        this.perChat = userEventsProperties.getRecordMode() == UserEventsProperties.RecordMode.PER_CHAT;
+        this.acknowledged = ackTimer("success", meterRegistry);
+        this.failed = ackTimer("failure", meterRegistry);
+        Gauge.builder("notifications.kafka.in.flight", inFlight, AtomicInteger::get)
+                .description("Number of notifications sent to Kafka and not yet acknowledged by the broker")
+                .register(meterRegistry);
+    }
 
+    /**
+     * Поставить уведомление в очередь producer, не дожидаясь подтверждения брокера
+     *
+     * @param update DTO, хранящий информацию об обновлении
+     * @return {@code "OK"}, если уведомление принято producer, иначе {@code "Kafka exception"}
+     */
     @Override
     public String send(LinkUpdate update) {
         log.atInfo()
@@ -29,18 +71,96 @@ public class KafkaNotificationSender implements NotificationSender {
                 .addKeyValue("description", update.description())
                 .addKeyValue("tg-chat-ids", update.tgChatIds())
                 .log();
+        return dispatchAll(update);
+    }
+
+    /**
+     * Отправить пакет уведомлений. Каждое уведомление остается отдельной записью топика, а объединение записей в
+     * запросы к брокеру выполняет producer
+     *
+     * @param updates список DTO, хранящих информацию об обновлениях
+     */
+    @Override
+    public String sendBatch(List<LinkUpdate> updates) {
+        log.atInfo()
+                .setMessage("Отправка пакета уведомлений об обновлениях в Kafka")
+                .addKeyValue("size", updates.size())
+                .log();
+        String result = "OK";
+        for (LinkUpdate update : updates) {
+            if (!"OK".equals(dispatchAll(update))) {
+                result = "Kafka exception";
+            }
+        }
+        return result;
+    }
+
+    /** Дождаться подтверждения отправленных записей и завершить резервные отправки */
+    @Override
+    public void destroy() {
+        template.flush();
+        fallbackExecutor.close();
+    }
+
+    private String dispatchAll(LinkUpdate update) {
+        if (!perChat || update.tgChatIds() == null || update.tgChatIds().size() < 2) {
+            return dispatch(update);
+        }
+        String result = "OK";
+        for (Long chatId : update.tgChatIds()) {
+            if (!"OK"
+                    .equals(dispatch(
+                            new LinkUpdate(update.id(), update.url(), update.description(), List.of(chatId))))) {
+                result = "Kafka exception";
+            }
+        }
+        return result;
+    }
+
+    private String dispatch(LinkUpdate update) {
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<Long, LinkUpdate>> future;
         try {
-            template.send(topic, update);
-            return "OK";
+            future = template.send(topic, keyOf(update), update);
         } catch (Exception e) {
-            log.atInfo()
-                    .setMessage("Ошибка отправка уведомления об обновлении в Kafka. Переключение на резервный sender")
-                    .addKeyValue("url", update.url())
-                    .addKeyValue("description", update.description())
-                    .addKeyValue("tg-chat-ids", update.tgChatIds())
-                    .log();
-            fallbackSender.send(update);
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            onSendError(update, e);
             return "Kafka exception";
         }
+
+        inFlight.incrementAndGet();
+        future.whenComplete((result, e) -> {
+            inFlight.decrementAndGet();
+            if (e == null) {
+                acknowledged.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                fallbackExecutor.execute(() -> onSendError(update, e));
+            }
+        });
+        return "OK";
+    }
+
+    private void onSendError(LinkUpdate update, Throwable e) {
+        log.atWarn()
+                .setMessage("Ошибка отправка уведомления об обновлении в Kafka. Переключение на резервный sender")
+                .addKeyValue("url", update.url())
+                .addKeyValue("description", update.description())
+                .addKeyValue("tg-chat-ids", update.tgChatIds())
+                .addKeyValue("exception", e.getMessage())
+                .log();
+        fallbackSender.send(update);
+    }
+
+    private static Long keyOf(LinkUpdate update) {
+        List<Long> tgChatIds = update.tgChatIds();
+        return tgChatIds == null || tgChatIds.isEmpty() ? null : tgChatIds.getFirst();
+    }
+
+    private static Timer ackTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("notifications.kafka.ack")
+                .description("Time from handing a notification to the Kafka producer until the broker acknowledges it")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 }
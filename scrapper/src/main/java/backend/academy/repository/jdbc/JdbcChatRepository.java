@@ -3,6 +3,7 @@ package backend.academy.repository.jdbc;
 import backend.academy.model.jdbc.JdbcTgChat;
 import java.sql.Time;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -16,6 +17,7 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.support.SqlArrayValue;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -219,6 +221,99 @@ public class JdbcChatRepository {
         }
     }
 
+    /**
+     * Сохранить теги ссылки одним запросом. Уже существующие теги пропускаются
+     *
+     * @param linkId идентификатор ссылки
+     * @param chatId идентификатор чата
+     * @param tags значения тегов
+     * @return {@code true}, если теги сохранены, иначе - {@code false} (чат или ссылка не найдены)
+     */
+    @Modifying
+    @Transactional
+    public boolean saveTags(Long linkId, Long chatId, Collection<String> tags) {
+        String sql = "INSERT INTO chat_link_tags(link_id, tag_value, chat_id) "
+                + "SELECT :linkId, tag_value, :chatId FROM unnest(:tags) AS tag_value ON CONFLICT DO NOTHING";
+        return insertValues(sql, linkId, chatId, "tags", tags);
+    }
+
+    /**
+     * Сохранить фильтры ссылки одним запросом. Уже существующие фильтры пропускаются
+     *
+     * @param linkId идентификатор ссылки
+     * @param chatId идентификатор чата
+     * @param filters значения фильтров
+     * @return {@code true}, если фильтры сохранены, иначе - {@code false} (чат или ссылка не найдены)
+     */
+    @Modifying
+    @Transactional
+    public boolean saveFilters(Long linkId, Long chatId, Collection<String> filters) {
+        String sql = "INSERT INTO chat_link_filters(link_id, filter_value, chat_id) "
+                + "SELECT :linkId, filter_value, :chatId FROM unnest(:filters) AS filter_value ON CONFLICT DO NOTHING";
+        return insertValues(sql, linkId, chatId, "filters", filters);
+    }
+
+    /**
+     * Добавить теги ко всем ссылкам, отслеживаемым чатом, одним запросом
+     *
+     * @param chatId идентификатор чата
+     * @param tags значения тегов
+     */
+    @Modifying
+    @Transactional
+    public void saveTagsForAllLinks(Long chatId, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO chat_link_tags(link_id, tag_value, chat_id) "
+                + "SELECT chat_link.link_id, tag_value, :chatId FROM tg_chat_link chat_link CROSS JOIN unnest(:tags) AS tag_value "
+                + "WHERE chat_link.tg_chat_id = :chatId ON CONFLICT DO NOTHING";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("chatId", chatId);
+        params.addValue("tags", new SqlArrayValue("text", tags.toArray()));
+
+        namedJdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Удалить теги у всех ссылок, отслеживаемых чатом, одним запросом
+     *
+     * @param chatId идентификатор чата
+     * @param tags значения тегов
+     */
+    @Modifying
+    @Transactional
+    public void removeTagsFromAllLinks(Long chatId, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        String sql = "DELETE FROM chat_link_tags WHERE chat_id = :chatId AND tag_value = ANY(:tags)";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("chatId", chatId);
+        params.addValue("tags", new SqlArrayValue("text", tags.toArray()));
+
+        namedJdbcTemplate.update(sql, params);
+    }
+
+    private boolean insertValues(String sql, Long linkId, Long chatId, String valuesName, Collection<String> values) {
+        if (values.isEmpty()) {
+            return true;
+        }
+        try {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            params.addValue("linkId", linkId);
+            params.addValue("chatId", chatId);
+            params.addValue(valuesName, new SqlArrayValue("text", values.toArray()));
+
+            namedJdbcTemplate.update(sql, params);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
     @Modifying
     @Transactional
     public void removeTag(Long linkId, Long chatId, String tagValue) {
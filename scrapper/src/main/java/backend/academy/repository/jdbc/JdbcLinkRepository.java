@@ -1,9 +1,14 @@
 package backend.academy.repository.jdbc;
 
 import backend.academy.model.jdbc.JdbcLink;
+import backend.academy.model.jdbc.JdbcTrackedLink;
+import backend.academy.model.plain.LinkSubscription;
+import java.sql.Time;
 import java.sql.Timestamp;
-import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +26,7 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.support.SqlArrayValue;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -88,25 +94,24 @@ public class JdbcLinkRepository {
     }
 
     /**
-     * Получить все ссылки из БД с использованием механизма пагинации
+     * Получить все ссылки, время очередной проверки которых наступило, с использованием механизма пагинации
      *
      * @param pageable информация о текущей запрашиваемой странице - размер и смещение
      * @return {@code Page<JdbcLink>} - страница с ссылками
      */
-    public Page<JdbcLink> findAll(Pageable pageable, Duration duration) {
+    public Page<JdbcLink> findAll(Pageable pageable) {
         int pageSize = pageable.getPageSize();
         long offset = pageable.getOffset();
 
         String sql =
-                "SELECT * FROM link WHERE last_update < NOW() - cast(:duration as interval) AND id IN (SELECT link_id FROM tg_chat_link) ORDER BY id LIMIT :pageSize OFFSET :offset";
+                "SELECT * FROM link WHERE next_check_at <= NOW() AND id IN (SELECT link_id FROM tg_chat_link) ORDER BY id LIMIT :pageSize OFFSET :offset";
         MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("pageSize", pageSize);
         params.addValue("offset", offset);
-        params.addValue("duration", duration.getSeconds() + " seconds");
 
         List<JdbcLink> content = namedJdbcTemplate.query(sql, params, jdbcLinkRowMapper);
         String countSql =
-                "SELECT COUNT(*) FROM link WHERE last_update < NOW() - cast(:duration as interval) AND id IN (SELECT link_id FROM tg_chat_link)";
+                "SELECT COUNT(*) FROM link WHERE next_check_at <= NOW() AND id IN (SELECT link_id FROM tg_chat_link)";
 
         Long total = namedJdbcTemplate.queryForObject(countSql, params, Long.class);
         if (total == null) {
@@ -116,6 +121,73 @@ public class JdbcLinkRepository {
         return new PageImpl<>(content, pageable, total);
     }
 
+    /**
+     * Получить очередную порцию ссылок, время очередной проверки которых наступило, курсорным (keyset) обходом по
+     * идентификатору. В отличие от {@link #findAll(Pageable)} не использует OFFSET и не подсчитывает общее количество
+     * записей
+     *
+     * @param lastId идентификатор последней ссылки из предыдущей порции ({@code 0} для первой порции)
+     * @param limit максимальный размер порции
+     * @return список ссылок с идентификатором больше {@code lastId}, упорядоченный по идентификатору
+     */
+    public List<JdbcLink> findAllAfter(Long lastId, int limit) {
+        String sql = "SELECT * FROM link WHERE id > :lastId AND next_check_at <= NOW() "
+                + "AND EXISTS (SELECT 1 FROM tg_chat_link WHERE tg_chat_link.link_id = link.id) "
+                + "ORDER BY id LIMIT :limit";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("lastId", lastId);
+        params.addValue("limit", limit);
+
+        return namedJdbcTemplate.query(sql, params, jdbcLinkRowMapper);
+    }
+
+    /**
+     * Получить подписки чатов сразу для набора ссылок одним запросом
+     *
+     * @param linkIds идентификаторы ссылок
+     * @return отображение идентификатора ссылки в список её подписок (идентификатор чата в Telegram, время отложенной
+     *     отправки и фильтры)
+     */
+    public Map<Long, List<LinkSubscription>> findSubscriptionsByLinkIds(Collection<Long> linkIds) {
+        if (linkIds.isEmpty()) {
+            return Map.of();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("linkIds", linkIds);
+        return querySubscriptions("WHERE tg_chat_link.link_id IN (:linkIds) ", params);
+    }
+
+    /**
+     * Получить подписки чатов на все ссылки одним запросом
+     *
+     * @return отображение идентификатора ссылки в список её подписок
+     */
+    public Map<Long, List<LinkSubscription>> findAllSubscriptions() {
+        return querySubscriptions("", new MapSqlParameterSource());
+    }
+
+    private Map<Long, List<LinkSubscription>> querySubscriptions(String where, MapSqlParameterSource params) {
+        String sql = "SELECT tg_chat_link.link_id, tg_chat.chat_id, tg_chat.send_at, "
+                + "array_remove(array_agg(chat_link_filters.filter_value), NULL) AS filters "
+                + "FROM tg_chat_link JOIN tg_chat ON tg_chat.id = tg_chat_link.tg_chat_id "
+                + "LEFT JOIN chat_link_filters ON chat_link_filters.chat_id = tg_chat_link.tg_chat_id "
+                + "AND chat_link_filters.link_id = tg_chat_link.link_id "
+                + where
+                + "GROUP BY tg_chat_link.link_id, tg_chat.chat_id, tg_chat.send_at";
+
+        Map<Long, List<LinkSubscription>> result = new HashMap<>();
+        namedJdbcTemplate.query(sql, params, rs -> {
+            Time sendAt = rs.getTime("send_at");
+            String[] filters = (String[]) rs.getArray("filters").getArray();
+            result.computeIfAbsent(rs.getLong("link_id"), id -> new ArrayList<>())
+                    .add(new LinkSubscription(
+                            rs.getLong("chat_id"), sendAt == null ? null : sendAt.toLocalTime(), List.of(filters)));
+        });
+        return result;
+    }
+
     /**
      * Получить ссылку по значению url
      *
@@ -213,6 +285,63 @@ public class JdbcLinkRepository {
         return namedJdbcTemplate.query(sql, params, jdbcLinkRowMapper);
     }
 
+    /**
+     * Получить все ссылки, отслеживаемые чатом, вместе с тегами и фильтрами чата и чатами, отслеживающими каждую
+     * ссылку, одним запросом
+     *
+     * @param chatId идентификатор чата в Telegram
+     * @return список ссылок с данными подписки
+     */
+    public List<JdbcTrackedLink> findTrackedLinksByChatId(Long chatId) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("chatId", chatId);
+
+        return queryTrackedLinks("", params);
+    }
+
+    /**
+     * Получить ссылки, отмеченные чатом указанным тегом, вместе с данными подписки одним запросом
+     *
+     * @param chatId идентификатор чата в Telegram
+     * @param tag значение тега
+     * @return список ссылок с данными подписки
+     */
+    public List<JdbcTrackedLink> findTrackedLinksByChatIdAndTag(Long chatId, String tag) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("chatId", chatId);
+        params.addValue("tagValue", tag);
+
+        return queryTrackedLinks(
+                "AND EXISTS (SELECT 1 FROM chat_link_tags tagged WHERE tagged.link_id = link.id "
+                        + "AND tagged.chat_id = chat.id AND tagged.tag_value = :tagValue) ",
+                params);
+    }
+
+    private List<JdbcTrackedLink> queryTrackedLinks(String condition, MapSqlParameterSource params) {
+        String sql = "SELECT link.id, link.link_value, link.last_update, link.type, "
+                + "ARRAY(SELECT tag_value FROM chat_link_tags "
+                + "WHERE chat_link_tags.link_id = link.id AND chat_link_tags.chat_id = chat.id) AS tags, "
+                + "ARRAY(SELECT filter_value FROM chat_link_filters "
+                + "WHERE chat_link_filters.link_id = link.id AND chat_link_filters.chat_id = chat.id) AS filters, "
+                + "ARRAY(SELECT listener.chat_id FROM tg_chat_link listener_link "
+                + "JOIN tg_chat listener ON listener.id = listener_link.tg_chat_id "
+                + "WHERE listener_link.link_id = link.id) AS chat_ids "
+                + "FROM tg_chat chat JOIN tg_chat_link ON tg_chat_link.tg_chat_id = chat.id "
+                + "JOIN link ON link.id = tg_chat_link.link_id "
+                + "WHERE chat.chat_id = :chatId "
+                + condition
+                + "ORDER BY link.id";
+
+        return namedJdbcTemplate.query(
+                sql,
+                params,
+                (rs, rn) -> new JdbcTrackedLink(
+                        jdbcLinkRowMapper.mapRow(rs, rn),
+                        List.of((String[]) rs.getArray("tags").getArray()),
+                        List.of((String[]) rs.getArray("filters").getArray()),
+                        Set.of((Long[]) rs.getArray("chat_ids").getArray())));
+    }
+
     /**
      * Обновить ссылку
      *
@@ -234,6 +363,80 @@ public class JdbcLinkRepository {
         namedJdbcTemplate.update(sql, params);
     }
 
+    /**
+     * Обновить время последнего обновления набора ссылок одним запросом
+     *
+     * @param lastUpdateTimes отображение идентификатора ссылки во время её последнего обновления
+     */
+    @Modifying
+    @Transactional
+    public void updateLastUpdateTimes(Map<Long, Instant> lastUpdateTimes) {
+        if (lastUpdateTimes.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE link SET last_update = checkpoint.last_update "
+                + "FROM unnest(:ids, :lastUpdates) AS checkpoint(id, last_update) WHERE link.id = checkpoint.id";
+
+        List<Long> ids = new ArrayList<>(lastUpdateTimes.keySet());
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("ids", new SqlArrayValue("bigint", ids.toArray()));
+        params.addValue(
+                "lastUpdates",
+                new SqlArrayValue(
+                        "timestamptz",
+                        ids.stream()
+                                .map(id -> Timestamp.from(lastUpdateTimes.get(id)))
+                                .toArray()));
+
+        namedJdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Назначить время следующей проверки набора ссылок одним запросом
+     *
+     * @param nextCheckTimes отображение идентификатора ссылки во время её следующей проверки
+     */
+    @Modifying
+    @Transactional
+    public void updateNextCheckTimes(Map<Long, Instant> nextCheckTimes) {
+        if (nextCheckTimes.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE link SET next_check_at = schedule.next_check_at "
+                + "FROM unnest(:ids, :nextCheckTimes) AS schedule(id, next_check_at) WHERE link.id = schedule.id";
+
+        List<Long> ids = new ArrayList<>(nextCheckTimes.keySet());
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("ids", new SqlArrayValue("bigint", ids.toArray()));
+        params.addValue(
+                "nextCheckTimes",
+                new SqlArrayValue(
+                        "timestamptz",
+                        ids.stream()
+                                .map(id -> Timestamp.from(nextCheckTimes.get(id)))
+                                .toArray()));
+
+        namedJdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Назначить время следующей проверки ссылки
+     *
+     * @param id идентификатор ссылки
+     * @param nextCheckAt момент, начиная с которого ссылка снова попадёт в выборку планировщика
+     */
+    @Modifying
+    @Transactional
+    public void updateNextCheckAt(Long id, Instant nextCheckAt) {
+        String sql = "UPDATE link SET next_check_at = :nextCheckAt WHERE id = :id";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("id", id);
+        params.addValue("nextCheckAt", Timestamp.from(nextCheckAt));
+
+        namedJdbcTemplate.update(sql, params);
+    }
+
     /**
      * Найти все ссылки по тегу и чату
      *
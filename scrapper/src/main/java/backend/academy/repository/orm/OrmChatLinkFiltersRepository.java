@@ -3,6 +3,7 @@ package backend.academy.repository.orm;
 import backend.academy.model.orm.OrmChatLinkFilters;
 import backend.academy.model.orm.OrmChatLinkFiltersIdEmbedded;
 import jakarta.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -19,4 +20,10 @@ public interface OrmChatLinkFiltersRepository extends JpaRepository<OrmChatLinkF
 
     @Query("SELECT t.id.filterValue FROM OrmChatLinkFilters t WHERE t.chat.id = :chatId AND t.link.id = :linkId")
     List<String> findFilterValuesByChatIdAndLinkId(@Param("chatId") Long chatId, @Param("linkId") Long linkId);
+
+    @Query("SELECT t FROM OrmChatLinkFilters t WHERE t.link.id IN :linkIds")
+    List<OrmChatLinkFilters> findAllByLinkIds(@Param("linkIds") Collection<Long> linkIds);
+
+    @Query("SELECT t.id.linkId, t.id.filterValue FROM OrmChatLinkFilters t WHERE t.id.chatId = :chatId")
+    List<Object[]> findLinkIdAndFilterValueByChatPrimaryId(@Param("chatId") Long chatId);
 }
@@ -3,6 +3,7 @@ package backend.academy.repository.orm;
 import backend.academy.model.orm.OrmChatLink;
 import backend.academy.model.orm.OrmChatLinkIdEmbedded;
 import backend.academy.model.orm.OrmLink;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -16,9 +17,18 @@ public interface OrmChatLinkRepository extends JpaRepository<OrmChatLink, OrmCha
     @Query("SELECT cl.chat.id FROM OrmChatLink cl WHERE cl.link.id = :linkId")
     Set<Long> findAllChatIdByLinkId(@Param("linkId") Long linkId);
 
+    @Query("SELECT cl FROM OrmChatLink cl JOIN FETCH cl.chat WHERE cl.link.id IN :linkIds")
+    List<OrmChatLink> findAllWithChatByLinkIds(@Param("linkIds") Collection<Long> linkIds);
+
+    @Query("SELECT cl FROM OrmChatLink cl JOIN FETCH cl.chat")
+    List<OrmChatLink> findAllWithChat();
+
     @Query("SELECT cl.link FROM OrmChatLink cl WHERE cl.chat.id = :chatId")
     List<OrmLink> findAllByChatPrimaryId(Long chatId);
 
+    @Query("SELECT cl.link.id, cl.chat.chatId FROM OrmChatLink cl WHERE cl.link.id IN :linkIds")
+    List<Object[]> findLinkIdAndTgChatIdByLinkIds(@Param("linkIds") Collection<Long> linkIds);
+
     @Query("SELECT cl.link FROM OrmChatLink cl WHERE cl.chat.id = :chatId AND cl.link.linkValue = :linkValue")
     Optional<OrmLink> findByChatPrimaryIdAndLinkValue(
             @Param("chatId") Long chatId, @Param("linkValue") String linkValue);
@@ -2,6 +2,7 @@ package backend.academy.repository.orm;
 
 import backend.academy.model.orm.OrmChatLinkTags;
 import backend.academy.model.orm.OrmChatLinkTagsIdEmbedded;
+import backend.academy.model.orm.OrmLink;
 import jakarta.transaction.Transactional;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -22,4 +23,10 @@ public interface OrmChatLinkTagsRepository extends JpaRepository<OrmChatLinkTags
 
     @Query("SELECT t.id.linkId FROM OrmChatLinkTags t WHERE t.id.chatId = :chatId AND t.id.tagValue = :tag")
     List<Long> findLinkIdsByChatIdAndTagValue(@Param("chatId") Long primaryChatId, @Param("tag") String tag);
+
+    @Query("SELECT t.id.linkId, t.id.tagValue FROM OrmChatLinkTags t WHERE t.id.chatId = :chatId")
+    List<Object[]> findLinkIdAndTagValueByChatPrimaryId(@Param("chatId") Long chatId);
+
+    @Query("SELECT t.link FROM OrmChatLinkTags t WHERE t.id.chatId = :chatId AND t.id.tagValue = :tag")
+    List<OrmLink> findLinksByChatIdAndTagValue(@Param("chatId") Long primaryChatId, @Param("tag") String tag);
 }
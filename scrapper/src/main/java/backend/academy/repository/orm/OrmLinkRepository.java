@@ -3,7 +3,9 @@ package backend.academy.repository.orm;
 import backend.academy.model.orm.OrmLink;
 import jakarta.transaction.Transactional;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,10 +18,14 @@ import org.springframework.stereotype.Repository;
 public interface OrmLinkRepository extends JpaRepository<OrmLink, Long> {
     @Query(
             value =
-                    "SELECT l FROM OrmLink l WHERE l.lastUpdate < :cutoff AND l.id IN (SELECT cl.id.linkId FROM OrmChatLink cl)",
+                    "SELECT l FROM OrmLink l WHERE l.nextCheckAt <= :now AND l.id IN (SELECT cl.id.linkId FROM OrmChatLink cl)",
             countQuery =
-                    "SELECT count(l) FROM OrmLink l WHERE l.lastUpdate < :cutoff AND l.id IN (SELECT cl.id.linkId FROM OrmChatLink cl)")
-    Page<OrmLink> findAll(@Param("cutoff") Instant cutoff, Pageable pageable);
+                    "SELECT count(l) FROM OrmLink l WHERE l.nextCheckAt <= :now AND l.id IN (SELECT cl.id.linkId FROM OrmChatLink cl)")
+    Page<OrmLink> findAll(@Param("now") Instant now, Pageable pageable);
+
+    @Query(
+            "SELECT l FROM OrmLink l WHERE l.id > :lastId AND l.nextCheckAt <= :now AND EXISTS (SELECT 1 FROM OrmChatLink cl WHERE cl.id.linkId = l.id) ORDER BY l.id")
+    List<OrmLink> findAllAfter(@Param("lastId") Long lastId, @Param("now") Instant now, Limit limit);
 
     Optional<OrmLink> findByLinkValue(String linkValue);
 
@@ -32,4 +38,27 @@ public interface OrmLinkRepository extends JpaRepository<OrmLink, Long> {
             @Param("linkValue") String linkValue,
             @Param("lastUpdate") Instant lastUpdate,
             @Param("type") String type);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrmLink link SET link.nextCheckAt = :nextCheckAt WHERE link.id = :id")
+    void updateNextCheckAt(@Param("id") Long id, @Param("nextCheckAt") Instant nextCheckAt);
+
+    @Modifying
+    @Transactional
+    @Query(
+            value = "UPDATE link SET last_update = checkpoint.last_update "
+                    + "FROM unnest(CAST(:ids AS BIGINT[]), CAST(:lastUpdates AS TIMESTAMPTZ[])) "
+                    + "AS checkpoint(id, last_update) WHERE link.id = checkpoint.id",
+            nativeQuery = true)
+    void updateLastUpdateTimes(@Param("ids") Long[] ids, @Param("lastUpdates") Instant[] lastUpdates);
+
+    @Modifying
+    @Transactional
+    @Query(
+            value = "UPDATE link SET next_check_at = schedule.next_check_at "
+                    + "FROM unnest(CAST(:ids AS BIGINT[]), CAST(:nextCheckTimes AS TIMESTAMPTZ[])) "
+                    + "AS schedule(id, next_check_at) WHERE link.id = schedule.id",
+            nativeQuery = true)
+    void updateNextCheckTimes(@Param("ids") Long[] ids, @Param("nextCheckTimes") Instant[] nextCheckTimes);
 }
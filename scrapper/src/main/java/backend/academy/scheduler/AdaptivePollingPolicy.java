@@ -0,0 +1,43 @@
+package backend.academy.scheduler;
+
+import backend.academy.config.properties.PollingProperties;
+import backend.academy.model.plain.Link;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Политика адаптивного опроса ссылок. После обнаруженного изменения ссылка проверяется через минимальный интервал, пока
+ * ресурс не меняется - через интервал, пропорциональный времени с последнего изменения. Так как каждая следующая
+ * проверка откладывается на долю уже прошедшего времени, интервал растёт экспоненциально до максимума
+ */
+@Component
+@RequiredArgsConstructor
+public class AdaptivePollingPolicy {
+    private final PollingProperties properties;
+
+    /**
+     * Вычислить момент следующей проверки ссылки
+     *
+     * @param link проверенная ссылка
+     * @param changed {@code true}, если при проверке были найдены обновления
+     * @param now момент проверки
+     * @return момент, начиная с которого ссылку нужно проверить снова
+     */
+    public Instant nextCheckAt(Link link, boolean changed, Instant now) {
+        PollingProperties.Bounds bounds = properties.getInterval(link.getType());
+        if (changed || link.getLastUpdateTime() == null) {
+            return now.plus(bounds.getMin());
+        }
+
+        Duration quietPeriod = Duration.between(link.getLastUpdateTime(), now);
+        Duration interval = Duration.ofMillis((long) (quietPeriod.toMillis() * properties.getBackoffFactor()));
+        if (interval.compareTo(bounds.getMin()) < 0) {
+            interval = bounds.getMin();
+        } else if (interval.compareTo(bounds.getMax()) > 0) {
+            interval = bounds.getMax();
+        }
+        return now.plus(interval);
+    }
+}
@@ -1,7 +1,7 @@
 package backend.academy.scheduler;
 
 import backend.academy.dto.LinkUpdate;
-import backend.academy.notifications.NotificationSender;
+import backend.academy.notifications.NotificationBatcher;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Set;
@@ -16,7 +16,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class DelayedSendingScheduler {
     private final RedisTemplate<String, LinkUpdate> redisTemplate;
-    private final NotificationSender notificationSender;
+    private final NotificationBatcher notificationBatcher;
 
     @Scheduled(cron = "${app.delayed-sending.cron}")
     public void schedule() {
@@ -33,6 +33,7 @@ public class DelayedSendingScheduler {
     }
 
     private void sendUpdates(Set<LinkUpdate> updateSet) {
-        updateSet.forEach(notificationSender::send);
+        updateSet.forEach(notificationBatcher::add);
+        notificationBatcher.flush();
     }
 }
@@ -0,0 +1,169 @@
+package backend.academy.scheduler;
+
+import backend.academy.config.properties.CheckpointProperties;
+import backend.academy.model.plain.Link;
+import backend.academy.service.LinkService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Отложенная запись отметок проверки ссылок: времени последнего обновления и времени следующей проверки. Потоки
+ * скрапинга только сохраняют отметку в буфере (для времени последнего обновления хранится самое позднее, для времени
+ * следующей проверки - последнее назначенное), а в БД каждый буфер записывается одним пакетным запросом по таймеру, при
+ * накоплении {@code maxBatchSize} ссылок или в конце цикла планировщика. При остановке приложения буферы записываются
+ * синхронно
+ */
+@Slf4j
+@Component
+public class LastUpdateCheckpointWriter implements DisposableBean {
+    private final LinkService linkService;
+    private final CheckpointProperties properties;
+    private final Map<Long, Instant> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> pendingNextChecks = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Timer successfulFlushes;
+    private final Timer failedFlushes;
+    private final DistributionSummary batchSize;
+    private volatile boolean closed;
+
+    public LastUpdateCheckpointWriter(
+            LinkService linkService, CheckpointProperties properties, MeterRegistry meterRegistry) {
+        this.linkService = linkService;
+        this.properties = properties;
+        this.successfulFlushes = flushTimer("success", meterRegistry);
+        this.failedFlushes = flushTimer("failure", meterRegistry);
+        this.batchSize = DistributionSummary.builder("scrape.checkpoint.batch.size")
+                .description("Number of links written by one checkpoint flush")
+                .register(meterRegistry);
+        Gauge.builder("scrape.checkpoint.pending", pending, Map::size)
+                .description("Number of links whose last update time is not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("scrape.checkpoint.pending.next.check", pendingNextChecks, Map::size)
+                .description("Number of links whose next check time is not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запомнить время последнего обновления ссылки. Значение в объекте ссылки обновляется сразу, а в БД - при ближайшей
+     * записи буфера
+     *
+     * @param link ссылка
+     * @param lastUpdate время последнего обновления
+     */
+    public void record(Link link, Instant lastUpdate) {
+        link.setLastUpdateTime(lastUpdate);
+        pending.merge(link.getId(), lastUpdate, LastUpdateCheckpointWriter::latest);
+        if (closed || pending.size() >= properties.getMaxBatchSize()) {
+            flush();
+        }
+    }
+
+    /**
+     * Запомнить время следующей проверки ссылки. В БД оно записывается при ближайшей записи буфера; если для ссылки уже
+     * назначено время, оно заменяется
+     *
+     * @param link ссылка
+     * @param nextCheckAt момент, начиная с которого ссылка снова подлежит проверке
+     */
+    public void recordNextCheck(Link link, Instant nextCheckAt) {
+        pendingNextChecks.put(link.getId(), nextCheckAt);
+        if (closed || pendingNextChecks.size() >= properties.getMaxBatchSize()) {
+            flush();
+        }
+    }
+
+    /** Записать накопленные отметки в БД. Если запись не удалась, отметки возвращаются в буфер */
+    @Scheduled(
+            fixedDelayString = "${app.checkpoint.flush-interval:5s}",
+            initialDelayString = "${app.checkpoint.flush-interval:5s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Instant> batch = drain(pending);
+            if (!batch.isEmpty()
+                    && write(batch, linkService::updateLastUpdateTimes, pending, LastUpdateCheckpointWriter::latest)) {
+                batchSize.record(batch.size());
+            }
+
+            Map<Long, Instant> nextChecks = drain(pendingNextChecks);
+            if (!nextChecks.isEmpty()) {
+                write(nextChecks, linkService::updateNextCheckTimes, pendingNextChecks, (recorded, failed) -> recorded);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        flush();
+    }
+
+    /**
+     * Записать порцию отметок. Если запись не удалась, отметки возвращаются в буфер и объединяются с записанными за это
+     * время функцией {@code merge}
+     *
+     * @return {@code true}, если запись выполнена успешно
+     */
+    private boolean write(
+            Map<Long, Instant> batch,
+            Consumer<Map<Long, Instant>> writer,
+            Map<Long, Instant> buffer,
+            BinaryOperator<Instant> merge) {
+        long start = System.nanoTime();
+        try {
+            writer.accept(batch);
+            successfulFlushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (RuntimeException e) {
+            failedFlushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.forEach((linkId, time) -> buffer.merge(linkId, time, merge));
+            log.atError()
+                    .setMessage("Не удалось записать отметки проверки ссылок")
+                    .addKeyValue("links", batch.size())
+                    .setCause(e)
+                    .log();
+            return false;
+        }
+    }
+
+    private static Map<Long, Instant> drain(Map<Long, Instant> buffer) {
+        Map<Long, Instant> batch = new HashMap<>();
+        Iterator<Long> linkIds = buffer.keySet().iterator();
+        while (linkIds.hasNext()) {
+            Long linkId = linkIds.next();
+            Instant time = buffer.remove(linkId);
+            if (time != null) {
+                batch.put(linkId, time);
+            }
+        }
+        return batch;
+    }
+
+    private static Instant latest(Instant first, Instant second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static Timer flushTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("scrape.checkpoint.flush")
+                .description("Latency of writing buffered link check times to the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
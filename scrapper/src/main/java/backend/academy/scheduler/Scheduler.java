@@ -1,35 +1,39 @@
 package backend.academy.scheduler;
 
 import backend.academy.ScrapperConfig;
+import backend.academy.clients.BatchClient;
 import backend.academy.clients.Client;
 import backend.academy.clients.ClientManager;
+import backend.academy.clients.ConditionalRequestCache;
+import backend.academy.clients.RateLimitBudget;
+import backend.academy.clients.RequestCoalescer;
+import backend.academy.config.properties.ScrapeProperties;
 import backend.academy.dto.LinkUpdate;
 import backend.academy.dto.LinkUpdateInfo;
 import backend.academy.filters.LinkFilter;
 import backend.academy.model.plain.Link;
-import backend.academy.notifications.NotificationSender;
+import backend.academy.model.plain.LinkSubscription;
+import backend.academy.notifications.NotificationBatcher;
 import backend.academy.service.ChatService;
 import backend.academy.service.LinkService;
-import java.time.Duration;
+import backend.academy.service.SubscriptionIndex;
 import java.time.Instant;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.Semaphore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -42,92 +46,277 @@ public class Scheduler {
     private final LinkService linkService;
     private final ChatService chatService;
     private final ClientManager clientManager;
-    private final NotificationSender notificationSender;
+    private final NotificationBatcher notificationBatcher;
     private final ScrapperConfig scrapperConfig;
     private final RedisTemplate<String, LinkUpdate> redisTemplate;
+    private final ScrapeExecutor scrapeExecutor;
+    private final ScrapeProperties scrapeProperties;
+    private final AdaptivePollingPolicy pollingPolicy;
+    private final RateLimitBudget rateLimitBudget;
+    private final RequestCoalescer requestCoalescer;
+    private final SubscriptionIndex subscriptionIndex;
+    private final LastUpdateCheckpointWriter checkpointWriter;
+    private final ConditionalRequestCache conditionalRequests;
 
     @Scheduled(fixedDelay = 50000, initialDelay = 10000)
     public void schedule() {
-        int pageNumber = 0;
         int pageSize = scrapperConfig.pageSize().intValue();
-        Page<Link> page;
+        int capacity = scrapeProperties.getPipelineCapacity();
 
         List<Client> clients = clientManager.getAvailableClients();
 
-        int partCount = 4;
-        List<List<Link>> dividedBatch = IntStream.range(0, partCount)
-                .mapToObj(i -> new ArrayList<Link>())
-                .collect(Collectors.toList());
+        Semaphore linksInFlight = new Semaphore(capacity);
+        BlockingQueue<PipelineItem> scrapedLinks = new ArrayBlockingQueue<>(capacity);
+        Future<?> notifier = scrapeExecutor.submit(() -> notifyUpdates(scrapedLinks));
 
-        ExecutorService executorService = Executors.newFixedThreadPool(partCount);
         List<Future<?>> futures = new ArrayList<>();
+        Map<BatchClient, List<Link>> pendingBatches = new LinkedHashMap<>();
+        requestCoalescer.beginCycle();
         try {
-            do {
-                Pageable pageable = PageRequest.of(pageNumber, pageSize);
-                page = linkService.getAllLinks(pageable, Duration.of(10, ChronoUnit.SECONDS));
-                divideBatch(page.getContent(), dividedBatch);
-
-                for (List<Link> part : dividedBatch) {
-                    List<Link> partCopy = new ArrayList<>(part);
-                    Future<?> future = executorService.submit(() -> processLinks(clients, partCopy));
-                    futures.add(future);
+            linkService.streamAllLinks(pageSize).forEach(batch -> {
+                for (Link link : prioritize(clients, batch)) {
+                    Client client = clientManager.getSuitableClient(link);
+                    BatchClient batchClient = getBatchClient(client);
+                    if (batchClient == null) {
+                        if (client != null && !tryAcquireBudget(client.getSourceName(), List.of(link))) {
+                            continue;
+                        }
+                        acquire(linksInFlight, 1);
+                        futures.add(scrapeExecutor.submit(() -> {
+                            try {
+                                scrapeLink(link, scrapedLinks);
+                            } finally {
+                                linksInFlight.release();
+                            }
+                        }));
+                        continue;
+                    }
+
+                    List<Link> pending = pendingBatches.computeIfAbsent(batchClient, k -> new ArrayList<>());
+                    pending.add(link);
+                    if (pending.size() >= Math.min(batchClient.getMaxBatchSize(), capacity)) {
+                        pendingBatches.remove(batchClient);
+                        futures.add(submitBatch(batchClient, pending, linksInFlight, scrapedLinks));
+                    }
                 }
+            });
+            pendingBatches.forEach((batchClient, pending) ->
+                    futures.add(submitBatch(batchClient, pending, linksInFlight, scrapedLinks)));
+        } finally {
+            awaitAll(futures);
+            requestCoalescer.endCycle();
+            put(scrapedLinks, new EndOfCycle());
+        }
 
-                dividedBatch.forEach(List::clear);
-                pageNumber++;
-            } while (page.hasNext());
+        futures.add(notifier);
+        try {
+            futures.forEach(i -> {
+                try {
+                    i.get();
+                } catch (RuntimeException | InterruptedException | ExecutionException e) {
+                    throw new RuntimeException(e);
+                }
+            });
         } finally {
-            executorService.shutdown();
-            try {
-                executorService.awaitTermination(60, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                System.err.println("Прервано ожидание завершения потоков");
-                Thread.currentThread().interrupt();
-            }
+            checkpointWriter.flush();
+        }
+    }
+
+    private Future<?> submitBatch(
+            BatchClient batchClient,
+            List<Link> links,
+            Semaphore linksInFlight,
+            BlockingQueue<PipelineItem> scrapedLinks) {
+        if (!tryAcquireBudget(batchClient.getSourceName(), links)) {
+            return CompletableFuture.completedFuture(null);
         }
-        futures.forEach(i -> {
+        acquire(linksInFlight, links.size());
+        return scrapeExecutor.submit(() -> {
             try {
-                i.get();
-            } catch (RuntimeException | InterruptedException | ExecutionException e) {
-                throw new RuntimeException(e);
+                scrapeBatch(batchClient, links, scrapedLinks);
+            } finally {
+                linksInFlight.release(links.size());
             }
         });
     }
 
-    private void divideBatch(List<Link> content, List<List<Link>> destination) {
-        int partSize = (content.size() + 3) / 4;
-        for (int i = 0; i < content.size(); ++i) {
-            Link current = content.get(i);
-            destination.get(i / partSize).add(current);
+    private void scrapeLink(Link link, BlockingQueue<PipelineItem> scrapedLinks) {
+        Client suitableClient = link.getClient();
+        if (suitableClient == null) {
+            throw new RuntimeException("No suitable clients for link: " + link.getUrl());
         }
+        List<LinkUpdateInfo> updateDescriptionList =
+                scrapeExecutor.callLimited(suitableClient.getSourceName(), () -> suitableClient.getUpdates(link));
+        onScraped(link, updateDescriptionList, scrapedLinks);
     }
 
-    private void processLinks(List<Client> clients, List<Link> links) {
-        for (Link link : links) {
-            processLink(clients, link);
+    private void scrapeBatch(BatchClient batchClient, List<Link> links, BlockingQueue<PipelineItem> scrapedLinks) {
+        List<List<LinkUpdateInfo>> updates =
+                scrapeExecutor.callLimited(batchClient.getSourceName(), () -> batchClient.getBatchUpdates(links));
+        for (int i = 0; i < links.size(); i++) {
+            onScraped(links.get(i), updates.get(i), scrapedLinks);
         }
     }
 
-    private void processLink(List<Client> clients, Link link) {
-        Client suitableClient = getSuitableClient(clients, link);
-        List<LinkUpdateInfo> updateDescriptionList = suitableClient.getUpdates(link);
-        if (!updateDescriptionList.isEmpty()) {
-            linkService.updateLastUpdateTime(link, Instant.now());
-            for (LinkUpdateInfo updateDescriptionItem : updateDescriptionList) {
-                List<Long> filteredChatIds = filterByAuthor.filterChatIds(updateDescriptionItem, link);
-                sendUpdate(updateDescriptionItem, link, filteredChatIds);
+    private void onScraped(
+            Link link, List<LinkUpdateInfo> updateDescriptionList, BlockingQueue<PipelineItem> scrapedLinks) {
+        checkpointWriter.recordNextCheck(
+                link, pollingPolicy.nextCheckAt(link, !updateDescriptionList.isEmpty(), Instant.now()));
+        if (updateDescriptionList.isEmpty()) {
+            conditionalRequests.commit(link.getId());
+        } else {
+            put(scrapedLinks, new ScrapedLink(link, updateDescriptionList));
+        }
+    }
+
+    /**
+     * Стадия рассылки: забирает из очереди ссылки с найденными обновлениями порциями и отправляет уведомления, пока не
+     * встретит признак окончания цикла. Уведомления отправляются пакетами через {@link NotificationBatcher}, неполный
+     * пакет отправляется в конце цикла. Валидаторы условных запросов ссылки сохраняются только после того, как ее
+     * обновления переданы на отправку. Ошибка обработки одной ссылки не останавливает стадию, чтобы очередь не
+     * переполнилась и не заблокировала скрапинг
+     */
+    private void notifyUpdates(BlockingQueue<PipelineItem> scrapedLinks) {
+        RuntimeException failure = null;
+        List<PipelineItem> portion = new ArrayList<>();
+        boolean finished = false;
+        while (!finished) {
+            portion.add(take(scrapedLinks));
+            scrapedLinks.drainTo(portion);
+            for (PipelineItem item : portion) {
+                if (!(item instanceof ScrapedLink scrapedLink)) {
+                    finished = true;
+                    break;
+                }
+                try {
+                    processUpdates(scrapedLink.link(), scrapedLink.updates());
+                    conditionalRequests.commit(scrapedLink.link().getId());
+                } catch (RuntimeException e) {
+                    conditionalRequests.discard(scrapedLink.link().getId());
+                    log.atError()
+                            .setMessage("Ошибка при отправке обновлений")
+                            .addKeyValue("link", scrapedLink.link().getUrl())
+                            .setCause(e)
+                            .log();
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
             }
+            portion.clear();
+        }
+        notificationBatcher.flush();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void processUpdates(Link link, List<LinkUpdateInfo> updateDescriptionList) {
+        checkpointWriter.record(link, link.getScrapedUntil() != null ? link.getScrapedUntil() : Instant.now());
+        useIndexedSubscriptions(link);
+        for (LinkUpdateInfo updateDescriptionItem : updateDescriptionList) {
+            List<Long> filteredChatIds = filterByAuthor.filterChatIds(updateDescriptionItem, link);
+            sendUpdate(updateDescriptionItem, link, filteredChatIds);
+        }
+    }
+
+    /**
+     * Подставить в ссылку актуальные подписки из индекса, чтобы фильтрация и выбор режима отправки не обращались к БД
+     */
+    private void useIndexedSubscriptions(Link link) {
+        Map<Long, LinkSubscription> subscriptions = subscriptionIndex.getSubscriptions(link.getId());
+        if (subscriptions != null) {
+            link.setSubscriptions(subscriptions);
+            link.setTgChatIds(new HashSet<>(subscriptions.keySet()));
         }
     }
 
-    private Client getSuitableClient(List<Client> clients, Link link) {
-        for (Client client : clients) {
-            if (client.supportLink(link.getUrl())) {
-                return client;
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // ошибка будет выброшена после завершения стадии рассылки
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
             }
         }
+    }
+
+    private static void acquire(Semaphore semaphore, int permits) {
+        try {
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
 
-        throw new RuntimeException("No suitable clients for link: " + link.getUrl());
+    private static <T> void put(BlockingQueue<T> queue, T element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static <T> T take(BlockingQueue<T> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Упорядочить порцию ссылок: если бюджет запросов какого-либо источника почти исчерпан, первыми проверяются недавно
+     * обновлявшиеся ссылки, у которых вероятнее всего появились новые обновления
+     */
+    private List<Link> prioritize(List<Client> clients, List<Link> batch) {
+        boolean budgetIsLow = clients.stream().anyMatch(client -> rateLimitBudget.isLow(client.getSourceName()));
+        if (!budgetIsLow) {
+            return batch;
+        }
+        return batch.stream()
+                .sorted(Comparator.comparing(Link::getLastUpdateTime, Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+    }
+
+    /**
+     * Зарезервировать запрос к источнику. Если бюджет исчерпан, проверка ссылок откладывается до сброса лимита
+     *
+     * @return {@code true}, если ссылки можно проверить в текущем цикле
+     */
+    private boolean tryAcquireBudget(String sourceName, List<Link> links) {
+        if (rateLimitBudget.tryAcquire(sourceName)) {
+            return true;
+        }
+        Instant availableAt = rateLimitBudget.getAvailableAt(sourceName);
+        for (Link link : links) {
+            checkpointWriter.recordNextCheck(link, availableAt);
+        }
+        log.atInfo()
+                .setMessage("Проверка ссылок отложена: исчерпан лимит запросов")
+                .addKeyValue("source", sourceName)
+                .addKeyValue("links", links.size())
+                .addKeyValue("available-at", availableAt)
+                .log();
+        return false;
+    }
+
+    /**
+     * Получить клиент ссылки как пакетный, если он поддерживает пакетные запросы и они включены
+     *
+     * @return клиент или {@code null}, если ссылку нужно обрабатывать отдельно
+     */
+    private BatchClient getBatchClient(Client client) {
+        if (!scrapeProperties.isBatchRequests()) {
+            return null;
+        }
+        return client instanceof BatchClient batchClient ? batchClient : null;
     }
 
     private void sendUpdate(LinkUpdateInfo updateDescription, Link link, List<Long> chatIds) {
@@ -135,8 +324,21 @@ public class Scheduler {
             return;
         }
 
-        List<Long> chatIdsForImmediateDispatch = chatService.getChatIdsForImmediateDispatch(chatIds);
-        List<Map.Entry<Long, LocalTime>> chatIdsWithDelayedSending = chatService.getChatIdsWithDelayedSending(chatIds);
+        List<Long> chatIdsForImmediateDispatch = new ArrayList<>();
+        List<Map.Entry<Long, LocalTime>> chatIdsWithDelayedSending = new ArrayList<>();
+        if (link.getSubscriptions().keySet().containsAll(chatIds)) {
+            for (Long chatId : chatIds) {
+                LocalTime sendAt = link.getSubscriptions().get(chatId).getSendAt();
+                if (sendAt == null) {
+                    chatIdsForImmediateDispatch.add(chatId);
+                } else {
+                    chatIdsWithDelayedSending.add(Map.entry(chatId, sendAt));
+                }
+            }
+        } else {
+            chatIdsForImmediateDispatch = chatService.getChatIdsForImmediateDispatch(chatIds);
+            chatIdsWithDelayedSending = chatService.getChatIdsWithDelayedSending(chatIds);
+        }
 
         if (!chatIdsForImmediateDispatch.isEmpty())
             sendImmediately(updateDescription, link, chatIdsForImmediateDispatch);
@@ -148,7 +350,7 @@ public class Scheduler {
     private void sendImmediately(LinkUpdateInfo updateDescription, Link link, List<Long> chatIdsForImmediateDispatch) {
         LinkUpdate linkUpdate = new LinkUpdate(
                 link.getId(), link.getUrl(), updateDescription.commonInfo(), chatIdsForImmediateDispatch);
-        notificationSender.send(linkUpdate);
+        notificationBatcher.add(linkUpdate);
     }
 
     private void saveForDelayedSending(
@@ -159,4 +361,12 @@ public class Scheduler {
             redisTemplate.opsForSet().add(chat.getValue().format(DateTimeFormatter.ofPattern("HH:mm")), linkUpdate);
         }
     }
+
+    /** Элемент очереди между стадиями скрапинга и рассылки */
+    private sealed interface PipelineItem permits ScrapedLink, EndOfCycle {}
+
+    private record ScrapedLink(Link link, List<LinkUpdateInfo> updates) implements PipelineItem {}
+
+    /** Признак окончания цикла: все ссылки цикла проверены */
+    private record EndOfCycle() implements PipelineItem {}
 }
@@ -0,0 +1,108 @@
+package backend.academy.scheduler;
+
+import backend.academy.config.properties.ScrapeProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Исполнитель задач скрапинга на виртуальных потоках. Каждая ссылка обрабатывается отдельной задачей, количество
+ * одновременных запросов к каждому источнику ограничивается отдельным семафором
+ */
+@Component
+public class ScrapeExecutor implements DisposableBean {
+    private final ScrapeProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, SourceLimiter> limiters = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    public ScrapeExecutor(ScrapeProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("scrape.tasks.pending", pendingTasks, AtomicInteger::get)
+                .description("Number of submitted scrape tasks that have not completed yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запустить задачу в отдельном виртуальном потоке
+     *
+     * @param task задача
+     * @return {@code Future<?>} для ожидания завершения задачи
+     */
+    public Future<?> submit(Runnable task) {
+        pendingTasks.incrementAndGet();
+        return executorService.submit(() -> {
+            try {
+                task.run();
+            } finally {
+                pendingTasks.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Выполнить запрос к источнику, дождавшись свободного места в лимите одновременных запросов к нему
+     *
+     * @param sourceName название источника (см. {@code Client.getSourceName()})
+     * @param request запрос к источнику
+     * @return результат запроса
+     */
+    public <T> T callLimited(String sourceName, Supplier<T> request) {
+        SourceLimiter limiter = limiters.computeIfAbsent(sourceName, this::createLimiter);
+
+        long start = System.nanoTime();
+        limiter.queueDepth.incrementAndGet();
+        try {
+            limiter.semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            limiter.queueDepth.decrementAndGet();
+            limiter.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            return request.get();
+        } finally {
+            limiter.semaphore.release();
+        }
+    }
+
+    private SourceLimiter createLimiter(String sourceName) {
+        AtomicInteger queueDepth = new AtomicInteger();
+        Gauge.builder("scrape.queue.depth", queueDepth, AtomicInteger::get)
+                .tag("type", sourceName)
+                .description("Number of scrape tasks waiting for a free request slot to the source")
+                .register(meterRegistry);
+
+        Timer waitTimer = Timer.builder("scrape.task.wait")
+                .tag("type", sourceName)
+                .publishPercentileHistogram(true)
+                .description("Time a scrape task waits for a free request slot to the source")
+                .register(meterRegistry);
+
+        return new SourceLimiter(new Semaphore(properties.getMaxConcurrency(sourceName), true), queueDepth, waitTimer);
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+
+    private record SourceLimiter(Semaphore semaphore, AtomicInteger queueDepth, Timer waitTimer) {}
+}
@@ -0,0 +1,30 @@
+package backend.academy.serialization;
+
+import backend.academy.dto.LinkUpdate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/** Сериализатор Redis, хранящий {@link LinkUpdate} в формате {@link LinkUpdateCodec} без имени класса */
+public class LinkUpdateBinaryRedisSerializer implements RedisSerializer<LinkUpdate> {
+    @Override
+    public byte[] serialize(LinkUpdate value) {
+        return value == null ? new byte[0] : LinkUpdateCodec.encode(value);
+    }
+
+    @Override
+    public LinkUpdate deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return LinkUpdateCodec.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Не удалось прочитать LinkUpdate", e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return LinkUpdate.class;
+    }
+}
@@ -0,0 +1,12 @@
+package backend.academy.serialization;
+
+import backend.academy.dto.LinkUpdate;
+import org.apache.kafka.common.serialization.Serializer;
+
+/** Сериализатор Kafka, записывающий {@link LinkUpdate} в формате {@link LinkUpdateCodec} */
+public class LinkUpdateBinarySerializer implements Serializer<LinkUpdate> {
+    @Override
+    public byte[] serialize(String topic, LinkUpdate data) {
+        return data == null ? null : LinkUpdateCodec.encode(data);
+    }
+}
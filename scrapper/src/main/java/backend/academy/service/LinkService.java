@@ -1,18 +1,51 @@
 package backend.academy.service;
 
-import backend.academy.clients.Client;
 import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
 import backend.academy.model.plain.TgChat;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface LinkService {
-    Page<Link> getAllLinks(Pageable pageable, Duration duration);
+    Page<Link> getAllLinks(Pageable pageable);
+
+    /**
+     * Получить порцию ссылок, время очередной проверки которых наступило, курсорным (keyset) обходом по идентификатору
+     *
+     * @param lastId идентификатор последней ссылки из предыдущей порции ({@code 0} для первой порции)
+     * @param limit максимальный размер порции
+     * @return список ссылок, упорядоченный по идентификатору
+     */
+    List<Link> getLinksAfter(Long lastId, int limit);
+
+    /**
+     * Последовательно обойти все ссылки, подлежащие проверке, порциями фиксированного размера. Очередная порция
+     * запрашивается из БД только при её потреблении
+     *
+     * @param batchSize размер порции
+     * @return ленивый поток порций ссылок
+     */
+    default Stream<List<Link>> streamAllLinks(int batchSize) {
+        return Stream.iterate(
+                getLinksAfter(0L, batchSize),
+                batch -> !batch.isEmpty(),
+                batch -> batch.size() < batchSize
+                        ? List.of()
+                        : getLinksAfter(batch.getLast().getId(), batchSize));
+    }
+
+    /**
+     * Получить подписки чатов на все отслеживаемые ссылки независимо от времени их очередной проверки
+     *
+     * @return отображение идентификатора ссылки в список её подписок
+     */
+    Map<Long, List<LinkSubscription>> getAllSubscriptions();
 
     Optional<Link> getLink(Long chatId, String linkValue);
 
@@ -22,23 +55,29 @@ public interface LinkService {
 
     Set<Long> getChatIdsListeningToLink(String url);
 
+    void updateLastUpdateTime(Link link, Instant updateTime);
+
     /**
-     * Проверить, является ли переданная ссылка корректной
+     * Записать время последнего обновления сразу для набора ссылок одним запросом
      *
-     * @param link строковое значение ссылки
-     * @return {@code true}, если ссылка поддерживается, {@code false} - иначе
+     * @param lastUpdateTimes отображение идентификатора ссылки во время её последнего обновления
      */
-    default boolean validateLink(List<Client> availableClients, String link) {
-        for (Client client : availableClients) {
-            if (client.supportLink(link)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
+    void updateLastUpdateTimes(Map<Long, Instant> lastUpdateTimes);
 
-    void updateLastUpdateTime(Link link, Instant updateTime);
+    /**
+     * Назначить время следующей проверки ссылки планировщиком
+     *
+     * @param link ссылка
+     * @param nextCheckAt момент, начиная с которого ссылка снова подлежит проверке
+     */
+    void updateNextCheckTime(Link link, Instant nextCheckAt);
+
+    /**
+     * Назначить время следующей проверки сразу для набора ссылок одним запросом
+     *
+     * @param nextCheckTimes отображение идентификатора ссылки во время её следующей проверки
+     */
+    void updateNextCheckTimes(Map<Long, Instant> nextCheckTimes);
 
     List<Link> getAllLinksByChatIdAndTag(Long id, String tag);
 
@@ -0,0 +1,261 @@
+package backend.academy.service;
+
+import backend.academy.model.plain.LinkSubscription;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Индекс подписок в памяти: идентификатор ссылки - подписки чатов (фильтры и время отложенной отправки). Заполняется
+ * при старте приложения и поддерживается сервисами при изменении подписок через API, поэтому рассылка обновлений не
+ * обращается к БД. Пока индекс не заполнен, {@link #getSubscriptions(Long)} возвращает {@code null}, и используются
+ * подписки, загруженные вместе со ссылкой
+ */
+@Slf4j
+@Component
+public class SubscriptionIndex {
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final Map<Long, Map<Long, LinkSubscription>> subscriptionsByLink = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> linksByChat = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private long version;
+    private volatile boolean ready;
+
+    /**
+     * Получить подписки на ссылку
+     *
+     * @param linkId идентификатор ссылки
+     * @return неизменяемое отображение идентификатора чата в подписку или {@code null}, если индекс еще не заполнен
+     */
+    public Map<Long, LinkSubscription> getSubscriptions(Long linkId) {
+        if (!ready) {
+            return null;
+        }
+        return subscriptionsByLink.getOrDefault(linkId, Map.of());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Зарегистрировать получателя изменений индекса. Получатели вызываются после применения изменения
+     *
+     * @param listener получатель изменений
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Заполнить индекс. Если во время загрузки подписки были изменены через API, загрузка повторяется, чтобы не
+     * сохранить устаревшее состояние. Если все попытки не удались, индекс остается незаполненным до следующего вызова
+     * (см. {@link SubscriptionIndexLoader})
+     *
+     * @param subscriptions функция, загружающая подписки на все ссылки
+     */
+    public void load(Supplier<Map<Long, List<LinkSubscription>>> subscriptions) {
+        for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+            long startVersion;
+            synchronized (this) {
+                startVersion = version;
+            }
+
+            Map<Long, List<LinkSubscription>> loaded = subscriptions.get();
+
+            synchronized (this) {
+                if (version == startVersion) {
+                    subscriptionsByLink.clear();
+                    linksByChat.clear();
+                    loaded.forEach(this::putLink);
+                    ready = true;
+                    log.atInfo()
+                            .setMessage("Индекс подписок заполнен")
+                            .addKeyValue("links", loaded.size())
+                            .log();
+                    return;
+                }
+            }
+        }
+        log.atWarn()
+                .setMessage("Не удалось заполнить индекс подписок: подписки изменялись во время загрузки")
+                .log();
+    }
+
+    /**
+     * Добавить или заменить подписку чата на ссылку
+     *
+     * @param linkId идентификатор ссылки
+     * @param chatId идентификатор чата в Telegram
+     * @param sendAt время отложенной отправки или {@code null}
+     * @param filters фильтры подписки
+     */
+    public void subscribe(Long linkId, Long chatId, LocalTime sendAt, List<String> filters) {
+        LinkSubscription subscription = new LinkSubscription(chatId, sendAt, List.copyOf(filters));
+        update(() -> putSubscription(linkId, subscription));
+    }
+
+    /**
+     * Заменить фильтры подписки. Если подписки нет, индекс не изменяется
+     *
+     * @param linkId идентификатор ссылки
+     * @param chatId идентификатор чата в Telegram
+     * @param filters новые фильтры
+     */
+    public void updateFilters(Long linkId, Long chatId, List<String> filters) {
+        List<String> newFilters = List.copyOf(filters);
+        update(() -> {
+            LinkSubscription subscription =
+                    subscriptionsByLink.getOrDefault(linkId, Map.of()).get(chatId);
+            if (subscription != null) {
+                putSubscription(linkId, new LinkSubscription(chatId, subscription.getSendAt(), newFilters));
+            }
+        });
+    }
+
+    /**
+     * Изменить время отложенной отправки во всех подписках чата
+     *
+     * @param chatId идентификатор чата в Telegram
+     * @param sendAt новое время отправки или {@code null} для немедленной отправки
+     */
+    public void updateSendAt(Long chatId, LocalTime sendAt) {
+        update(() -> {
+            for (Long linkId : linksByChat.getOrDefault(chatId, Set.of())) {
+                LinkSubscription subscription =
+                        subscriptionsByLink.getOrDefault(linkId, Map.of()).get(chatId);
+                if (subscription != null) {
+                    putSubscription(linkId, new LinkSubscription(chatId, sendAt, subscription.getFilters()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Удалить подписку чата на ссылку
+     *
+     * @param linkId идентификатор ссылки
+     * @param chatId идентификатор чата в Telegram
+     */
+    public void unsubscribe(Long linkId, Long chatId) {
+        update(() -> {
+            removeSubscription(linkId, chatId);
+            Set<Long> chatLinks = linksByChat.get(chatId);
+            if (chatLinks != null) {
+                chatLinks.remove(linkId);
+                if (chatLinks.isEmpty()) {
+                    linksByChat.remove(chatId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Удалить все подписки чата
+     *
+     * @param chatId идентификатор чата в Telegram
+     */
+    public void removeChat(Long chatId) {
+        update(() -> {
+            Set<Long> chatLinks = linksByChat.remove(chatId);
+            if (chatLinks != null) {
+                chatLinks.forEach(linkId -> removeSubscription(linkId, chatId));
+            }
+        });
+    }
+
+    /**
+     * Применить изменение после фиксации текущей транзакции (или сразу, если транзакции нет). Версия увеличивается
+     * немедленно, чтобы параллельная загрузка индекса была повторена
+     */
+    private void update(Runnable change) {
+        synchronized (this) {
+            version++;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Runnable change) {
+        version++;
+        if (ready) {
+            change.run();
+        }
+    }
+
+    private void putLink(Long linkId, List<LinkSubscription> subscriptions) {
+        Map<Long, LinkSubscription> byChat = new HashMap<>();
+        for (LinkSubscription subscription : subscriptions) {
+            byChat.put(subscription.getChatId(), subscription);
+            linksByChat
+                    .computeIfAbsent(subscription.getChatId(), k -> new HashSet<>())
+                    .add(linkId);
+        }
+        if (!byChat.isEmpty()) {
+            subscriptionsByLink.put(linkId, Map.copyOf(byChat));
+        }
+    }
+
+    private void putSubscription(Long linkId, LinkSubscription subscription) {
+        Map<Long, LinkSubscription> subscriptions = new HashMap<>(subscriptionsByLink.getOrDefault(linkId, Map.of()));
+        subscriptions.put(subscription.getChatId(), subscription);
+        subscriptionsByLink.put(linkId, Map.copyOf(subscriptions));
+        linksByChat
+                .computeIfAbsent(subscription.getChatId(), k -> new HashSet<>())
+                .add(linkId);
+        listeners.forEach(listener -> listener.onSubscriptionChanged(linkId, subscription.getChatId()));
+    }
+
+    private void removeSubscription(Long linkId, Long chatId) {
+        Map<Long, LinkSubscription> current = subscriptionsByLink.get(linkId);
+        if (current == null || !current.containsKey(chatId)) {
+            return;
+        }
+        Map<Long, LinkSubscription> subscriptions = new HashMap<>(current);
+        subscriptions.remove(chatId);
+        listeners.forEach(listener -> listener.onSubscriptionChanged(linkId, chatId));
+        if (subscriptions.isEmpty()) {
+            subscriptionsByLink.remove(linkId);
+            listeners.forEach(listener -> listener.onLinkUntracked(linkId));
+        } else {
+            subscriptionsByLink.put(linkId, Map.copyOf(subscriptions));
+        }
+    }
+
+    /** Получатель изменений индекса подписок, например кэш, хранящий данные по идентификатору ссылки */
+    public interface Listener {
+        /**
+         * Подписка чата на ссылку добавлена, изменена или удалена
+         *
+         * @param linkId идентификатор ссылки
+         * @param chatId идентификатор чата в Telegram
+         */
+        default void onSubscriptionChanged(Long linkId, Long chatId) {}
+
+        /**
+         * У ссылки не осталось подписок
+         *
+         * @param linkId идентификатор ссылки
+         */
+        default void onLinkUntracked(Long linkId) {}
+    }
+}
@@ -0,0 +1,32 @@
+package backend.academy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Заполняет индекс подписок после запуска приложения. Если заполнить индекс не удалось (подписки постоянно изменялись
+ * во время загрузки или БД была недоступна), загрузка повторяется по таймеру, пока индекс не будет заполнен
+ */
+@Component
+@RequiredArgsConstructor
+public class SubscriptionIndexLoader {
+    private final SubscriptionIndex subscriptionIndex;
+    private final LinkService linkService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        subscriptionIndex.load(linkService::getAllSubscriptions);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.subscription-index.retry-interval:10s}",
+            initialDelayString = "${app.subscription-index.retry-interval:10s}")
+    public void retryLoad() {
+        if (!subscriptionIndex.isReady()) {
+            loadIndex();
+        }
+    }
+}
@@ -17,6 +17,7 @@ import backend.academy.repository.orm.OrmChatRepository;
 import backend.academy.repository.orm.OrmLinkRepository;
 import backend.academy.service.ChatService;
 import backend.academy.service.LinkService;
+import backend.academy.service.SubscriptionIndex;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -38,6 +39,7 @@ public class OrmChatService implements ChatService {
     private final OrmLinkRepository linkRepository;
     private final ChatMapper mapper;
     private final LinkService linkService;
+    private final SubscriptionIndex subscriptionIndex;
 
     public OrmChatService(
             OrmChatRepository chatRepository,
@@ -46,7 +48,8 @@ public class OrmChatService implements ChatService {
             OrmChatLinkFiltersRepository filtersRepository,
             OrmLinkRepository linkRepository,
             ChatMapper mapper,
-            @Qualifier("ormLinkService") LinkService linkService) {
+            @Qualifier("ormLinkService") LinkService linkService,
+            SubscriptionIndex subscriptionIndex) {
         this.chatRepository = chatRepository;
         this.chatLinkRepository = chatLinkRepository;
         this.tagsRepository = tagsRepository;
@@ -54,6 +57,7 @@ public class OrmChatService implements ChatService {
         this.linkRepository = linkRepository;
         this.mapper = mapper;
         this.linkService = linkService;
+        this.subscriptionIndex = subscriptionIndex;
     }
 
     @Override
@@ -84,6 +88,7 @@ public class OrmChatService implements ChatService {
     @Override
     public void deleteChatByChatId(Long chatId) {
         chatRepository.deleteByChatId(chatId);
+        subscriptionIndex.removeChat(chatId);
     }
 
     @Override
@@ -116,6 +121,7 @@ public class OrmChatService implements ChatService {
             chat.getLinks().stream()
                     .filter(i -> Objects.equals(i.getUrl(), link.getUrl()))
                     .forEach(i -> i.setFilters(link.getFilters()));
+            subscriptionIndex.updateFilters(ormLink.orElseThrow().getId(), chat.getChatId(), filters);
         }
     }
 
@@ -130,6 +136,11 @@ public class OrmChatService implements ChatService {
                         .findAny()
                         .isEmpty()) {
             chatLinkRepository.save(new OrmChatLink(ormChat.orElseThrow(), ormLink.orElseThrow()));
+            subscriptionIndex.subscribe(
+                    ormLink.orElseThrow().getId(),
+                    chat.getChatId(),
+                    ormChat.orElseThrow().getSendAt(),
+                    List.of());
         }
     }
 
@@ -144,6 +155,7 @@ public class OrmChatService implements ChatService {
                     ormChat.orElseThrow().getId(), ormLink.orElseThrow().getId());
             filtersRepository.deleteByChatPrimaryIdAndLinkId(
                     ormChat.orElseThrow().getId(), ormLink.orElseThrow().getId());
+            subscriptionIndex.unsubscribe(ormLink.orElseThrow().getId(), chat.getChatId());
         }
     }
 
@@ -205,6 +217,7 @@ public class OrmChatService implements ChatService {
             return false;
         }
         chatRepository.updateTimeConfig(tgChat.getChatId(), config);
+        subscriptionIndex.updateSendAt(tgChat.getChatId(), config);
         return true;
     }
 
@@ -8,6 +8,7 @@ import backend.academy.model.orm.OrmChatLinkIdEmbedded;
 import backend.academy.model.orm.OrmChatLinkTags;
 import backend.academy.model.orm.OrmLink;
 import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
 import backend.academy.model.plain.TgChat;
 import backend.academy.repository.orm.OrmChatLinkFiltersRepository;
 import backend.academy.repository.orm.OrmChatLinkRepository;
@@ -15,15 +16,18 @@ import backend.academy.repository.orm.OrmChatLinkTagsRepository;
 import backend.academy.repository.orm.OrmChatRepository;
 import backend.academy.repository.orm.OrmLinkRepository;
 import backend.academy.service.LinkService;
-import java.time.Duration;
+import backend.academy.service.SubscriptionIndex;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -39,6 +43,7 @@ public class OrmLinkService implements LinkService {
     private final OrmChatLinkTagsRepository chatLinkTagsRepository;
     private final OrmChatLinkFiltersRepository chatLinkFiltersRepository;
     private final LinkMapper mapper;
+    private final SubscriptionIndex subscriptionIndex;
 
     public OrmLinkService(
             OrmLinkRepository linkRepository,
@@ -46,32 +51,76 @@ public class OrmLinkService implements LinkService {
             OrmChatLinkRepository chatLinkRepository,
             OrmChatLinkTagsRepository chatLinkTagsRepository,
             OrmChatLinkFiltersRepository chatLinkFiltersRepository,
-            LinkMapper mapper) {
+            LinkMapper mapper,
+            SubscriptionIndex subscriptionIndex) {
         this.linkRepository = linkRepository;
         this.chatRepository = chatRepository;
         this.chatLinkRepository = chatLinkRepository;
         this.chatLinkTagsRepository = chatLinkTagsRepository;
         this.chatLinkFiltersRepository = chatLinkFiltersRepository;
         this.mapper = mapper;
+        this.subscriptionIndex = subscriptionIndex;
     }
 
     @Override
-    public Page<Link> getAllLinks(Pageable pageable, Duration duration) {
-        Instant now = Instant.now();
-        Instant timeFilter = now.minus(duration);
+    public Page<Link> getAllLinks(Pageable pageable) {
+        Page<OrmLink> links = linkRepository.findAll(Instant.now(), pageable);
 
-        List<Link> plainLinks = new ArrayList<>();
-        Page<OrmLink> links = linkRepository.findAll(timeFilter, pageable);
+        return new PageImpl<>(toPlainLinksWithSubscriptions(links.getContent()), pageable, links.getTotalElements());
+    }
+
+    @Override
+    public List<Link> getLinksAfter(Long lastId, int limit) {
+        return toPlainLinksWithSubscriptions(linkRepository.findAllAfter(lastId, Instant.now(), Limit.of(limit)));
+    }
+
+    private List<Link> toPlainLinksWithSubscriptions(List<OrmLink> links) {
+        if (links.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> linkIds = links.stream().map(OrmLink::getId).toList();
+
+        Map<Long, Map<Long, LinkSubscription>> subscriptions = toSubscriptions(
+                chatLinkRepository.findAllWithChatByLinkIds(linkIds),
+                chatLinkFiltersRepository.findAllByLinkIds(linkIds));
 
+        List<Link> plainLinks = new ArrayList<>();
         for (OrmLink link : links) {
-            Set<Long> primaryChatIds = chatLinkRepository.findAllChatIdByLinkId(link.getId());
-            Set<Long> chatIds = chatRepository.findAllById(primaryChatIds).stream()
-                    .map(OrmChat::getChatId)
-                    .collect(Collectors.toSet());
-            plainLinks.add(mapper.toPlainLink(link, null, null, chatIds));
+            Map<Long, LinkSubscription> linkSubscriptions = subscriptions.getOrDefault(link.getId(), Map.of());
+            Link plainLink = mapper.toPlainLink(link, null, null, new HashSet<>(linkSubscriptions.keySet()));
+            plainLink.getSubscriptions().putAll(linkSubscriptions);
+            plainLinks.add(plainLink);
+        }
+        return plainLinks;
+    }
+
+    private Map<Long, Map<Long, LinkSubscription>> toSubscriptions(
+            List<OrmChatLink> chatLinks, List<OrmChatLinkFilters> chatLinkFilters) {
+        Map<Long, Map<Long, List<String>>> filters = new HashMap<>();
+        for (OrmChatLinkFilters filter : chatLinkFilters) {
+            filters.computeIfAbsent(filter.getId().getLinkId(), id -> new HashMap<>())
+                    .computeIfAbsent(filter.getId().getChatId(), id -> new ArrayList<>())
+                    .add(filter.getId().getFilterValue());
+        }
+
+        Map<Long, Map<Long, LinkSubscription>> subscriptions = new HashMap<>();
+        for (OrmChatLink chatLink : chatLinks) {
+            OrmChat chat = chatLink.getChat();
+            Long linkId = chatLink.getId().getLinkId();
+            List<String> chatFilters = filters.getOrDefault(linkId, Map.of()).getOrDefault(chat.getId(), List.of());
+            subscriptions
+                    .computeIfAbsent(linkId, id -> new HashMap<>())
+                    .put(chat.getChatId(), new LinkSubscription(chat.getChatId(), chat.getSendAt(), chatFilters));
         }
+        return subscriptions;
+    }
 
-        return new PageImpl<>(plainLinks, pageable, links.getTotalElements());
+    @Override
+    public Map<Long, List<LinkSubscription>> getAllSubscriptions() {
+        Map<Long, List<LinkSubscription>> result = new HashMap<>();
+        toSubscriptions(chatLinkRepository.findAllWithChat(), chatLinkFiltersRepository.findAll())
+                .forEach((linkId, subscriptions) -> result.put(linkId, new ArrayList<>(subscriptions.values())));
+        return result;
     }
 
     @Override
@@ -135,34 +184,20 @@ public class OrmLinkService implements LinkService {
                 chatLinkTagsRepository.findTagValuesByChatPrimaryIdAndLinkId(savedChat.getId(), savedLink.getId()));
         link.setFilters(
                 chatLinkFiltersRepository.findFilterValuesByChatIdAndLinkId(savedChat.getId(), savedLink.getId()));
+        subscriptionIndex.subscribe(savedLink.getId(), chat.getChatId(), savedChat.getSendAt(), link.getFilters());
 
         return link;
     }
 
     @Override
     public Set<Link> getAllLinksByChatId(Long chatId) {
-        Set<Link> plainLinks = new HashSet<>();
         Optional<OrmChat> chat = chatRepository.findByChatId(chatId);
         if (chat.isEmpty()) {
             return Set.of();
         }
+        Long internalChatId = chat.orElseThrow().getId();
 
-        List<OrmLink> ormLinks =
-                chatLinkRepository.findAllByChatPrimaryId(chat.orElseThrow().getId());
-
-        for (OrmLink link : ormLinks) {
-            List<String> tags = chatLinkTagsRepository.findTagValuesByChatPrimaryIdAndLinkId(
-                    chat.orElseThrow().getId(), link.getId());
-            List<String> filters = chatLinkFiltersRepository.findFilterValuesByChatIdAndLinkId(
-                    chat.orElseThrow().getId(), link.getId());
-            Set<Long> primaryChatIds = chatLinkRepository.findAllChatIdByLinkId(link.getId());
-            Set<Long> tgChatIds = chatRepository.findAllById(primaryChatIds).stream()
-                    .map(OrmChat::getChatId)
-                    .collect(Collectors.toSet());
-
-            plainLinks.add(mapper.toPlainLink(link, tags, filters, tgChatIds));
-        }
-        return plainLinks;
+        return new HashSet<>(toPlainLinks(internalChatId, chatLinkRepository.findAllByChatPrimaryId(internalChatId)));
     }
 
     @Override
@@ -188,6 +223,37 @@ public class OrmLinkService implements LinkService {
                 ormLink.orElseThrow().getId(), link.getUrl(), link.getLastUpdateTime(), link.getType());
     }
 
+    @Override
+    public void updateLastUpdateTimes(Map<Long, Instant> lastUpdateTimes) {
+        if (lastUpdateTimes.isEmpty()) {
+            return;
+        }
+        Long[] ids = lastUpdateTimes.keySet().toArray(Long[]::new);
+        Instant[] lastUpdates = new Instant[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            lastUpdates[i] = lastUpdateTimes.get(ids[i]);
+        }
+        linkRepository.updateLastUpdateTimes(ids, lastUpdates);
+    }
+
+    @Override
+    public void updateNextCheckTime(Link link, Instant nextCheckAt) {
+        linkRepository.updateNextCheckAt(link.getId(), nextCheckAt);
+    }
+
+    @Override
+    public void updateNextCheckTimes(Map<Long, Instant> nextCheckTimes) {
+        if (nextCheckTimes.isEmpty()) {
+            return;
+        }
+        Long[] ids = nextCheckTimes.keySet().toArray(Long[]::new);
+        Instant[] times = new Instant[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            times[i] = nextCheckTimes.get(ids[i]);
+        }
+        linkRepository.updateNextCheckTimes(ids, times);
+    }
+
     @Override
     public List<Link> getAllLinksByChatIdAndTag(Long chatId, String tag) {
         Optional<OrmChat> ormChat = chatRepository.findByChatId(chatId);
@@ -196,21 +262,7 @@ public class OrmLinkService implements LinkService {
         }
         Long internalChatId = ormChat.orElseThrow().getId();
 
-        List<Link> plainLinks = new ArrayList<>();
-
-        List<Long> linkIds = chatLinkTagsRepository.findLinkIdsByChatIdAndTagValue(internalChatId, tag);
-        List<OrmLink> ormLinks = linkRepository.findAllById(linkIds);
-        for (OrmLink link : ormLinks) {
-            List<String> tags =
-                    chatLinkTagsRepository.findTagValuesByChatPrimaryIdAndLinkId(internalChatId, link.getId());
-            List<String> filters =
-                    chatLinkFiltersRepository.findFilterValuesByChatIdAndLinkId(internalChatId, link.getId());
-            Set<Long> chatIds = chatLinkRepository.findAllChatIdByLinkId(link.getId());
-
-            plainLinks.add(mapper.toPlainLink(link, tags, filters, chatIds));
-        }
-
-        return plainLinks;
+        return toPlainLinks(internalChatId, chatLinkTagsRepository.findLinksByChatIdAndTagValue(internalChatId, tag));
     }
 
     @Override
@@ -222,4 +274,37 @@ public class OrmLinkService implements LinkService {
     public Integer getActiveStackoverflowLinkCount() {
         return chatLinkRepository.getActiveStackoverflowLinkCount();
     }
+
+    /**
+     * Дополнить ссылки тегами и фильтрами чата и чатами, отслеживающими ссылки. Количество запросов не зависит от числа
+     * ссылок
+     */
+    private List<Link> toPlainLinks(Long internalChatId, List<OrmLink> ormLinks) {
+        if (ormLinks.isEmpty()) {
+            return List.of();
+        }
+        List<Long> linkIds = ormLinks.stream().map(OrmLink::getId).toList();
+
+        Map<Long, List<String>> tags =
+                groupByLinkId(chatLinkTagsRepository.findLinkIdAndTagValueByChatPrimaryId(internalChatId));
+        Map<Long, List<String>> filters =
+                groupByLinkId(chatLinkFiltersRepository.findLinkIdAndFilterValueByChatPrimaryId(internalChatId));
+        Map<Long, Set<Long>> tgChatIds = chatLinkRepository.findLinkIdAndTgChatIdByLinkIds(linkIds).stream()
+                .collect(Collectors.groupingBy(
+                        row -> (Long) row[0], Collectors.mapping(row -> (Long) row[1], Collectors.toSet())));
+
+        return ormLinks.stream()
+                .map(link -> mapper.toPlainLink(
+                        link,
+                        tags.getOrDefault(link.getId(), List.of()),
+                        filters.getOrDefault(link.getId(), List.of()),
+                        tgChatIds.getOrDefault(link.getId(), Set.of())))
+                .toList();
+    }
+
+    private static Map<Long, List<String>> groupByLinkId(List<Object[]> rows) {
+        return rows.stream()
+                .collect(Collectors.groupingBy(
+                        row -> (Long) row[0], Collectors.mapping(row -> (String) row[1], Collectors.toList())));
+    }
 }
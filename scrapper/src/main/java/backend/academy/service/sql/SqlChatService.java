@@ -7,6 +7,7 @@ import backend.academy.model.plain.TgChat;
 import backend.academy.repository.jdbc.JdbcChatRepository;
 import backend.academy.service.ChatService;
 import backend.academy.service.LinkService;
+import backend.academy.service.SubscriptionIndex;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -14,7 +15,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,15 +26,18 @@ public class SqlChatService implements ChatService {
     private final JdbcChatRepository chatRepository;
     private final ChatMapper chatMapper;
     private final LinkService linkService;
+    private final SubscriptionIndex subscriptionIndex;
 
     @Autowired
     public SqlChatService(
             JdbcChatRepository chatRepository,
             ChatMapper chatMapper,
-            @Qualifier("sqlLinkService") LinkService linkService) {
+            @Qualifier("sqlLinkService") LinkService linkService,
+            SubscriptionIndex subscriptionIndex) {
         this.chatRepository = chatRepository;
         this.chatMapper = chatMapper;
         this.linkService = linkService;
+        this.subscriptionIndex = subscriptionIndex;
     }
 
     @Override
@@ -66,6 +69,7 @@ public class SqlChatService implements ChatService {
     @Override
     public void deleteChatByChatId(Long chatId) {
         chatRepository.deleteByChatId(chatId);
+        subscriptionIndex.removeChat(chatId);
     }
 
     @Override
@@ -76,9 +80,7 @@ public class SqlChatService implements ChatService {
         }
         JdbcTgChat jdbcChat = jdbcTgChat.orElseThrow();
         chatRepository.removeAllTags(link.getId(), jdbcChat.getId());
-        for (String tag : new HashSet<>(tags)) {
-            chatRepository.saveTag(link.getId(), jdbcChat.getId(), tag);
-        }
+        chatRepository.saveTags(link.getId(), jdbcChat.getId(), tags);
         link.setTags(tags);
         chat.getLinks().stream()
                 .filter(i -> Objects.equals(i.getUrl(), link.getUrl()))
@@ -93,13 +95,12 @@ public class SqlChatService implements ChatService {
         }
         JdbcTgChat jdbcChat = jdbcTgChat.orElseThrow();
         chatRepository.removeAllFilters(link.getId(), jdbcChat.getId());
-        for (String filter : new HashSet<>(filters)) {
-            chatRepository.saveFilter(link.getId(), jdbcChat.getId(), filter);
-        }
+        chatRepository.saveFilters(link.getId(), jdbcChat.getId(), filters);
         link.setFilters(filters);
         chat.getLinks().stream()
                 .filter(i -> Objects.equals(i.getUrl(), link.getUrl()))
                 .forEach(i -> i.setFilters(link.getFilters()));
+        subscriptionIndex.updateFilters(link.getId(), chat.getChatId(), filters);
     }
 
     @Override
@@ -111,8 +112,11 @@ public class SqlChatService implements ChatService {
         if (chat.getLinks().stream()
                 .filter(i -> Objects.equals(i.getUrl(), link.getUrl()))
                 .findAny()
-                .isEmpty())
+                .isEmpty()) {
             chatRepository.saveTheChatLink(jdbcTgChat.orElseThrow().getId(), link.getId());
+            subscriptionIndex.subscribe(
+                    link.getId(), chat.getChatId(), jdbcTgChat.orElseThrow().getSendAt(), List.of());
+        }
     }
 
     @Override
@@ -124,6 +128,7 @@ public class SqlChatService implements ChatService {
         chatRepository.removeTheChatLink(jdbcTgChat.orElseThrow().getId(), link.getId());
         chatRepository.removeAllTags(link.getId(), jdbcTgChat.orElseThrow().getId());
         chatRepository.removeAllFilters(link.getId(), jdbcTgChat.orElseThrow().getId());
+        subscriptionIndex.unsubscribe(link.getId(), chat.getChatId());
     }
 
     @Override
@@ -147,23 +152,13 @@ public class SqlChatService implements ChatService {
     @Override
     public void addTagsToAllLinksByChatId(TgChat tgChat, List<String> tags) {
         JdbcTgChat jdbcTgChat = chatRepository.findByChatId(tgChat.getChatId()).orElseThrow();
-        Set<Link> chatLinks = linkService.getAllLinksByChatId(jdbcTgChat.getChatId());
-        for (String tag : tags) {
-            for (Link link : chatLinks) {
-                chatRepository.saveTag(link.getId(), jdbcTgChat.getId(), tag);
-            }
-        }
+        chatRepository.saveTagsForAllLinks(jdbcTgChat.getId(), tags);
     }
 
     @Override
     public void removeTagsToAllLinksByChatId(TgChat tgChat, List<String> tags) {
         JdbcTgChat jdbcTgChat = chatRepository.findByChatId(tgChat.getChatId()).orElseThrow();
-        Set<Link> chatLinks = linkService.getAllLinksByChatId(jdbcTgChat.getChatId());
-        for (String tag : tags) {
-            for (Link link : chatLinks) {
-                chatRepository.removeTag(link.getId(), jdbcTgChat.getId(), tag);
-            }
-        }
+        chatRepository.removeTagsFromAllLinks(jdbcTgChat.getId(), tags);
     }
 
     @Override
@@ -181,6 +176,7 @@ public class SqlChatService implements ChatService {
         }
 
         chatRepository.updateTimeConfig(tgChat.getChatId(), config);
+        subscriptionIndex.updateSendAt(tgChat.getChatId(), config);
         return true;
     }
 
@@ -2,17 +2,19 @@ package backend.academy.service.sql;
 
 import backend.academy.model.jdbc.JdbcLink;
 import backend.academy.model.jdbc.JdbcTgChat;
+import backend.academy.model.jdbc.JdbcTrackedLink;
 import backend.academy.model.mapper.link.LinkMapper;
 import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
 import backend.academy.model.plain.TgChat;
 import backend.academy.repository.jdbc.JdbcChatRepository;
 import backend.academy.repository.jdbc.JdbcLinkRepository;
 import backend.academy.service.LinkService;
-import java.time.Duration;
+import backend.academy.service.SubscriptionIndex;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -30,28 +32,49 @@ public class SqlLinkService implements LinkService {
     private final JdbcLinkRepository linkRepository;
     private final LinkMapper linkMapper;
     private final JdbcChatRepository chatRepository;
+    private final SubscriptionIndex subscriptionIndex;
 
     @Autowired
-    public SqlLinkService(JdbcLinkRepository linkRepository, LinkMapper linkMapper, JdbcChatRepository chatRepository) {
+    public SqlLinkService(
+            JdbcLinkRepository linkRepository,
+            LinkMapper linkMapper,
+            JdbcChatRepository chatRepository,
+            SubscriptionIndex subscriptionIndex) {
         this.linkRepository = linkRepository;
         this.linkMapper = linkMapper;
         this.chatRepository = chatRepository;
+        this.subscriptionIndex = subscriptionIndex;
     }
 
     @Override
-    public Page<Link> getAllLinks(Pageable pageable, Duration duration) {
+    public Page<Link> getAllLinks(Pageable pageable) {
+        Page<JdbcLink> jdbcLinks = linkRepository.findAll(pageable);
+
+        return new PageImpl<Link>(
+                toPlainLinksWithSubscriptions(jdbcLinks.getContent()), pageable, jdbcLinks.getTotalElements());
+    }
+
+    @Override
+    public List<Link> getLinksAfter(Long lastId, int limit) {
+        return toPlainLinksWithSubscriptions(linkRepository.findAllAfter(lastId, limit));
+    }
+
+    private List<Link> toPlainLinksWithSubscriptions(List<JdbcLink> links) {
+        Map<Long, List<LinkSubscription>> subscriptions = linkRepository.findSubscriptionsByLinkIds(
+                links.stream().map(JdbcLink::getId).toList());
+
         List<Link> plainLinks = new ArrayList<>();
-        Page<JdbcLink> jdbcLinks = linkRepository.findAll(pageable, duration);
-
-        for (JdbcLink link : jdbcLinks) {
-            Set<Long> primaryChatIds = linkRepository.getChatIdsByUrl(link.getUrl());
-            Set<Long> chatIds = primaryChatIds.stream()
-                    .map(i -> chatRepository.findById(i).orElseThrow().getChatId())
-                    .collect(Collectors.toSet());
-            plainLinks.add(linkMapper.toPlainLink(link, null, null, chatIds));
+        for (JdbcLink link : links) {
+            List<LinkSubscription> linkSubscriptions = subscriptions.getOrDefault(link.getId(), List.of());
+            Link plainLink = linkMapper.toPlainLink(
+                    link,
+                    null,
+                    null,
+                    linkSubscriptions.stream().map(LinkSubscription::getChatId).collect(Collectors.toSet()));
+            linkSubscriptions.forEach(i -> plainLink.getSubscriptions().put(i.getChatId(), i));
+            plainLinks.add(plainLink);
         }
-
-        return new PageImpl<Link>(plainLinks, pageable, jdbcLinks.getTotalElements());
+        return plainLinks;
     }
 
     @Override
@@ -76,6 +99,11 @@ public class SqlLinkService implements LinkService {
         return Optional.of(linkMapper.toPlainLink(link, tags, filters, chats));
     }
 
+    @Override
+    public Map<Long, List<LinkSubscription>> getAllSubscriptions() {
+        return linkRepository.findAllSubscriptions();
+    }
+
     @Override
     @Transactional
     public Link saveLink(Link link, TgChat chat) {
@@ -94,21 +122,11 @@ public class SqlLinkService implements LinkService {
             chatRepository.saveTheChatLink(jdbcTgChat.orElseThrow().getId(), savedLink.getId());
 
         chatRepository.removeAllTags(savedLink.getId(), jdbcTgChat.orElseThrow().getId());
-        if (!link.getTags().isEmpty()) {
-            for (String tag : new HashSet<>(link.getTags())) {
-                chatRepository.saveTag(
-                        savedLink.getId(), jdbcTgChat.orElseThrow().getId(), tag);
-            }
-        }
+        chatRepository.saveTags(savedLink.getId(), jdbcTgChat.orElseThrow().getId(), link.getTags());
 
         chatRepository.removeAllFilters(
                 savedLink.getId(), jdbcTgChat.orElseThrow().getId());
-        if (!link.getFilters().isEmpty()) {
-            for (String filter : new HashSet<>(link.getFilters())) {
-                chatRepository.saveFilter(
-                        savedLink.getId(), jdbcTgChat.orElseThrow().getId(), filter);
-            }
-        }
+        chatRepository.saveFilters(savedLink.getId(), jdbcTgChat.orElseThrow().getId(), link.getFilters());
 
         List<String> tags = chatRepository.getTags(
                 savedLink.getId(), jdbcTgChat.orElseThrow().getId());
@@ -120,26 +138,17 @@ public class SqlLinkService implements LinkService {
 
         Link plainLink = linkMapper.toPlainLink(savedLink, tags, filter, chats);
         chat.addLink(plainLink);
+        subscriptionIndex.subscribe(
+                savedLink.getId(), chat.getChatId(), jdbcTgChat.orElseThrow().getSendAt(), filter);
 
         return plainLink;
     }
 
     @Override
     public Set<Link> getAllLinksByChatId(Long chatId) {
-        Optional<JdbcTgChat> chat = chatRepository.findByChatId(chatId);
-        if (chat.isEmpty()) {
-            return Set.of();
-        }
-        Long jdbcTgChatId = chat.orElseThrow().getId();
-        Set<Link> plainLinks = new HashSet<>();
-        List<JdbcLink> jdbcLinks = linkRepository.getAllLinksByChatId(jdbcTgChatId);
-        for (JdbcLink link : jdbcLinks) {
-            List<String> tags = chatRepository.getTags(link.getId(), jdbcTgChatId);
-            List<String> filters = chatRepository.getFilters(link.getId(), jdbcTgChatId);
-            Set<Long> chats = getChatIdsListeningToLink(link.getUrl());
-            plainLinks.add(linkMapper.toPlainLink(link, tags, filters, chats));
-        }
-        return plainLinks;
+        return linkRepository.findTrackedLinksByChatId(chatId).stream()
+                .map(this::toPlainLink)
+                .collect(Collectors.toSet());
     }
 
     @Override
@@ -166,28 +175,25 @@ public class SqlLinkService implements LinkService {
     }
 
     @Override
-    public List<Link> getAllLinksByChatIdAndTag(Long chatId, String tag) {
-        Optional<JdbcTgChat> tgChat = chatRepository.findByChatId(chatId);
-        if (tgChat.isEmpty()) {
-            return List.of();
-        }
-        Long internalId = tgChat.orElseThrow().getId();
-
-        List<Link> plainLinks = new ArrayList<>();
+    public void updateLastUpdateTimes(Map<Long, Instant> lastUpdateTimes) {
+        linkRepository.updateLastUpdateTimes(lastUpdateTimes);
+    }
 
-        List<Long> jdbcLinkIds = linkRepository.findAllLinkIdsByTagAndChatId(internalId, tag);
-        for (Long linkId : jdbcLinkIds) {
-            Optional<JdbcLink> jdbcLink = linkRepository.getLinkById(linkId);
-            if (jdbcLink.isEmpty()) continue;
-            JdbcLink link = jdbcLink.orElseThrow();
-            List<String> tags = chatRepository.getTags(link.getId(), internalId);
-            List<String> filters = chatRepository.getFilters(link.getId(), internalId);
-            Set<Long> chatIds = linkRepository.getChatIdsByUrl(link.getUrl());
+    @Override
+    public void updateNextCheckTime(Link link, Instant nextCheckAt) {
+        linkRepository.updateNextCheckAt(link.getId(), nextCheckAt);
+    }
 
-            plainLinks.add(linkMapper.toPlainLink(link, tags, filters, chatIds));
-        }
+    @Override
+    public void updateNextCheckTimes(Map<Long, Instant> nextCheckTimes) {
+        linkRepository.updateNextCheckTimes(nextCheckTimes);
+    }
 
-        return plainLinks;
+    @Override
+    public List<Link> getAllLinksByChatIdAndTag(Long chatId, String tag) {
+        return linkRepository.findTrackedLinksByChatIdAndTag(chatId, tag).stream()
+                .map(this::toPlainLink)
+                .toList();
     }
 
     @Override
@@ -199,4 +205,9 @@ public class SqlLinkService implements LinkService {
     public Integer getActiveStackoverflowLinkCount() {
         return linkRepository.getActiveStackoverflowLinkCount();
     }
+
+    private Link toPlainLink(JdbcTrackedLink trackedLink) {
+        return linkMapper.toPlainLink(
+                trackedLink.link(), trackedLink.tags(), trackedLink.filters(), trackedLink.tgChatIds());
+    }
 }
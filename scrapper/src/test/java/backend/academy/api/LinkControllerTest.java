@@ -3,7 +3,6 @@ package backend.academy.api;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -92,7 +91,7 @@ class LinkControllerTest {
         String expectedMessage = "Некорректные параметры запроса";
         when(chatService.getPlainTgChatByChatId(anyLong()))
                 .thenReturn(Optional.of(new TgChat(1L, 1L, new HashSet<>())));
-        when(linkService.validateLink(anyList(), anyString())).thenReturn(false);
+        when(clientManager.getSuitableClient(anyString())).thenReturn(null);
 
         ResponseEntity<?> response = linkController.addLink(1L, new AddLinkRequest("test", null, null));
 
@@ -106,7 +105,7 @@ class LinkControllerTest {
         LinkResponse expectedResponse = new LinkResponse(1L, "test", null, null);
         when(chatService.getPlainTgChatByChatId(1L)).thenReturn(Optional.of(new TgChat(1L, 1L, new HashSet<>())));
         when(linkService.saveLink(any(Link.class), any(TgChat.class))).thenReturn(new Link(1L, "test"));
-        when(linkService.validateLink(anyList(), anyString())).thenReturn(true);
+        when(clientManager.getSuitableClient(anyString())).thenReturn(mockedClient);
 
         ResponseEntity<?> actual = linkController.addLink(1L, new AddLinkRequest("test", null, null));
 
@@ -0,0 +1,59 @@
+package backend.academy.clients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import backend.academy.model.plain.Link;
+import backend.academy.service.SubscriptionIndex;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ClientManagerTest {
+    private static final String URL = "https://github.com/octocat/Hello-World";
+
+    private Client client;
+    private SubscriptionIndex subscriptionIndex;
+    private ClientManager clientManager;
+
+    @BeforeEach
+    public void setUp() {
+        client = Mockito.mock(Client.class);
+        when(client.supportLink(URL)).thenReturn(true);
+        subscriptionIndex = new SubscriptionIndex();
+        subscriptionIndex.load(Map::of);
+        clientManager = new ClientManager(List.of(client), subscriptionIndex);
+    }
+
+    @Test
+    public void getSuitableClient_WhenLinkWasRoutedBefore_ThenDoNotMatchUrlAgain() {
+        Client first = clientManager.getSuitableClient(new Link(1L, URL));
+        Client second = clientManager.getSuitableClient(new Link(1L, URL));
+
+        assertThat(first).isSameAs(client);
+        assertThat(second).isSameAs(client);
+        verify(client, times(1)).supportLink(URL);
+    }
+
+    @Test
+    public void getSuitableClient_WhenLinkIsUntracked_ThenForgetRoute() {
+        subscriptionIndex.subscribe(1L, 10L, null, List.of());
+        clientManager.getSuitableClient(new Link(1L, URL));
+
+        subscriptionIndex.unsubscribe(1L, 10L);
+        Client routed = clientManager.getSuitableClient(new Link(1L, URL));
+
+        assertThat(routed).isSameAs(client);
+        verify(client, times(2)).supportLink(URL);
+    }
+
+    @Test
+    public void getSuitableClient_WhenLinkIsNotSupported_ThenReturnNull() {
+        assertThat(clientManager.getSuitableClient(new Link(2L, "https://example.com")))
+                .isNull();
+    }
+}
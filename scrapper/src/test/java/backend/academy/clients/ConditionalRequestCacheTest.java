@@ -0,0 +1,165 @@
+package backend.academy.clients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import backend.academy.config.properties.ScrapeProperties;
+import backend.academy.service.SubscriptionIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+class ConditionalRequestCacheTest {
+    private static final Long LINK_ID = 1L;
+    private static final String URL = "https://api.github.com/repos/octocat/Hello-World";
+
+    private MeterRegistry meterRegistry;
+    private ScrapeProperties scrapeProperties;
+    private SubscriptionIndex subscriptionIndex;
+    private ConditionalRequestCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scrapeProperties = new ScrapeProperties();
+        subscriptionIndex = new SubscriptionIndex();
+        cache = new ConditionalRequestCache(meterRegistry, scrapeProperties, subscriptionIndex);
+    }
+
+    @Test
+    public void applyValidators_WhenNoResponseWasStored_ThenHeadersAreNotChanged() {
+        HttpHeaders headers = new HttpHeaders();
+
+        cache.applyValidators(LINK_ID, URL, headers);
+
+        assertThat(headers).isEmpty();
+    }
+
+    @Test
+    public void applyValidators_WhenResponseHadValidators_ThenAddConditionalHeaders() throws IOException {
+        MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        response.getHeaders().setETag("\"abc\"");
+        response.getHeaders().set(HttpHeaders.LAST_MODIFIED, "Wed, 26 Jan 2011 19:01:12 GMT");
+        HttpHeaders headers = new HttpHeaders();
+
+        boolean notModified = cache.isNotModified(LINK_ID, URL, response);
+        cache.commit(LINK_ID);
+        cache.applyValidators(LINK_ID, URL, headers);
+
+        assertThat(notModified).isFalse();
+        assertThat(headers.getIfNoneMatch()).containsExactly("\"abc\"");
+        assertThat(headers.getFirst(HttpHeaders.IF_MODIFIED_SINCE)).isEqualTo("Wed, 26 Jan 2011 19:01:12 GMT");
+    }
+
+    @Test
+    public void applyValidators_WhenResponseWasNotCommitted_ThenHeadersAreNotChanged() throws IOException {
+        cache.isNotModified(LINK_ID, URL, okWithETag("\"abc\""));
+        HttpHeaders headers = new HttpHeaders();
+
+        cache.applyValidators(LINK_ID, URL, headers);
+
+        assertThat(headers).isEmpty();
+    }
+
+    @Test
+    public void discard_WhenUpdatesWereNotHandedOff_ThenKeepPreviousValidators() throws IOException {
+        cache.isNotModified(LINK_ID, URL, okWithETag("\"abc\""));
+        cache.commit(LINK_ID);
+        HttpHeaders headers = new HttpHeaders();
+
+        cache.isNotModified(LINK_ID, URL, okWithETag("\"def\""));
+        cache.discard(LINK_ID);
+        cache.commit(LINK_ID);
+        cache.applyValidators(LINK_ID, URL, headers);
+
+        assertThat(headers.getIfNoneMatch()).containsExactly("\"abc\"");
+    }
+
+    @Test
+    public void isNotModified_WhenStatusIs304_ThenReturnTrueAndCountHit() throws IOException {
+        cache.isNotModified(LINK_ID, URL, okWithETag("\"abc\""));
+        cache.commit(LINK_ID);
+
+        boolean notModified =
+                cache.isNotModified(LINK_ID, URL, new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED));
+        cache.isNotModified(LINK_ID, URL, new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+
+        assertThat(notModified).isTrue();
+        assertThat(meterRegistry
+                        .get("http.conditional.requests")
+                        .tag("result", "hit")
+                        .counter()
+                        .count())
+                .isEqualTo(1);
+        assertThat(meterRegistry
+                        .get("http.conditional.requests")
+                        .tag("result", "miss")
+                        .counter()
+                        .count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("http.conditional.hit.rate").gauge().value())
+                .isEqualTo(0.5);
+    }
+
+    @Test
+    public void isNotModified_WhenResponseHasNoValidators_ThenForgetStoredValidators() throws IOException {
+        cache.isNotModified(LINK_ID, URL, okWithETag("\"abc\""));
+        cache.commit(LINK_ID);
+        HttpHeaders headers = new HttpHeaders();
+
+        cache.isNotModified(LINK_ID, URL, new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+        cache.commit(LINK_ID);
+        cache.applyValidators(LINK_ID, URL, headers);
+
+        assertThat(headers).isEmpty();
+    }
+
+    @Test
+    public void commit_WhenCacheIsFull_ThenEvictLeastRecentlyUsedValidators() throws IOException {
+        scrapeProperties.setConditionalRequestsCacheSize(2);
+        cache = new ConditionalRequestCache(new SimpleMeterRegistry(), scrapeProperties, subscriptionIndex);
+
+        for (long linkId = 1; linkId <= 3; linkId++) {
+            cache.isNotModified(linkId, URL, okWithETag("\"" + linkId + "\""));
+            cache.commit(linkId);
+        }
+
+        assertThat(validatorsOf(1L)).isEmpty();
+        assertThat(validatorsOf(2L).getIfNoneMatch()).containsExactly("\"2\"");
+        assertThat(validatorsOf(3L).getIfNoneMatch()).containsExactly("\"3\"");
+    }
+
+    @Test
+    public void onLinkUntracked_WhenLastSubscriptionIsRemoved_ThenForgetValidatorsOfLink() throws IOException {
+        subscriptionIndex.load(Map::of);
+        subscriptionIndex.subscribe(LINK_ID, 10L, null, List.of());
+        subscriptionIndex.subscribe(2L, 10L, null, List.of());
+        cache.isNotModified(LINK_ID, URL, okWithETag("\"abc\""));
+        cache.commit(LINK_ID);
+        cache.isNotModified(2L, URL, okWithETag("\"def\""));
+        cache.commit(2L);
+
+        subscriptionIndex.unsubscribe(LINK_ID, 10L);
+
+        assertThat(validatorsOf(LINK_ID)).isEmpty();
+        assertThat(validatorsOf(2L).getIfNoneMatch()).containsExactly("\"def\"");
+    }
+
+    private HttpHeaders validatorsOf(Long linkId) {
+        HttpHeaders headers = new HttpHeaders();
+        cache.applyValidators(linkId, URL, headers);
+        return headers;
+    }
+
+    private static MockClientHttpResponse okWithETag(String etag) {
+        MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        response.getHeaders().setETag(etag);
+        return response;
+    }
+}
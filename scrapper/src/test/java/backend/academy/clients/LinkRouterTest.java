@@ -0,0 +1,58 @@
+package backend.academy.clients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class LinkRouterTest {
+    private final Client repositoryClient = client("^https://github\\.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)$");
+    private final Client singleIssueClient =
+            client("^https://github.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)/issues/(\\d+)$");
+    private final Client issueListClient =
+            client("^https://github.com/([a-zA-Z0-9_-]+)/([a-zA-Z0-9_-]+)/(issues|pulls)$");
+    private final Client questionClient = client("^https://stackoverflow\\.com/questions/(\\w+)$");
+
+    private final LinkRouter router =
+            new LinkRouter(List.of(repositoryClient, singleIssueClient, issueListClient, questionClient));
+
+    @Test
+    public void route_WhenLinkMatchesClientOfHost_ThenReturnClient() {
+        assertThat(router.route("https://github.com/octocat/Hello-World/issues/5"))
+                .isSameAs(singleIssueClient);
+    }
+
+    @Test
+    public void route_WhenSeveralHosts_ThenDispatchByHost() {
+        assertThat(router.route("https://github.com/octocat/Hello-World")).isSameAs(repositoryClient);
+        assertThat(router.route("https://github.com/octocat/Hello-World/pulls")).isSameAs(issueListClient);
+        assertThat(router.route("https://stackoverflow.com/questions/6031003")).isSameAs(questionClient);
+    }
+
+    @Test
+    public void route_WhenLinkIsNotSupported_ThenReturnNull() {
+        assertThat(router.route("https://github.com/octocat")).isNull();
+        assertThat(router.route("https://gitlab.com/octocat/Hello-World")).isNull();
+        assertThat(router.route("not a link")).isNull();
+    }
+
+    @Test
+    public void route_WhenClientHasNoPattern_ThenCheckItWithSupportLink() {
+        Client customClient = Mockito.mock(Client.class);
+        when(customClient.supportLink(anyString())).thenAnswer(i -> "custom".equals(i.getArgument(0)));
+        LinkRouter customRouter = new LinkRouter(List.of(questionClient, customClient));
+
+        assertThat(customRouter.route("custom")).isSameAs(customClient);
+        assertThat(customRouter.route("other")).isNull();
+    }
+
+    private static Client client(String pattern) {
+        Client client = Mockito.mock(Client.class);
+        when(client.getSupportedUrl()).thenReturn(Pattern.compile(pattern));
+        return client;
+    }
+}
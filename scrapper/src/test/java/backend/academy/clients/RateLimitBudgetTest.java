@@ -0,0 +1,97 @@
+package backend.academy.clients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import backend.academy.config.properties.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+class RateLimitBudgetTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private MeterRegistry meterRegistry;
+    private RateLimitBudget budget;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setReserve(2);
+        properties.setLowWatermark(0.5);
+        meterRegistry = new SimpleMeterRegistry();
+        budget = new RateLimitBudget(properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    public void tryAcquire_WhenLimitIsUnknown_ThenAllowRequest() {
+        assertThat(budget.tryAcquire("github")).isTrue();
+        assertThat(budget.isLow("github")).isFalse();
+    }
+
+    @Test
+    public void tryAcquire_WhenOnlyReserveIsLeft_ThenDeferUntilReset() {
+        Instant resetAt = NOW.plusSeconds(600);
+        budget.update("github", 4, 10, resetAt);
+
+        boolean first = budget.tryAcquire("github");
+        boolean second = budget.tryAcquire("github");
+        boolean third = budget.tryAcquire("github");
+
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(budget.isLow("github")).isTrue();
+        assertThat(budget.getAvailableAt("github")).isEqualTo(resetAt);
+        assertThat(meterRegistry
+                        .get("scrape.ratelimit.remaining")
+                        .tag("type", "github")
+                        .gauge()
+                        .value())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void tryAcquire_WhenResetTimeHasPassed_ThenAllowRequest() {
+        budget.update("github", 0, 10, NOW.minusSeconds(1));
+
+        assertThat(budget.tryAcquire("github")).isTrue();
+    }
+
+    @Test
+    public void tryAcquire_WhenBackoffIsActive_ThenDeferUntilBackoffEnds() {
+        Instant until = NOW.plusSeconds(30);
+        budget.update("stackoverflow", 9000, 10000, NOW.plusSeconds(3600));
+        budget.backoff("stackoverflow", until);
+
+        assertThat(budget.tryAcquire("stackoverflow")).isFalse();
+        assertThat(budget.getAvailableAt("stackoverflow")).isEqualTo(until);
+    }
+
+    @Test
+    public void intercept_WhenResponseHasRateLimitHeaders_ThenUpdateBudget() throws IOException {
+        MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        response.getHeaders().set("X-RateLimit-Remaining", "1");
+        response.getHeaders().set("X-RateLimit-Limit", "60");
+        response.getHeaders()
+                .set("X-RateLimit-Reset", String.valueOf(NOW.plusSeconds(60).getEpochSecond()));
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(budget, "github");
+
+        interceptor.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.github.com/repos/a/b")),
+                new byte[0],
+                (request, body) -> response);
+
+        assertThat(budget.tryAcquire("github")).isFalse();
+        assertThat(budget.getAvailableAt("github")).isEqualTo(NOW.plusSeconds(60));
+    }
+}
@@ -0,0 +1,135 @@
+package backend.academy.clients;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+    private MeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    public void execute_WhenCycleIsNotStarted_ThenCallEveryTime() {
+        coalescer.execute("GET /a", calls::incrementAndGet);
+        coalescer.execute("GET /a", calls::incrementAndGet);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_WhenSameKeyInCycle_ThenShareResultAndCountSavedRequest() {
+        coalescer.beginCycle();
+
+        Integer first = coalescer.execute("GET /a", calls::incrementAndGet);
+        Integer second = coalescer.execute("GET /a", calls::incrementAndGet);
+        Integer other = coalescer.execute("GET /b", calls::incrementAndGet);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(1);
+        assertThat(other).isEqualTo(2);
+        assertThat(meterRegistry.get("http.coalesced.requests").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void execute_WhenCycleEnded_ThenCallAgain() {
+        coalescer.beginCycle();
+        coalescer.execute("GET /a", calls::incrementAndGet);
+        coalescer.endCycle();
+        coalescer.beginCycle();
+
+        Integer result = coalescer.execute("GET /a", calls::incrementAndGet);
+
+        assertThat(result).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_WhenRequestFailed_ThenDoNotKeepFailure() {
+        coalescer.beginCycle();
+
+        assertThatThrownBy(() -> coalescer.execute("GET /a", () -> {
+                    throw new IllegalStateException("error");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+        Integer result = coalescer.execute("GET /a", calls::incrementAndGet);
+
+        assertThat(result).isEqualTo(1);
+    }
+
+    @Test
+    public void execute_WhenConcurrentRequestsWithSameKey_ThenCallOnce() throws Exception {
+        coalescer.beginCycle();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> coalescer.execute("GET /a", () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> second = executor.submit(() -> coalescer.execute("GET /a", calls::incrementAndGet));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void execute_WhenLeaderThrowsError_ThenReleaseWaitingRequestsAndForgetKey() throws Exception {
+        coalescer.beginCycle();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> coalescer.execute("GET /a", () -> {
+                started.countDown();
+                await(release);
+                throw new StackOverflowError("deserialization");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> second = executor.submit(() -> coalescer.execute("GET /a", calls::incrementAndGet));
+            while (meterRegistry.get("http.coalesced.requests").counter().count() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+            assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+            assertThat(coalescer.execute("GET /a", calls::incrementAndGet)).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package backend.academy.clients.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import backend.academy.clients.github.issues.GitHubComment;
+import backend.academy.clients.stackoverflow.questions.SoCommentDTO;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class JsonReadersTest {
+    private static final ObjectReader GITHUB_COMMENT_READER = JsonReaders.readerFor(GitHubComment.class);
+    private static final ObjectReader SO_COMMENT_READER = JsonReaders.readerFor(SoCommentDTO.class);
+
+    @Test
+    public void readArray_WhenFilterIsSet_ThenReturnOnlyMatchingElements() throws IOException {
+        String json =
+                """
+                [
+                    {"id": 1, "created_at": "2020-01-01T00:00:00Z", "body": "old"},
+                    {"id": 2, "created_at": "2030-01-01T00:00:00Z", "body": "new", "unknown": {"a": [1, 2]}}
+                ]""";
+        Instant lastUpdate = Instant.parse("2025-01-01T00:00:00Z");
+
+        List<GitHubComment> comments =
+                JsonReaders.<GitHubComment>readArray(stream(json), GITHUB_COMMENT_READER, comment -> comment.createdAt()
+                        .isAfter(lastUpdate));
+
+        assertThat(comments).extracting(GitHubComment::id).containsExactly(2L);
+    }
+
+    @Test
+    public void readArray_WhenBodyIsNotArray_ThenReturnEmptyList() throws IOException {
+        List<GitHubComment> comments = JsonReaders.<GitHubComment>readArray(
+                stream("{\"message\": \"Not Found\"}"), GITHUB_COMMENT_READER, c -> true);
+
+        assertThat(comments).isEmpty();
+    }
+
+    @Test
+    public void readFieldWhile_WhenConditionFails_ThenStopReadingRestOfArray() throws IOException {
+        // После второго элемента тело намеренно обрезано: чтение должно остановиться раньше
+        String json =
+                """
+                {
+                    "quota_max": 300,
+                    "items": [
+                        {"comment_id": 3, "creation_date": 1900000000, "body_markdown": "new"},
+                        {"comment_id": 2, "creation_date": 1500000000, "body_markdown": "old"},
+                        {"comment_id": 1, "creation_da""";
+        Instant lastUpdate = Instant.ofEpochSecond(1700000000);
+
+        List<SoCommentDTO> comments = JsonReaders.<SoCommentDTO>readFieldWhile(
+                stream(json), "items", SO_COMMENT_READER, comment -> comment.createdAt()
+                        .isAfter(lastUpdate));
+
+        assertThat(comments).extracting(SoCommentDTO::commentId).containsExactly(3L);
+    }
+
+    @Test
+    public void readFieldWhile_WhenFieldIsAbsent_ThenReturnEmptyList() throws IOException {
+        List<SoCommentDTO> comments = JsonReaders.<SoCommentDTO>readFieldWhile(
+                stream("{\"error_id\": 502, \"error_name\": \"throttle_violation\"}"),
+                "items",
+                SO_COMMENT_READER,
+                comment -> true);
+
+        assertThat(comments).isEmpty();
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,18 +1,27 @@
 package backend.academy.clients.github.issues;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import backend.academy.clients.ConditionalRequestCache;
+import backend.academy.clients.RequestCoalescer;
 import backend.academy.config.properties.ApplicationStabilityProperties;
+import backend.academy.config.properties.GitHubProperties;
 import backend.academy.dto.LinkUpdateInfo;
 import backend.academy.model.plain.Link;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,9 +45,20 @@ class GitHubIssueListClientTest {
     @Autowired
     private ApplicationStabilityProperties stabilityProperties;
 
+    @Autowired
+    private ConditionalRequestCache conditionalRequestCache;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
     @Autowired
     private CircuitBreakerRegistry circuitBreakerRegistry;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private GitHubProperties perIssueCommentsProperties;
+
     @BeforeEach
     public void setupBeforeEach() {
         wireMockServer = new WireMockServer(options().dynamicPort());
@@ -48,6 +68,9 @@ class GitHubIssueListClientTest {
 
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("default");
         circuitBreaker.reset();
+
+        perIssueCommentsProperties = new GitHubProperties();
+        perIssueCommentsProperties.setBulkComments(false);
     }
 
     @AfterEach
@@ -66,7 +89,11 @@ class GitHubIssueListClientTest {
         gitHubIssueListClient = new GitHubIssueListClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache,
+                perIssueCommentsProperties,
+                requestCoalescer,
+                meterRegistry);
 
         String expectedMessage1 = String.format(
                 """
@@ -427,7 +454,11 @@ class GitHubIssueListClientTest {
         gitHubIssueListClient = new GitHubIssueListClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache,
+                perIssueCommentsProperties,
+                requestCoalescer,
+                meterRegistry);
 
         Link link = new Link(1L, "https://github.com/octocat/Hello-World/issues");
         stubFor(get("/octocat/Hello-World/issues")
@@ -561,7 +592,11 @@ class GitHubIssueListClientTest {
         gitHubIssueListClient = new GitHubIssueListClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache,
+                perIssueCommentsProperties,
+                requestCoalescer,
+                meterRegistry);
 
         Link link = new Link(1L, "https://github.com/octocat/Hello-World/issues");
         stubFor(get("/octocat/Hello-World/issues")
@@ -574,4 +609,182 @@ class GitHubIssueListClientTest {
 
         assertThat(updates).isEmpty();
     }
+
+    @Test
+    void getUpdates_WhenBulkCommentsEnabled_ThenRequestRepositoryCommentsOnce() {
+        restClient = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        GitHubProperties bulkCommentsProperties = new GitHubProperties();
+        bulkCommentsProperties.setCommentsPageSize(2);
+        gitHubIssueListClient = new GitHubIssueListClient(
+                x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues"),
+                restClient,
+                stabilityProperties,
+                conditionalRequestCache,
+                bulkCommentsProperties,
+                requestCoalescer,
+                meterRegistry);
+
+        String expectedMessage = String.format(
+                """
+                Новый комментарий к issue bulk issue%nАвтор: octocat%nВремя создания: 31-12-+999999999 23:59 (UTC)%nПревью: new comment""");
+        Link link = new Link(1L, "https://github.com/octocat/Hello-World/issues");
+        stubFor(
+                get("/octocat/Hello-World/issues")
+                        .willReturn(
+                                aResponse()
+                                        .withStatus(200)
+                                        .withHeader("Content-Type", "application/json")
+                                        .withBody(
+                                                """
+                                [
+                                    {
+                                        "url": "https://api.github.com/repos/octocat/Hello-World/issues/7",
+                                        "comments_url": "https://api.github.com/repos/octocat/Hello-World/issues/7/comments",
+                                        "html_url": "https://github.com/octocat/Hello-World/issues/7",
+                                        "title": "bulk issue",
+                                        "user": { "login": "salex06", "id": 180034077 },
+                                        "created_at": "2011-04-22T13:33:48Z",
+                                        "updated_at": "+999999999-12-31T23:59:59Z",
+                                        "body": "issue description"
+                                    }
+                                ]""")));
+        stubFor(
+                get(urlPathEqualTo("/octocat/Hello-World/issues/comments"))
+                        .withQueryParam("page", equalTo("1"))
+                        .willReturn(
+                                aResponse()
+                                        .withStatus(200)
+                                        .withHeader("Content-Type", "application/json")
+                                        .withBody(
+                                                """
+                                [
+                                    {
+                                        "id": 1,
+                                        "html_url": "https://github.com/octocat/Hello-World/issues/7#issuecomment-1",
+                                        "issue_url": "https://api.github.com/repos/octocat/Hello-World/issues/7",
+                                        "user": { "login": "octocat", "id": 1 },
+                                        "created_at": "+999999999-12-31T23:59:59Z",
+                                        "body": "new comment"
+                                    },
+                                    {
+                                        "id": 2,
+                                        "html_url": "https://github.com/octocat/Hello-World/issues/3#issuecomment-2",
+                                        "issue_url": "https://api.github.com/repos/octocat/Hello-World/issues/3",
+                                        "user": { "login": "octocat", "id": 1 },
+                                        "created_at": "+999999999-12-31T23:59:59Z",
+                                        "body": "comment on issue outside of the list"
+                                    }
+                                ]""")));
+        stubFor(get(urlPathEqualTo("/octocat/Hello-World/issues/comments"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+
+        List<LinkUpdateInfo> updates = gitHubIssueListClient.getUpdates(link);
+
+        assertThat(updates).hasSize(1);
+        assertThat(updates.getFirst().commonInfo().trim()).isEqualTo(expectedMessage.trim());
+        wireMockServer.verify(2, getRequestedFor(urlPathEqualTo("/octocat/Hello-World/issues/comments")));
+        wireMockServer.verify(0, getRequestedFor(urlPathEqualTo("/octocat/Hello-World/issues/7/comments")));
+    }
+
+    @Test
+    void getUpdates_WhenRepositoryCommentsPageFails_ThenThrowException() {
+        restClient = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        GitHubProperties bulkCommentsProperties = new GitHubProperties();
+        bulkCommentsProperties.setCommentsPageSize(1);
+        gitHubIssueListClient = new GitHubIssueListClient(
+                x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues"),
+                restClient,
+                stabilityProperties,
+                conditionalRequestCache,
+                bulkCommentsProperties,
+                requestCoalescer,
+                meterRegistry);
+
+        Link link = new Link(1L, "https://github.com/octocat/Hello-World/issues");
+        stubIssue("+999999999-12-31T23:59:59Z");
+        stubComments("1", "+999999999-12-31T23:59:58Z");
+        stubFor(get(urlPathEqualTo("/octocat/Hello-World/issues/comments"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse().withStatus(404)));
+
+        assertThatThrownBy(() -> gitHubIssueListClient.getUpdates(link)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void getUpdates_WhenCommentPagesExceedLimit_ThenLimitCheckpointToLastProcessedComment() {
+        restClient = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        GitHubProperties bulkCommentsProperties = new GitHubProperties();
+        bulkCommentsProperties.setCommentsPageSize(1);
+        bulkCommentsProperties.setMaxCommentPages(1);
+        gitHubIssueListClient = new GitHubIssueListClient(
+                x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues"),
+                restClient,
+                stabilityProperties,
+                conditionalRequestCache,
+                bulkCommentsProperties,
+                requestCoalescer,
+                meterRegistry);
+        double truncatedBefore =
+                meterRegistry.get("github.comments.truncated").counter().count();
+
+        Link link = new Link(1L, "https://github.com/octocat/Hello-World/issues");
+        stubIssue("+999999999-12-31T23:59:59Z");
+        stubComments("1", "+999999999-12-31T23:59:58Z");
+
+        List<LinkUpdateInfo> updates = gitHubIssueListClient.getUpdates(link);
+
+        assertThat(updates).hasSize(1);
+        assertThat(updates.getFirst().commonInfo()).startsWith("Новый комментарий");
+        assertThat(link.getScrapedUntil()).isEqualTo(Instant.parse("+999999999-12-31T23:59:58Z"));
+        assertThat(meterRegistry.get("github.comments.truncated").counter().count())
+                .isEqualTo(truncatedBefore + 1);
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/octocat/Hello-World/issues/comments")));
+    }
+
+    private void stubIssue(String createdAt) {
+        stubFor(get("/octocat/Hello-World/issues")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(String.format(
+                                """
+                                [
+                                    {
+                                        "url": "https://api.github.com/repos/octocat/Hello-World/issues/7",
+                                        "comments_url": "https://api.github.com/repos/octocat/Hello-World/issues/7/comments",
+                                        "html_url": "https://github.com/octocat/Hello-World/issues/7",
+                                        "title": "bulk issue",
+                                        "user": { "login": "salex06", "id": 180034077 },
+                                        "created_at": "%1$s",
+                                        "updated_at": "%1$s",
+                                        "body": "issue description"
+                                    }
+                                ]""",
+                                createdAt))));
+    }
+
+    private void stubComments(String page, String createdAt) {
+        stubFor(get(urlPathEqualTo("/octocat/Hello-World/issues/comments"))
+                .withQueryParam("page", equalTo(page))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(String.format(
+                                """
+                                [
+                                    {
+                                        "id": 1,
+                                        "html_url": "https://github.com/octocat/Hello-World/issues/7#issuecomment-1",
+                                        "issue_url": "https://api.github.com/repos/octocat/Hello-World/issues/7",
+                                        "user": { "login": "octocat", "id": 1 },
+                                        "created_at": "%s",
+                                        "body": "new comment"
+                                    }
+                                ]""",
+                                createdAt))));
+    }
 }
@@ -6,6 +6,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import backend.academy.clients.ConditionalRequestCache;
 import backend.academy.config.properties.ApplicationStabilityProperties;
 import backend.academy.dto.LinkUpdateInfo;
 import backend.academy.model.plain.Link;
@@ -36,6 +37,9 @@ class GitHubSingleIssueClientTest {
     @Autowired
     private ApplicationStabilityProperties stabilityProperties;
 
+    @Autowired
+    private ConditionalRequestCache conditionalRequestCache;
+
     @Autowired
     private CircuitBreakerRegistry circuitBreakerRegistry;
 
@@ -65,7 +69,8 @@ class GitHubSingleIssueClientTest {
         gitHubSingleIssueClient = new GitHubSingleIssueClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues/3"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache);
 
         String expectedMessage =
                 "Обновление issue #Edited README via GitHub по ссылке https://github.com/octocat/Hello-World/pull/3";
@@ -140,7 +145,8 @@ class GitHubSingleIssueClientTest {
         gitHubSingleIssueClient = new GitHubSingleIssueClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues/3"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache);
 
         String expectedMessage =
                 "Обновление issue #Edited README via GitHub по ссылке https://github.com/octocat/Hello-World/pull/3";
@@ -260,7 +266,8 @@ class GitHubSingleIssueClientTest {
         gitHubSingleIssueClient = new GitHubSingleIssueClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-World/issues/3000"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache);
 
         String expectedMessage =
                 "Обновление issue #Edited README via GitHub по ссылке https://github.com/octocat/Hello-World/pull/3000";
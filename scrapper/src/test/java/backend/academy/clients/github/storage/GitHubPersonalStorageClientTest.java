@@ -1,11 +1,15 @@
 package backend.academy.clients.github.storage;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import backend.academy.clients.ConditionalRequestCache;
 import backend.academy.config.properties.ApplicationStabilityProperties;
 import backend.academy.dto.LinkUpdateInfo;
 import backend.academy.model.plain.Link;
@@ -13,6 +17,9 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -32,6 +39,9 @@ class GitHubPersonalStorageClientTest {
     @Autowired
     private ApplicationStabilityProperties stabilityProperties;
 
+    @Autowired
+    private ConditionalRequestCache conditionalRequestCache;
+
     private WireMockServer wireMockServer;
 
     private static GitHubPersonalStorageClient gitHubPersonalStorageClient;
@@ -65,7 +75,8 @@ class GitHubPersonalStorageClientTest {
         gitHubPersonalStorageClient = new GitHubPersonalStorageClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-World/"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache);
 
         String expectedMessage = "Обновление репозитория Hello-World по ссылке https://github.com/octocat/Hello-World";
         Link link = new Link(1L, "https://github.com/octocat/Hello-World/");
@@ -160,7 +171,8 @@ class GitHubPersonalStorageClientTest {
         gitHubPersonalStorageClient = new GitHubPersonalStorageClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-World/"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache);
 
         Link link = new Link(1L, "https://github.com/octocat/Hello-World/");
         stubFor(
@@ -287,7 +299,8 @@ class GitHubPersonalStorageClientTest {
         gitHubPersonalStorageClient = new GitHubPersonalStorageClient(
                 x -> String.format("http://localhost:" + port + "/octocat/Hello-Worldd"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                conditionalRequestCache);
 
         String expectedMessage = "Обновление репозитория Hello-World по ссылке https://github.com/octocat/Hello-Worldd";
         Link link = new Link(1L, "https://github.com/octocat/Hello-Worldd");
@@ -310,4 +323,50 @@ class GitHubPersonalStorageClientTest {
 
         assertThat(updates).isEmpty();
     }
+
+    @Test
+    void getUpdates_WhenRepositoryWasNotModified_ThenSendConditionalRequestAndReturnEmptyList() {
+        restClient = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        gitHubPersonalStorageClient = new GitHubPersonalStorageClient(
+                x -> String.format("http://localhost:" + port + "/octocat/Not-Modified/"),
+                restClient,
+                stabilityProperties,
+                conditionalRequestCache);
+
+        Link link = new Link(
+                1L,
+                "https://github.com/octocat/Not-Modified/",
+                new ArrayList<>(),
+                new ArrayList<>(),
+                new HashSet<>(),
+                Instant.parse("2011-01-01T00:00:00Z"));
+        stubFor(
+                get("/octocat/Not-Modified/")
+                        .willReturn(
+                                aResponse()
+                                        .withStatus(200)
+                                        .withHeader("Content-Type", "application/json")
+                                        .withHeader("ETag", "\"abc\"")
+                                        .withBody(
+                                                """
+                                {
+                                    "name": "Not-Modified",
+                                    "owner": { "login": "octocat" },
+                                    "html_url": "https://github.com/octocat/Not-Modified",
+                                    "updated_at": "2011-01-26T19:01:12Z"
+                                }""")));
+        stubFor(get("/octocat/Not-Modified/")
+                .withHeader("If-None-Match", equalTo("\"abc\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        List<LinkUpdateInfo> firstUpdates = gitHubPersonalStorageClient.getUpdates(link);
+        conditionalRequestCache.commit(link.getId());
+        List<LinkUpdateInfo> secondUpdates = gitHubPersonalStorageClient.getUpdates(link);
+
+        assertThat(firstUpdates).hasSize(1);
+        assertThat(secondUpdates).isEmpty();
+        wireMockServer.verify(
+                1,
+                getRequestedFor(urlEqualTo("/octocat/Not-Modified/")).withHeader("If-None-Match", equalTo("\"abc\"")));
+    }
 }
@@ -6,6 +6,8 @@ import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import backend.academy.clients.RateLimitBudget;
+import backend.academy.clients.RequestCoalescer;
 import backend.academy.config.properties.ApplicationStabilityProperties;
 import backend.academy.dto.LinkUpdateInfo;
 import backend.academy.model.plain.Link;
@@ -32,6 +34,12 @@ class SoQuestionClientTest {
     @Autowired
     private ApplicationStabilityProperties stabilityProperties;
 
+    @Autowired
+    private RateLimitBudget rateLimitBudget;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
     private WireMockServer wireMockServer;
 
     private static SoQuestionClient soQuestionClient;
@@ -63,7 +71,11 @@ class SoQuestionClientTest {
     void getUpdates_WhenQuestionWasUpdated_ThenReturnUpdateMessage() {
         restClient = RestClient.builder().baseUrl("http://localhost:" + port).build();
         soQuestionClient = new SoQuestionClient(
-                x -> String.format("http://localhost:" + port + "/questions/6031003"), restClient, stabilityProperties);
+                x -> String.format("http://localhost:" + port + "/questions/6031003"),
+                restClient,
+                stabilityProperties,
+                rateLimitBudget,
+                requestCoalescer);
 
         String expectedMessage1 = String.format(
                 """
@@ -232,25 +244,6 @@ class SoQuestionClientTest {
                                                 """
                                 {
                                     "items": [
-                                        {
-                                            "owner": {
-                                                "account_id": 10732388,
-                                                "reputation": 72,
-                                                "user_id": 7898071,
-                                                "user_type": "registered",
-                                                "profile_image": "https://lh6.googleusercontent.com/-sf8U4MFB0xI/AAAAAAAAAAI/AAAAAAAACOE/pJF-RSVL1BM/photo.jpg?sz=256",
-                                                "display_name": "Joseph Prosper",
-                                                "link": "https://stackoverflow.com/users/7898071/joseph-prosper"
-                                            },
-                                            "edited": false,
-                                            "score": 0,
-                                            "creation_date": 1712900420,
-                                            "post_id": 50854594,
-                                            "comment_id": 138066063,
-                                            "content_license": "CC BY-SA 4.0",
-                                            "body_markdown": "Also you can use `-&gt;ceilYears() ` example `$period = CarbonPeriod::create(&#39;2020-06-06&#39;, &#39;2028-06-06&#39;)-&gt;ceilYears()` Period will return only array of years",
-                                            "body": "Also you can use <code>-&gt;ceilYears() </code> example <code>$period = CarbonPeriod::create(&#39;2020-06-06&#39;, &#39;2028-06-06&#39;)-&gt;ceilYears()</code> Period will return only array of years"
-                                        },
                                         {
                                             "owner": {
                                                 "account_id": 5538948,
@@ -279,6 +272,25 @@ class SoQuestionClientTest {
                                             "content_license": "CC BY-SA 4.0",
                                             "body_markdown": "@ibnɘꟻ I&#39;m aware of it, but the `-&gt;format()` gives you the ability to globally store the string format in config. So, whenever there is a request to change the format everywhere, you don&#39;t need to change the code everywhere.",
                                             "body": "@ibnɘꟻ I&#39;m aware of it, but the <code>-&gt;format()</code> gives you the ability to globally store the string format in config. So, whenever there is a request to change the format everywhere, you don&#39;t need to change the code everywhere."
+                                        },
+                                        {
+                                            "owner": {
+                                                "account_id": 10732388,
+                                                "reputation": 72,
+                                                "user_id": 7898071,
+                                                "user_type": "registered",
+                                                "profile_image": "https://lh6.googleusercontent.com/-sf8U4MFB0xI/AAAAAAAAAAI/AAAAAAAACOE/pJF-RSVL1BM/photo.jpg?sz=256",
+                                                "display_name": "Joseph Prosper",
+                                                "link": "https://stackoverflow.com/users/7898071/joseph-prosper"
+                                            },
+                                            "edited": false,
+                                            "score": 0,
+                                            "creation_date": 1712900420,
+                                            "post_id": 50854594,
+                                            "comment_id": 138066063,
+                                            "content_license": "CC BY-SA 4.0",
+                                            "body_markdown": "Also you can use `-&gt;ceilYears() ` example `$period = CarbonPeriod::create(&#39;2020-06-06&#39;, &#39;2028-06-06&#39;)-&gt;ceilYears()` Period will return only array of years",
+                                            "body": "Also you can use <code>-&gt;ceilYears() </code> example <code>$period = CarbonPeriod::create(&#39;2020-06-06&#39;, &#39;2028-06-06&#39;)-&gt;ceilYears()</code> Period will return only array of years"
                                         }\
                                 ]}""")));
 
@@ -358,7 +370,9 @@ class SoQuestionClientTest {
         soQuestionClient = new SoQuestionClient(
                 x -> String.format("http://localhost:" + port + "/questions/79461427"),
                 restClient,
-                stabilityProperties);
+                stabilityProperties,
+                rateLimitBudget,
+                requestCoalescer);
 
         Link link = new Link(1L, "https://stackoverflow.com/questions/79461427");
         stubFor(
@@ -381,4 +395,74 @@ class SoQuestionClientTest {
 
         assertThat(updates).isEmpty();
     }
+
+    @Test
+    void getBatchUpdates_WhenSeveralQuestions_ThenRequestThemTogetherAndSplitUpdatesByLink() {
+        restClient = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        soQuestionClient = new SoQuestionClient(
+                x -> "http://localhost:" + port + "/questions/" + x.substring(x.lastIndexOf('/') + 1),
+                restClient,
+                stabilityProperties,
+                rateLimitBudget,
+                requestCoalescer);
+
+        Link link1 = new Link(1L, "https://stackoverflow.com/questions/101");
+        Link link2 = new Link(2L, "https://stackoverflow.com/questions/202");
+        stubFor(
+                get(urlPathEqualTo("/questions/101;202"))
+                        .willReturn(
+                                okJson(
+                                        """
+                        {
+                            "items": [
+                                {"question_id": 101, "title": "First", "link": "https://stackoverflow.com/questions/101"},
+                                {"question_id": 202, "title": "Second", "link": "https://stackoverflow.com/questions/202"}
+                            ],
+                            "has_more": false
+                        }""")));
+        stubFor(
+                get(urlPathEqualTo("/questions/101;202/comments"))
+                        .willReturn(
+                                okJson(
+                                        """
+                        {
+                            "items": [
+                                {"post_id": 202, "comment_id": 1, "creation_date": 9999999999,
+                                 "owner": {"display_name": "commenter"}, "body_markdown": "question comment"}
+                            ],
+                            "has_more": false
+                        }""")));
+        stubFor(
+                get(urlPathEqualTo("/questions/101;202/answers"))
+                        .willReturn(
+                                okJson(
+                                        """
+                        {
+                            "items": [
+                                {"question_id": 101, "answer_id": 303, "creation_date": 9999999999,
+                                 "owner": {"display_name": "answerer"}, "body": "answer body"}
+                            ],
+                            "has_more": false
+                        }""")));
+        stubFor(
+                get(urlPathEqualTo("/answers/303/comments"))
+                        .willReturn(
+                                okJson(
+                                        """
+                        {
+                            "items": [
+                                {"post_id": 303, "comment_id": 2, "creation_date": 9999999999,
+                                 "owner": {"display_name": "commenter"}, "body_markdown": "answer comment"}
+                            ],
+                            "has_more": false
+                        }""")));
+
+        List<List<LinkUpdateInfo>> updates = soQuestionClient.getBatchUpdates(List.of(link1, link2));
+
+        assertThat(updates).hasSize(2);
+        assertThat(updates.get(0)).extracting(LinkUpdateInfo::body).containsExactly("answer body", "answer comment");
+        assertThat(updates.get(1)).extracting(LinkUpdateInfo::body).containsExactly("question comment");
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/questions/101;202")));
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/answers/303/comments")));
+    }
 }
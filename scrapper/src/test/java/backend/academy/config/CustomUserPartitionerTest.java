@@ -0,0 +1,36 @@
+package backend.academy.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class CustomUserPartitionerTest {
+    private static final String TOPIC = "notifications-from-resources";
+    private static final Node NODE = new Node(0, "localhost", 9092);
+    private static final Cluster CLUSTER = new Cluster(
+            "cluster",
+            List.of(NODE),
+            IntStream.range(0, 3)
+                    .mapToObj(i -> new PartitionInfo(TOPIC, i, NODE, new Node[] {NODE}, new Node[] {NODE}))
+                    .toList(),
+            Set.of(),
+            Set.of());
+
+    private final KafkaProducerConfig.CustomUserPartitioner partitioner =
+            new KafkaProducerConfig.CustomUserPartitioner();
+
+    @ParameterizedTest
+    @CsvSource({"4, 1", "5, 2", "-1001234567890, 2", "-5, 1"})
+    public void partition_WhenKeyIsChatId_ThenReturnPartitionInRange(long chatId, int expectedPartition) {
+        int partition = partitioner.partition(TOPIC, chatId, null, null, null, CLUSTER);
+
+        assertThat(partition).isEqualTo(expectedPartition);
+    }
+}
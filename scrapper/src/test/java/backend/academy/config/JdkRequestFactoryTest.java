@@ -0,0 +1,102 @@
+package backend.academy.config;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import backend.academy.config.properties.ApplicationStabilityProperties;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.http.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+public class JdkRequestFactoryTest {
+    private WireMockServer wireMockServer;
+    private MeterRegistry meterRegistry;
+    private HttpClient httpClient;
+    private RestClient restClient;
+
+    @BeforeEach
+    public void setUp() {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+        WireMock.configureFor("localhost", wireMockServer.port());
+
+        ApplicationStabilityProperties properties = new ApplicationStabilityProperties();
+        ApplicationStabilityProperties.Timeout timeout = new ApplicationStabilityProperties.Timeout();
+        timeout.setConnectTimeout(1000);
+        timeout.setReadTimeout(500);
+        properties.setTimeout(timeout);
+        properties.setRequestFactory("JDK");
+        // WireMock не поддерживает обновление до h2c по открытому HTTP
+        properties.getJdkHttpClient().setVersion(HttpClient.Version.HTTP_1_1);
+
+        CommonHttpConfig config = new CommonHttpConfig(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        httpClient = config.jdkHttpClient();
+        restClient = RestClient.builder()
+                .requestFactory(config.jdkClientHttpRequestFactory(httpClient, meterRegistry))
+                .baseUrl("http://localhost:" + wireMockServer.port())
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        httpClient.close();
+        wireMockServer.stop();
+    }
+
+    @Test
+    public void request_WhenServerResponds_ThenRecordConnectionMetrics() {
+        stubFor(get(urlEqualTo("/data")).willReturn(aResponse().withStatus(200).withBody("ok")));
+
+        String body = restClient.get().uri("/data").retrieve().body(String.class);
+
+        assertThat(body).isEqualTo("ok");
+        assertThat(meterRegistry
+                        .get("http.client.connections.usage")
+                        .tag("host", "localhost")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+        assertThat(meterRegistry
+                        .get("http.client.connections.active")
+                        .tag("host", "localhost")
+                        .gauge()
+                        .value())
+                .isZero();
+    }
+
+    @Test
+    public void jdkClientHttpRequestFactory_WhenPoolOptionsAreNotSet_ThenReportJdkDefaults() {
+        assertThat(System.getProperty(CommonHttpConfig.KEEP_ALIVE_TIMEOUT_PROPERTY))
+                .isNull();
+
+        assertThat(meterRegistry
+                        .get("http.client.pool.keepalive.timeout")
+                        .gauge()
+                        .value())
+                .isEqualTo(30);
+        assertThat(meterRegistry.get("http.client.pool.size.limit").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    public void request_WhenServerRespondsSlowerThanReadTimeout_ThenThrowException() {
+        stubFor(get(urlEqualTo("/slow")).willReturn(aResponse().withStatus(200).withFixedDelay(2000)));
+
+        assertThrows(
+                ResourceAccessException.class,
+                () -> restClient.get().uri("/slow").retrieve().body(String.class));
+    }
+}
@@ -0,0 +1,95 @@
+package backend.academy.filters.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.dto.UpdateKind;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FilterCompilerTest {
+    private static final LinkUpdateInfo COMMENT = new LinkUpdateInfo(
+            "url",
+            "author1",
+            "Flaky Test",
+            "Fails on CI with NullPointerException",
+            Instant.parse("2025-03-01T23:30:00Z"),
+            "commonInfo",
+            UpdateKind.COMMENT);
+
+    @Test
+    public void compile_WhenFiltersAreEmpty_ThenNothingIsExcluded() {
+        assertThat(FilterCompiler.compile(List.of())).isSameAs(FilterPredicate.NONE);
+    }
+
+    @Test
+    public void compile_WhenAnyFilterMatches_ThenUpdateIsExcluded() {
+        assertThat(FilterCompiler.compile(List.of("user:author1")).test(COMMENT))
+                .isTrue();
+        assertThat(FilterCompiler.compile(List.of("user:author2", "title:flaky"))
+                        .test(COMMENT))
+                .isTrue();
+        assertThat(FilterCompiler.compile(List.of("body:nullpointer")).test(COMMENT))
+                .isTrue();
+        assertThat(FilterCompiler.compile(List.of("regex:Null\\w+Exception")).test(COMMENT))
+                .isTrue();
+        assertThat(FilterCompiler.compile(List.of("kind:comment")).test(COMMENT))
+                .isTrue();
+        assertThat(FilterCompiler.compile(List.of("time:22:00-08:00")).test(COMMENT))
+                .isTrue();
+    }
+
+    @Test
+    public void compile_WhenNoFilterMatches_ThenUpdateIsKept() {
+        FilterPredicate predicate = FilterCompiler.compile(
+                List.of("user:author2", "title:release", "kind:answer", "time:08:00-22:00", "!kind:comment"));
+
+        assertThat(predicate.test(COMMENT)).isFalse();
+    }
+
+    @Test
+    public void compile_WhenFilterIsMalformed_ThenSkipIt() {
+        FilterPredicate predicate =
+                FilterCompiler.compile(List.of("user", "unknown:value", "kind:wrong", "regex:[", "time:25:00-01:00"));
+
+        assertThat(predicate).isSameAs(FilterPredicate.NONE);
+    }
+
+    @Test
+    public void compile_WhenRegexIsCatastrophic_ThenMatchingIsInterrupted() {
+        LinkUpdateInfo update = new LinkUpdateInfo(
+                "url", "author1", "a".repeat(5_000) + "!", null, null, "commonInfo", UpdateKind.COMMENT);
+        FilterPredicate predicate = FilterCompiler.compile(List.of("regex:(a+)+$"));
+
+        boolean excluded = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> predicate.test(update));
+
+        assertThat(excluded).isFalse();
+    }
+
+    @Test
+    public void compile_WhenRegexIsTooLong_ThenSkipFilter() {
+        String regex = "a".repeat(FilterCompiler.MAX_REGEX_LENGTH + 1);
+
+        assertThat(FilterCompiler.compile(List.of("regex:" + regex))).isSameAs(FilterPredicate.NONE);
+    }
+
+    @Test
+    public void compile_WhenTextIsLongerThanLimit_ThenSearchOnlyItsBeginning() {
+        LinkUpdateInfo update = new LinkUpdateInfo(
+                "url",
+                "author1",
+                " ".repeat(FilterCompiler.MAX_MATCHED_TEXT_LENGTH) + "NullPointerException",
+                null,
+                null,
+                "commonInfo",
+                UpdateKind.COMMENT);
+
+        assertThat(FilterCompiler.compile(List.of("regex:NullPointer")).test(update))
+                .isFalse();
+        assertThat(FilterCompiler.compile(List.of("title:NullPointer")).test(update))
+                .isTrue();
+    }
+}
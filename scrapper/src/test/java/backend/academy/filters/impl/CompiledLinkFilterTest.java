@@ -0,0 +1,84 @@
+package backend.academy.filters.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import backend.academy.dto.LinkUpdateInfo;
+import backend.academy.dto.UpdateKind;
+import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
+import backend.academy.service.ChatService;
+import backend.academy.service.SubscriptionIndex;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class CompiledLinkFilterTest {
+    private final ChatService chatService = Mockito.mock(ChatService.class);
+    private final SubscriptionIndex subscriptionIndex = new SubscriptionIndex();
+    private final CompiledLinkFilter linkFilter = new CompiledLinkFilter(chatService, subscriptionIndex);
+
+    @Test
+    public void filterChatIds_WhenSubscriptionsAreKnown_ThenApplyCompiledFilters() {
+        LinkUpdateInfo info =
+                new LinkUpdateInfo("url", "author1", "title", "body", Instant.now(), "commonInfo", UpdateKind.ANSWER);
+        Link link = linkWithFilters(Map.of(1L, List.of("kind:answer"), 2L, List.of("user:author2"), 3L, List.of()));
+
+        List<Long> chatIds = linkFilter.filterChatIds(info, link);
+
+        assertThat(chatIds).containsExactlyInAnyOrder(2L, 3L);
+        verify(chatService, never()).getFilters(anyLong(), anyLong());
+    }
+
+    @Test
+    public void filterChatIds_WhenFiltersChanged_ThenRecompile() {
+        LinkUpdateInfo info = new LinkUpdateInfo("url", "author1", "title", "body", Instant.now(), "commonInfo");
+
+        List<Long> before = linkFilter.filterChatIds(info, linkWithFilters(Map.of(1L, List.of("user:author1"))));
+        List<Long> after = linkFilter.filterChatIds(info, linkWithFilters(Map.of(1L, List.of("user:author2"))));
+
+        assertThat(before).isEmpty();
+        assertThat(after).containsExactly(1L);
+    }
+
+    @Test
+    public void filterChatIds_WhenSubscriptionChanged_ThenEvictCompiledFilters() {
+        LinkUpdateInfo info = new LinkUpdateInfo("url", "author1", "title", "body", Instant.now(), "commonInfo");
+        subscriptionIndex.load(() -> Map.of(
+                7L,
+                List.of(
+                        new LinkSubscription(1L, null, List.of("user:author1")),
+                        new LinkSubscription(2L, null, List.of()))));
+        linkFilter.filterChatIds(info, linkWithFilters(Map.of(1L, List.of("user:author1"), 2L, List.of())));
+
+        subscriptionIndex.unsubscribe(7L, 1L);
+        int afterUnsubscribe = linkFilter.compiledSubscriptions();
+        subscriptionIndex.updateFilters(7L, 2L, List.of("user:author2"));
+
+        assertThat(afterUnsubscribe).isEqualTo(1);
+        assertThat(linkFilter.compiledSubscriptions()).isZero();
+    }
+
+    @Test
+    public void filterChatIds_WhenLinkIsUntracked_ThenEvictCompiledFiltersOfLink() {
+        LinkUpdateInfo info = new LinkUpdateInfo("url", "author1", "title", "body", Instant.now(), "commonInfo");
+        subscriptionIndex.load(() -> Map.of(7L, List.of(new LinkSubscription(1L, null, List.of("user:author1")))));
+        linkFilter.filterChatIds(info, linkWithFilters(Map.of(1L, List.of("user:author1"))));
+
+        subscriptionIndex.removeChat(1L);
+
+        assertThat(linkFilter.compiledSubscriptions()).isZero();
+    }
+
+    private static Link linkWithFilters(Map<Long, List<String>> filtersByChat) {
+        Link link = new Link(7L, "url", Set.copyOf(filtersByChat.keySet()));
+        filtersByChat.forEach(
+                (chatId, filters) -> link.getSubscriptions().put(chatId, new LinkSubscription(chatId, null, filters)));
+        return link;
+    }
+}
@@ -1,11 +1,16 @@
 package backend.academy.filters.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import backend.academy.dto.LinkUpdateInfo;
 import backend.academy.filters.LinkFilter;
 import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
 import backend.academy.model.plain.TgChat;
 import backend.academy.service.ChatService;
 import java.time.Instant;
@@ -73,4 +78,18 @@ class LinkFilterByAuthorTest {
 
         assertEquals(expectedChatIds.stream().toList(), actualIds);
     }
+
+    @Test
+    public void filterChatIds_WhenSubscriptionsLoaded_ThenUseTheirFilters() {
+        LinkUpdateInfo info = new LinkUpdateInfo("url", "author3", "title", "body", Instant.now(), "commonInfo");
+        Long linkId = 8L;
+        Link link = new Link(linkId, "url", Set.of(2L, 5L));
+        link.getSubscriptions().put(2L, new LinkSubscription(2L, null, List.of("user:author3")));
+        link.getSubscriptions().put(5L, new LinkSubscription(5L, null, List.of("user:author1")));
+
+        List<Long> actualIds = linkFilterByAuthor.filterChatIds(info, link);
+
+        assertEquals(List.of(5L), actualIds);
+        verify(chatService, never()).getFilters(eq(linkId), anyLong());
+    }
 }
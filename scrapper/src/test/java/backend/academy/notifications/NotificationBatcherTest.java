@@ -0,0 +1,80 @@
+package backend.academy.notifications;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import backend.academy.config.properties.NotificationBatchProperties;
+import backend.academy.dto.LinkUpdate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class NotificationBatcherTest {
+    private static final LinkUpdate UPDATE1 = new LinkUpdate(1L, "url1", "update1", List.of(1L));
+    private static final LinkUpdate UPDATE2 = new LinkUpdate(2L, "url2", "update2", List.of(1L, 2L));
+    private static final LinkUpdate UPDATE3 = new LinkUpdate(3L, "url3", "update3", List.of(2L));
+
+    private NotificationSender notificationSender;
+    private MeterRegistry meterRegistry;
+    private NotificationBatcher batcher;
+
+    @BeforeEach
+    public void setUp() {
+        notificationSender = Mockito.mock(NotificationSender.class);
+        meterRegistry = new SimpleMeterRegistry();
+        NotificationBatchProperties properties = new NotificationBatchProperties();
+        properties.setMaxBatchSize(2);
+        batcher = new NotificationBatcher(notificationSender, properties, meterRegistry);
+    }
+
+    @Test
+    public void add_WhenBatchIsFull_ThenSendBatchImmediately() {
+        batcher.add(UPDATE1);
+        verify(notificationSender, never()).sendBatch(anyList());
+
+        batcher.add(UPDATE2);
+        batcher.add(UPDATE3);
+
+        verify(notificationSender, times(1)).sendBatch(List.of(UPDATE1, UPDATE2));
+        assertThat(meterRegistry.get("notifications.batch.pending").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void flush_WhenBatchIsNotFull_ThenSendRemainingUpdates() {
+        batcher.add(UPDATE1);
+
+        batcher.flush();
+        batcher.flush();
+
+        verify(notificationSender, times(1)).sendBatch(List.of(UPDATE1));
+        assertThat(meterRegistry.get("notifications.batch.size").summary().totalAmount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void flush_WhenSenderFails_ThenDropBatchAndCountFailure() {
+        doThrow(new RuntimeException("send failed")).when(notificationSender).sendBatch(List.of(UPDATE1));
+        batcher.add(UPDATE1);
+
+        assertDoesNotThrow(() -> batcher.flush());
+        batcher.add(UPDATE2);
+        batcher.flush();
+
+        verify(notificationSender, times(1)).sendBatch(List.of(UPDATE2));
+        assertThat(meterRegistry
+                        .get("notifications.batches")
+                        .tag("result", "failure")
+                        .counter()
+                        .count())
+                .isEqualTo(1);
+    }
+}
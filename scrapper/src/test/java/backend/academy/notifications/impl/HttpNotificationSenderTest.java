@@ -36,7 +36,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -67,7 +67,7 @@ class HttpNotificationSenderTest {
     private RetryDefaultProperties retryDefaultProperties;
 
     @Autowired
-    private SimpleClientHttpRequestFactory requestFactory;
+    private ClientHttpRequestFactory requestFactory;
 
     @MockitoBean
     private FallbackSender fallbackSender;
@@ -187,6 +187,56 @@ class HttpNotificationSenderTest {
         WireMock.verify(1, postRequestedFor(urlEqualTo("/updates")));
     }
 
+    @Test
+    public void sendBatch_When200Response_ThenSendOneRequestForAllUpdates() {
+        restClient = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        notificationSender = new HttpNotificationSender(restClient, stabilityProperties, fallbackSender);
+        stubFor(post("/updates/batch").willReturn(aResponse().withStatus(200).withBody("")));
+
+        String result = notificationSender.sendBatch(List.of(
+                new LinkUpdate(1L, "url1", "descr1", List.of(1L, 2L)),
+                new LinkUpdate(2L, "url2", "descr2", List.of(3L))));
+
+        assertEquals("OK", result);
+        WireMock.verify(1, postRequestedFor(urlEqualTo("/updates/batch")));
+        WireMock.verify(0, postRequestedFor(urlEqualTo("/updates")));
+    }
+
+    @Test
+    public void sendBatch_WhenBotRejectsSomeUpdates_ThenDoNotResendBatch() {
+        restClient = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        notificationSender = new HttpNotificationSender(restClient, stabilityProperties, fallbackSender);
+        stubFor(post("/updates/batch")
+                .willReturn(aResponse()
+                        .withStatus(202)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"rejected\": [1]}")));
+
+        String result = notificationSender.sendBatch(List.of(
+                new LinkUpdate(1L, "url1", "descr1", List.of(1L, 2L)),
+                new LinkUpdate(2L, "url2", "descr2", List.of(3L))));
+
+        assertEquals("OK", result);
+        WireMock.verify(1, postRequestedFor(urlEqualTo("/updates/batch")));
+        Mockito.verify(fallbackSender, times(0)).sendBatch(any());
+    }
+
+    @Test
+    public void sendBatch_WhenBotRespondsSlowerThanReadTimeout_ThenDoNotResendBatch() {
+        stubFor(post("/updates/batch")
+                .willReturn(aResponse()
+                        .withStatus(202)
+                        .withFixedDelay(stabilityProperties.getTimeout().getReadTimeout() * 2)));
+
+        String result = notificationSender.sendBatch(List.of(
+                new LinkUpdate(1L, "url1", "descr1", List.of(1L, 2L)),
+                new LinkUpdate(2L, "url2", "descr2", List.of(3L))));
+
+        assertEquals("Retry fallback", result);
+        WireMock.verify(1, postRequestedFor(urlEqualTo("/updates/batch")));
+        Mockito.verify(fallbackSender, times(0)).sendBatch(any());
+    }
+
     private List<Integer> getAllowedHttpCodes() {
         return stabilityProperties.getRetry().getHttpCodes();
     }
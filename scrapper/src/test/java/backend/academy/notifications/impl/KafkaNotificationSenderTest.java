@@ -2,20 +2,25 @@ package backend.academy.notifications.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import backend.academy.config.UserEventsProperties;
 import backend.academy.dto.LinkUpdate;
 import backend.academy.notifications.fallback.FallbackSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.KafkaException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -99,10 +104,50 @@ public class KafkaNotificationSenderTest {
         String expectedDescription = "description";
         List<Long> expectedTgChatIds = List.of(1L, 2L);
         LinkUpdate linkUpdate = new LinkUpdate(expectedId, expectedUrl, expectedDescription, expectedTgChatIds);
-        when(kafkaTemplate.send(topicName, linkUpdate)).thenThrow(RuntimeException.class);
+        when(kafkaTemplate.send(topicName, 1L, linkUpdate)).thenThrow(RuntimeException.class);
 
         kafkaSender.send(linkUpdate);
 
         verify(fallbackSender, times(1)).send(linkUpdate);
     }
+
+    @Test
+    public void send_WhenBrokerRejectsRecord_ThenSwitchToFallbackSender() {
+        LinkUpdate linkUpdate = new LinkUpdate(2L, "url", "description", List.of(3L));
+        when(kafkaTemplate.send(topicName, 3L, linkUpdate))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Not enough replicas")));
+
+        String result = kafkaSender.send(linkUpdate);
+
+        assertEquals("OK", result);
+        verify(fallbackSender, timeout(5000).times(1)).send(linkUpdate);
+    }
+
+    @Test
+    public void send_WhenUpdateHasChats_ThenRecordIsKeyedByChatId() {
+        LinkUpdate linkUpdate = new LinkUpdate(3L, "url", "keyed", List.of(5L, 6L));
+
+        kafkaSender.send(linkUpdate);
+
+        ConsumerRecords<Long, LinkUpdate> records = consumer.poll(Duration.ofSeconds(20));
+        assertThat(records)
+                .filteredOn(record -> linkUpdate.equals(record.value()))
+                .extracting(ConsumerRecord::key)
+                .containsExactly(5L);
+        consumer.commitSync();
+    }
+
+    @Test
+    public void send_WhenPerChatRecordMode_ThenSendRecordForEveryChat() {
+        UserEventsProperties properties = new UserEventsProperties();
+        properties.setTopic(topicName);
+        properties.setRecordMode(UserEventsProperties.RecordMode.PER_CHAT);
+        KafkaNotificationSender perChatSender =
+                new KafkaNotificationSender(kafkaTemplate, fallbackSender, properties, new SimpleMeterRegistry());
+
+        perChatSender.send(new LinkUpdate(4L, "url", "fan-out", List.of(7L, 8L)));
+
+        verify(kafkaTemplate, times(1)).send(topicName, 7L, new LinkUpdate(4L, "url", "fan-out", List.of(7L)));
+        verify(kafkaTemplate, times(1)).send(topicName, 8L, new LinkUpdate(4L, "url", "fan-out", List.of(8L)));
+    }
 }
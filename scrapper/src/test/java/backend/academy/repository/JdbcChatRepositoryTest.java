@@ -274,6 +274,56 @@ class JdbcChatRepositoryTest {
         assertThat(result).isFalse();
     }
 
+    @Test
+    public void saveTags_WhenSomeTagsAlreadyExist_ThenSaveOnlyNewTags() {
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link')");
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO chat_link_tags VALUES (1, 'tag1', 1)");
+
+        boolean result = chatRepository.saveTags(1L, 1L, List.of("tag1", "tag2", "tag2"));
+
+        List<String> tags = jdbcTemplate.queryForList("SELECT tag_value FROM chat_link_tags", String.class);
+        assertThat(result).isTrue();
+        assertThat(tags).containsExactlyInAnyOrder("tag1", "tag2");
+    }
+
+    @Test
+    public void saveFilters_WhenLinkOrChatDoNotExist_ThenReturnFalse() {
+        boolean result = chatRepository.saveFilters(1L, 1L, List.of("user:a", "user:b"));
+
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    public void saveTagsForAllLinks_WhenChatTracksLinks_ThenTagEveryLink() {
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('link1'), ('link2'), ('link3')");
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1), (2)");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(tg_chat_id, link_id) VALUES (1, 1), (1, 2), (2, 3)");
+
+        chatRepository.saveTagsForAllLinks(1L, List.of("tag1", "tag2"));
+
+        Long chatTags = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chat_link_tags WHERE chat_id = 1 AND link_id IN (1, 2)", Long.class);
+        Long otherTags = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chat_link_tags WHERE chat_id <> 1 OR link_id = 3", Long.class);
+        assertThat(chatTags).isEqualTo(4);
+        assertThat(otherTags).isEqualTo(0);
+    }
+
+    @Test
+    public void removeTagsFromAllLinks_WhenTagsExist_ThenRemoveOnlyChatTags() {
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('link1'), ('link2')");
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1), (2)");
+        jdbcTemplate.update(
+                "INSERT INTO chat_link_tags VALUES (1, 'tag', 1), (2, 'tag', 1), (2, 'other', 1), (1, 'tag', 2)");
+
+        chatRepository.removeTagsFromAllLinks(1L, List.of("tag"));
+
+        List<String> tags =
+                jdbcTemplate.queryForList("SELECT tag_value || ':' || chat_id FROM chat_link_tags", String.class);
+        assertThat(tags).containsExactlyInAnyOrder("other:1", "tag:2");
+    }
+
     @Test
     public void removeTagWorksCorrectly() {
         Long chatId = 1L;
@@ -5,15 +5,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import backend.academy.model.jdbc.JdbcLink;
+import backend.academy.model.jdbc.JdbcTrackedLink;
+import backend.academy.model.plain.LinkSubscription;
 import backend.academy.repository.jdbc.JdbcLinkRepository;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import liquibase.Liquibase;
 import liquibase.database.Database;
@@ -123,7 +128,7 @@ class JdbcLinkRepositoryTest {
         jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (2, 2), (3, 1)");
         Pageable pageable = PageRequest.of(0, 2);
 
-        Page<JdbcLink> page = linkRepository.findAll(pageable, Duration.ofNanos(1));
+        Page<JdbcLink> page = linkRepository.findAll(pageable);
 
         assertThat(page.getTotalPages()).isEqualTo(2);
         assertThat(page.getTotalElements()).isEqualTo(3);
@@ -141,7 +146,7 @@ class JdbcLinkRepositoryTest {
         jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (2, 2), (3, 1)");
         Pageable pageable = PageRequest.of(1, 2);
 
-        Page<JdbcLink> page = linkRepository.findAll(pageable, Duration.ofNanos(1));
+        Page<JdbcLink> page = linkRepository.findAll(pageable);
 
         assertThat(page.getTotalPages()).isEqualTo(2);
         assertThat(page.getTotalElements()).isEqualTo(3);
@@ -159,7 +164,7 @@ class JdbcLinkRepositoryTest {
         jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (3, 1)");
         Pageable pageable = PageRequest.of(0, 2);
 
-        Page<JdbcLink> page = linkRepository.findAll(pageable, Duration.ofNanos(1));
+        Page<JdbcLink> page = linkRepository.findAll(pageable);
 
         assertThat(page.getTotalPages()).isEqualTo(1);
         assertThat(page.getTotalElements()).isEqualTo(2);
@@ -168,19 +173,102 @@ class JdbcLinkRepositoryTest {
     }
 
     @Test
-    public void findAll_WhenLinkWasUpdatedRecently_ThenSkipThisOne() {
+    public void findAll_WhenLinkIsNotDueYet_ThenSkipThisOne() {
         jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1), (2)");
-        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1')");
+        jdbcTemplate.update(
+                "INSERT INTO link(link_value, next_check_at) VALUES ('test_link1', NOW() + INTERVAL '1 day')");
         jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1)");
         Pageable pageable = PageRequest.of(0, 2);
 
-        Page<JdbcLink> page = linkRepository.findAll(pageable, Duration.ofDays(1));
+        Page<JdbcLink> page = linkRepository.findAll(pageable);
 
         assertThat(page.getTotalPages()).isEqualTo(0);
         assertThat(page.getTotalElements()).isEqualTo(0);
         assertThat(page.getContent()).isEmpty();
     }
 
+    @Test
+    public void findAllAfter_WhenGetFirstBatch_ThenReturnCorrectLinks() {
+        List<String> expectedLinkValues = List.of("test_link1", "test_link2");
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1), (2)");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link2')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link3')");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (2, 2), (3, 1)");
+
+        List<JdbcLink> batch = linkRepository.findAllAfter(0L, 2);
+
+        assertThat(batch.stream().map(JdbcLink::getUrl).toList()).isEqualTo(expectedLinkValues);
+    }
+
+    @Test
+    public void findAllAfter_WhenGetNextBatch_ThenSkipLinksBeforeCursor() {
+        List<String> expectedLinkValues = List.of("test_link3");
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1), (2)");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link2')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link3')");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (2, 2), (3, 1)");
+
+        List<JdbcLink> batch = linkRepository.findAllAfter(2L, 2);
+
+        assertThat(batch.stream().map(JdbcLink::getUrl).toList()).isEqualTo(expectedLinkValues);
+    }
+
+    @Test
+    public void findAllAfter_WhenAnyLinkHasNoChats_ThenSkipThisOne() {
+        List<String> expectedLinkValues = List.of("test_link1", "test_link3");
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1), (2)");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link2')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link3')");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (3, 1)");
+
+        List<JdbcLink> batch = linkRepository.findAllAfter(0L, 2);
+
+        assertThat(batch.stream().map(JdbcLink::getUrl).toList()).isEqualTo(expectedLinkValues);
+    }
+
+    @Test
+    public void updateNextCheckAt_WhenCheckPostponed_ThenSkipLinkInNextScan() {
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link2')");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (2, 1)");
+
+        linkRepository.updateNextCheckAt(1L, Instant.now().plus(1, ChronoUnit.HOURS));
+        List<JdbcLink> batch = linkRepository.findAllAfter(0L, 10);
+
+        assertThat(batch.stream().map(JdbcLink::getUrl).toList()).isEqualTo(List.of("test_link2"));
+    }
+
+    @Test
+    public void findSubscriptionsByLinkIds_WhenLinksHaveChats_ThenReturnSubscriptionsWithFilters() {
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id, send_at) VALUES (10, NULL), (20, '10:00')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link2')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link3')");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (1, 2), (2, 2), (3, 1)");
+        jdbcTemplate.update(
+                "INSERT INTO chat_link_filters(chat_id, link_id, filter_value) VALUES (2, 1, 'user:a'), (2, 1, 'user:b')");
+
+        Map<Long, List<LinkSubscription>> subscriptions = linkRepository.findSubscriptionsByLinkIds(List.of(1L, 2L));
+
+        assertThat(subscriptions).containsOnlyKeys(1L, 2L);
+        Map<Long, LinkSubscription> link1Subscriptions = subscriptions.get(1L).stream()
+                .collect(Collectors.toMap(LinkSubscription::getChatId, Function.identity()));
+        assertThat(link1Subscriptions).containsOnlyKeys(10L, 20L);
+        assertThat(link1Subscriptions.get(10L)).isEqualTo(new LinkSubscription(10L, null, List.of()));
+        assertThat(link1Subscriptions.get(20L).getSendAt()).isEqualTo(LocalTime.of(10, 0));
+        assertThat(link1Subscriptions.get(20L).getFilters()).containsExactlyInAnyOrder("user:a", "user:b");
+        assertThat(subscriptions.get(2L)).containsExactly(new LinkSubscription(20L, LocalTime.of(10, 0), List.of()));
+    }
+
+    @Test
+    public void findSubscriptionsByLinkIds_WhenNoIds_ThenReturnEmptyMap() {
+        assertThat(linkRepository.findSubscriptionsByLinkIds(List.of())).isEmpty();
+    }
+
     @Test
     public void getChatIdsByUrl_WhenUrlExists_ThenReturnSetOfIds() {
         String url = "test_link1";
@@ -256,6 +344,42 @@ class JdbcLinkRepositoryTest {
         assertThat(actualLink.stream().map(JdbcLink::getUrl).toList()).isEqualTo(expectedUrl);
     }
 
+    @Test
+    public void findTrackedLinksByChatId_WhenChatHasLinks_ThenReturnLinksWithSubscriptionData() {
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1'), ('test_link2')");
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (10), (20)");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(tg_chat_id, link_id) VALUES (1, 1), (1, 2), (2, 1)");
+        jdbcTemplate.update("INSERT INTO chat_link_tags VALUES (1, 'tag', 1), (1, 'other_chat_tag', 2)");
+        jdbcTemplate.update("INSERT INTO chat_link_filters VALUES (2, 'user:a', 1)");
+
+        List<JdbcTrackedLink> trackedLinks = linkRepository.findTrackedLinksByChatId(10L);
+
+        assertThat(trackedLinks).hasSize(2);
+        JdbcTrackedLink first = trackedLinks.get(0);
+        JdbcTrackedLink second = trackedLinks.get(1);
+        assertThat(first.link().getUrl()).isEqualTo("test_link1");
+        assertThat(first.tags()).containsExactly("tag");
+        assertThat(first.filters()).isEmpty();
+        assertThat(first.tgChatIds()).containsExactlyInAnyOrder(10L, 20L);
+        assertThat(second.tags()).isEmpty();
+        assertThat(second.filters()).containsExactly("user:a");
+        assertThat(second.tgChatIds()).containsExactly(10L);
+    }
+
+    @Test
+    public void findTrackedLinksByChatIdAndTag_WhenSomeLinksAreTagged_ThenReturnOnlyTaggedLinks() {
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1'), ('test_link2')");
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (10)");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(tg_chat_id, link_id) VALUES (1, 1), (1, 2)");
+        jdbcTemplate.update("INSERT INTO chat_link_tags VALUES (2, 'tag', 1), (2, 'tag2', 1)");
+
+        List<JdbcTrackedLink> trackedLinks = linkRepository.findTrackedLinksByChatIdAndTag(10L, "tag");
+
+        assertThat(trackedLinks).hasSize(1);
+        assertThat(trackedLinks.getFirst().link().getUrl()).isEqualTo("test_link2");
+        assertThat(trackedLinks.getFirst().tags()).containsExactlyInAnyOrder("tag", "tag2");
+    }
+
     @Test
     public void getAllLinksByChatId_WhenChatHasNoLinks_ThenReturnEmptyList() {
         Long chatId = 1L;
@@ -324,6 +448,51 @@ class JdbcLinkRepositoryTest {
         assertEquals(expectedTruncated, actualTruncated);
     }
 
+    @Test
+    public void updateLastUpdateTimes_WhenSeveralLinks_ThenUpdateOnlyPassedLinks() {
+        Instant firstUpdate = Instant.parse("2025-03-01T10:15:30Z");
+        Instant secondUpdate = Instant.parse("2025-03-02T08:00:00Z");
+        jdbcTemplate.update("INSERT INTO link(link_value, last_update) VALUES "
+                + "('link1', '1970-01-01 00:00:00+00'), ('link2', '1970-01-01 00:00:00+00'), "
+                + "('link3', '1970-01-01 00:00:00+00')");
+
+        linkRepository.updateLastUpdateTimes(Map.of(1L, firstUpdate, 2L, secondUpdate));
+
+        Map<Long, Instant> lastUpdates = jdbcTemplate.query("SELECT * FROM link", jdbcLinkRowMapper).stream()
+                .collect(Collectors.toMap(JdbcLink::getId, JdbcLink::getLastUpdateTime));
+        assertThat(lastUpdates)
+                .containsEntry(1L, firstUpdate)
+                .containsEntry(2L, secondUpdate)
+                .containsEntry(3L, Instant.parse("1970-01-01T00:00:00Z"));
+    }
+
+    @Test
+    public void updateLastUpdateTimes_WhenNoLinks_ThenDoNothing() {
+        jdbcTemplate.update("INSERT INTO link(link_value, last_update) VALUES ('link1', '1970-01-01 00:00:00+00')");
+
+        linkRepository.updateLastUpdateTimes(Map.of());
+
+        JdbcLink actualLink = jdbcTemplate.queryForObject("SELECT * FROM link WHERE id = 1", jdbcLinkRowMapper);
+        assertNotNull(actualLink);
+        assertEquals(Instant.parse("1970-01-01T00:00:00Z"), actualLink.getLastUpdateTime());
+    }
+
+    @Test
+    public void updateNextCheckTimes_WhenSeveralLinks_ThenUpdateOnlyPassedLinks() {
+        Instant firstCheck = Instant.parse("2025-03-01T10:15:30Z");
+        Instant secondCheck = Instant.parse("2025-03-02T08:00:00Z");
+        jdbcTemplate.update("INSERT INTO link(link_value, next_check_at) VALUES "
+                + "('link1', '1970-01-01 00:00:00+00'), ('link2', '1970-01-01 00:00:00+00'), "
+                + "('link3', '1970-01-01 00:00:00+00')");
+
+        linkRepository.updateNextCheckTimes(Map.of(1L, firstCheck, 2L, secondCheck));
+
+        List<Instant> nextChecks = jdbcTemplate.query(
+                "SELECT next_check_at FROM link ORDER BY id",
+                (rs, rn) -> rs.getTimestamp("next_check_at").toInstant());
+        assertThat(nextChecks).containsExactly(firstCheck, secondCheck, Instant.parse("1970-01-01T00:00:00Z"));
+    }
+
     @Test
     public void findAllLinkIdsByTagAndChatIdWorksCorrectly() {
         String tagValue = "expectedTag";
@@ -0,0 +1,95 @@
+package backend.academy.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Проверяет, что частые запросы используют индексы. Последовательное сканирование запрещается на уровне сессии, поэтому
+ * результат не зависит от объема данных: при отсутствии подходящего индекса в плане останется Seq Scan
+ */
+@Testcontainers
+class QueryPlanTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("link_tracker")
+            .withUsername("postgres")
+            .withPassword("123");
+
+    @BeforeAll
+    static void migrateDatabase() throws Exception {
+        try (Connection connection = postgres.createConnection("")) {
+            Database database =
+                    DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+
+            Liquibase liquibase = new Liquibase("migrations/master.xml", new ClassLoaderResourceAccessor(), database);
+            liquibase.update();
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка при выполнении миграций Liquibase", e);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(
+            delimiter = '|',
+            quoteCharacter = '"',
+            value = {
+                "SELECT tg_chat_id FROM tg_chat_link WHERE link_id = 1 | tg_chat_link_link_id_idx",
+                "SELECT link_id FROM chat_link_tags WHERE chat_id = 1 AND tag_value = 'tag' "
+                        + "| chat_link_tags_chat_id_tag_value_idx",
+                "SELECT COUNT(*) FROM link WHERE type = 'github' | link_type_idx",
+                "SELECT id FROM link WHERE last_update < NOW() - INTERVAL '1 day' | link_last_update_idx",
+                "SELECT id FROM link WHERE next_check_at <= NOW() ORDER BY next_check_at | link_next_check_at_idx"
+            })
+    public void hotQuery_WhenExplained_ThenUsesExpectedIndex(String query, String expectedIndex) throws SQLException {
+        String plan = explain(query);
+
+        assertThat(plan).doesNotContain("Seq Scan").contains(expectedIndex);
+    }
+
+    @ParameterizedTest
+    @CsvSource(
+            delimiter = '|',
+            quoteCharacter = '"',
+            value = {
+                "SELECT COUNT(*) FROM tg_chat_link WHERE link_id IN (SELECT id FROM link WHERE type = 'github')",
+                "SELECT * FROM link WHERE id > 0 AND next_check_at <= NOW() "
+                        + "AND EXISTS (SELECT 1 FROM tg_chat_link WHERE tg_chat_link.link_id = link.id) "
+                        + "ORDER BY id LIMIT 100",
+                "SELECT tg_chat.chat_id FROM tg_chat_link JOIN tg_chat ON tg_chat.id = tg_chat_link.tg_chat_id "
+                        + "WHERE tg_chat_link.link_id IN (1, 2, 3)"
+            })
+    public void hotQuery_WhenExplained_ThenDoesNotFallBackToSeqScan(String query) throws SQLException {
+        assertThat(explain(query)).doesNotContain("Seq Scan");
+    }
+
+    private static String explain(String query) throws SQLException {
+        try (Connection connection = postgres.createConnection("");
+                Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            List<String> plan = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + query)) {
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+            }
+            return String.join("\n", plan);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -163,4 +164,65 @@ class OrmLinkRepositoryTest {
         assertThat(link.getLinkValue()).isEqualTo(expectedValue);
         assertThat(link.getLastUpdate()).isEqualTo(expectedNewInstant);
     }
+
+    @Test
+    public void updateLastUpdateTimes_WhenSeveralLinks_ThenUpdateOnlyPassedLinks() {
+        Instant firstUpdate = Instant.parse("2025-03-01T10:15:30Z");
+        Instant secondUpdate = Instant.parse("2025-03-02T08:00:00Z");
+        Instant untouched = Instant.parse("1970-01-01T00:00:00Z");
+        jdbcTemplate.update("INSERT INTO link(link_value, last_update) VALUES "
+                + "('test_link1', '1970-01-01 00:00:00+00'), ('test_link2', '1970-01-01 00:00:00+00'), "
+                + "('test_link3', '1970-01-01 00:00:00+00')");
+
+        linkRepository.updateLastUpdateTimes(new Long[] {1L, 2L}, new Instant[] {firstUpdate, secondUpdate});
+
+        List<Instant> lastUpdates = jdbcTemplate.query(
+                "SELECT last_update FROM link ORDER BY id",
+                (rs, rn) -> rs.getTimestamp("last_update").toInstant());
+        assertThat(lastUpdates).containsExactly(firstUpdate, secondUpdate, untouched);
+    }
+
+    @Test
+    public void updateNextCheckTimes_WhenSeveralLinks_ThenUpdateOnlyPassedLinks() {
+        Instant firstCheck = Instant.parse("2025-03-01T10:15:30Z");
+        Instant secondCheck = Instant.parse("2025-03-02T08:00:00Z");
+        jdbcTemplate.update("INSERT INTO link(link_value, next_check_at) VALUES "
+                + "('test_link1', '1970-01-01 00:00:00+00'), ('test_link2', '1970-01-01 00:00:00+00'), "
+                + "('test_link3', '1970-01-01 00:00:00+00')");
+
+        linkRepository.updateNextCheckTimes(new Long[] {1L, 2L}, new Instant[] {firstCheck, secondCheck});
+
+        List<Instant> nextChecks = jdbcTemplate.query(
+                "SELECT next_check_at FROM link ORDER BY id",
+                (rs, rn) -> rs.getTimestamp("next_check_at").toInstant());
+        assertThat(nextChecks).containsExactly(firstCheck, secondCheck, Instant.parse("1970-01-01T00:00:00Z"));
+    }
+
+    @Test
+    public void findAllAfter_WhenGetNextBatch_ThenSkipLinksBeforeCursor() {
+        List<String> expectedLinkValues = List.of("test_link2", "test_link3");
+        Instant cutoff = Instant.now().plus(1, ChronoUnit.DAYS);
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1), (2)");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link2')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link3')");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (2, 2), (3, 1)");
+
+        List<OrmLink> batch = linkRepository.findAllAfter(1L, cutoff, Limit.of(2));
+
+        assertThat(batch.stream().map(OrmLink::getLinkValue).toList()).isEqualTo(expectedLinkValues);
+    }
+
+    @Test
+    public void updateNextCheckAt_WhenCheckPostponed_ThenSkipLinkInNextScan() {
+        jdbcTemplate.update("INSERT INTO tg_chat(chat_id) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link1')");
+        jdbcTemplate.update("INSERT INTO link(link_value) VALUES ('test_link2')");
+        jdbcTemplate.update("INSERT INTO tg_chat_link(link_id, tg_chat_id) VALUES (1, 1), (2, 1)");
+
+        linkRepository.updateNextCheckAt(1L, Instant.now().plus(1, ChronoUnit.HOURS));
+        List<OrmLink> batch = linkRepository.findAllAfter(0L, Instant.now(), Limit.of(10));
+
+        assertThat(batch.stream().map(OrmLink::getLinkValue).toList()).isEqualTo(List.of("test_link2"));
+    }
 }
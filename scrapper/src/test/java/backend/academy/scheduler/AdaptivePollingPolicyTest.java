@@ -0,0 +1,77 @@
+package backend.academy.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import backend.academy.config.properties.PollingProperties;
+import backend.academy.model.plain.Link;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptivePollingPolicyTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+    private AdaptivePollingPolicy policy;
+
+    @BeforeEach
+    public void setUp() {
+        PollingProperties properties = new PollingProperties();
+        properties.setBackoffFactor(0.5);
+        properties.setDefaultInterval(new PollingProperties.Bounds(Duration.ofMinutes(1), Duration.ofHours(1)));
+        properties.setIntervals(
+                Map.of("github", new PollingProperties.Bounds(Duration.ofMinutes(2), Duration.ofHours(6))));
+        policy = new AdaptivePollingPolicy(properties);
+    }
+
+    @Test
+    public void nextCheckAt_WhenLinkChanged_ThenUseMinInterval() {
+        Link link = link("github", NOW.minus(Duration.ofDays(3)));
+
+        Instant nextCheckAt = policy.nextCheckAt(link, true, NOW);
+
+        assertThat(nextCheckAt).isEqualTo(NOW.plus(Duration.ofMinutes(2)));
+    }
+
+    @Test
+    public void nextCheckAt_WhenLinkIsQuiet_ThenBackOffProportionallyToQuietPeriod() {
+        Link link = link("github", NOW.minus(Duration.ofHours(2)));
+
+        Instant nextCheckAt = policy.nextCheckAt(link, false, NOW);
+
+        assertThat(nextCheckAt).isEqualTo(NOW.plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    public void nextCheckAt_WhenLinkIsQuietForLong_ThenUseMaxInterval() {
+        Link link = link("github", NOW.minus(Duration.ofDays(30)));
+
+        Instant nextCheckAt = policy.nextCheckAt(link, false, NOW);
+
+        assertThat(nextCheckAt).isEqualTo(NOW.plus(Duration.ofHours(6)));
+    }
+
+    @Test
+    public void nextCheckAt_WhenLinkChangedRecently_ThenUseMinInterval() {
+        Link link = link("github", NOW.minus(Duration.ofSeconds(30)));
+
+        Instant nextCheckAt = policy.nextCheckAt(link, false, NOW);
+
+        assertThat(nextCheckAt).isEqualTo(NOW.plus(Duration.ofMinutes(2)));
+    }
+
+    @Test
+    public void nextCheckAt_WhenTypeNotConfigured_ThenUseDefaultBounds() {
+        Link link = link("undefined", NOW.minus(Duration.ofDays(30)));
+
+        Instant nextCheckAt = policy.nextCheckAt(link, false, NOW);
+
+        assertThat(nextCheckAt).isEqualTo(NOW.plus(Duration.ofHours(1)));
+    }
+
+    private static Link link(String type, Instant lastUpdateTime) {
+        return new Link(1L, "url", List.of(), List.of(), Set.of(1L), type, lastUpdateTime);
+    }
+}
@@ -2,13 +2,17 @@ package backend.academy.scheduler;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import backend.academy.config.properties.NotificationBatchProperties;
 import backend.academy.dto.LinkUpdate;
+import backend.academy.notifications.NotificationBatcher;
 import backend.academy.notifications.NotificationSender;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -60,17 +64,21 @@ class DelayedSendingSchedulerTest {
 
     @Test
     public void schedule_WhenNoExistingValuesInRedis_ThenDoNotSendUpdate() {
-        delayedSendingScheduler = new DelayedSendingScheduler(redisTemplate, sender);
+        delayedSendingScheduler = new DelayedSendingScheduler(
+                redisTemplate,
+                new NotificationBatcher(sender, new NotificationBatchProperties(), new SimpleMeterRegistry()));
 
         delayedSendingScheduler.schedule();
 
         verify(redisTemplate, times(0)).delete(any(String.class));
-        verify(sender, times(0)).send(any(LinkUpdate.class));
+        verify(sender, times(0)).sendBatch(anyList());
     }
 
     @Test
     public void schedule_WhenSuitableValueInRedis_ThenSendUpdates() {
-        delayedSendingScheduler = new DelayedSendingScheduler(redisTemplate, sender);
+        delayedSendingScheduler = new DelayedSendingScheduler(
+                redisTemplate,
+                new NotificationBatcher(sender, new NotificationBatchProperties(), new SimpleMeterRegistry()));
         LinkUpdate update = new LinkUpdate(1L, "url", "description", List.of());
         String key = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm"));
         redisTemplate.opsForSet().add(key, update);
@@ -78,6 +86,6 @@ class DelayedSendingSchedulerTest {
         delayedSendingScheduler.schedule();
 
         verify(redisTemplate, times(1)).delete(any(String.class));
-        verify(sender, times(1)).send(any(LinkUpdate.class));
+        verify(sender, times(1)).sendBatch(List.of(update));
     }
 }
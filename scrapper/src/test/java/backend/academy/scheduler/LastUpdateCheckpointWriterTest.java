@@ -0,0 +1,126 @@
+package backend.academy.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import backend.academy.config.properties.CheckpointProperties;
+import backend.academy.model.plain.Link;
+import backend.academy.service.LinkService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class LastUpdateCheckpointWriterTest {
+    private static final Instant EARLY = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant LATE = Instant.parse("2025-01-02T00:00:00Z");
+
+    private LinkService linkService;
+    private MeterRegistry meterRegistry;
+    private LastUpdateCheckpointWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        linkService = Mockito.mock(LinkService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        CheckpointProperties properties = new CheckpointProperties();
+        properties.setMaxBatchSize(3);
+        writer = new LastUpdateCheckpointWriter(linkService, properties, meterRegistry);
+    }
+
+    @Test
+    public void flush_WhenLinkRecordedSeveralTimes_ThenWriteLatestTimeOnce() {
+        Link link = new Link(1L, "url");
+
+        writer.record(link, LATE);
+        writer.record(link, EARLY);
+        writer.record(new Link(2L, "url2"), EARLY);
+        verify(linkService, never()).updateLastUpdateTimes(anyMap());
+
+        writer.flush();
+        writer.flush();
+
+        verify(linkService, times(1)).updateLastUpdateTimes(Map.of(1L, LATE, 2L, EARLY));
+        assertThat(link.getLastUpdateTime()).isEqualTo(EARLY);
+        assertThat(meterRegistry
+                        .get("scrape.checkpoint.flush")
+                        .tag("result", "success")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void record_WhenBatchSizeReached_ThenFlushImmediately() {
+        writer.record(new Link(1L, "url1"), EARLY);
+        writer.record(new Link(2L, "url2"), EARLY);
+        writer.record(new Link(3L, "url3"), EARLY);
+
+        verify(linkService, times(1)).updateLastUpdateTimes(Map.of(1L, EARLY, 2L, EARLY, 3L, EARLY));
+    }
+
+    @Test
+    public void flush_WhenWriteFails_ThenKeepTimesForNextFlush() {
+        writer.record(new Link(1L, "url"), EARLY);
+        doThrow(new RuntimeException("db is down")).when(linkService).updateLastUpdateTimes(anyMap());
+
+        writer.flush();
+        Mockito.reset(linkService);
+        writer.flush();
+
+        verify(linkService, times(1)).updateLastUpdateTimes(Map.of(1L, EARLY));
+        assertThat(meterRegistry
+                        .get("scrape.checkpoint.flush")
+                        .tag("result", "failure")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void destroy_WhenTimesPending_ThenWriteThemAndWriteLaterRecordsImmediately() {
+        writer.record(new Link(1L, "url1"), EARLY);
+
+        writer.destroy();
+        writer.record(new Link(2L, "url2"), LATE);
+
+        verify(linkService, times(1)).updateLastUpdateTimes(Map.of(1L, EARLY));
+        verify(linkService, times(1)).updateLastUpdateTimes(Map.of(2L, LATE));
+    }
+
+    @Test
+    public void flush_WhenNextCheckRecordedSeveralTimes_ThenWriteLastRecordedTimeOnce() {
+        writer.recordNextCheck(new Link(1L, "url1"), LATE);
+        writer.recordNextCheck(new Link(1L, "url1"), EARLY);
+        writer.recordNextCheck(new Link(2L, "url2"), LATE);
+        verify(linkService, never()).updateNextCheckTimes(anyMap());
+
+        writer.flush();
+        writer.flush();
+
+        verify(linkService, times(1)).updateNextCheckTimes(Map.of(1L, EARLY, 2L, LATE));
+        verify(linkService, never()).updateNextCheckTime(any(), any());
+    }
+
+    @Test
+    public void flush_WhenNextCheckWriteFails_ThenKeepTimesRecordedAfterFailure() {
+        writer.recordNextCheck(new Link(1L, "url1"), EARLY);
+        writer.recordNextCheck(new Link(2L, "url2"), EARLY);
+        doThrow(new RuntimeException("db is down")).when(linkService).updateNextCheckTimes(anyMap());
+
+        writer.flush();
+        Mockito.reset(linkService);
+        writer.recordNextCheck(new Link(1L, "url1"), LATE);
+        writer.flush();
+
+        verify(linkService, times(1)).updateNextCheckTimes(Map.of(1L, LATE, 2L, EARLY));
+    }
+}
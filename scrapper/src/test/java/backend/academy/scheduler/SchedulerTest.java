@@ -1,41 +1,59 @@
 package backend.academy.scheduler;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import backend.academy.ScrapperConfig;
+import backend.academy.clients.BatchClient;
 import backend.academy.clients.Client;
 import backend.academy.clients.ClientManager;
+import backend.academy.clients.ConditionalRequestCache;
+import backend.academy.clients.RateLimitBudget;
+import backend.academy.clients.RequestCoalescer;
+import backend.academy.config.properties.CheckpointProperties;
+import backend.academy.config.properties.NotificationBatchProperties;
+import backend.academy.config.properties.PollingProperties;
+import backend.academy.config.properties.RateLimitProperties;
+import backend.academy.config.properties.ScrapeProperties;
 import backend.academy.dto.LinkUpdate;
 import backend.academy.dto.LinkUpdateInfo;
 import backend.academy.filters.LinkFilter;
 import backend.academy.filters.impl.LinkFilterByAuthor;
 import backend.academy.model.plain.Link;
+import backend.academy.notifications.NotificationBatcher;
 import backend.academy.notifications.NotificationSender;
 import backend.academy.notifications.impl.HttpNotificationSender;
 import backend.academy.service.ChatService;
 import backend.academy.service.LinkService;
+import backend.academy.service.SubscriptionIndex;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
-import java.time.Duration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.redis.core.RedisTemplate;
 
 @SpringBootTest
@@ -56,6 +74,9 @@ class SchedulerTest {
     private static List<Client> clients;
     private static Client client1;
     private static Client client2;
+    private static RateLimitBudget rateLimitBudget;
+    private static NotificationBatchProperties batchProperties;
+    private static ConditionalRequestCache conditionalRequests;
 
     @Autowired
     private CircuitBreakerRegistry circuitBreakerRegistry;
@@ -69,9 +90,20 @@ class SchedulerTest {
         linkFilter = Mockito.mock(LinkFilterByAuthor.class);
         chatService = Mockito.mock(ChatService.class);
         setUpClients();
+        rateLimitBudget = new RateLimitBudget(new RateLimitProperties(), new SimpleMeterRegistry());
+        batchProperties = new NotificationBatchProperties();
+        conditionalRequests = Mockito.mock(ConditionalRequestCache.class);
 
         when(scrapperConfig.pageSize()).thenReturn(50L);
         when(clientManager.getAvailableClients()).thenReturn(clients);
+        when(clientManager.getSuitableClient(any(Link.class))).thenAnswer(i -> {
+            Link link = i.getArgument(0);
+            link.setClient(clients.stream()
+                    .filter(client -> client.supportLink(link.getUrl()))
+                    .findFirst()
+                    .orElse(null));
+            return link.getClient();
+        });
         when(linkFilter.filterChatIds(any(LinkUpdateInfo.class), any(Link.class)))
                 .thenAnswer(i -> {
                     return ((Link) i.getArgument(1)).getTgChatIds().stream().toList();
@@ -80,7 +112,21 @@ class SchedulerTest {
         when(chatService.getChatIdsWithDelayedSending(anyList())).thenReturn(List.of());
 
         scheduler = new Scheduler(
-                linkFilter, linkService, chatService, clientManager, notificationSender, scrapperConfig, redisTemplate);
+                linkFilter,
+                linkService,
+                chatService,
+                clientManager,
+                new NotificationBatcher(notificationSender, batchProperties, new SimpleMeterRegistry()),
+                scrapperConfig,
+                redisTemplate,
+                new ScrapeExecutor(new ScrapeProperties(), new SimpleMeterRegistry()),
+                new ScrapeProperties(),
+                new AdaptivePollingPolicy(new PollingProperties()),
+                rateLimitBudget,
+                new RequestCoalescer(new SimpleMeterRegistry()),
+                new SubscriptionIndex(),
+                new LastUpdateCheckpointWriter(linkService, new CheckpointProperties(), new SimpleMeterRegistry()),
+                conditionalRequests);
 
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("default");
         circuitBreaker.reset();
@@ -88,6 +134,7 @@ class SchedulerTest {
 
     private static void setUpClients() {
         client1 = Mockito.mock(Client.class);
+        when(client1.getSourceName()).thenReturn("client1");
         when(client1.supportLink(anyString())).thenAnswer(invocationOnMock -> {
             String url = invocationOnMock.getArgument(0);
             return Objects.equals(url, CLIENT1_SUPPORTED_URL);
@@ -103,6 +150,7 @@ class SchedulerTest {
         });
 
         client2 = Mockito.mock(Client.class);
+        when(client2.getSourceName()).thenReturn("client2");
         when(client2.supportLink(anyString())).thenAnswer(invocationOnMock -> {
             String url = invocationOnMock.getArgument(0);
             return Objects.equals(url, CLIENT2_SUPPORTED_URL);
@@ -123,8 +171,7 @@ class SchedulerTest {
     @Test
     public void schedule_WhenNoSuitableClients_ThenThrowException() {
         Link link1 = new Link(1L, "wrong_url", List.of("tag"), List.of("filter"), Set.of(1L));
-        when(linkService.getAllLinks(any(Pageable.class), any(Duration.class)))
-                .thenReturn(new PageImpl<>(List.of(link1)));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1)));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> scheduler.schedule());
         assertEquals(
@@ -138,12 +185,11 @@ class SchedulerTest {
         Link link1 = new Link(
                 CLIENT2_NO_UPDATES_INDICATOR, CLIENT2_SUPPORTED_URL, List.of("tag"), List.of("filter"), Set.of(1L));
 
-        when(linkService.getAllLinks(any(Pageable.class), any(Duration.class)))
-                .thenReturn(new PageImpl<>(List.of(link1)));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1)));
 
         scheduler.schedule();
 
-        verify(notificationSender, times(0)).send(any(LinkUpdate.class));
+        verify(notificationSender, times(0)).sendBatch(anyList());
     }
 
     @Test
@@ -152,14 +198,158 @@ class SchedulerTest {
         List<String> linkUpdate2 = List.of("update3", "update4");
         Link link1 = new Link(5L, CLIENT1_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
         Link link2 = new Link(3L, CLIENT2_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
-        when(linkService.getAllLinks(any(Pageable.class), any(Duration.class)))
-                .thenReturn(new PageImpl<>(List.of(link1, link2)));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1, link2)));
+
+        scheduler.schedule();
+
+        verify(notificationSender, times(1)).sendBatch(anyList());
+        assertThat(sentUpdates())
+                .containsExactlyInAnyOrder(
+                        new LinkUpdate(5L, CLIENT1_SUPPORTED_URL, "update1", List.of(1L)),
+                        new LinkUpdate(5L, CLIENT1_SUPPORTED_URL, "update2", List.of(1L)),
+                        new LinkUpdate(3L, CLIENT2_SUPPORTED_URL, "update3", List.of(1L)),
+                        new LinkUpdate(3L, CLIENT2_SUPPORTED_URL, "update4", List.of(1L)));
+    }
+
+    @Test
+    public void schedule_WhenSendingForOneLinkFails_ThenOtherLinksAreStillNotified() {
+        Link link1 = new Link(5L, CLIENT1_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
+        Link link2 = new Link(3L, CLIENT2_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1, link2)));
+        batchProperties.setMaxBatchSize(1);
+        doThrow(new RuntimeException("send failed"))
+                .when(notificationSender)
+                .sendBatch(List.of(new LinkUpdate(5L, CLIENT1_SUPPORTED_URL, "update1", List.of(1L))));
+
+        scheduler.schedule();
+
+        assertThat(sentUpdates())
+                .contains(
+                        new LinkUpdate(5L, CLIENT1_SUPPORTED_URL, "update2", List.of(1L)),
+                        new LinkUpdate(3L, CLIENT2_SUPPORTED_URL, "update3", List.of(1L)),
+                        new LinkUpdate(3L, CLIENT2_SUPPORTED_URL, "update4", List.of(1L)));
+    }
+
+    @Test
+    public void schedule_WhenLinkScraped_ThenScheduleNextCheck() {
+        Link link1 = new Link(
+                CLIENT2_NO_UPDATES_INDICATOR, CLIENT2_SUPPORTED_URL, List.of("tag"), List.of("filter"), Set.of(1L));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1)));
+
+        scheduler.schedule();
+
+        verify(linkService, times(1)).updateNextCheckTimes(argThat(times -> times.containsKey(link1.getId())));
+        verify(linkService, never()).updateNextCheckTime(any(Link.class), any(Instant.class));
+    }
+
+    @Test
+    public void schedule_WhenClientScrapedLinkPartially_ThenCheckpointOnlyScrapedPart() {
+        Instant scrapedUntil = Instant.parse("2025-01-01T00:00:00Z");
+        Link link1 = new Link(5L, CLIENT1_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1)));
+        when(client1.getUpdates(any(Link.class))).thenAnswer(i -> {
+            i.<Link>getArgument(0).setScrapedUntil(scrapedUntil);
+            return List.of(new LinkUpdateInfo(null, null, null, null, null, "update1"));
+        });
+
+        scheduler.schedule();
+
+        verify(linkService, times(1))
+                .updateLastUpdateTimes(argThat(lastUpdates -> scrapedUntil.equals(lastUpdates.get(link1.getId()))));
+    }
+
+    @Test
+    public void schedule_WhenClientSupportsBatches_ThenRequestUpdatesForAllLinksOfCycleAtOnce() {
+        Client batchClient = Mockito.mock(Client.class, Mockito.withSettings().extraInterfaces(BatchClient.class));
+        when(batchClient.getSourceName()).thenReturn("batch");
+        when(((BatchClient) batchClient).getSourceName()).thenReturn("batch");
+        when(((BatchClient) batchClient).getMaxBatchSize()).thenReturn(100);
+        when(batchClient.supportLink(anyString()))
+                .thenAnswer(i -> i.<String>getArgument(0).startsWith("batch/"));
+        when(((BatchClient) batchClient).getBatchUpdates(anyList()))
+                .thenAnswer(i -> i.<List<Link>>getArgument(0).stream()
+                        .map(link -> List.of(
+                                new LinkUpdateInfo(null, null, null, null, null, "batch update " + link.getId())))
+                        .toList());
+        clients = List.of(client1, batchClient);
+        when(clientManager.getAvailableClients()).thenReturn(clients);
+        Link link1 = new Link(10L, "batch/10", List.of(), List.of(), new HashSet<>(Set.of(1L)));
+        Link link2 = new Link(11L, "batch/11", List.of(), List.of(), new HashSet<>(Set.of(2L)));
+        Link link3 = new Link(5L, CLIENT1_SUPPORTED_URL, List.of(), List.of(), new HashSet<>(Set.of(1L)));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1, link3), List.of(link2)));
+
+        scheduler.schedule();
+
+        verify((BatchClient) batchClient, times(1)).getBatchUpdates(List.of(link1, link2));
+        verify(batchClient, times(0)).getUpdates(any(Link.class));
+        assertThat(sentUpdates())
+                .contains(
+                        new LinkUpdate(10L, "batch/10", "batch update 10", List.of(1L)),
+                        new LinkUpdate(11L, "batch/11", "batch update 11", List.of(2L)),
+                        new LinkUpdate(5L, CLIENT1_SUPPORTED_URL, "update1", List.of(1L)));
+        verify(linkService, times(1))
+                .updateNextCheckTimes(argThat(times -> times.keySet().containsAll(List.of(10L, 11L, 5L))));
+    }
+
+    @Test
+    public void schedule_WhenRateLimitIsExhausted_ThenDeferLinkUntilReset() {
+        Instant resetAt = Instant.now().plusSeconds(3600);
+        rateLimitBudget.update("client1", 10, 5000, resetAt);
+        Link link1 = new Link(5L, CLIENT1_SUPPORTED_URL, List.of("tag"), List.of("filter"), Set.of(1L));
+        Link link2 = new Link(3L, CLIENT2_SUPPORTED_URL, List.of("tag"), List.of("filter"), Set.of(1L));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1, link2)));
+
+        scheduler.schedule();
+
+        verify(client1, times(0)).getUpdates(any(Link.class));
+        verify(client2, times(1)).getUpdates(link2);
+        verify(linkService, times(1)).updateNextCheckTimes(argThat(times -> resetAt.equals(times.get(link1.getId()))));
+    }
+
+    @Test
+    public void schedule_WhenUpdatesExceedBatchSize_ThenSendSeveralBatches() {
+        Link link1 = new Link(5L, CLIENT1_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
+        Link link2 = new Link(3L, CLIENT2_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1, link2)));
+        batchProperties.setMaxBatchSize(3);
 
         scheduler.schedule();
 
-        verify(notificationSender, times(1)).send(new LinkUpdate(5L, CLIENT1_SUPPORTED_URL, "update1", List.of(1L)));
-        verify(notificationSender, times(1)).send(new LinkUpdate(5L, CLIENT1_SUPPORTED_URL, "update2", List.of(1L)));
-        verify(notificationSender, times(1)).send(new LinkUpdate(3L, CLIENT2_SUPPORTED_URL, "update3", List.of(1L)));
-        verify(notificationSender, times(1)).send(new LinkUpdate(3L, CLIENT2_SUPPORTED_URL, "update4", List.of(1L)));
+        verify(notificationSender, times(2)).sendBatch(anyList());
+        assertThat(sentUpdates()).hasSize(4);
+    }
+
+    @Test
+    public void schedule_WhenUpdatesAreHandedOff_ThenCommitConditionalRequestValidators() {
+        Link link1 = new Link(5L, CLIENT1_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
+        Link link2 = new Link(
+                CLIENT2_NO_UPDATES_INDICATOR, CLIENT2_SUPPORTED_URL, List.of("tag"), List.of("filter"), Set.of(1L));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1, link2)));
+
+        scheduler.schedule();
+
+        verify(conditionalRequests, times(1)).commit(5L);
+        verify(conditionalRequests, times(1)).commit(CLIENT2_NO_UPDATES_INDICATOR);
+        verify(conditionalRequests, times(0)).discard(any());
+    }
+
+    @Test
+    public void schedule_WhenUpdatesAreNotHandedOff_ThenDiscardConditionalRequestValidators() {
+        Link link1 = new Link(5L, CLIENT1_SUPPORTED_URL, List.of("tag"), List.of("filter"), new HashSet<>(Set.of(1L)));
+        when(linkService.streamAllLinks(anyInt())).thenReturn(Stream.of(List.of(link1)));
+        when(linkFilter.filterChatIds(any(LinkUpdateInfo.class), eq(link1)))
+                .thenThrow(new RuntimeException("filter failed"));
+
+        assertThrows(RuntimeException.class, () -> scheduler.schedule());
+
+        verify(conditionalRequests, times(1)).discard(5L);
+        verify(conditionalRequests, times(0)).commit(5L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<LinkUpdate> sentUpdates() {
+        ArgumentCaptor<List<LinkUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationSender, Mockito.atLeastOnce()).sendBatch(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
     }
 }
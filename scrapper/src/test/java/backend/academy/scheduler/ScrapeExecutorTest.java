@@ -0,0 +1,117 @@
+package backend.academy.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import backend.academy.config.properties.ScrapeProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ScrapeExecutorTest {
+    private ScrapeExecutor scrapeExecutor;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        ScrapeProperties properties = new ScrapeProperties();
+        properties.setDefaultMaxConcurrency(3);
+        properties.setMaxConcurrency(Map.of("github", 2));
+        meterRegistry = new SimpleMeterRegistry();
+        scrapeExecutor = new ScrapeExecutor(properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scrapeExecutor.destroy();
+    }
+
+    @Test
+    public void callLimited_WhenManyRequestsToSource_ThenRespectSourceLimit() throws Exception {
+        assertThat(maxInFlight("github", 20)).isEqualTo(2);
+    }
+
+    @Test
+    public void callLimited_WhenSourceNotConfigured_ThenUseDefaultLimit() throws Exception {
+        assertThat(maxInFlight("stackoverflow", 20)).isEqualTo(3);
+    }
+
+    @Test
+    public void callLimited_WhenDifferentSources_ThenLimitsAreIndependent() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> github =
+                scrapeExecutor.submit(() -> scrapeExecutor.callLimited("github", () -> block(bothStarted, release)));
+        Future<?> so = scrapeExecutor.submit(
+                () -> scrapeExecutor.callLimited("stackoverflow", () -> block(bothStarted, release)));
+
+        assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        github.get();
+        so.get();
+    }
+
+    @Test
+    public void callLimited_WhenCalled_ThenRecordWaitTimeAndQueueDepth() throws Exception {
+        maxInFlight("github", 5);
+
+        Timer waitTimer =
+                meterRegistry.find("scrape.task.wait").tag("type", "github").timer();
+        Gauge queueDepth =
+                meterRegistry.find("scrape.queue.depth").tag("type", "github").gauge();
+        Gauge pendingTasks = meterRegistry.find("scrape.tasks.pending").gauge();
+        assertThat(waitTimer).isNotNull();
+        assertThat(waitTimer.count()).isEqualTo(5);
+        assertThat(queueDepth).isNotNull();
+        assertThat(queueDepth.value()).isZero();
+        assertThat(pendingTasks).isNotNull();
+        assertThat(pendingTasks.value()).isZero();
+    }
+
+    private int maxInFlight(String source, int taskCount) throws InterruptedException, ExecutionException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < taskCount; ++i) {
+            futures.add(scrapeExecutor.submit(() -> scrapeExecutor.callLimited(source, () -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                sleep(20);
+                return inFlight.decrementAndGet();
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return maxInFlight.get();
+    }
+
+    private Object block(CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package backend.academy.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import backend.academy.dto.LinkUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+class LinkUpdateCodecTest {
+    private static final LinkUpdate UPDATE = new LinkUpdate(
+            390L,
+            "https://github.com/salex06/testrepo/issues/12",
+            "Новый комментарий от salex06: Точно всё ок",
+            List.of(1234567890L, -1001234567890L, 42L));
+
+    @Test
+    public void decode_WhenEncoded_ThenReturnSameUpdate() {
+        assertThat(LinkUpdateCodec.decode(LinkUpdateCodec.encode(UPDATE))).isEqualTo(UPDATE);
+    }
+
+    @Test
+    public void decode_WhenFieldsAreNull_ThenKeepThemNull() {
+        LinkUpdate update = new LinkUpdate(null, "url", null, List.of());
+
+        assertThat(LinkUpdateCodec.decode(LinkUpdateCodec.encode(update))).isEqualTo(update);
+    }
+
+    @Test
+    public void encode_WhenUpdateIsKnown_ThenMatchFormatOfBotModule() {
+        byte[] expected = {1, 0x0F, 2, 1, 'u', 1, 'd', 2, 1, 4};
+
+        assertThat(LinkUpdateCodec.encode(new LinkUpdate(1L, "u", "d", List.of(-1L, 2L))))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    public void decode_WhenDataIsTruncatedOrOfUnknownVersion_ThenThrowException() {
+        byte[] encoded = LinkUpdateCodec.encode(UPDATE);
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        byte[] unknownVersion = encoded.clone();
+        unknownVersion[0] = 2;
+
+        assertThatThrownBy(() -> LinkUpdateCodec.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LinkUpdateCodec.decode(unknownVersion)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void encode_WhenComparedWithJson_ThenProduceSmallerPayload() throws JsonProcessingException {
+        LinkUpdate popular = new LinkUpdate(
+                UPDATE.id(),
+                UPDATE.url(),
+                UPDATE.description(),
+                LongStream.range(0, 100).map(i -> 5_000_000_000L + i).boxed().toList());
+
+        for (LinkUpdate update : List.of(UPDATE, popular)) {
+            int binary = LinkUpdateCodec.encode(update).length;
+            int json = new ObjectMapper().writeValueAsBytes(update).length;
+            int redisJson = new GenericJackson2JsonRedisSerializer().serialize(update).length;
+
+            assertThat(binary).isLessThan(json).isLessThan(redisJson);
+        }
+    }
+
+    @Test
+    public void redisSerializer_WhenValueIsEmpty_ThenReturnNull() {
+        LinkUpdateBinaryRedisSerializer serializer = new LinkUpdateBinaryRedisSerializer();
+
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+        assertThat(serializer.deserialize(serializer.serialize(UPDATE))).isEqualTo(UPDATE);
+    }
+}
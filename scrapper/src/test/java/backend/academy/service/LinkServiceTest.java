@@ -1,13 +1,13 @@
 package backend.academy.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import backend.academy.clients.Client;
-import backend.academy.clients.github.storage.GitHubPersonalStorageClient;
-import backend.academy.clients.stackoverflow.questions.SoQuestionClient;
+import backend.academy.model.plain.Link;
 import backend.academy.service.sql.SqlLinkService;
 import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
@@ -15,38 +15,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 class LinkServiceTest {
-    private static Client client;
-    private static Client client2;
     private static LinkService linkService;
 
     @BeforeAll
     static void setUp() {
-        client = Mockito.mock(GitHubPersonalStorageClient.class);
-        client2 = Mockito.mock(SoQuestionClient.class);
         linkService = Mockito.mock(SqlLinkService.class);
     }
 
     @Test
-    public void validateLink_WhenSuitableClientExists_ThenReturnTrue() {
-        String link = "abc";
-        when(client.supportLink(link)).thenReturn(true);
-        when(client2.supportLink(link)).thenReturn(false);
-        when(linkService.validateLink(anyList(), anyString())).thenCallRealMethod();
-
-        boolean result = linkService.validateLink(List.of(client, client2), link);
-
-        assertThat(result).isTrue();
-    }
-
-    @Test
-    public void validateLink_WhenSuitableClientDoNotExist_ThenReturnFalse() {
-        String link = "abc";
-        when(client.supportLink(link)).thenReturn(false);
-        when(client2.supportLink(link)).thenReturn(false);
-        when(linkService.validateLink(anyList(), anyString())).thenCallRealMethod();
-
-        boolean result = linkService.validateLink(List.of(client, client2), link);
-
-        assertThat(result).isFalse();
+    public void streamAllLinks_WhenSeveralBatches_ThenContinueFromLastId() {
+        Link link1 = new Link(1L, "link1");
+        Link link2 = new Link(2L, "link2");
+        Link link3 = new Link(3L, "link3");
+        when(linkService.streamAllLinks(anyInt())).thenCallRealMethod();
+        when(linkService.getLinksAfter(0L, 2)).thenReturn(List.of(link1, link2));
+        when(linkService.getLinksAfter(2L, 2)).thenReturn(List.of(link3));
+
+        List<List<Link>> batches = linkService.streamAllLinks(2).toList();
+
+        assertThat(batches).containsExactly(List.of(link1, link2), List.of(link3));
+        verify(linkService, never()).getLinksAfter(eq(3L), anyInt());
     }
 }
@@ -0,0 +1,53 @@
+package backend.academy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import backend.academy.model.plain.LinkSubscription;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class SubscriptionIndexLoaderTest {
+    private SubscriptionIndex index;
+    private LinkService linkService;
+    private SubscriptionIndexLoader loader;
+
+    @BeforeEach
+    public void setUp() {
+        index = new SubscriptionIndex();
+        linkService = Mockito.mock(LinkService.class);
+        loader = new SubscriptionIndexLoader(index, linkService);
+    }
+
+    @Test
+    public void retryLoad_WhenEveryLoadAttemptRacedWithWrites_ThenLoadIndexOnNextRun() {
+        when(linkService.getAllSubscriptions()).thenAnswer(i -> {
+            index.subscribe(1L, 10L, null, List.of());
+            return Map.of();
+        });
+        loader.loadIndex();
+        assertThat(index.isReady()).isFalse();
+
+        when(linkService.getAllSubscriptions())
+                .thenReturn(Map.of(1L, List.of(new LinkSubscription(10L, null, List.of()))));
+        loader.retryLoad();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.getSubscriptions(1L)).containsOnlyKeys(10L);
+    }
+
+    @Test
+    public void retryLoad_WhenIndexIsReady_ThenDoNotReload() {
+        when(linkService.getAllSubscriptions()).thenReturn(Map.of());
+        loader.loadIndex();
+
+        loader.retryLoad();
+
+        verify(linkService, times(1)).getAllSubscriptions();
+    }
+}
@@ -0,0 +1,82 @@
+package backend.academy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import backend.academy.model.plain.LinkSubscription;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SubscriptionIndexTest {
+    private SubscriptionIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new SubscriptionIndex();
+    }
+
+    @Test
+    public void getSubscriptions_WhenIndexIsNotLoaded_ThenReturnNull() {
+        index.subscribe(1L, 10L, null, List.of());
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.getSubscriptions(1L)).isNull();
+    }
+
+    @Test
+    public void load_WhenSubscriptionsExist_ThenIndexThemByLink() {
+        index.load(() -> Map.of(
+                1L,
+                List.of(
+                        new LinkSubscription(10L, null, List.of("user:bot")),
+                        new LinkSubscription(20L, LocalTime.of(10, 0), List.of()))));
+
+        assertThat(index.getSubscriptions(1L)).containsOnlyKeys(10L, 20L);
+        assertThat(index.getSubscriptions(1L).get(10L).getFilters()).containsExactly("user:bot");
+        assertThat(index.getSubscriptions(2L)).isEmpty();
+    }
+
+    @Test
+    public void load_WhenSubscriptionChangedDuringLoad_ThenLoadAgain() {
+        int[] loads = {0};
+
+        index.load(() -> {
+            loads[0]++;
+            if (loads[0] == 1) {
+                index.subscribe(1L, 30L, null, List.of());
+                return Map.of(1L, List.of(new LinkSubscription(10L, null, List.of())));
+            }
+            return Map.of(
+                    1L,
+                    List.of(new LinkSubscription(10L, null, List.of()), new LinkSubscription(30L, null, List.of())));
+        });
+
+        assertThat(loads[0]).isEqualTo(2);
+        assertThat(index.getSubscriptions(1L)).containsOnlyKeys(10L, 30L);
+    }
+
+    @Test
+    public void update_WhenSubscriptionsChanged_ThenKeepIndexCoherent() {
+        index.load(() -> Map.of(
+                1L, List.of(new LinkSubscription(10L, null, List.of())),
+                2L, List.of(new LinkSubscription(10L, null, List.of()), new LinkSubscription(20L, null, List.of()))));
+
+        index.subscribe(3L, 10L, null, List.of("user:a"));
+        index.updateFilters(1L, 10L, List.of("user:b"));
+        index.updateSendAt(10L, LocalTime.of(12, 30));
+        index.unsubscribe(2L, 20L);
+
+        assertThat(index.getSubscriptions(1L).get(10L))
+                .isEqualTo(new LinkSubscription(10L, LocalTime.of(12, 30), List.of("user:b")));
+        assertThat(index.getSubscriptions(3L).get(10L).getSendAt()).isEqualTo(LocalTime.of(12, 30));
+        assertThat(index.getSubscriptions(2L)).containsOnlyKeys(10L);
+
+        index.removeChat(10L);
+
+        assertThat(index.getSubscriptions(1L)).isEmpty();
+        assertThat(index.getSubscriptions(2L)).isEmpty();
+        assertThat(index.getSubscriptions(3L)).isEmpty();
+    }
+}
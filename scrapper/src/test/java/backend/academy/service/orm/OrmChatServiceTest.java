@@ -7,6 +7,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import backend.academy.model.mapper.chat.ChatMapper;
@@ -24,6 +25,7 @@ import backend.academy.repository.orm.OrmChatLinkTagsRepository;
 import backend.academy.repository.orm.OrmChatRepository;
 import backend.academy.repository.orm.OrmLinkRepository;
 import backend.academy.service.LinkService;
+import backend.academy.service.SubscriptionIndex;
 import java.time.Instant;
 import java.time.LocalTime;
 import java.util.HashSet;
@@ -60,6 +62,9 @@ class OrmChatServiceTest {
     @Mock
     private LinkService linkService;
 
+    @Mock
+    private SubscriptionIndex subscriptionIndex;
+
     @InjectMocks
     private OrmChatService chatService;
 
@@ -136,6 +141,7 @@ class OrmChatServiceTest {
         chatService.saveTheChatLink(chat, link);
 
         verify(chatLinkRepository, times(0)).save(any(OrmChatLink.class));
+        verifyNoInteractions(subscriptionIndex);
     }
 
     @Test
@@ -147,11 +153,13 @@ class OrmChatServiceTest {
         TgChat chat = new TgChat(id, chatId, expectedLinks);
         Link link = new Link(1L, "test_link1");
         when(chatRepository.findByChatId(anyLong())).thenReturn(Optional.of(new OrmChat(1L, 1L)));
-        when(linkRepository.findByLinkValue(link.getUrl())).thenReturn(Optional.of(new OrmLink("test_link1")));
+        when(linkRepository.findByLinkValue(link.getUrl()))
+                .thenReturn(Optional.of(new OrmLink(1L, "test_link1", Instant.now(), "undefined")));
 
         chatService.saveTheChatLink(chat, link);
 
         verify(chatLinkRepository, times(1)).save(any(OrmChatLink.class));
+        verify(subscriptionIndex, times(1)).subscribe(1L, chatId, null, List.of());
     }
 
     @Test
@@ -209,13 +217,15 @@ class OrmChatServiceTest {
         TgChat chat = new TgChat(id, chatId, expectedLinks);
         List<String> expectedFilters = List.of("new_filter1", "new_filter2");
         when(chatRepository.findByChatId(chatId)).thenReturn(Optional.of(new OrmChat(id, chatId)));
-        when(linkRepository.findByLinkValue(link.getUrl())).thenReturn(Optional.of(new OrmLink("test_link2")));
+        when(linkRepository.findByLinkValue(link.getUrl()))
+                .thenReturn(Optional.of(new OrmLink(2L, "test_link2", Instant.now(), "undefined")));
 
         chatService.updateFilters(link, chat, expectedFilters);
 
         verify(filtersRepository, times(1)).deleteByChatPrimaryIdAndLinkId(anyLong(), anyLong());
         verify(filtersRepository, times(2)).save(any(OrmChatLinkFilters.class));
         assertEquals(link.getFilters(), expectedFilters);
+        verify(subscriptionIndex, times(1)).updateFilters(2L, chatId, expectedFilters);
     }
 
     @Test
@@ -227,6 +237,7 @@ class OrmChatServiceTest {
         chatService.removeTheChatLink(chat, new Link(1L, "url"));
 
         verify(chatLinkRepository, times(0)).deleteById(any(OrmChatLinkIdEmbedded.class));
+        verifyNoInteractions(subscriptionIndex);
     }
 
     @Test
@@ -245,6 +256,17 @@ class OrmChatServiceTest {
         verify(chatLinkRepository, times(1)).deleteById(any(OrmChatLinkIdEmbedded.class));
         verify(tagsRepository, times(1)).deleteByChatPrimaryIdAndLinkId(anyLong(), anyLong());
         verify(filtersRepository, times(1)).deleteByChatPrimaryIdAndLinkId(anyLong(), anyLong());
+        verify(subscriptionIndex, times(1)).unsubscribe(1L, chatId);
+    }
+
+    @Test
+    public void deleteChatByChatId_WhenCalled_ThenRemoveChatFromIndex() {
+        Long chatId = 1L;
+
+        chatService.deleteChatByChatId(chatId);
+
+        verify(chatRepository, times(1)).deleteByChatId(chatId);
+        verify(subscriptionIndex, times(1)).removeChat(chatId);
     }
 
     @Test
@@ -309,6 +331,7 @@ class OrmChatServiceTest {
         boolean result = chatService.updateTimeConfig(chat, timeConfig);
 
         assertThat(result).isTrue();
+        verify(subscriptionIndex, times(1)).updateSendAt(2L, null);
     }
 
     @Test
@@ -319,6 +342,7 @@ class OrmChatServiceTest {
         boolean result = chatService.updateTimeConfig(chat, timeConfig);
 
         assertThat(result).isTrue();
+        verify(subscriptionIndex, times(1)).updateSendAt(2L, LocalTime.of(10, 34));
     }
 
     @Test
@@ -329,6 +353,7 @@ class OrmChatServiceTest {
         boolean result = chatService.updateTimeConfig(chat, timeConfig);
 
         assertThat(result).isFalse();
+        verifyNoInteractions(subscriptionIndex);
     }
 
     @Test
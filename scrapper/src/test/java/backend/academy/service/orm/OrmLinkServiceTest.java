@@ -11,27 +11,31 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import backend.academy.model.jdbc.JdbcLink;
 import backend.academy.model.mapper.link.LinkMapper;
 import backend.academy.model.orm.OrmChat;
 import backend.academy.model.orm.OrmChatLink;
+import backend.academy.model.orm.OrmChatLinkFilters;
 import backend.academy.model.orm.OrmChatLinkIdEmbedded;
 import backend.academy.model.orm.OrmLink;
 import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
 import backend.academy.model.plain.TgChat;
 import backend.academy.repository.orm.OrmChatLinkFiltersRepository;
 import backend.academy.repository.orm.OrmChatLinkRepository;
 import backend.academy.repository.orm.OrmChatLinkTagsRepository;
 import backend.academy.repository.orm.OrmChatRepository;
 import backend.academy.repository.orm.OrmLinkRepository;
-import java.time.Duration;
+import backend.academy.service.SubscriptionIndex;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,6 +43,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -63,6 +68,9 @@ class OrmLinkServiceTest {
     @Mock
     private LinkMapper mapper;
 
+    @Mock
+    private SubscriptionIndex subscriptionIndex;
+
     @InjectMocks
     private OrmLinkService linkService;
 
@@ -87,14 +95,15 @@ class OrmLinkServiceTest {
         int pageNumber = 0;
         int pageSize = 5;
         Pageable pageable = PageRequest.of(pageNumber, pageSize);
+        OrmLink ormLink1 = new OrmLink(link1Id, link1Url, Instant.now(), "undefined");
+        OrmLink ormLink2 = new OrmLink(link2Id, link2Url, Instant.now(), "undefined");
         when(linkRepository.findAll(any(Instant.class), eq(pageable)))
-                .thenReturn(new PageImpl<>(List.of(
-                        new OrmLink(link1Id, link1Url, Instant.now(), "undefined"),
-                        new OrmLink(link2Id, link2Url, Instant.now(), "undefined"))));
-        when(chatLinkRepository.findAllChatIdByLinkId(link1Id)).thenReturn(expectedLink1PrimaryIds);
-        when(chatLinkRepository.findAllChatIdByLinkId(link2Id)).thenReturn(expectedLink2PrimaryIds);
-        when(chatRepository.findAllById(expectedLink1PrimaryIds)).thenReturn(new ArrayList<>(expectedLink1TgChats));
-        when(chatRepository.findAllById(expectedLink2PrimaryIds)).thenReturn(new ArrayList<>(expectedLink2TgChats));
+                .thenReturn(new PageImpl<>(List.of(ormLink1, ormLink2)));
+        List<OrmChatLink> chatLinks = new ArrayList<>();
+        expectedLink1TgChats.forEach(chat -> chatLinks.add(new OrmChatLink(chat, ormLink1)));
+        expectedLink2TgChats.forEach(chat -> chatLinks.add(new OrmChatLink(chat, ormLink2)));
+        when(chatLinkRepository.findAllWithChatByLinkIds(List.of(link1Id, link2Id)))
+                .thenReturn(chatLinks);
         when(mapper.toPlainLink(any(OrmLink.class), any(), any(), anySet())).thenAnswer(invocationOnMock -> {
             OrmLink link = invocationOnMock.getArgument(0);
             Set<Long> chatIds = invocationOnMock.getArgument(3);
@@ -102,9 +111,44 @@ class OrmLinkServiceTest {
             return new Link(link.getId(), link.getLinkValue(), null, null, chatIds);
         });
 
-        Page<Link> actualLinks = linkService.getAllLinks(pageable, Duration.of(10, ChronoUnit.SECONDS));
+        Page<Link> actualLinks = linkService.getAllLinks(pageable);
 
         assertEquals(expectedLinks.getContent(), actualLinks.getContent());
+        assertEquals(Set.of(1L, 2L), actualLinks.getContent().get(0).getTgChatIds());
+        assertEquals(Set.of(3L, 4L), actualLinks.getContent().get(1).getTgChatIds());
+        verify(chatLinkRepository, times(0)).findAllChatIdByLinkId(anyLong());
+    }
+
+    @Test
+    public void getLinksAfterWorksCorrectly() {
+        Long linkId = 3L;
+        String linkUrl = "testLink";
+        OrmLink ormLink = new OrmLink(linkId, linkUrl, Instant.now(), "undefined");
+        OrmChat delayedChat = new OrmChat(5L, 1L, LocalTime.of(10, 0));
+        OrmChat immediateChat = new OrmChat(10L, 2L);
+        when(linkRepository.findAllAfter(eq(2L), any(Instant.class), eq(Limit.of(5))))
+                .thenReturn(List.of(ormLink));
+        when(chatLinkRepository.findAllWithChatByLinkIds(List.of(linkId)))
+                .thenReturn(List.of(new OrmChatLink(delayedChat, ormLink), new OrmChatLink(immediateChat, ormLink)));
+        when(chatLinkFiltersRepository.findAllByLinkIds(List.of(linkId)))
+                .thenReturn(List.of(new OrmChatLinkFilters(delayedChat, ormLink, "user:author")));
+        when(mapper.toPlainLink(any(OrmLink.class), any(), any(), anySet())).thenAnswer(invocationOnMock -> {
+            OrmLink link = invocationOnMock.getArgument(0);
+            Set<Long> chatIds = invocationOnMock.getArgument(3);
+
+            return new Link(link.getId(), link.getLinkValue(), null, null, chatIds);
+        });
+
+        List<Link> actualLinks = linkService.getLinksAfter(2L, 5);
+
+        assertThat(actualLinks).hasSize(1);
+        assertEquals(linkId, actualLinks.getFirst().getId());
+        assertEquals(Set.of(1L, 2L), actualLinks.getFirst().getTgChatIds());
+        assertEquals(
+                Map.of(
+                        1L, new LinkSubscription(1L, LocalTime.of(10, 0), List.of("user:author")),
+                        2L, new LinkSubscription(2L, null, List.of())),
+                actualLinks.getFirst().getSubscriptions());
     }
 
     @Test
@@ -183,6 +227,7 @@ class OrmLinkServiceTest {
         Link link = linkService.saveLink(expectedLink, expectedChat);
 
         assertThat(link).isNull();
+        verifyNoInteractions(subscriptionIndex);
     }
 
     @Test
@@ -221,6 +266,7 @@ class OrmLinkServiceTest {
 
         verify(linkRepository, times(1)).save(any(OrmLink.class));
         verify(chatLinkRepository, times(1)).save(any(OrmChatLink.class));
+        verify(subscriptionIndex, times(1)).subscribe(expectedLinkId, chatId, null, expectedFilters);
     }
 
     @Test
@@ -260,6 +306,7 @@ class OrmLinkServiceTest {
 
         verify(linkRepository, times(0)).save(any(OrmLink.class));
         verify(chatLinkRepository, times(1)).save(any(OrmChatLink.class));
+        verify(subscriptionIndex, times(1)).subscribe(expectedLinkId, chatId, null, expectedFilters);
     }
 
     @Test
@@ -299,6 +346,7 @@ class OrmLinkServiceTest {
 
         verify(linkRepository, times(0)).save(any(OrmLink.class));
         verify(chatLinkRepository, times(0)).save(any(OrmChatLink.class));
+        verify(subscriptionIndex, times(1)).subscribe(expectedLinkId, chatId, null, expectedFilters);
     }
 
     @Test
@@ -318,43 +366,17 @@ class OrmLinkServiceTest {
         OrmChat chat = new OrmChat(internalId, chatId);
         OrmLink link1 = new OrmLink(1L, "link1", Instant.now(), "undefined");
         OrmLink link2 = new OrmLink(2L, "link2", Instant.now(), "undefined");
-        List<String> expectedTagsLink1 = List.of("tag1", "tag2");
-        List<String> expectedTagsLink2 = List.of("tag3", "tag4");
-        List<String> expectedFiltersLink1 = List.of("filter1", "filter2");
-        List<String> expectedFiltersLink2 = List.of("filter3", "filter4");
-        Set<Long> expectedPrimaryChatIdsLink1 = Set.of(1L, 2L);
-        Set<Long> expectedPrimaryChatIdsLink2 = Set.of(1L);
-        OrmChat chat1 = new OrmChat(1L, 5L);
-        OrmChat chat2 = new OrmChat(2L, 10L);
-        List<OrmChat> ormChatsLink1 = List.of(chat1, chat2);
-        List<OrmChat> ormChatsLink2 = List.of(chat1);
         Set<Link> expectedPlainLinks = Set.of(
-                new Link(
-                        link1.getId(),
-                        link1.getLinkValue(),
-                        expectedTagsLink1,
-                        expectedFiltersLink1,
-                        Set.of(chat1.getChatId(), chat2.getChatId())),
-                new Link(
-                        link2.getId(),
-                        link2.getLinkValue(),
-                        expectedTagsLink2,
-                        expectedFiltersLink2,
-                        Set.of(chat1.getChatId())));
+                new Link(1L, "link1", List.of("tag1", "tag2"), List.of("filter1"), Set.of(1L, 10L)),
+                new Link(2L, "link2", List.of(), List.of("filter3"), Set.of(1L)));
         when(chatRepository.findByChatId(chatId)).thenReturn(Optional.of(chat));
         when(chatLinkRepository.findAllByChatPrimaryId(internalId)).thenReturn(List.of(link1, link2));
-        when(chatLinkTagsRepository.findTagValuesByChatPrimaryIdAndLinkId(internalId, link1.getId()))
-                .thenReturn(expectedTagsLink1);
-        when(chatLinkTagsRepository.findTagValuesByChatPrimaryIdAndLinkId(internalId, link2.getId()))
-                .thenReturn(expectedTagsLink2);
-        when(chatLinkFiltersRepository.findFilterValuesByChatIdAndLinkId(internalId, link1.getId()))
-                .thenReturn(expectedFiltersLink1);
-        when(chatLinkFiltersRepository.findFilterValuesByChatIdAndLinkId(internalId, link2.getId()))
-                .thenReturn(expectedFiltersLink2);
-        when(chatLinkRepository.findAllChatIdByLinkId(link1.getId())).thenReturn(expectedPrimaryChatIdsLink1);
-        when(chatLinkRepository.findAllChatIdByLinkId(link2.getId())).thenReturn(expectedPrimaryChatIdsLink2);
-        when(chatRepository.findAllById(expectedPrimaryChatIdsLink1)).thenReturn(ormChatsLink1);
-        when(chatRepository.findAllById(expectedPrimaryChatIdsLink2)).thenReturn(ormChatsLink2);
+        when(chatLinkTagsRepository.findLinkIdAndTagValueByChatPrimaryId(internalId))
+                .thenReturn(List.of(new Object[] {1L, "tag1"}, new Object[] {1L, "tag2"}));
+        when(chatLinkFiltersRepository.findLinkIdAndFilterValueByChatPrimaryId(internalId))
+                .thenReturn(List.of(new Object[] {1L, "filter1"}, new Object[] {2L, "filter3"}));
+        when(chatLinkRepository.findLinkIdAndTgChatIdByLinkIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new Object[] {1L, 1L}, new Object[] {1L, 10L}, new Object[] {2L, 1L}));
         when(mapper.toPlainLink(any(OrmLink.class), anyList(), anyList(), anySet()))
                 .thenAnswer(invocationOnMock -> {
                     OrmLink link = invocationOnMock.getArgument(0);
@@ -368,6 +390,8 @@ class OrmLinkServiceTest {
         Set<Link> actualLinks = linkService.getAllLinksByChatId(chatId);
 
         assertEquals(expectedPlainLinks, actualLinks);
+        verify(chatLinkTagsRepository, times(0)).findTagValuesByChatPrimaryIdAndLinkId(anyLong(), anyLong());
+        verify(chatLinkRepository, times(0)).findAllChatIdByLinkId(anyLong());
     }
 
     @Test
@@ -426,26 +450,22 @@ class OrmLinkServiceTest {
     public void getAllLinksByChatIdAndTagWorksCorrectly() {
         Long primaryChatId = 1L;
         String tag = "tag";
-        List<Long> linkIds = List.of(1L, 2L);
         List<OrmLink> ormLinks = List.of(
                 new OrmLink(1L, "link1", Instant.now(), "undefined"),
                 new OrmLink(2L, "link2", Instant.now(), "undefined"));
-        List<String> tagsLink1 = List.of("tag1", "tag");
-        List<String> tagsLink2 = List.of("tag", "tag2");
         List<Link> expectedLinks = List.of(
-                new Link(1L, "link1", tagsLink1, List.of(), Set.of()),
-                new Link(2L, "link2", tagsLink2, List.of(), Set.of()));
+                new Link(1L, "link1", List.of("tag1", "tag"), List.of(), Set.of()),
+                new Link(2L, "link2", List.of("tag", "tag2"), List.of(), Set.of()));
         when(chatRepository.findByChatId(anyLong())).thenReturn(Optional.of(new OrmChat(1L, 2L)));
-        when(chatLinkTagsRepository.findLinkIdsByChatIdAndTagValue(primaryChatId, tag))
-                .thenReturn(linkIds);
-        when(linkRepository.findAllById(linkIds)).thenReturn(ormLinks);
-        when(chatLinkTagsRepository.findTagValuesByChatPrimaryIdAndLinkId(primaryChatId, 1L))
-                .thenReturn(tagsLink1);
-        when(chatLinkTagsRepository.findTagValuesByChatPrimaryIdAndLinkId(primaryChatId, 2L))
-                .thenReturn(tagsLink2);
-        when(chatLinkFiltersRepository.findFilterValuesByChatIdAndLinkId(anyLong(), anyLong()))
-                .thenReturn(new ArrayList<>());
-        when(chatLinkRepository.findAllChatIdByLinkId(anyLong())).thenReturn(Set.of(1L, 2L));
+        when(chatLinkTagsRepository.findLinksByChatIdAndTagValue(primaryChatId, tag))
+                .thenReturn(ormLinks);
+        when(chatLinkTagsRepository.findLinkIdAndTagValueByChatPrimaryId(primaryChatId))
+                .thenReturn(List.of(
+                        new Object[] {1L, "tag1"}, new Object[] {1L, "tag"}, new Object[] {2L, "tag"}, new Object[] {
+                            2L, "tag2"
+                        }));
+        when(chatLinkRepository.findLinkIdAndTgChatIdByLinkIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new Object[] {1L, 2L}, new Object[] {2L, 2L}));
         when(mapper.toPlainLink(any(OrmLink.class), anyList(), anyList(), anySet()))
                 .thenAnswer(invocationOnMock -> {
                     OrmLink link = invocationOnMock.getArgument(0);
@@ -460,5 +480,24 @@ class OrmLinkServiceTest {
 
         assertNotNull(actualLinks);
         assertEquals(expectedLinks, actualLinks);
+        verify(linkRepository, times(0)).findAllById(anyList());
+    }
+
+    @Test
+    public void updateNextCheckTime_WhenCalled_ThenUpdateLinkById() {
+        Instant nextCheckAt = Instant.now().plusSeconds(60);
+
+        linkService.updateNextCheckTime(new Link(4L, "url"), nextCheckAt);
+
+        verify(linkRepository, times(1)).updateNextCheckAt(4L, nextCheckAt);
+    }
+
+    @Test
+    public void updateNextCheckTimes_WhenCalled_ThenUpdateAllLinksAtOnce() {
+        Instant nextCheckAt = Instant.now().plusSeconds(60);
+
+        linkService.updateNextCheckTimes(Map.of(4L, nextCheckAt));
+
+        verify(linkRepository, times(1)).updateNextCheckTimes(new Long[] {4L}, new Instant[] {nextCheckAt});
     }
 }
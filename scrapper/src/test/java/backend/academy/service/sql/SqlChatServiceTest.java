@@ -8,6 +8,7 @@ import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import backend.academy.model.jdbc.JdbcTgChat;
@@ -15,6 +16,7 @@ import backend.academy.model.mapper.chat.ChatMapper;
 import backend.academy.model.plain.Link;
 import backend.academy.model.plain.TgChat;
 import backend.academy.repository.jdbc.JdbcChatRepository;
+import backend.academy.service.SubscriptionIndex;
 import java.time.LocalTime;
 import java.util.HashSet;
 import java.util.List;
@@ -38,6 +40,9 @@ class SqlChatServiceTest {
     @Mock
     private ChatMapper chatMapper;
 
+    @Mock
+    private SubscriptionIndex subscriptionIndex;
+
     @InjectMocks
     private SqlChatService chatService;
 
@@ -115,6 +120,7 @@ class SqlChatServiceTest {
         chatService.saveTheChatLink(chat, link);
 
         verify(chatRepository, times(0)).saveTheChatLink(any(), any());
+        verifyNoInteractions(subscriptionIndex);
     }
 
     @Test
@@ -130,6 +136,7 @@ class SqlChatServiceTest {
         chatService.saveTheChatLink(chat, link);
 
         verify(chatRepository, times(1)).saveTheChatLink(any(), any());
+        verify(subscriptionIndex, times(1)).subscribe(1L, chatId, null, List.of());
     }
 
     @Test
@@ -173,7 +180,7 @@ class SqlChatServiceTest {
         chatService.updateTags(link, chat, expectedTags);
 
         verify(chatRepository, times(1)).removeAllTags(anyLong(), anyLong());
-        verify(chatRepository, times(2)).saveTag(anyLong(), anyLong(), anyString());
+        verify(chatRepository, times(1)).saveTags(link.getId(), id, expectedTags);
         assertEquals(link.getTags(), expectedTags);
     }
 
@@ -190,8 +197,23 @@ class SqlChatServiceTest {
         chatService.updateFilters(link, chat, expectedFilters);
 
         verify(chatRepository, times(1)).removeAllFilters(anyLong(), anyLong());
-        verify(chatRepository, times(2)).saveFilter(anyLong(), anyLong(), anyString());
+        verify(chatRepository, times(1)).saveFilters(link.getId(), id, expectedFilters);
         assertEquals(link.getFilters(), expectedFilters);
+        verify(subscriptionIndex, times(1)).updateFilters(2L, chatId, expectedFilters);
+    }
+
+    @Test
+    public void addTagsToAllLinksByChatId_WhenChatExists_ThenSaveTagsWithSingleQuery() {
+        Long id = 1L;
+        Long chatId = 2L;
+        TgChat chat = new TgChat(id, chatId, null, Set.of());
+        List<String> tags = List.of("tag1", "tag2");
+        when(chatRepository.findByChatId(chatId)).thenReturn(Optional.of(new JdbcTgChat(id, chatId)));
+
+        chatService.addTagsToAllLinksByChatId(chat, tags);
+
+        verify(chatRepository, times(1)).saveTagsForAllLinks(id, tags);
+        verify(chatRepository, times(0)).saveTag(anyLong(), anyLong(), anyString());
     }
 
     @Test
@@ -203,6 +225,7 @@ class SqlChatServiceTest {
         chatService.removeTheChatLink(chat, new Link(1L, "url"));
 
         verify(chatRepository, times(0)).removeTheChatLink(anyLong(), anyLong());
+        verifyNoInteractions(subscriptionIndex);
     }
 
     @Test
@@ -218,6 +241,17 @@ class SqlChatServiceTest {
         verify(chatRepository, times(1)).removeTheChatLink(anyLong(), anyLong());
         verify(chatRepository, times(1)).removeAllTags(anyLong(), anyLong());
         verify(chatRepository, times(1)).removeAllFilters(anyLong(), anyLong());
+        verify(subscriptionIndex, times(1)).unsubscribe(1L, chatId);
+    }
+
+    @Test
+    public void deleteChatByChatId_WhenCalled_ThenRemoveChatFromIndex() {
+        Long chatId = 1L;
+
+        chatService.deleteChatByChatId(chatId);
+
+        verify(chatRepository, times(1)).deleteByChatId(chatId);
+        verify(subscriptionIndex, times(1)).removeChat(chatId);
     }
 
     @Test
@@ -280,6 +314,7 @@ class SqlChatServiceTest {
         boolean result = chatService.updateTimeConfig(chat, timeConfig);
 
         assertThat(result).isTrue();
+        verify(subscriptionIndex, times(1)).updateSendAt(2L, null);
     }
 
     @Test
@@ -290,6 +325,7 @@ class SqlChatServiceTest {
         boolean result = chatService.updateTimeConfig(chat, timeConfig);
 
         assertThat(result).isTrue();
+        verify(subscriptionIndex, times(1)).updateSendAt(2L, LocalTime.of(10, 34));
     }
 
     @Test
@@ -300,6 +336,7 @@ class SqlChatServiceTest {
         boolean result = chatService.updateTimeConfig(chat, timeConfig);
 
         assertThat(result).isFalse();
+        verifyNoInteractions(subscriptionIndex);
     }
 
     @Test
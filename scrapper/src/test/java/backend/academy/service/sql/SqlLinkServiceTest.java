@@ -7,24 +7,26 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import backend.academy.model.jdbc.JdbcLink;
 import backend.academy.model.jdbc.JdbcTgChat;
+import backend.academy.model.jdbc.JdbcTrackedLink;
 import backend.academy.model.mapper.link.LinkMapper;
 import backend.academy.model.plain.Link;
+import backend.academy.model.plain.LinkSubscription;
 import backend.academy.model.plain.TgChat;
 import backend.academy.repository.jdbc.JdbcChatRepository;
 import backend.academy.repository.jdbc.JdbcLinkRepository;
-import java.time.Duration;
+import backend.academy.service.SubscriptionIndex;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
+import java.time.LocalTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -47,6 +49,9 @@ class SqlLinkServiceTest {
     @Mock
     private LinkMapper linkMapper;
 
+    @Mock
+    private SubscriptionIndex subscriptionIndex;
+
     @InjectMocks
     private SqlLinkService linkService;
 
@@ -69,10 +74,16 @@ class SqlLinkServiceTest {
         int pageNumber = 0;
         int pageSize = 5;
         Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        when(linkRepository.findAll(eq(pageable), any(Duration.class)))
+        when(linkRepository.findAll(pageable))
                 .thenReturn(new PageImpl<>(List.of(new JdbcLink(link1Id, link1Url), new JdbcLink(link2Id, link2Url))));
-        when(linkRepository.getChatIdsByUrl(link1Url)).thenReturn(expectedLink1TgChats);
-        when(linkRepository.getChatIdsByUrl(link2Url)).thenReturn(expectedLink2TgChats);
+        when(linkRepository.findSubscriptionsByLinkIds(List.of(link1Id, link2Id)))
+                .thenReturn(Map.of(
+                        link1Id,
+                        List.of(new LinkSubscription(5L, null, List.of()), new LinkSubscription(10L, null, List.of())),
+                        link2Id,
+                        List.of(
+                                new LinkSubscription(6L, null, List.of()),
+                                new LinkSubscription(11L, null, List.of()))));
         when(linkMapper.toPlainLink(any(JdbcLink.class), any(), any(), anySet()))
                 .thenAnswer(invocationOnMock -> {
                     JdbcLink link = invocationOnMock.getArgument(0);
@@ -80,11 +91,42 @@ class SqlLinkServiceTest {
 
                     return new Link(link.getId(), link.getUrl(), null, null, chatIds);
                 });
-        when(chatRepository.findById(anyLong())).thenReturn(Optional.of(new JdbcTgChat(1L, 1L)));
 
-        Page<Link> actualLinks = linkService.getAllLinks(pageable, Duration.of(10, ChronoUnit.SECONDS));
+        Page<Link> actualLinks = linkService.getAllLinks(pageable);
 
         assertEquals(expectedLinks.getContent(), actualLinks.getContent());
+        assertEquals(expectedLink1TgChats, actualLinks.getContent().get(0).getTgChatIds());
+        assertEquals(expectedLink2TgChats, actualLinks.getContent().get(1).getTgChatIds());
+        verify(linkRepository, times(0)).getChatIdsByUrl(anyString());
+        verify(chatRepository, times(0)).findById(anyLong());
+    }
+
+    @Test
+    public void getLinksAfterWorksCorrectly() {
+        Long link1Id = 3L;
+        String link1Url = "testLink";
+        Set<Long> expectedLink1TgChats = Set.of(5L, 10L);
+        List<Link> expectedLinks = List.of(new Link(link1Id, link1Url, null, null, expectedLink1TgChats));
+        when(linkRepository.findAllAfter(2L, 5)).thenReturn(List.of(new JdbcLink(link1Id, link1Url)));
+        LinkSubscription delayedSubscription = new LinkSubscription(5L, LocalTime.of(10, 0), List.of("user:author"));
+        LinkSubscription immediateSubscription = new LinkSubscription(10L, null, List.of());
+        when(linkRepository.findSubscriptionsByLinkIds(List.of(link1Id)))
+                .thenReturn(Map.of(link1Id, List.of(delayedSubscription, immediateSubscription)));
+        when(linkMapper.toPlainLink(any(JdbcLink.class), any(), any(), anySet()))
+                .thenAnswer(invocationOnMock -> {
+                    JdbcLink link = invocationOnMock.getArgument(0);
+                    Set<Long> chatIds = invocationOnMock.getArgument(3);
+
+                    return new Link(link.getId(), link.getUrl(), null, null, chatIds);
+                });
+
+        List<Link> actualLinks = linkService.getLinksAfter(2L, 5);
+
+        assertEquals(expectedLinks, actualLinks);
+        assertEquals(expectedLink1TgChats, actualLinks.getFirst().getTgChatIds());
+        assertEquals(
+                Map.of(5L, delayedSubscription, 10L, immediateSubscription),
+                actualLinks.getFirst().getSubscriptions());
     }
 
     @Test
@@ -176,6 +218,7 @@ class SqlLinkServiceTest {
 
         verify(linkRepository, times(1)).save(any(JdbcLink.class));
         verify(chatRepository, times(1)).saveTheChatLink(anyLong(), anyLong());
+        verify(subscriptionIndex, times(1)).subscribe(expectedLinkId, chatId, null, expectedFilters);
     }
 
     @Test
@@ -195,6 +238,7 @@ class SqlLinkServiceTest {
         Link link = linkService.saveLink(expectedLink, expectedChat);
 
         assertThat(link).isNull();
+        verifyNoInteractions(subscriptionIndex);
     }
 
     @Test
@@ -240,6 +284,7 @@ class SqlLinkServiceTest {
 
         verify(linkRepository, times(0)).save(any(JdbcLink.class));
         verify(chatRepository, times(1)).saveTheChatLink(anyLong(), anyLong());
+        verify(subscriptionIndex, times(1)).subscribe(expectedLinkId, chatId, null, expectedFilters);
     }
 
     @Test
@@ -286,6 +331,7 @@ class SqlLinkServiceTest {
 
         verify(linkRepository, times(0)).save(any(JdbcLink.class));
         verify(chatRepository, times(0)).saveTheChatLink(anyLong(), anyLong());
+        verify(subscriptionIndex, times(1)).subscribe(expectedLinkId, chatId, null, expectedFilters);
     }
 
     @Test
@@ -296,16 +342,10 @@ class SqlLinkServiceTest {
         Link firstLink = new Link(1L, "test_link1", List.of("tag1"), List.of("filter1"), Set.of(1L, 2L));
         Link secondLink = new Link(2L, "test_link2", List.of("tag2"), List.of("filter2"), Set.of(1L));
         Set<Link> expectedLinks = Set.of(firstLink, secondLink);
-        when(linkRepository.getAllLinksByChatId(chatId)).thenReturn(List.of(firstJdbcLink, secondJdbcLink));
-        when(chatRepository.getTags(firstJdbcLink.getId(), chatId)).thenReturn(List.of("tag1"));
-        when(chatRepository.getFilters(firstJdbcLink.getId(), chatId)).thenReturn(List.of("filter1"));
-        when(chatRepository.getTags(secondJdbcLink.getId(), chatId)).thenReturn(List.of("tag2"));
-        when(chatRepository.getFilters(secondJdbcLink.getId(), chatId)).thenReturn(List.of("filter2"));
-        when(linkRepository.getLinkByUrl(firstJdbcLink.getUrl())).thenReturn(Optional.of(firstJdbcLink));
-        when(linkRepository.getLinkByUrl(secondJdbcLink.getUrl())).thenReturn(Optional.of(secondJdbcLink));
-        when(chatRepository.getChatsByLink(firstJdbcLink.getId()))
-                .thenReturn(List.of(new JdbcTgChat(1L, 1L), new JdbcTgChat(2L, 2L)));
-        when(chatRepository.getChatsByLink(secondJdbcLink.getId())).thenReturn(List.of(new JdbcTgChat(1L, 1L)));
+        when(linkRepository.findTrackedLinksByChatId(chatId))
+                .thenReturn(List.of(
+                        new JdbcTrackedLink(firstJdbcLink, List.of("tag1"), List.of("filter1"), Set.of(1L, 2L)),
+                        new JdbcTrackedLink(secondJdbcLink, List.of("tag2"), List.of("filter2"), Set.of(1L))));
         when(linkMapper.toPlainLink(any(JdbcLink.class), anyList(), anyList(), anySet()))
                 .thenAnswer(invocationOnMock -> {
                     JdbcLink link = invocationOnMock.getArgument(0);
@@ -315,16 +355,18 @@ class SqlLinkServiceTest {
 
                     return new Link(link.getId(), link.getUrl(), tags, filters, chatIds);
                 });
-        when(chatRepository.findByChatId(anyLong())).thenReturn(Optional.of(new JdbcTgChat(1L, 1L)));
 
         Set<Link> actualLinks = linkService.getAllLinksByChatId(chatId);
+
         assertEquals(expectedLinks, actualLinks);
+        verify(chatRepository, times(0)).getTags(anyLong(), anyLong());
+        verify(chatRepository, times(0)).getFilters(anyLong(), anyLong());
     }
 
     @Test
     public void getAllLinks_WhenChatNotInDb_ThenReturnEmptySet() {
         Long chatId = 1L;
-        when(chatRepository.findByChatId(anyLong())).thenReturn(Optional.empty());
+        when(linkRepository.findTrackedLinksByChatId(chatId)).thenReturn(List.of());
 
         Set<Link> links = linkService.getAllLinksByChatId(chatId);
 
@@ -381,23 +423,17 @@ class SqlLinkServiceTest {
 
     @Test
     public void getAllLinksByChatIdAndTagWorksCorrectly() {
-        Long primaryChatId = 1L;
+        Long chatId = 2L;
         String tag = "tag";
-        List<Long> linkIds = List.of(1L, 2L);
-        List<JdbcLink> jdbcLinks = List.of(new JdbcLink(1L, "link1"), new JdbcLink(2L, "link2"));
         List<String> tagsLink1 = List.of("tag1", "tag");
         List<String> tagsLink2 = List.of("tag", "tag2");
         List<Link> expectedLinks = List.of(
                 new Link(1L, "link1", tagsLink1, List.of(), Set.of()),
                 new Link(2L, "link2", tagsLink2, List.of(), Set.of()));
-        when(chatRepository.findByChatId(anyLong())).thenReturn(Optional.of(new JdbcTgChat(1L, 2L)));
-        when(linkRepository.findAllLinkIdsByTagAndChatId(primaryChatId, tag)).thenReturn(linkIds);
-        when(linkRepository.getLinkById(1L)).thenReturn(Optional.of(jdbcLinks.get(0)));
-        when(linkRepository.getLinkById(2L)).thenReturn(Optional.of(jdbcLinks.get(1)));
-        when(chatRepository.getTags(1L, primaryChatId)).thenReturn(tagsLink1);
-        when(chatRepository.getTags(2L, primaryChatId)).thenReturn(tagsLink2);
-        when(chatRepository.getFilters(anyLong(), anyLong())).thenReturn(new ArrayList<>());
-        when(linkRepository.getChatIdsByUrl(anyString())).thenReturn(Set.of(1L, 2L));
+        when(linkRepository.findTrackedLinksByChatIdAndTag(chatId, tag))
+                .thenReturn(List.of(
+                        new JdbcTrackedLink(new JdbcLink(1L, "link1"), tagsLink1, List.of(), Set.of(2L)),
+                        new JdbcTrackedLink(new JdbcLink(2L, "link2"), tagsLink2, List.of(), Set.of(2L, 3L))));
         when(linkMapper.toPlainLink(any(JdbcLink.class), anyList(), anyList(), anySet()))
                 .thenAnswer(invocationOnMock -> {
                     JdbcLink link = invocationOnMock.getArgument(0);
@@ -408,9 +444,28 @@ class SqlLinkServiceTest {
                     return new Link(link.getId(), link.getUrl(), tags, filters, chatIds);
                 });
 
-        List<Link> actualLinks = linkService.getAllLinksByChatIdAndTag(primaryChatId, tag);
+        List<Link> actualLinks = linkService.getAllLinksByChatIdAndTag(chatId, tag);
 
         assertNotNull(actualLinks);
         assertEquals(expectedLinks, actualLinks);
+        verify(linkRepository, times(0)).getLinkById(anyLong());
+    }
+
+    @Test
+    public void updateNextCheckTime_WhenCalled_ThenUpdateLinkById() {
+        Instant nextCheckAt = Instant.now().plusSeconds(60);
+
+        linkService.updateNextCheckTime(new Link(4L, "url"), nextCheckAt);
+
+        verify(linkRepository, times(1)).updateNextCheckAt(4L, nextCheckAt);
+    }
+
+    @Test
+    public void updateNextCheckTimes_WhenCalled_ThenUpdateAllLinksAtOnce() {
+        Map<Long, Instant> nextCheckTimes = Map.of(4L, Instant.now().plusSeconds(60));
+
+        linkService.updateNextCheckTimes(nextCheckTimes);
+
+        verify(linkRepository, times(1)).updateNextCheckTimes(nextCheckTimes);
     }
 }